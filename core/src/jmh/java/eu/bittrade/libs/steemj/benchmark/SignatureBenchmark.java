@@ -0,0 +1,113 @@
+package eu.bittrade.libs.steemj.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.ECKey.ECDSASignature;
+import org.bitcoinj.core.Sha256Hash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongycastle.math.ec.ECPoint;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.util.CompactSigner;
+import eu.bittrade.libs.steemj.util.Secp256k1Engine;
+import eu.bittrade.libs.steemj.util.SteemJUtils;
+
+/**
+ * Compare the signing and verification performance of bitcoinj with the
+ * {@link CompactSigner} and the {@link Secp256k1Engine}, with and without the
+ * precomputed tables of the engine.
+ *
+ * <p>
+ * Run it using <code>mvn -P benchmark test-compile exec:exec</code> in the
+ * core module. Each parameter combination runs in its own JVM, so the tables
+ * of one run do not affect the other.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class SignatureBenchmark {
+    @Param({ "false", "true" })
+    private boolean fastSignatureEngineEnabled;
+
+    private ECKey privateKey;
+    private CompactSigner signer;
+    private Sha256Hash messageHash;
+    private ECDSASignature signature;
+    private byte[] publicKeyBytes;
+    private ECPoint publicKeyPoint;
+
+    /**
+     * Create the keys and a signature to verify.
+     */
+    @Setup
+    public void setup() {
+        SteemJConfig.getInstance().setFastSignatureEngineEnabled(fastSignatureEngineEnabled);
+
+        privateKey = new ECKey();
+        signer = new CompactSigner(privateKey);
+        messageHash = Sha256Hash.of("steemj".getBytes());
+        signature = privateKey.sign(messageHash);
+        publicKeyBytes = privateKey.getPubKey();
+        publicKeyPoint = privateKey.getPubKeyPoint();
+    }
+
+    /**
+     * The way transactions have been signed before: Sign with bitcoinj and
+     * recover the public key to find the recovery id.
+     *
+     * @return The signature.
+     */
+    @Benchmark
+    public byte[] bitcoinjSign() {
+        ECDSASignature ecdsaSignature = privateKey.sign(messageHash);
+        int recoveryId = SteemJUtils.getKeyType(ecdsaSignature, messageHash, privateKey);
+        return SteemJUtils.createSignedTransaction(recoveryId, ecdsaSignature, privateKey);
+    }
+
+    /**
+     * Sign using the {@link CompactSigner}.
+     *
+     * @return The signature.
+     */
+    @Benchmark
+    public byte[] compactSign() {
+        return signer.sign(messageHash);
+    }
+
+    /**
+     * Verify a signature using bitcoinj.
+     *
+     * @return The result of the verification.
+     */
+    @Benchmark
+    public boolean bitcoinjVerify() {
+        return ECKey.verify(messageHash.getBytes(), signature, publicKeyBytes);
+    }
+
+    /**
+     * Verify a signature using the {@link Secp256k1Engine}.
+     *
+     * @return The result of the verification.
+     */
+    @Benchmark
+    public boolean engineVerify() {
+        return Secp256k1Engine.verify(messageHash, signature.r, signature.s, publicKeyPoint);
+    }
+}
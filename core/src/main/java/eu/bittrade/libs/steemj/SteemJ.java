@@ -1,15 +1,14 @@
 package eu.bittrade.libs.steemj;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.InvalidParameterException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TimeZone;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -18,9 +17,6 @@ import org.bitcoinj.core.Sha256Hash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-
-import eu.bittrade.libs.steemj.apis.follow.FollowApi;
 import eu.bittrade.libs.steemj.apis.follow.enums.FollowType;
 import eu.bittrade.libs.steemj.apis.follow.model.AccountReputation;
 import eu.bittrade.libs.steemj.apis.follow.model.BlogEntry;
@@ -32,7 +28,6 @@ import eu.bittrade.libs.steemj.apis.follow.model.FollowCountApiObject;
 import eu.bittrade.libs.steemj.apis.follow.model.PostsPerAuthorPair;
 import eu.bittrade.libs.steemj.apis.follow.models.operations.FollowOperation;
 import eu.bittrade.libs.steemj.apis.follow.models.operations.ReblogOperation;
-import eu.bittrade.libs.steemj.apis.market.history.MarketHistoryApi;
 import eu.bittrade.libs.steemj.apis.market.history.model.Bucket;
 import eu.bittrade.libs.steemj.apis.market.history.model.MarketTicker;
 import eu.bittrade.libs.steemj.apis.market.history.model.MarketTrade;
@@ -80,15 +75,24 @@ import eu.bittrade.libs.steemj.communication.CommunicationHandler;
 import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
 import eu.bittrade.libs.steemj.configuration.SteemJConfig;
 import eu.bittrade.libs.steemj.enums.AssetSymbolType;
+import eu.bittrade.libs.steemj.enums.BlockStreamMode;
 import eu.bittrade.libs.steemj.enums.DiscussionSortType;
+import eu.bittrade.libs.steemj.enums.OperationType;
 import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.RequestMethods;
 import eu.bittrade.libs.steemj.enums.RewardFundType;
 import eu.bittrade.libs.steemj.enums.SteemApis;
 import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
-import eu.bittrade.libs.steemj.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steemj.store.BlockStore;
+import eu.bittrade.libs.steemj.streaming.BlockListener;
+import eu.bittrade.libs.steemj.streaming.BlockStream;
+import eu.bittrade.libs.steemj.streaming.BlockSubscription;
+import eu.bittrade.libs.steemj.streaming.OperationDispatcher;
+import eu.bittrade.libs.steemj.transactions.ReferenceBlockProvider;
+import eu.bittrade.libs.steemj.transactions.TransactionBatcher;
 import eu.bittrade.libs.steemj.util.CondenserUtils;
+import eu.bittrade.libs.steemj.util.FutureUtils;
 import eu.bittrade.libs.steemj.util.SteemJUtils;
 
 /**
@@ -107,6 +111,11 @@ public class SteemJ {
     private static final String STEEMJ_VERSION_STRING = "steemj/0.4.1";
 
     private CommunicationHandler communicationHandler;
+    private SteemJAsync steemJAsync;
+    private ReferenceBlockProvider referenceBlockProvider;
+    private BlockStore blockStore;
+    private BlockStore operationStore;
+    private BlockStore virtualOperationStore;
 
     /**
      * Initialize the SteemJ.
@@ -126,6 +135,21 @@ public class SteemJ {
     public SteemJ() throws SteemCommunicationException {
         this.communicationHandler = new CommunicationHandler();
 
+        Path blockStoreDirectory = SteemJConfig.getInstance().getBlockStoreDirectory();
+        if (blockStoreDirectory != null) {
+            try {
+                this.blockStore = BlockStore.open(blockStoreDirectory.resolve("blocks"));
+                this.operationStore = BlockStore.open(blockStoreDirectory.resolve("operations"));
+                this.virtualOperationStore = BlockStore.open(blockStoreDirectory.resolve("virtual-operations"));
+            } catch (IOException e) {
+                LOGGER.error("Could not open the block store - Continuing without it.", e);
+                closeBlockStores();
+            }
+        }
+
+        this.steemJAsync = new SteemJAsync(communicationHandler, blockStore, operationStore, virtualOperationStore);
+        this.referenceBlockProvider = new ReferenceBlockProvider(steemJAsync);
+
         if (!("").equals(String.valueOf(SteemJConfig.getInstance().getApiPassword()))
                 && !SteemJConfig.getInstance().getApiUsername().isEmpty()) {
 
@@ -150,6 +174,69 @@ public class SteemJ {
         }
     }
 
+    /**
+     * Get the asynchronous counterpart of this SteemJ instance. All requests
+     * performed by the returned object share the connection of this instance,
+     * but do not block the calling thread.
+     * 
+     * @return The asynchronous API.
+     */
+    public SteemJAsync getAsyncApi() {
+        return steemJAsync;
+    }
+
+    /**
+     * Get the provider of the block that is referenced by the transactions
+     * created by this instance (e.g. by {@link #vote(AccountName, AccountName,
+     * Permlink, short) vote}). It can be used to create own transactions
+     * without requesting the dynamic global properties each time, or to keep
+     * the cached block up to date (see
+     * {@link ReferenceBlockProvider#start()}).
+     * 
+     * @return The reference block provider.
+     */
+    public ReferenceBlockProvider getReferenceBlockProvider() {
+        return referenceBlockProvider;
+    }
+
+    /**
+     * Get a new batcher that packs the operations added to it into as few
+     * transactions as possible, using the reference block provider of this
+     * instance. The batcher should be closed once it is no longer needed.
+     * 
+     * @return A new transaction batcher.
+     */
+    public TransactionBatcher getTransactionBatcher() {
+        return new TransactionBatcher(steemJAsync, referenceBlockProvider);
+    }
+
+    /**
+     * Close the connections, stop the refresh of the reference block and
+     * release the block store of this instance. The instance can not be used
+     * afterwards.
+     */
+    public void close() {
+        referenceBlockProvider.close();
+        communicationHandler.close();
+        closeBlockStores();
+    }
+
+    /**
+     * Close the block stores opened by this instance and continue without
+     * them.
+     */
+    private void closeBlockStores() {
+        for (BlockStore store : new BlockStore[] { blockStore, operationStore, virtualOperationStore }) {
+            if (store != null) {
+                store.close();
+            }
+        }
+
+        this.blockStore = null;
+        this.operationStore = null;
+        this.virtualOperationStore = null;
+    }
+
     // #########################################################################
     // ## NETWORK BROADCAST API ################################################
     // #########################################################################
@@ -172,15 +259,7 @@ public class SteemJ {
      *             </ul>
      */
     public void broadcastTransaction(SignedTransaction transaction) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.BROADCAST_TRANSACTION);
-        requestObject.setSteemApi(SteemApis.NETWORK_BROADCAST_API);
-
-        // TODO: transaction.sign();
-        Object[] parameters = { transaction };
-        requestObject.setAdditionalParameters(parameters);
-
-        communicationHandler.performRequest(requestObject, Object.class);
+        FutureUtils.await(steemJAsync.broadcastTransaction(transaction));
     }
 
     // TODO implement this!
@@ -215,13 +294,7 @@ public class SteemJ {
      *             </ul>
      */
     public int getAccountCount() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_COUNT);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Integer.class).get(0);
+        return FutureUtils.await(steemJAsync.getAccountCount());
     }
 
     /**
@@ -249,21 +322,7 @@ public class SteemJ {
      */
     public Map<Integer, AppliedOperation> getAccountHistory(AccountName accountName, int from, int limit)
             throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_HISTORY);
-        String[] parameters = { accountName.getName(), String.valueOf(from), String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        Map<Integer, AppliedOperation> accountActivities = new HashMap<>();
-
-        for (Object[] accountActivity : communicationHandler.performRequest(requestObject, Object[].class)) {
-            accountActivities.put((Integer) accountActivity[0], (AppliedOperation) CommunicationHandler
-                    .getObjectMapper().convertValue(accountActivity[1], new TypeReference<AppliedOperation>() {
-                    }));
-        }
-
-        return accountActivities;
+        return FutureUtils.await(steemJAsync.getAccountHistory(accountName, from, limit));
     }
 
     /**
@@ -284,20 +343,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<ExtendedAccount> getAccounts(List<AccountName> accountNames) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        requestObject.setApiMethod(RequestMethods.GET_ACCOUNTS);
-
-        // The API expects an array of arrays here.
-        String[] innerParameters = new String[accountNames.size()];
-        for (int i = 0; i < accountNames.size(); i++) {
-            innerParameters[i] = accountNames.get(i).getName();
-        }
-
-        String[][] parameters = { innerParameters };
-
-        requestObject.setAdditionalParameters(parameters);
-        return communicationHandler.performRequest(requestObject, ExtendedAccount.class);
+        return FutureUtils.await(steemJAsync.getAccounts(accountNames));
     }
 
     /**
@@ -319,13 +365,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<Vote> getAccountVotes(AccountName accountName) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_VOTES);
-        String[] parameters = { accountName.getName() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Vote.class);
+        return FutureUtils.await(steemJAsync.getAccountVotes(accountName));
     }
 
     /**
@@ -349,13 +389,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<VoteState> getActiveVotes(AccountName author, Permlink permlink) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_ACTIVE_VOTES);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { author.getName(), permlink.getLink() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, VoteState.class);
+        return FutureUtils.await(steemJAsync.getActiveVotes(author, permlink));
     }
 
     /**
@@ -375,13 +409,7 @@ public class SteemJ {
      *             </ul>
      */
     public String[] getActiveWitnesses() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_ACTIVE_WITNESSES);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String[].class).get(0);
+        return FutureUtils.await(steemJAsync.getActiveWitnesses());
     }
 
     /**
@@ -405,24 +433,19 @@ public class SteemJ {
      *             </ul>
      */
     public Integer getApiByName(String apiName) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_API_BY_NAME);
-        requestObject.setSteemApi(SteemApis.LOGIN_API);
-        String[] parameters = { apiName };
-        requestObject.setAdditionalParameters(parameters);
-
-        List<Integer> response = communicationHandler.performRequest(requestObject, Integer.class);
-        if (!response.isEmpty()) {
-            return response.get(0);
-        }
-
-        return null;
+        return FutureUtils.await(steemJAsync.getApiByName(apiName));
     }
 
     /**
      * Get a complete block by a given block number including all transactions
      * of this block.
      * 
+     * <p>
+     * If a block store has been configured (see
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setBlockStoreDirectory(Path)
+     * setBlockStoreDirectory}), irreversible blocks are served from disk.
+     * </p>
+     * 
      * @param blockNumber
      *            The id of the block the header should be requested from.
      * @return A complete block.
@@ -439,13 +462,187 @@ public class SteemJ {
      *             </ul>
      */
     public SignedBlockWithInfo getBlock(long blockNumber) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_BLOCK);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { String.valueOf(blockNumber) };
-        requestObject.setAdditionalParameters(parameters);
+        return FutureUtils.await(steemJAsync.getBlock(blockNumber));
+    }
+
+    /**
+     * Get multiple, consecutive blocks at once. Instead of sending one request
+     * per block, the requests are packed into batches of at most
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#getMaximumBatchSize()
+     * maximumBatchSize} requests, which reduces the number of round trips
+     * significantly.
+     * 
+     * <p>
+     * If a block store has been configured (see
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setBlockStoreDirectory(Path)
+     * setBlockStoreDirectory}), irreversible blocks are served from disk and
+     * only the missing blocks are requested.
+     * </p>
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to get.
+     * @param toBlockNumber
+     *            The number of the last block to get (inclusive).
+     * @return A list of the requested blocks ordered by their block number.
+     * @throws SteemCommunicationException
+     *             <ul>
+     *             <li>If the server was not able to answer the request in the
+     *             given time (see
+     *             {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setResponseTimeout(long)
+     *             setResponseTimeout}).</li>
+     *             <li>If there is a connection problem.</li>
+     *             <li>If the SteemJ is unable to transform the JSON response
+     *             into a Java object.</li>
+     *             <li>If the Server returned an error object.</li>
+     *             </ul>
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is greater than the
+     *             <code>toBlockNumber</code>.
+     */
+    public List<SignedBlockWithInfo> getBlocks(long fromBlockNumber, long toBlockNumber)
+            throws SteemCommunicationException {
+        return FutureUtils.await(steemJAsync.getBlocks(fromBlockNumber, toBlockNumber));
+    }
 
-        return communicationHandler.performRequest(requestObject, SignedBlockWithInfo.class).get(0);
+    /**
+     * Get a stream that returns the blocks from <code>fromBlockNumber</code> to
+     * <code>toBlockNumber</code> one by one, while the following blocks are
+     * already requested in the background. Use this method instead of calling
+     * {@link #getBlock(long)} in a loop to process large ranges of blocks.
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to get.
+     * @param toBlockNumber
+     *            The number of the last block to get (inclusive).
+     * @return A stream of the requested blocks ordered by their block number.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is greater than the
+     *             <code>toBlockNumber</code>.
+     */
+    public BlockStream getBlockStream(long fromBlockNumber, long toBlockNumber) {
+        return new BlockStream(steemJAsync, fromBlockNumber, toBlockNumber);
+    }
+
+    /**
+     * Like {@link #getBlockStream(long, long)}, but with a custom number of
+     * blocks that are requested in parallel.
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to get.
+     * @param toBlockNumber
+     *            The number of the last block to get (inclusive).
+     * @param parallelism
+     *            The maximum number of blocks that are requested in parallel.
+     * @return A stream of the requested blocks ordered by their block number.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is greater than the
+     *             <code>toBlockNumber</code> or the <code>parallelism</code>
+     *             is less than 1.
+     */
+    public BlockStream getBlockStream(long fromBlockNumber, long toBlockNumber, int parallelism) {
+        return new BlockStream(steemJAsync, fromBlockNumber, toBlockNumber, parallelism,
+                BlockStream.DEFAULT_MAXIMUM_RETRIES);
+    }
+
+    /**
+     * Get a subscription that delivers all blocks starting at
+     * <code>fromBlockNumber</code> to the given <code>blockListener</code>.
+     * Other than {@link #setBlockAppliedCallback(BlockAppliedCallback)}, the
+     * subscription survives reconnects and requests all blocks that have been
+     * missed in the meantime, so every block is delivered exactly once and in
+     * order. The subscription has to be started using
+     * {@link BlockSubscription#start()}.
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @return The subscription.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is less than 1.
+     */
+    public BlockSubscription getBlockSubscription(long fromBlockNumber, BlockListener blockListener) {
+        return new BlockSubscription(steemJAsync, fromBlockNumber, blockListener);
+    }
+
+    /**
+     * Like {@link #getBlockSubscription(long, BlockListener)}, but allows to
+     * only receive irreversible blocks.
+     * 
+     * <p>
+     * Use the {@link BlockStreamMode#IRREVERSIBLE IRREVERSIBLE} mode if the
+     * delivered blocks must never be reverted, e.g. for bookkeeping. All
+     * blocks up to the last irreversible block are requested in parallel, and
+     * the last irreversible block is only requested again if a new block has
+     * been applied.
+     * </p>
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @param mode
+     *            Defines if all blocks or only irreversible blocks are
+     *            delivered.
+     * @return The subscription.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is less than 1.
+     */
+    public BlockSubscription getBlockSubscription(long fromBlockNumber, BlockListener blockListener,
+            BlockStreamMode mode) {
+        return new BlockSubscription(steemJAsync, fromBlockNumber, blockListener, mode,
+                BlockStream.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Like {@link #getBlockSubscription(long, BlockListener, BlockStreamMode)},
+     * but the transactions of the delivered blocks only contain the
+     * operations of the given <code>operationTypes</code>. All other
+     * operations are skipped while the blocks are parsed, so no time is spent
+     * on transforming operations nobody is interested in.
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @param mode
+     *            Defines if all blocks or only irreversible blocks are
+     *            delivered.
+     * @param operationTypes
+     *            The types of the operations to keep.
+     * @return The subscription.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is less than 1.
+     */
+    public BlockSubscription getBlockSubscription(long fromBlockNumber, BlockListener blockListener,
+            BlockStreamMode mode, Set<OperationType> operationTypes) {
+        return new BlockSubscription(steemJAsync, fromBlockNumber, blockListener, mode,
+                BlockStream.DEFAULT_PARALLELISM, operationTypes);
+    }
+
+    /**
+     * Get a new dispatcher that passes blocks and their operations to typed
+     * listeners. Register it at a
+     * {@link #getBlockSubscription(long, BlockListener) block subscription},
+     * so all listeners share the same requests.
+     * 
+     * @return The dispatcher.
+     */
+    public OperationDispatcher getOperationDispatcher() {
+        return new OperationDispatcher(steemJAsync);
+    }
+
+    /**
+     * Like {@link #getOperationDispatcher()}, but only the virtual operations
+     * of the given <code>operationTypes</code> are transformed into Java
+     * objects.
+     * 
+     * @param operationTypes
+     *            The types of the virtual operations to keep.
+     * @return The dispatcher.
+     */
+    public OperationDispatcher getOperationDispatcher(Set<OperationType> operationTypes) {
+        return new OperationDispatcher(steemJAsync, operationTypes);
     }
 
     /**
@@ -467,13 +664,7 @@ public class SteemJ {
      *             </ul>
      */
     public BlockHeader getBlockHeader(long blockNumber) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_BLOCK_HEADER);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { String.valueOf(blockNumber) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, BlockHeader.class).get(0);
+        return FutureUtils.await(steemJAsync.getBlockHeader(blockNumber));
     }
 
     /**
@@ -493,13 +684,7 @@ public class SteemJ {
      *             </ul>
      */
     public ChainProperties getChainProperties() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_CHAIN_PROPERTIES);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, ChainProperties.class).get(0);
+        return FutureUtils.await(steemJAsync.getChainProperties());
     }
 
     /**
@@ -519,13 +704,7 @@ public class SteemJ {
      *             </ul>
      */
     public Config getConfig() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_CONFIG);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Config.class).get(0);
+        return FutureUtils.await(steemJAsync.getConfig());
     }
 
     /**
@@ -549,13 +728,7 @@ public class SteemJ {
      *             </ul>
      */
     public Discussion getContent(AccountName author, Permlink permlink) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_CONTENT);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { author.getName(), permlink.getLink() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Discussion.class).get(0);
+        return FutureUtils.await(steemJAsync.getContent(author, permlink));
     }
 
     /**
@@ -580,13 +753,7 @@ public class SteemJ {
      */
     public List<Discussion> getContentReplies(AccountName author, Permlink permlink)
             throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_CONTENT_REPLIES);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { author.getName(), permlink.getLink() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Discussion.class);
+        return FutureUtils.await(steemJAsync.getContentReplies(author, permlink));
     }
 
     /**
@@ -608,13 +775,7 @@ public class SteemJ {
      *             </ul>
      */
     public Object[] getConversionRequests(AccountName account) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_CONVERSION_REQUESTS);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { account.getName() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Object[].class).get(0);
+        return FutureUtils.await(steemJAsync.getConversionRequests(account));
     }
 
     /**
@@ -634,13 +795,7 @@ public class SteemJ {
      *             </ul>
      */
     public Price getCurrentMedianHistoryPrice() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_CURRENT_MEDIAN_HISTORY_PRICE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Price.class).get(0);
+        return FutureUtils.await(steemJAsync.getCurrentMedianHistoryPrice());
     }
 
     /**
@@ -665,14 +820,7 @@ public class SteemJ {
      */
     public List<Discussion> getDiscussionsBy(DiscussionQuery discussionQuery, DiscussionSortType sortBy)
             throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-
-        requestObject.setApiMethod(RequestMethods.valueOf(sortBy.name()));
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        Object[] parameters = { discussionQuery };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Discussion.class);
+        return FutureUtils.await(steemJAsync.getDiscussionsBy(discussionQuery, sortBy));
     }
 
     /**
@@ -702,26 +850,7 @@ public class SteemJ {
      */
     public List<Discussion> getDiscussionsByAuthorBeforeDate(AccountName author, Permlink permlink, String date,
             int limit) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-
-        requestObject.setApiMethod(RequestMethods.GET_DISCUSSIONS_BY_AUTHOR_BEFORE_DATE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-
-        // Verify that the date has the correct format.
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(SteemJConfig.getInstance().getDateTimePattern());
-        simpleDateFormat.setTimeZone(TimeZone.getTimeZone(SteemJConfig.getInstance().getTimeZoneId()));
-        Date beforeDate;
-        try {
-            beforeDate = simpleDateFormat.parse(date);
-        } catch (ParseException e) {
-            throw new SteemTransformationException("Could not parse the received date to a Date object.", e);
-        }
-
-        String[] parameters = { author.getName(), permlink.getLink(), simpleDateFormat.format(beforeDate),
-                String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Discussion.class);
+        return FutureUtils.await(steemJAsync.getDiscussionsByAuthorBeforeDate(author, permlink, date, limit));
     }
 
     /**
@@ -741,13 +870,7 @@ public class SteemJ {
      *             </ul>
      */
     public GlobalProperties getDynamicGlobalProperties() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_DYNAMIC_GLOBAL_PROPERTIES);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, GlobalProperties.class).get(0);
+        return FutureUtils.await(steemJAsync.getDynamicGlobalProperties());
     }
 
     /**
@@ -768,13 +891,7 @@ public class SteemJ {
      *             </ul>
      */
     public FeedHistory getFeedHistory() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_FEED_HISTORY);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, FeedHistory.class).get(0);
+        return FutureUtils.await(steemJAsync.getFeedHistory());
     }
 
     /**
@@ -794,13 +911,7 @@ public class SteemJ {
      *             </ul>
      */
     public String getHardforkVersion() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_HARDFORK_VERSION);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String.class).get(0);
+        return FutureUtils.await(steemJAsync.getHardforkVersion());
     }
 
     /**
@@ -822,13 +933,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<String[]> getKeyReferences(String[] publicKeys) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_KEY_REFERENCES);
-        requestObject.setSteemApi(SteemApis.ACCOUNT_BY_KEY_API);
-        Object[] parameters = { publicKeys };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String[].class);
+        return FutureUtils.await(steemJAsync.getKeyReferences(publicKeys));
     }
 
     /**
@@ -854,13 +959,7 @@ public class SteemJ {
      */
     public List<LiquidityBalance> getLiquidityQueue(AccountName accoutName, int limit)
             throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_LIQUIDITY_QUEUE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        Object[] parameters = { accoutName.getName(), String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, LiquidityBalance.class);
+        return FutureUtils.await(steemJAsync.getLiquidityQueue(accoutName, limit));
     }
 
     /**
@@ -880,13 +979,7 @@ public class SteemJ {
      *             </ul>
      */
     public String[] getMinerQueue() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_MINER_QUEUE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String[].class).get(0);
+        return FutureUtils.await(steemJAsync.getMinerQueue());
     }
 
     /**
@@ -907,13 +1000,7 @@ public class SteemJ {
      *             </ul>
      */
     public ScheduledHardfork getNextScheduledHarfork() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_NEXT_SCHEDULED_HARDFORK);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, ScheduledHardfork.class).get(0);
+        return FutureUtils.await(steemJAsync.getNextScheduledHarfork());
     }
 
     /**
@@ -936,13 +1023,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<ExtendedLimitOrder> getOpenOrders(AccountName accountName) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_OPEN_ORDERS);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { accountName.getName() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, ExtendedLimitOrder.class);
+        return FutureUtils.await(steemJAsync.getOpenOrders(accountName));
     }
 
     /**
@@ -964,18 +1045,19 @@ public class SteemJ {
      *             </ul>
      */
     public OrderBook getOrderBookUsingDatabaseApi(int limit) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_ORDER_BOOK);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, OrderBook.class).get(0);
+        return FutureUtils.await(steemJAsync.getOrderBookUsingDatabaseApi(limit));
     }
 
     /**
      * Get a list of all performed operations for a given block number.
      * 
+     * <p>
+     * If a block store has been configured (see
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setBlockStoreDirectory(Path)
+     * setBlockStoreDirectory}), the operations of irreversible blocks are
+     * served from disk.
+     * </p>
+     * 
      * @param blockNumber
      *            The block number.
      * @param onlyVirtual
@@ -995,13 +1077,7 @@ public class SteemJ {
      */
     public List<AppliedOperation> getOpsInBlock(int blockNumber, boolean onlyVirtual)
             throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_OPS_IN_BLOCK);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { String.valueOf(blockNumber), String.valueOf(onlyVirtual) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, AppliedOperation.class);
+        return FutureUtils.await(steemJAsync.getOpsInBlock(blockNumber, onlyVirtual));
     }
 
     // TODO implement this!
@@ -1040,13 +1116,7 @@ public class SteemJ {
      */
     public List<Discussion> getRepliesByLastUpdate(AccountName username, Permlink permlink, int limit)
             throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_REPLIES_BY_LAST_UPDATE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        Object[] parameters = { username, permlink.getLink(), String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Discussion.class);
+        return FutureUtils.await(steemJAsync.getRepliesByLastUpdate(username, permlink, limit));
     }
 
     /**
@@ -1070,19 +1140,16 @@ public class SteemJ {
      *             </ul>
      */
     public RewardFund getRewardFund(RewardFundType rewordFundType) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_REWARD_FUND);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        Object[] parameters = { rewordFundType.name().toLowerCase() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, RewardFund.class).get(0);
+        return FutureUtils.await(steemJAsync.getRewardFund(rewordFundType));
     }
 
     /**
      * Use the Steem API to receive the HEX representation of a signed
      * transaction.
      * 
+     * The same result can be created locally using
+     * {@link SignedTransaction#toHex()}.
+     * 
      * @param signedTransaction
      *            The signed Transaction object you want to receive the HEX
      *            representation for.
@@ -1100,14 +1167,7 @@ public class SteemJ {
      *             </ul>
      */
     public String getTransactionHex(SignedTransaction signedTransaction) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_TRANSACTION_HEX);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-
-        Object[] parameters = { signedTransaction };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String.class).get(0);
+        return FutureUtils.await(steemJAsync.getTransactionHex(signedTransaction));
     }
 
     /**
@@ -1132,13 +1192,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<TrendingTag> getTrendingTags(String firstTag, int limit) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_TRENDING_TAGS);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { firstTag, String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, TrendingTag.class);
+        return FutureUtils.await(steemJAsync.getTrendingTags(firstTag, limit));
     }
 
     /**
@@ -1158,13 +1212,7 @@ public class SteemJ {
      *             </ul>
      */
     public SteemVersionInfo getVersion() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_VERSION);
-        requestObject.setSteemApi(SteemApis.LOGIN_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, SteemVersionInfo.class).get(0);
+        return FutureUtils.await(steemJAsync.getVersion());
     }
 
     /**
@@ -1186,13 +1234,7 @@ public class SteemJ {
      *             </ul>
      */
     public Witness getWitnessByAccount(AccountName witnessName) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_WITNESS_BY_ACCOUNT);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { witnessName.getName() };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Witness.class).get(0);
+        return FutureUtils.await(steemJAsync.getWitnessByAccount(witnessName));
     }
 
     /**
@@ -1218,13 +1260,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<Witness> getWitnessByVote(AccountName witnessName, int limit) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_WITNESSES_BY_VOTE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { witnessName.getName(), String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Witness.class);
+        return FutureUtils.await(steemJAsync.getWitnessByVote(witnessName, limit));
     }
 
     /**
@@ -1244,13 +1280,7 @@ public class SteemJ {
      *             </ul>
      */
     public int getWitnessCount() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_WITNESS_COUNT);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Integer.class).get(0);
+        return FutureUtils.await(steemJAsync.getWitnessCount());
     }
 
     /**
@@ -1270,13 +1300,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<Witness> getWitnesses() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_WITNESSES);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Witness.class);
+        return FutureUtils.await(steemJAsync.getWitnesses());
     }
 
     /**
@@ -1296,13 +1320,7 @@ public class SteemJ {
      *             </ul>
      */
     public WitnessSchedule getWitnessSchedule() throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.GET_WITNESS_SCHEDULE);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = {};
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, WitnessSchedule.class).get(0);
+        return FutureUtils.await(steemJAsync.getWitnessSchedule());
     }
 
     /**
@@ -1358,13 +1376,7 @@ public class SteemJ {
      *             </ul>
      */
     public Boolean login(AccountName accountName, String password) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.LOGIN);
-        requestObject.setSteemApi(SteemApis.LOGIN_API);
-        String[] parameters = { accountName.getName(), password };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, Boolean.class).get(0);
+        return FutureUtils.await(steemJAsync.login(accountName, password));
     }
 
     /**
@@ -1388,13 +1400,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<String> lookupAccounts(String pattern, int limit) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.LOOKUP_ACCOUNTS);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { pattern, String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String.class);
+        return FutureUtils.await(steemJAsync.lookupAccounts(pattern, limit));
     }
 
     /**
@@ -1418,13 +1424,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<String> lookupWitnessAccounts(String pattern, int limit) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.LOOKUP_WITNESS_ACCOUNTS);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-        String[] parameters = { pattern, String.valueOf(limit) };
-        requestObject.setAdditionalParameters(parameters);
-
-        return communicationHandler.performRequest(requestObject, String.class);
+        return FutureUtils.await(steemJAsync.lookupWitnessAccounts(pattern, limit));
     }
 
     /**
@@ -1448,15 +1448,7 @@ public class SteemJ {
      *             </ul>
      */
     public Boolean verifyAuthority(SignedTransaction signedTransaction) throws SteemCommunicationException {
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.VERIFY_AUTHORITY);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-
-        Object[] parameters = { signedTransaction };
-        requestObject.setAdditionalParameters(parameters);
-        // The method does not simply return false, it throws an error
-        // describing the problem.
-        return communicationHandler.performRequest(requestObject, Boolean.class).get(0);
+        return FutureUtils.await(steemJAsync.verifyAuthority(signedTransaction));
     }
 
     /**
@@ -1470,9 +1462,23 @@ public class SteemJ {
      * multiple times with different callback methods, only the last one will be
      * called.
      * 
-     * Beside that there is currently no way to cancel a subscription. Once
-     * you've registered a callback it will be called until the connection has
-     * been closed.
+     * Beside that there is currently no way to cancel the subscription at the
+     * Steem Node. A callback can be removed using
+     * {@link #removeBlockAppliedCallback(BlockAppliedCallback)}, but the
+     * notifications will be sent until the connection has been closed.
+     * 
+     * The callback is executed by a separate dispatcher thread (see
+     * {@link eu.bittrade.libs.steemj.communication.CallbackHub CallbackHub}),
+     * so a slow callback does not delay other requests.
+     * 
+     * The registration is lost if the connection is closed and blocks applied
+     * in the meantime are not reported. Use
+     * {@link #getBlockSubscription(long, BlockListener)} if no block must be
+     * missed.
+     * 
+     * Callbacks require the
+     * {@link eu.bittrade.libs.steemj.enums.TransportType#WEBSOCKET WEBSOCKET}
+     * transport, as the Steem Node can not send notifications over HTTP.
      * </p>
      * 
      * @param blockAppliedCallback
@@ -1481,6 +1487,8 @@ public class SteemJ {
      *            BlockAppliedCallback}.
      * @throws SteemCommunicationException
      *             <ul>
+     *             <li>If the configured transport does not support
+     *             callbacks.</li>
      *             <li>If the server was not able to answer the request in the
      *             given time (see
      *             {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setResponseTimeout(long)
@@ -1492,18 +1500,20 @@ public class SteemJ {
      *             </ul>
      */
     public void setBlockAppliedCallback(BlockAppliedCallback blockAppliedCallback) throws SteemCommunicationException {
-        // Register the given callback at the callback hub.
-        CallbackHub.getInstance().addCallback(blockAppliedCallback);
-
-        // Register the callback at the steem node.
-        RequestWrapperDTO requestObject = new RequestWrapperDTO();
-        requestObject.setApiMethod(RequestMethods.SET_BLOCK_APPLIED_CALLBACK);
-        requestObject.setSteemApi(SteemApis.DATABASE_API);
-
-        Object[] parameters = { blockAppliedCallback.getUuid() };
-        requestObject.setAdditionalParameters(parameters);
+        FutureUtils.await(steemJAsync.setBlockAppliedCallback(blockAppliedCallback));
+    }
 
-        communicationHandler.performRequest(requestObject, Object.class);
+    /**
+     * Stop calling the given <code>blockAppliedCallback</code>. Notifications
+     * that are waiting for their execution are dropped.
+     * 
+     * @param blockAppliedCallback
+     *            The callback that has been registered using
+     *            {@link #setBlockAppliedCallback(BlockAppliedCallback)}.
+     * @return <code>true</code> if the callback has been registered.
+     */
+    public boolean removeBlockAppliedCallback(BlockAppliedCallback blockAppliedCallback) {
+        return CallbackHub.getInstance().removeCallback(blockAppliedCallback);
     }
 
     // #########################################################################
@@ -1541,7 +1551,7 @@ public class SteemJ {
      */
     public List<FollowApiObject> getFollowers(AccountName following, AccountName startFollower, FollowType type,
             short limit) throws SteemCommunicationException {
-        return FollowApi.getFollowers(communicationHandler, following, startFollower, type, limit);
+        return FutureUtils.await(steemJAsync.getFollowers(following, startFollower, type, limit));
     }
 
     /**
@@ -1576,7 +1586,7 @@ public class SteemJ {
      */
     public List<FollowApiObject> getFollowing(AccountName follower, AccountName startFollowing, FollowType type,
             short limit) throws SteemCommunicationException {
-        return FollowApi.getFollowing(communicationHandler, follower, startFollowing, type, limit);
+        return FutureUtils.await(steemJAsync.getFollowing(follower, startFollowing, type, limit));
     }
 
     /**
@@ -1601,7 +1611,7 @@ public class SteemJ {
      *             </ul>
      */
     public FollowCountApiObject getFollowCount(AccountName account) throws SteemCommunicationException {
-        return FollowApi.getFollowCount(communicationHandler, account);
+        return FutureUtils.await(steemJAsync.getFollowCount(account));
     }
 
     /**
@@ -1633,7 +1643,7 @@ public class SteemJ {
      */
     public List<FeedEntry> getFeedEntries(AccountName account, int entryId, short limit)
             throws SteemCommunicationException {
-        return FollowApi.getFeedEntries(communicationHandler, account, entryId, limit);
+        return FutureUtils.await(steemJAsync.getFeedEntries(account, entryId, limit));
     }
 
     /**
@@ -1664,7 +1674,7 @@ public class SteemJ {
      */
     public List<CommentFeedEntry> getFeed(AccountName account, int entryId, short limit)
             throws SteemCommunicationException {
-        return FollowApi.getFeed(communicationHandler, account, entryId, limit);
+        return FutureUtils.await(steemJAsync.getFeed(account, entryId, limit));
     }
 
     /**
@@ -1717,8 +1727,7 @@ public class SteemJ {
      */
     public List<BlogEntry> getBlogEntries(AccountName account, int entryId, short limit)
             throws SteemCommunicationException {
-        return FollowApi.getBlogEntries(communicationHandler, account, entryId, limit);
-
+        return FutureUtils.await(steemJAsync.getBlogEntries(account, entryId, limit));
     }
 
     /**
@@ -1749,7 +1758,7 @@ public class SteemJ {
      */
     public List<CommentBlogEntry> getBlog(AccountName account, int entryId, short limit)
             throws SteemCommunicationException {
-        return FollowApi.getBlog(communicationHandler, account, entryId, limit);
+        return FutureUtils.await(steemJAsync.getBlog(account, entryId, limit));
     }
 
     /**
@@ -1795,7 +1804,7 @@ public class SteemJ {
      */
     public List<AccountReputation> getAccountReputations(AccountName accountName, int limit)
             throws SteemCommunicationException {
-        return FollowApi.getAccountReputations(communicationHandler, accountName, limit);
+        return FutureUtils.await(steemJAsync.getAccountReputations(accountName, limit));
     }
 
     /**
@@ -1819,7 +1828,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<AccountName> getRebloggedBy(AccountName author, Permlink permlink) throws SteemCommunicationException {
-        return FollowApi.getRebloggedBy(communicationHandler, author, permlink);
+        return FutureUtils.await(steemJAsync.getRebloggedBy(author, permlink));
     }
 
     /**
@@ -1844,7 +1853,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<PostsPerAuthorPair> getBlogAuthors(AccountName blogAccount) throws SteemCommunicationException {
-        return FollowApi.getBlogAuthors(communicationHandler, blogAccount);
+        return FutureUtils.await(steemJAsync.getBlogAuthors(blogAccount));
     }
 
     // #########################################################################
@@ -1869,7 +1878,7 @@ public class SteemJ {
      *             </ul>
      */
     public MarketTicker getTicker() throws SteemCommunicationException {
-        return MarketHistoryApi.getTicker(communicationHandler);
+        return FutureUtils.await(steemJAsync.getTicker());
     }
 
     /**
@@ -1890,7 +1899,7 @@ public class SteemJ {
      *             </ul>
      */
     public MarketVolume getVolume() throws SteemCommunicationException {
-        return MarketHistoryApi.getVolume(communicationHandler);
+        return FutureUtils.await(steemJAsync.getVolume());
     }
 
     /**
@@ -1917,7 +1926,7 @@ public class SteemJ {
      */
     public eu.bittrade.libs.steemj.apis.market.history.model.OrderBook getOrderBookUsingMarketApi(short limit)
             throws SteemCommunicationException {
-        return MarketHistoryApi.getOrderBook(communicationHandler, limit);
+        return FutureUtils.await(steemJAsync.getOrderBookUsingMarketApi(limit));
     }
 
     /**
@@ -1947,7 +1956,7 @@ public class SteemJ {
      */
     public List<MarketTrade> getTradeHistory(TimePointSec start, TimePointSec end, short limit)
             throws SteemCommunicationException {
-        return MarketHistoryApi.getTradeHistory(communicationHandler, start, end, limit);
+        return FutureUtils.await(steemJAsync.getTradeHistory(start, end, limit));
     }
 
     /**
@@ -1973,7 +1982,7 @@ public class SteemJ {
      *             If the limit is less than 0 or greater than 500.
      */
     public List<MarketTrade> getRecentTrades(short limit) throws SteemCommunicationException {
-        return MarketHistoryApi.getRecentTrades(communicationHandler, limit);
+        return FutureUtils.await(steemJAsync.getRecentTrades(limit));
     }
 
     /**
@@ -2005,7 +2014,7 @@ public class SteemJ {
      */
     public List<Bucket> getMarketHistory(long bucketSeconds, TimePointSec start, TimePointSec end)
             throws SteemCommunicationException {
-        return MarketHistoryApi.getMarketHistory(communicationHandler, bucketSeconds, start, end);
+        return FutureUtils.await(steemJAsync.getMarketHistory(bucketSeconds, start, end));
     }
 
     /**
@@ -2025,7 +2034,7 @@ public class SteemJ {
      *             </ul>
      */
     public List<Integer> getMarketHistoryBuckets() throws SteemCommunicationException {
-        return MarketHistoryApi.getMarketHistoryBuckets(communicationHandler);
+        return FutureUtils.await(steemJAsync.getMarketHistoryBuckets());
     }
 
     // #########################################################################
@@ -2172,10 +2181,8 @@ public class SteemJ {
         ArrayList<Operation> operations = new ArrayList<>();
         operations.add(voteOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2270,10 +2277,8 @@ public class SteemJ {
         ArrayList<Operation> operations = new ArrayList<>();
         operations.add(voteOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2355,10 +2360,8 @@ public class SteemJ {
         ArrayList<Operation> operations = new ArrayList<>();
         operations.add(customJsonOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2441,10 +2444,8 @@ public class SteemJ {
         ArrayList<Operation> operations = new ArrayList<>();
         operations.add(customJsonOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2532,10 +2533,8 @@ public class SteemJ {
 
         operations.add(customJsonReblogOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2668,10 +2667,8 @@ public class SteemJ {
 
         operations.add(commentOptionsOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2812,10 +2809,8 @@ public class SteemJ {
 
         operations.add(commentOptionsOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -2936,10 +2931,8 @@ public class SteemJ {
 
         operations.add(commentOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -3063,10 +3056,8 @@ public class SteemJ {
                 originalAuthorOfTheCommentToUpdate, originalPermlinkOfTheCommentToUpdate, "", content, jsonMetadata);
 
         operations.add(commentOperation);
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
@@ -3152,10 +3143,8 @@ public class SteemJ {
         ArrayList<Operation> operations = new ArrayList<>();
         operations.add(deleteCommentOperation);
 
-        GlobalProperties globalProperties = this.getDynamicGlobalProperties();
-
-        SignedTransaction signedTransaction = new SignedTransaction(globalProperties.getHeadBlockId(), operations,
-                null);
+        SignedTransaction signedTransaction = new SignedTransaction(referenceBlockProvider.getReferenceBlockId(),
+                operations, null);
 
         signedTransaction.sign();
 
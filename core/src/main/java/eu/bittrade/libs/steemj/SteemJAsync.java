@@ -0,0 +1,1791 @@
+package eu.bittrade.libs.steemj;
+
+import java.io.IOException;
+import java.security.InvalidParameterException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import eu.bittrade.libs.steemj.apis.follow.FollowApi;
+import eu.bittrade.libs.steemj.apis.follow.enums.FollowType;
+import eu.bittrade.libs.steemj.apis.follow.model.AccountReputation;
+import eu.bittrade.libs.steemj.apis.follow.model.BlogEntry;
+import eu.bittrade.libs.steemj.apis.follow.model.CommentBlogEntry;
+import eu.bittrade.libs.steemj.apis.follow.model.CommentFeedEntry;
+import eu.bittrade.libs.steemj.apis.follow.model.FeedEntry;
+import eu.bittrade.libs.steemj.apis.follow.model.FollowApiObject;
+import eu.bittrade.libs.steemj.apis.follow.model.FollowCountApiObject;
+import eu.bittrade.libs.steemj.apis.follow.model.PostsPerAuthorPair;
+import eu.bittrade.libs.steemj.apis.market.history.MarketHistoryApi;
+import eu.bittrade.libs.steemj.apis.market.history.model.Bucket;
+import eu.bittrade.libs.steemj.apis.market.history.model.MarketTicker;
+import eu.bittrade.libs.steemj.apis.market.history.model.MarketTrade;
+import eu.bittrade.libs.steemj.apis.market.history.model.MarketVolume;
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.AppliedOperation;
+import eu.bittrade.libs.steemj.base.models.BlockHeader;
+import eu.bittrade.libs.steemj.base.models.ChainProperties;
+import eu.bittrade.libs.steemj.base.models.Config;
+import eu.bittrade.libs.steemj.base.models.Discussion;
+import eu.bittrade.libs.steemj.base.models.DiscussionQuery;
+import eu.bittrade.libs.steemj.base.models.ExtendedAccount;
+import eu.bittrade.libs.steemj.base.models.ExtendedLimitOrder;
+import eu.bittrade.libs.steemj.base.models.FeedHistory;
+import eu.bittrade.libs.steemj.base.models.GlobalProperties;
+import eu.bittrade.libs.steemj.base.models.LiquidityBalance;
+import eu.bittrade.libs.steemj.base.models.OrderBook;
+import eu.bittrade.libs.steemj.base.models.Permlink;
+import eu.bittrade.libs.steemj.base.models.Price;
+import eu.bittrade.libs.steemj.base.models.RewardFund;
+import eu.bittrade.libs.steemj.base.models.ScheduledHardfork;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.SteemVersionInfo;
+import eu.bittrade.libs.steemj.base.models.TimePointSec;
+import eu.bittrade.libs.steemj.base.models.TrendingTag;
+import eu.bittrade.libs.steemj.base.models.Vote;
+import eu.bittrade.libs.steemj.base.models.VoteState;
+import eu.bittrade.libs.steemj.base.models.Witness;
+import eu.bittrade.libs.steemj.base.models.WitnessSchedule;
+import eu.bittrade.libs.steemj.base.models.deserializer.OperationFilterDeserializer;
+import eu.bittrade.libs.steemj.communication.BlockAppliedCallback;
+import eu.bittrade.libs.steemj.communication.CallbackHub;
+import eu.bittrade.libs.steemj.communication.CommunicationHandler;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.DiscussionSortType;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.enums.RewardFundType;
+import eu.bittrade.libs.steemj.enums.SteemApis;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steemj.store.BlockStore;
+import eu.bittrade.libs.steemj.util.FutureUtils;
+
+/**
+ * This class is the non-blocking counterpart of {@link SteemJ}. Its methods
+ * mirror the read methods of {@link SteemJ}, but instead of waiting for the
+ * answer of the Steem Node they return a {@link CompletableFuture} as soon as
+ * the request has been send.
+ * 
+ * <p>
+ * If a request fails, the returned future completes exceptionally with a
+ * {@link eu.bittrade.libs.steemj.exceptions.SteemCommunicationException
+ * SteemCommunicationException} (e.g. a
+ * {@link eu.bittrade.libs.steemj.exceptions.SteemTimeoutException
+ * SteemTimeoutException} if the server was not able to answer the request in
+ * the given time or a
+ * {@link eu.bittrade.libs.steemj.exceptions.SteemResponseError
+ * SteemResponseError} if the Server returned an error object).
+ * </p>
+ * 
+ * <p>
+ * An instance can be obtained using {@link SteemJ#getAsyncApi()}, so both
+ * APIs share the same connection.
+ * </p>
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class SteemJAsync {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SteemJAsync.class);
+
+    /**
+     * The minimal time in milliseconds between two requests of the last
+     * irreversible block number, which equals the block interval.
+     */
+    private static final long LAST_IRREVERSIBLE_BLOCK_REFRESH_INTERVAL = 3000;
+
+    private CommunicationHandler communicationHandler;
+    private BlockStore blockStore;
+    private BlockStore operationStore;
+    private BlockStore virtualOperationStore;
+    private volatile long lastIrreversibleBlockNumber;
+    private volatile long lastIrreversibleBlockNumberUpdate;
+
+    /**
+     * Create a new SteemJAsync instance that sends its requests using the
+     * given <code>communicationHandler</code>.
+     * 
+     * @param communicationHandler
+     *            A
+     *            {@link eu.bittrade.libs.steemj.communication.CommunicationHandler
+     *            CommunicationHandler} instance that should be used to send the
+     *            requests.
+     */
+    public SteemJAsync(CommunicationHandler communicationHandler) {
+        this(communicationHandler, null, null, null);
+    }
+
+    /**
+     * Create a new SteemJAsync instance that sends its requests using the
+     * given <code>communicationHandler</code> and serves irreversible blocks
+     * and their operations from the given stores. Data of irreversible blocks
+     * that is not stored yet is added to the stores once it has been
+     * received. The stores are not closed by this instance.
+     * 
+     * @param communicationHandler
+     *            A
+     *            {@link eu.bittrade.libs.steemj.communication.CommunicationHandler
+     *            CommunicationHandler} instance that should be used to send the
+     *            requests.
+     * @param blockStore
+     *            The store for the blocks or <code>null</code> to request
+     *            all blocks from the Steem Node.
+     * @param operationStore
+     *            The store for all operations of a block or <code>null</code>
+     *            to request them from the Steem Node.
+     * @param virtualOperationStore
+     *            The store for the virtual operations of a block or
+     *            <code>null</code> to request them from the Steem Node.
+     */
+    public SteemJAsync(CommunicationHandler communicationHandler, BlockStore blockStore, BlockStore operationStore,
+            BlockStore virtualOperationStore) {
+        this.communicationHandler = communicationHandler;
+        this.blockStore = blockStore;
+        this.operationStore = operationStore;
+        this.virtualOperationStore = virtualOperationStore;
+    }
+
+    // #########################################################################
+    // ## NETWORK BROADCAST API ################################################
+    // #########################################################################
+
+    /**
+     * Like {@link SteemJ#broadcastTransaction(SignedTransaction)
+     * broadcastTransaction}, but the request is performed asynchronously.
+     * 
+     * @param transaction
+     *            A transaction object that has been signed.
+     * @return A future that completes as soon as the transaction has been
+     *         accepted by the Steem Node.
+     */
+    public CompletableFuture<Void> broadcastTransaction(SignedTransaction transaction) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.BROADCAST_TRANSACTION);
+        requestObject.setSteemApi(SteemApis.NETWORK_BROADCAST_API);
+        Object[] parameters = { transaction };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Object.class)
+                .thenApply(new Function<List<Object>, Void>() {
+                    @Override
+                    public Void apply(List<Object> result) {
+                        return null;
+                    }
+                });
+    }
+
+    // #########################################################################
+    // ## DATABASE API #########################################################
+    // #########################################################################
+
+    /**
+     * Like {@link SteemJ#getAccountCount() getAccountCount}, but the request
+     * is performed asynchronously.
+     * 
+     * @return A future that completes with the number of accounts.
+     */
+    public CompletableFuture<Integer> getAccountCount() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_COUNT);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Integer.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getAccountHistory(AccountName, int, int)
+     * getAccountHistory}, but the request is performed asynchronously.
+     * 
+     * @param accountName
+     *            The user name of the account.
+     * @param from
+     *            The starting point.
+     * @param limit
+     *            The maximum number of entries.
+     * @return A future that completes with a map containing the activities.
+     *         The key is the id of the activity.
+     */
+    public CompletableFuture<Map<Integer, AppliedOperation>> getAccountHistory(AccountName accountName, int from,
+            int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_HISTORY);
+        String[] parameters = { accountName.getName(), String.valueOf(from), String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Object[].class)
+                .thenApply(new Function<List<Object[]>, Map<Integer, AppliedOperation>>() {
+                    @Override
+                    public Map<Integer, AppliedOperation> apply(List<Object[]> result) {
+                        Map<Integer, AppliedOperation> accountActivities = new HashMap<>();
+
+                        for (Object[] accountActivity : result) {
+                            accountActivities.put((Integer) accountActivity[0],
+                                    (AppliedOperation) CommunicationHandler.getObjectMapper().convertValue(
+                                            accountActivity[1], new TypeReference<AppliedOperation>() {
+                                            }));
+                        }
+
+                        return accountActivities;
+                    }
+                });
+    }
+
+    /**
+     * Like {@link SteemJ#getAccounts(List) getAccounts}, but the request is
+     * performed asynchronously.
+     * 
+     * @param accountNames
+     *            A list of accounts you want to request the details for.
+     * @return A future that completes with a List of accounts found for the
+     *         given account names.
+     */
+    public CompletableFuture<List<ExtendedAccount>> getAccounts(List<AccountName> accountNames) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        requestObject.setApiMethod(RequestMethods.GET_ACCOUNTS);
+
+        // The API expects an array of arrays here.
+        String[] innerParameters = new String[accountNames.size()];
+        for (int i = 0; i < accountNames.size(); i++) {
+            innerParameters[i] = accountNames.get(i).getName();
+        }
+
+        String[][] parameters = { innerParameters };
+
+        requestObject.setAdditionalParameters(parameters);
+        return communicationHandler.performRequestAsync(requestObject, ExtendedAccount.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getAccountVotes(AccountName) getAccountVotes}, but
+     * the request is performed asynchronously.
+     * 
+     * @param accountName
+     *            The user name of the account.
+     * @return A future that completes with a List of votes done by the
+     *         specified account.
+     */
+    public CompletableFuture<List<Vote>> getAccountVotes(AccountName accountName) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        requestObject.setApiMethod(RequestMethods.GET_ACCOUNT_VOTES);
+        String[] parameters = { accountName.getName() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Vote.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getActiveVotes(AccountName, Permlink)
+     * getActiveVotes}, but the request is performed asynchronously.
+     * 
+     * @param author
+     *            The authors name.
+     * @param permlink
+     *            The permlink of the article.
+     * @return A future that completes with a list of votes for a specific
+     *         article.
+     */
+    public CompletableFuture<List<VoteState>> getActiveVotes(AccountName author, Permlink permlink) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_ACTIVE_VOTES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { author.getName(), permlink.getLink() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, VoteState.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getActiveWitnesses() getActiveWitnesses}, but the
+     * request is performed asynchronously.
+     * 
+     * @return A future that completes with a list of account names of the
+     *         active witnesses.
+     */
+    public CompletableFuture<String[]> getActiveWitnesses() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_ACTIVE_WITNESSES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, String[].class));
+    }
+
+    /**
+     * Like {@link SteemJ#getApiByName(String) getApiByName}, but the request
+     * is performed asynchronously.
+     * 
+     * @param apiName
+     *            The name of the API.
+     * @return A future that completes with the id of the API or
+     *         <code>null</code> if the API is not available.
+     */
+    public CompletableFuture<Integer> getApiByName(String apiName) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_API_BY_NAME);
+        requestObject.setSteemApi(SteemApis.LOGIN_API);
+        String[] parameters = { apiName };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Integer.class)
+                .thenApply(new Function<List<Integer>, Integer>() {
+                    @Override
+                    public Integer apply(List<Integer> response) {
+                        if (!response.isEmpty()) {
+                            return response.get(0);
+                        }
+
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Like {@link SteemJ#getBlock(long) getBlock}, but the request is
+     * performed asynchronously.
+     * 
+     * <p>
+     * If a block store has been provided (see
+     * {@link #SteemJAsync(CommunicationHandler, BlockStore, BlockStore, BlockStore)}),
+     * irreversible blocks are served from disk.
+     * </p>
+     * 
+     * @param blockNumber
+     *            The id of the block the header should be requested from.
+     * @return A future that completes with a complete block.
+     */
+    public CompletableFuture<SignedBlockWithInfo> getBlock(long blockNumber) {
+        return getBlock(blockNumber, null);
+    }
+
+    /**
+     * Like {@link #getBlock(long)}, but only operations of the given
+     * <code>operationTypes</code> are transformed into Java objects and kept
+     * in the transactions of the block. All other operations are skipped
+     * while the response is parsed, which saves a lot of processing time for
+     * blocks with many large operations (e.g. comments).
+     * 
+     * <p>
+     * Skipped operations are represented by <code>null</code>, so all other
+     * operations keep their position in the transaction.
+     * </p>
+     * 
+     * <p>
+     * <b>Notice:</b> The transactions of the returned block only contain a
+     * part of their operations (see
+     * {@link SignedTransaction#hasSkippedOperations()}), so they can't be
+     * serialized, verified or broadcasted again.
+     * </p>
+     * 
+     * @param blockNumber
+     *            The id of the block the header should be requested from.
+     * @param operationTypes
+     *            The types of the operations to keep.
+     * @return A future that completes with the filtered block.
+     */
+    public CompletableFuture<SignedBlockWithInfo> getBlock(long blockNumber, Set<OperationType> operationTypes) {
+        return FutureUtils.getFirstResult(performStoredRequest(blockStore, blockNumber,
+                createGetBlockRequest(blockNumber), SignedBlockWithInfo.class, operationTypes));
+    }
+
+    /**
+     * Like {@link SteemJ#getBlocks(long, long) getBlocks}, but the requests are
+     * performed asynchronously. All batches are send at once, so they are
+     * processed by the Steem Node in parallel.
+     * 
+     * <p>
+     * Blocks that are available in the block store (see
+     * {@link #SteemJAsync(CommunicationHandler, BlockStore, BlockStore, BlockStore)})
+     * are not requested again, so only the missing blocks are packed into
+     * batches.
+     * </p>
+     * 
+     * @param fromBlockNumber
+     *            The number of the first block to get.
+     * @param toBlockNumber
+     *            The number of the last block to get (inclusive).
+     * @return A future that completes with a list of the requested blocks
+     *         ordered by their block number.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is greater than the
+     *             <code>toBlockNumber</code>.
+     */
+    public CompletableFuture<List<SignedBlockWithInfo>> getBlocks(final long fromBlockNumber, long toBlockNumber) {
+        if (fromBlockNumber > toBlockNumber) {
+            throw new InvalidParameterException("The fromBlockNumber can't be greater than the toBlockNumber.");
+        }
+
+        // Only request the blocks that are not available in the block store.
+        final List<SignedBlockWithInfo> blocks = new ArrayList<>();
+        final List<Long> missingBlockNumbers = new ArrayList<>();
+        for (long blockNumber = fromBlockNumber; blockNumber <= toBlockNumber; blockNumber++) {
+            List<SignedBlockWithInfo> storedBlock = readStoredResult(blockStore, blockNumber,
+                    SignedBlockWithInfo.class, null);
+            if (storedBlock != null) {
+                blocks.add(storedBlock.get(0));
+            } else {
+                blocks.add(null);
+                missingBlockNumbers.add(blockNumber);
+            }
+        }
+
+        if (missingBlockNumbers.isEmpty()) {
+            return CompletableFuture.completedFuture(blocks);
+        }
+
+        if (blockStore == null) {
+            return requestBlocks(missingBlockNumbers, SignedBlockWithInfo.class)
+                    .thenApply(new Function<List<List<SignedBlockWithInfo>>, List<SignedBlockWithInfo>>() {
+                        @Override
+                        public List<SignedBlockWithInfo> apply(List<List<SignedBlockWithInfo>> responses) {
+                            for (int i = 0; i < responses.size(); i++) {
+                                blocks.set(i, responses.get(i).get(0));
+                            }
+
+                            return blocks;
+                        }
+                    });
+        }
+
+        // Keep the raw results, so they can be stored as they have been
+        // received.
+        return requestBlocks(missingBlockNumbers, JsonNode.class).thenCombine(
+                isIrreversible(missingBlockNumbers.get(missingBlockNumbers.size() - 1)),
+                new BiFunction<List<List<JsonNode>>, Boolean, List<SignedBlockWithInfo>>() {
+                    @Override
+                    public List<SignedBlockWithInfo> apply(List<List<JsonNode>> responses, Boolean ignored) {
+                        for (int i = 0; i < responses.size(); i++) {
+                            long blockNumber = missingBlockNumbers.get(i);
+                            blocks.set((int) (blockNumber - fromBlockNumber), transformAndStoreResult(blockStore,
+                                    blockNumber, responses.get(i), SignedBlockWithInfo.class, null).get(0));
+                        }
+
+                        return blocks;
+                    }
+                });
+    }
+
+    /**
+     * Like {@link SteemJ#getBlockHeader(long) getBlockHeader}, but the request
+     * is performed asynchronously.
+     * 
+     * @param blockNumber
+     *            The id of the block the header should be requested from.
+     * @return A future that completes with the header of a block.
+     */
+    public CompletableFuture<BlockHeader> getBlockHeader(long blockNumber) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_BLOCK_HEADER);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { String.valueOf(blockNumber) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, BlockHeader.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getChainProperties() getChainProperties}, but the
+     * request is performed asynchronously.
+     * 
+     * @return A future that completes with the chain properties.
+     */
+    public CompletableFuture<ChainProperties> getChainProperties() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_CHAIN_PROPERTIES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils
+                .getFirstResult(communicationHandler.performRequestAsync(requestObject, ChainProperties.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getConfig() getConfig}, but the request is performed
+     * asynchronously.
+     * 
+     * @return A future that completes with the steem configuration.
+     */
+    public CompletableFuture<Config> getConfig() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_CONFIG);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Config.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getContent(AccountName, Permlink) getContent}, but
+     * the request is performed asynchronously.
+     * 
+     * @param author
+     *            The authors name.
+     * @param permlink
+     *            The permlink of the article.
+     * @return A future that completes with the details of a specific post.
+     */
+    public CompletableFuture<Discussion> getContent(AccountName author, Permlink permlink) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_CONTENT);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { author.getName(), permlink.getLink() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Discussion.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getContentReplies(AccountName, Permlink)
+     * getContentReplies}, but the request is performed asynchronously.
+     * 
+     * @param author
+     *            The authors name.
+     * @param permlink
+     *            The permlink of the article.
+     * @return A future that completes with a list of discussions or null if
+     *         the post has no replies.
+     */
+    public CompletableFuture<List<Discussion>> getContentReplies(AccountName author, Permlink permlink) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_CONTENT_REPLIES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { author.getName(), permlink.getLink() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Discussion.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getConversionRequests(AccountName)
+     * getConversionRequests}, but the request is performed asynchronously.
+     * 
+     * @param account
+     *            The account name.
+     * @return A future that completes with unknown
+     */
+    public CompletableFuture<Object[]> getConversionRequests(AccountName account) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_CONVERSION_REQUESTS);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { account.getName() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Object[].class));
+    }
+
+    /**
+     * Like {@link SteemJ#getCurrentMedianHistoryPrice()
+     * getCurrentMedianHistoryPrice}, but the request is performed
+     * asynchronously.
+     * 
+     * @return A future that completes with the current median price.
+     */
+    public CompletableFuture<Price> getCurrentMedianHistoryPrice() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_CURRENT_MEDIAN_HISTORY_PRICE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Price.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getDiscussionsBy(DiscussionQuery, DiscussionSortType)
+     * getDiscussionsBy}, but the request is performed asynchronously.
+     * 
+     * @param discussionQuery
+     *            A query defining specific search parameters.
+     * @param sortBy
+     *            Choose the method used for sorting the results.
+     * @return A future that completes with a list of discussions matching the
+     *         given conditions.
+     */
+    public CompletableFuture<List<Discussion>> getDiscussionsBy(DiscussionQuery discussionQuery,
+            DiscussionSortType sortBy) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+
+        requestObject.setApiMethod(RequestMethods.valueOf(sortBy.name()));
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        Object[] parameters = { discussionQuery };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Discussion.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getDiscussionsByAuthorBeforeDate(AccountName,
+     * Permlink, String, int) getDiscussionsByAuthorBeforeDate}, but the
+     * request is performed asynchronously.
+     * 
+     * @param author
+     *            The author of the discussions.
+     * @param permlink
+     *            The permlink of the discussion to start from.
+     * @param date
+     *            Only return discussions created before this date.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of discussions. It completes
+     *         exceptionally with a {@link SteemTransformationException} if the
+     *         <code>date</code> has an invalid format.
+     */
+    public CompletableFuture<List<Discussion>> getDiscussionsByAuthorBeforeDate(AccountName author,
+            Permlink permlink, String date, int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+
+        requestObject.setApiMethod(RequestMethods.GET_DISCUSSIONS_BY_AUTHOR_BEFORE_DATE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+
+        // Verify that the date has the correct format.
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(SteemJConfig.getInstance().getDateTimePattern());
+        simpleDateFormat.setTimeZone(TimeZone.getTimeZone(SteemJConfig.getInstance().getTimeZoneId()));
+        Date beforeDate;
+        try {
+            beforeDate = simpleDateFormat.parse(date);
+        } catch (ParseException e) {
+            CompletableFuture<List<Discussion>> invalidDate = new CompletableFuture<>();
+            invalidDate.completeExceptionally(
+                    new SteemTransformationException("Could not parse the received date to a Date object.", e));
+            return invalidDate;
+        }
+
+        String[] parameters = { author.getName(), permlink.getLink(), simpleDateFormat.format(beforeDate),
+                String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Discussion.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getDynamicGlobalProperties()
+     * getDynamicGlobalProperties}, but the request is performed
+     * asynchronously.
+     * 
+     * @return A future that completes with the dynamic global properties.
+     */
+    public CompletableFuture<GlobalProperties> getDynamicGlobalProperties() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_DYNAMIC_GLOBAL_PROPERTIES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils
+                .getFirstResult(communicationHandler.performRequestAsync(requestObject, GlobalProperties.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getFeedHistory() getFeedHistory}, but the request is
+     * performed asynchronously.
+     * 
+     * @return A future that completes with the conversion history of SBD /
+     *         STEEM.
+     */
+    public CompletableFuture<FeedHistory> getFeedHistory() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_FEED_HISTORY);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, FeedHistory.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getHardforkVersion() getHardforkVersion}, but the
+     * request is performed asynchronously.
+     * 
+     * @return A future that completes with the hardfork version that the
+     *         connected node is running on.
+     */
+    public CompletableFuture<String> getHardforkVersion() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_HARDFORK_VERSION);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, String.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getKeyReferences(String[]) getKeyReferences}, but the
+     * request is performed asynchronously.
+     * 
+     * @param publicKeys
+     *            An array containing one or more public keys.
+     * @return A future that completes with a list of arrays containing the
+     *         matching account names.
+     */
+    public CompletableFuture<List<String[]>> getKeyReferences(String[] publicKeys) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_KEY_REFERENCES);
+        requestObject.setSteemApi(SteemApis.ACCOUNT_BY_KEY_API);
+        Object[] parameters = { publicKeys };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, String[].class);
+    }
+
+    /**
+     * Like {@link SteemJ#getLiquidityQueue(AccountName, int)
+     * getLiquidityQueue}, but the request is performed asynchronously.
+     * 
+     * @param accoutName
+     *            The name of the account you want to request the queue entries
+     *            for.
+     * @param limit
+     *            Number of results.
+     * @return A future that completes with a list of liquidity queue entries.
+     */
+    public CompletableFuture<List<LiquidityBalance>> getLiquidityQueue(AccountName accoutName, int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_LIQUIDITY_QUEUE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        Object[] parameters = { accoutName.getName(), String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, LiquidityBalance.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getMinerQueue() getMinerQueue}, but the request is
+     * performed asynchronously.
+     * 
+     * @return A future that completes with a list of account names that are in
+     *         the mining queue.
+     */
+    public CompletableFuture<String[]> getMinerQueue() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_MINER_QUEUE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, String[].class));
+    }
+
+    /**
+     * Like {@link SteemJ#getNextScheduledHarfork() getNextScheduledHarfork},
+     * but the request is performed asynchronously.
+     * 
+     * @return A future that completes with ???
+     */
+    public CompletableFuture<ScheduledHardfork> getNextScheduledHarfork() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_NEXT_SCHEDULED_HARDFORK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils
+                .getFirstResult(communicationHandler.performRequestAsync(requestObject, ScheduledHardfork.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getOpenOrders(AccountName) getOpenOrders}, but the
+     * request is performed asynchronously.
+     * 
+     * @param accountName
+     *            The name of the account.
+     * @return A future that completes with a list of open orders for this
+     *         account.
+     */
+    public CompletableFuture<List<ExtendedLimitOrder>> getOpenOrders(AccountName accountName) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_OPEN_ORDERS);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { accountName.getName() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, ExtendedLimitOrder.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getOrderBookUsingDatabaseApi(int)
+     * getOrderBookUsingDatabaseApi}, but the request is performed
+     * asynchronously.
+     * 
+     * @param limit
+     *            The maximum number of results for each category (asks / bids).
+     * @return A future that completes with a list of orders on the internal
+     *         steem market.
+     */
+    public CompletableFuture<OrderBook> getOrderBookUsingDatabaseApi(int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_ORDER_BOOK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, OrderBook.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getOpsInBlock(int, boolean) getOpsInBlock}, but the
+     * request is performed asynchronously.
+     * 
+     * <p>
+     * If an operation store has been provided (see
+     * {@link #SteemJAsync(CommunicationHandler, BlockStore, BlockStore, BlockStore)}),
+     * the operations of irreversible blocks are served from disk.
+     * </p>
+     * 
+     * @param blockNumber
+     *            The block number.
+     * @param onlyVirtual
+     *            Define if only virtual operations should be returned or not.
+     * @return A future that completes with a list of all performed operations
+     *         for a given block number.
+     */
+    public CompletableFuture<List<AppliedOperation>> getOpsInBlock(int blockNumber, boolean onlyVirtual) {
+        return performStoredRequest(onlyVirtual ? virtualOperationStore : operationStore, blockNumber,
+                createGetOpsInBlockRequest(blockNumber, onlyVirtual), AppliedOperation.class, null);
+    }
+
+    /**
+     * Like {@link #getOpsInBlock(int, boolean)}, but only operations of the
+     * given <code>operationTypes</code> are transformed into Java objects and
+     * returned. All other operations are skipped while the response is
+     * parsed.
+     * 
+     * @param blockNumber
+     *            The block number.
+     * @param onlyVirtual
+     *            Define if only virtual operations should be returned or not.
+     * @param operationTypes
+     *            The types of the operations to return.
+     * @return A future that completes with a list of the performed operations
+     *         of the given types.
+     */
+    public CompletableFuture<List<AppliedOperation>> getOpsInBlock(int blockNumber, boolean onlyVirtual,
+            Set<OperationType> operationTypes) {
+        return performStoredRequest(onlyVirtual ? virtualOperationStore : operationStore, blockNumber,
+                createGetOpsInBlockRequest(blockNumber, onlyVirtual), AppliedOperation.class, operationTypes)
+                .thenApply(new Function<List<AppliedOperation>, List<AppliedOperation>>() {
+                    @Override
+                    public List<AppliedOperation> apply(List<AppliedOperation> appliedOperations) {
+                        List<AppliedOperation> filteredOperations = new ArrayList<>();
+                        if (appliedOperations == null) {
+                            return filteredOperations;
+                        }
+
+                        for (AppliedOperation appliedOperation : appliedOperations) {
+                            // Skipped operations are represented by null.
+                            if (appliedOperation != null && appliedOperation.getOp() != null) {
+                                filteredOperations.add(appliedOperation);
+                            }
+                        }
+
+                        return filteredOperations;
+                    }
+                });
+    }
+
+    /**
+     * Like {@link SteemJ#getRepliesByLastUpdate(AccountName, Permlink, int)
+     * getRepliesByLastUpdate}, but the request is performed asynchronously.
+     * 
+     * @param username
+     *            The name of the user.
+     * @param permlink
+     *            The permlink of an article.
+     * @param limit
+     *            Number of results.
+     * @return A future that completes with a list of Content objects.
+     */
+    public CompletableFuture<List<Discussion>> getRepliesByLastUpdate(AccountName username, Permlink permlink,
+            int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_REPLIES_BY_LAST_UPDATE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        Object[] parameters = { username, permlink.getLink(), String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Discussion.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getRewardFund(RewardFundType) getRewardFund}, but the
+     * request is performed asynchronously.
+     * 
+     * @param rewordFundType
+     *            One of the {@link eu.bittrade.libs.steemj.enums.RewardFundType
+     *            RewardFundType}s.
+     * @return A future that completes with a refund object containing detailed
+     *         information about the requested reward fund.
+     */
+    public CompletableFuture<RewardFund> getRewardFund(RewardFundType rewordFundType) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_REWARD_FUND);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        Object[] parameters = { rewordFundType.name().toLowerCase() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, RewardFund.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getTransactionHex(SignedTransaction)
+     * getTransactionHex}, but the request is performed asynchronously.
+     * 
+     * @param signedTransaction
+     *            The signed Transaction object you want to receive the HEX
+     *            representation for.
+     * @return A future that completes with the HEX representation.
+     */
+    public CompletableFuture<String> getTransactionHex(SignedTransaction signedTransaction) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_TRANSACTION_HEX);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+
+        Object[] parameters = { signedTransaction };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, String.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getTrendingTags(String, int) getTrendingTags}, but
+     * the request is performed asynchronously.
+     * 
+     * @param firstTag
+     *            Start the list after this category. An empty String will
+     *            result in starting from the top.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of tags.
+     */
+    public CompletableFuture<List<TrendingTag>> getTrendingTags(String firstTag, int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_TRENDING_TAGS);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { firstTag, String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, TrendingTag.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getVersion() getVersion}, but the request is
+     * performed asynchronously.
+     * 
+     * @return A future that completes with the steem version that the
+     *         connected node is running.
+     */
+    public CompletableFuture<SteemVersionInfo> getVersion() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_VERSION);
+        requestObject.setSteemApi(SteemApis.LOGIN_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils
+                .getFirstResult(communicationHandler.performRequestAsync(requestObject, SteemVersionInfo.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getWitnessByAccount(AccountName)
+     * getWitnessByAccount}, but the request is performed asynchronously.
+     * 
+     * @param witnessName
+     *            The witness name.
+     * @return A future that completes with a list of witnesses.
+     */
+    public CompletableFuture<Witness> getWitnessByAccount(AccountName witnessName) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_WITNESS_BY_ACCOUNT);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { witnessName.getName() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Witness.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getWitnessByVote(AccountName, int) getWitnessByVote},
+     * but the request is performed asynchronously.
+     * 
+     * @param witnessName
+     *            The witness name to start from.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of witnesses.
+     */
+    public CompletableFuture<List<Witness>> getWitnessByVote(AccountName witnessName, int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_WITNESSES_BY_VOTE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { witnessName.getName(), String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Witness.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getWitnessCount() getWitnessCount}, but the request
+     * is performed asynchronously.
+     * 
+     * @return A future that completes with the number of witnesses.
+     */
+    public CompletableFuture<Integer> getWitnessCount() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_WITNESS_COUNT);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Integer.class));
+    }
+
+    /**
+     * Like {@link SteemJ#getWitnesses() getWitnesses}, but the request is
+     * performed asynchronously.
+     * 
+     * @return A future that completes with a list of witnesses.
+     */
+    public CompletableFuture<List<Witness>> getWitnesses() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_WITNESSES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Witness.class);
+    }
+
+    /**
+     * Like {@link SteemJ#getWitnessSchedule() getWitnessSchedule}, but the
+     * request is performed asynchronously.
+     * 
+     * @return A future that completes with the witness schedule.
+     */
+    public CompletableFuture<WitnessSchedule> getWitnessSchedule() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_WITNESS_SCHEDULE);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils
+                .getFirstResult(communicationHandler.performRequestAsync(requestObject, WitnessSchedule.class));
+    }
+
+    /**
+     * Like {@link SteemJ#login(AccountName, String) login}, but the request is
+     * performed asynchronously.
+     * 
+     * @param accountName
+     *            The user name used to login.
+     * @param password
+     *            The password used to login.
+     * @return A future that completes with <code>true</code> if the login was
+     *         successful, otherwise <code>false</code>.
+     */
+    public CompletableFuture<Boolean> login(AccountName accountName, String password) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.LOGIN);
+        requestObject.setSteemApi(SteemApis.LOGIN_API);
+        String[] parameters = { accountName.getName(), password };
+        requestObject.setAdditionalParameters(parameters);
+
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Boolean.class));
+    }
+
+    /**
+     * Like {@link SteemJ#lookupAccounts(String, int) lookupAccounts}, but the
+     * request is performed asynchronously.
+     * 
+     * @param pattern
+     *            The lower case pattern you want to search for.
+     * @param limit
+     *            The maximum number of account names.
+     * @return A future that completes with a list of matching account names.
+     */
+    public CompletableFuture<List<String>> lookupAccounts(String pattern, int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.LOOKUP_ACCOUNTS);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { pattern, String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, String.class);
+    }
+
+    /**
+     * Like {@link SteemJ#lookupWitnessAccounts(String, int)
+     * lookupWitnessAccounts}, but the request is performed asynchronously.
+     * 
+     * @param pattern
+     *            The lower case pattern you want to search for.
+     * @param limit
+     *            The maximum number of account names.
+     * @return A future that completes with a list of matching account names.
+     */
+    public CompletableFuture<List<String>> lookupWitnessAccounts(String pattern, int limit) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.LOOKUP_WITNESS_ACCOUNTS);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { pattern, String.valueOf(limit) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, String.class);
+    }
+
+    /**
+     * Like {@link SteemJ#setBlockAppliedCallback(BlockAppliedCallback)
+     * setBlockAppliedCallback}, but the request is performed asynchronously.
+     * 
+     * @param blockAppliedCallback
+     *            The callback to register.
+     * @return A future that completes as soon as the Steem Node has accepted
+     *         the registration. It completes exceptionally with a
+     *         {@link SteemCommunicationException} if the connections do not
+     *         support callbacks (see {@link #supportsCallbacks()}).
+     */
+    public CompletableFuture<Void> setBlockAppliedCallback(BlockAppliedCallback blockAppliedCallback) {
+        if (!supportsCallbacks()) {
+            CompletableFuture<Void> unsupported = new CompletableFuture<>();
+            unsupported.completeExceptionally(new SteemCommunicationException(
+                    "Block applied callbacks require the WEBSOCKET transport type."));
+            return unsupported;
+        }
+
+        CallbackHub.getInstance().addCallback(blockAppliedCallback);
+
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.SET_BLOCK_APPLIED_CALLBACK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+
+        Object[] parameters = { blockAppliedCallback.getUuid() };
+        requestObject.setAdditionalParameters(parameters);
+
+        return communicationHandler.performRequestAsync(requestObject, Object.class)
+                .thenApply(new Function<List<Object>, Void>() {
+                    @Override
+                    public Void apply(List<Object> result) {
+                        return null;
+                    }
+                });
+    }
+
+    /**
+     * Check if block applied callbacks can be registered (see
+     * {@link #setBlockAppliedCallback(BlockAppliedCallback)}). The Steem Node
+     * only sends notifications over web socket connections.
+     * 
+     * @return <code>true</code> if callbacks are supported.
+     */
+    public boolean supportsCallbacks() {
+        return communicationHandler.supportsCallbacks();
+    }
+
+    /**
+     * Like {@link SteemJ#verifyAuthority(SignedTransaction) verifyAuthority},
+     * but the request is performed asynchronously.
+     * 
+     * @param signedTransaction
+     *            A {@link SignedTransaction} transaction which has been signed.
+     * @return A future that completes with <code>true</code> if the given
+     *         transaction has been signed correctly, otherwise an Exception
+     *         will be thrown.
+     */
+    public CompletableFuture<Boolean> verifyAuthority(SignedTransaction signedTransaction) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.VERIFY_AUTHORITY);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+
+        Object[] parameters = { signedTransaction };
+        requestObject.setAdditionalParameters(parameters);
+        // The method does not simply return false, it throws an error
+        // describing the problem.
+        return FutureUtils.getFirstResult(communicationHandler.performRequestAsync(requestObject, Boolean.class));
+    }
+
+    // #########################################################################
+    // ## FOLLOW API ###########################################################
+    // #########################################################################
+
+    /**
+     * Like {@link SteemJ#getFollowers(AccountName, AccountName, FollowType,
+     * short) getFollowers}, but the request is performed asynchronously.
+     * 
+     * @param following
+     *            The account name for whose followers should be returned.
+     * @param startFollower
+     *            A filter to limit the number of results. If not empty, the
+     *            method will only return account names after the
+     *            <code>following</code> account has been followed by the
+     *            <code>startFollower</code> account.
+     * @param type
+     *            The follow type.
+     * @param limit
+     *            The maximum number of results returned.
+     * @return A future that completes with a list of account names that follow
+     *         the <code>follower</code> account.
+     */
+    public CompletableFuture<List<FollowApiObject>> getFollowers(AccountName following, AccountName startFollower,
+            FollowType type, short limit) {
+        return FollowApi.getFollowersAsync(communicationHandler, following, startFollower, type, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getFollowing(AccountName, AccountName, FollowType,
+     * short) getFollowing}, but the request is performed asynchronously.
+     * 
+     * @param follower
+     *            The account name for which the account names should be
+     *            returned, that the <code>follower</code> is following.
+     * @param startFollowing
+     *            A filter to limit the number of results. If not empty, the
+     *            method will only return account names after the
+     *            <code>follower</code> account has followed the
+     *            <code>startFollowing</code> account.
+     * @param type
+     *            The follow type.
+     * @param limit
+     *            The maximum number of results returned.
+     * @return A future that completes with a list of account names the
+     *         <code>follower</code> account is following.
+     */
+    public CompletableFuture<List<FollowApiObject>> getFollowing(AccountName follower, AccountName startFollowing,
+            FollowType type, short limit) {
+        return FollowApi.getFollowingAsync(communicationHandler, follower, startFollowing, type, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getFollowCount(AccountName) getFollowCount}, but the
+     * request is performed asynchronously.
+     * 
+     * @param account
+     *            The account to get the number of followers / following
+     *            accounts for.
+     * @return A future that completes with the number of followers / following
+     *         accounts
+     */
+    public CompletableFuture<FollowCountApiObject> getFollowCount(AccountName account) {
+        return FollowApi.getFollowCountAsync(communicationHandler, account);
+    }
+
+    /**
+     * Like {@link SteemJ#getFeedEntries(AccountName, int, short)
+     * getFeedEntries}, but the request is performed asynchronously.
+     * 
+     * @param account
+     *            The account to get the feed entries for.
+     * @param entryId
+     *            The first feed entry id to return.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of feed entries from the
+     *         given <code>author</code> based on the given conditions
+     *         (<code>entryId</code> and <code>limit</code>).
+     */
+    public CompletableFuture<List<FeedEntry>> getFeedEntries(AccountName account, int entryId, short limit) {
+        return FollowApi.getFeedEntriesAsync(communicationHandler, account, entryId, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getFeed(AccountName, int, short) getFeed}, but the
+     * request is performed asynchronously.
+     * 
+     * @param account
+     *            The account to get the feed entries for.
+     * @param entryId
+     *            The first feed entry id to return.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of feed entries from the
+     *         given <code>author</code> based on the given conditions
+     *         (<code>entryId</code> and <code>limit</code>).
+     */
+    public CompletableFuture<List<CommentFeedEntry>> getFeed(AccountName account, int entryId, short limit) {
+        return FollowApi.getFeedAsync(communicationHandler, account, entryId, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getBlogEntries(AccountName, int, short)
+     * getBlogEntries}, but the request is performed asynchronously.
+     * 
+     * @param account
+     *            The account to get the blog entries for.
+     * @param entryId
+     *            The first blog entry id to return.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of blog entries from the
+     *         given <code>author</code> based on the given conditions
+     *         (<code>entryId</code> and <code>limit</code>).
+     */
+    public CompletableFuture<List<BlogEntry>> getBlogEntries(AccountName account, int entryId, short limit) {
+        return FollowApi.getBlogEntriesAsync(communicationHandler, account, entryId, limit);
+
+    }
+
+    /**
+     * Like {@link SteemJ#getBlog(AccountName, int, short) getBlog}, but the
+     * request is performed asynchronously.
+     * 
+     * @param account
+     *            The account to get the blog entries for.
+     * @param entryId
+     *            The first blog entry id to return.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of blog entries from the
+     *         given <code>author</code> based on the given conditions
+     *         (<code>entryId</code> and <code>limit</code>).
+     */
+    public CompletableFuture<List<CommentBlogEntry>> getBlog(AccountName account, int entryId, short limit) {
+        return FollowApi.getBlogAsync(communicationHandler, account, entryId, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getAccountReputations(AccountName, int)
+     * getAccountReputations}, but the request is performed asynchronously.
+     * 
+     * @param accountName
+     *            The first account name to get the reputation for.
+     * @param limit
+     *            The number of results.
+     * @return A future that completes with a list of
+     *         {@link eu.bittrade.libs.steemj.apis.follow.model.AccountReputation
+     *         AccountReputation}.
+     */
+    public CompletableFuture<List<AccountReputation>> getAccountReputations(AccountName accountName, int limit) {
+        return FollowApi.getAccountReputationsAsync(communicationHandler, accountName, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getRebloggedBy(AccountName, Permlink)
+     * getRebloggedBy}, but the request is performed asynchronously.
+     * 
+     * @param author
+     *            The author of the post to get the rebloggers for.
+     * @param permlink
+     *            The permlink of the post to get the rebloggers for.
+     * @return A future that completes with a list of accounts that have
+     *         reblogged a particular post.
+     */
+    public CompletableFuture<List<AccountName>> getRebloggedBy(AccountName author, Permlink permlink) {
+        return FollowApi.getRebloggedByAsync(communicationHandler, author, permlink);
+    }
+
+    /**
+     * Like {@link SteemJ#getBlogAuthors(AccountName) getBlogAuthors}, but the
+     * request is performed asynchronously.
+     * 
+     * @param blogAccount
+     *            The account whose blog should be analyzed.
+     * @return A future that completes with a list of pairs, while each pair
+     *         contains the author name and the number of blog entries from
+     *         this author published by the <code>blogAuthor</code>.
+     */
+    public CompletableFuture<List<PostsPerAuthorPair>> getBlogAuthors(AccountName blogAccount) {
+        return FollowApi.getBlogAuthorsAsync(communicationHandler, blogAccount);
+    }
+
+    // #########################################################################
+    // ## MARKET HISTORY API ###################################################
+    // #########################################################################
+
+    /**
+     * Like {@link SteemJ#getTicker() getTicker}, but the request is performed
+     * asynchronously.
+     * 
+     * @return A future that completes with the market ticker for the internal
+     *         SBD:STEEM market.
+     */
+    public CompletableFuture<MarketTicker> getTicker() {
+        return MarketHistoryApi.getTickerAsync(communicationHandler);
+    }
+
+    /**
+     * Like {@link SteemJ#getVolume() getVolume}, but the request is performed
+     * asynchronously.
+     * 
+     * @return A future that completes with the market volume for the past 24
+     *         hours.
+     */
+    public CompletableFuture<MarketVolume> getVolume() {
+        return MarketHistoryApi.getVolumeAsync(communicationHandler);
+    }
+
+    /**
+     * Like {@link SteemJ#getOrderBookUsingMarketApi(short)
+     * getOrderBookUsingMarketApi}, but the request is performed
+     * asynchronously.
+     * 
+     * @param limit
+     *            The number of orders to have on each side of the order book.
+     *            Maximum is 500.
+     * @return A future that completes with the current order book for the
+     *         internal SBD:STEEM market.
+     * @throws InvalidParameterException
+     *             If the limit is less than 0 or greater than 500.
+     */
+    public CompletableFuture<eu.bittrade.libs.steemj.apis.market.history.model.OrderBook> getOrderBookUsingMarketApi(
+            short limit) {
+        return MarketHistoryApi.getOrderBookAsync(communicationHandler, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getTradeHistory(TimePointSec, TimePointSec, short)
+     * getTradeHistory}, but the request is performed asynchronously.
+     * 
+     * @param start
+     *            The start time of the trade history.
+     * @param end
+     *            The end time of the trade history.
+     * @param limit
+     *            The number of trades to return. Maximum is 1000.
+     * @return A future that completes with a list of completed trades.
+     * @throws InvalidParameterException
+     *             If the limit is less than 0 or greater than 500.
+     */
+    public CompletableFuture<List<MarketTrade>> getTradeHistory(TimePointSec start, TimePointSec end, short limit) {
+        return MarketHistoryApi.getTradeHistoryAsync(communicationHandler, start, end, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getRecentTrades(short) getRecentTrades}, but the
+     * request is performed asynchronously.
+     * 
+     * @param limit
+     *            The number of trades to return. Maximum is 1000.
+     * @return A future that completes with a list of completed trades.
+     * @throws InvalidParameterException
+     *             If the limit is less than 0 or greater than 500.
+     */
+    public CompletableFuture<List<MarketTrade>> getRecentTrades(short limit) {
+        return MarketHistoryApi.getRecentTradesAsync(communicationHandler, limit);
+    }
+
+    /**
+     * Like {@link SteemJ#getMarketHistory(long, TimePointSec, TimePointSec)
+     * getMarketHistory}, but the request is performed asynchronously.
+     * 
+     * @param bucketSeconds
+     *            The size of buckets the history is broken into. The bucket
+     *            size must be configured in the plugin options and can be
+     *            requested using the {@link #getMarketHistoryBuckets()} method.
+     * @param start
+     *            The start time to get market history.
+     * @param end
+     *            The end time to get market history.
+     * @return A future that completes with a list of market history
+     *         {@link eu.bittrade.libs.steemj.apis.market.history.model.Bucket
+     *         Bucket}s.
+     */
+    public CompletableFuture<List<Bucket>> getMarketHistory(long bucketSeconds, TimePointSec start, TimePointSec end) {
+        return MarketHistoryApi.getMarketHistoryAsync(communicationHandler, bucketSeconds, start, end);
+    }
+
+    /**
+     * Like {@link SteemJ#getMarketHistoryBuckets() getMarketHistoryBuckets},
+     * but the request is performed asynchronously.
+     * 
+     * @return A future that completes with the bucket seconds being tracked by
+     *         the node.
+     */
+    public CompletableFuture<List<Integer>> getMarketHistoryBuckets() {
+        return MarketHistoryApi.getMarketHistoryBucketsAsync(communicationHandler);
+    }
+
+    // #########################################################################
+    // ## UTILITY METHODS ######################################################
+    // #########################################################################
+
+    /**
+     * Create the request for the block with the given
+     * <code>blockNumber</code>.
+     * 
+     * @param blockNumber
+     *            The number of the block to request.
+     * @return The request object.
+     */
+    private RequestWrapperDTO createGetBlockRequest(long blockNumber) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_BLOCK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { String.valueOf(blockNumber) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * Create the request for the operations of the block with the given
+     * <code>blockNumber</code>.
+     * 
+     * @param blockNumber
+     *            The block number.
+     * @param onlyVirtual
+     *            Define if only virtual operations should be requested or not.
+     * @return The request object.
+     */
+    private RequestWrapperDTO createGetOpsInBlockRequest(int blockNumber, boolean onlyVirtual) {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_OPS_IN_BLOCK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { String.valueOf(blockNumber), String.valueOf(onlyVirtual) };
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * Request the blocks with the given <code>blockNumbers</code>. The
+     * requests are packed into batches of at most
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#getMaximumBatchSize()
+     * maximumBatchSize} requests, which are all send at once.
+     * 
+     * @param blockNumbers
+     *            The numbers of the blocks to request.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param <T>
+     *            The object that you want to map the results to.
+     * @return A future that completes with the responses in the order of the
+     *         <code>blockNumbers</code>.
+     */
+    private <T> CompletableFuture<List<List<T>>> requestBlocks(List<Long> blockNumbers, Class<T> targetClass) {
+        int maximumBatchSize = SteemJConfig.getInstance().getMaximumBatchSize();
+        final List<CompletableFuture<List<List<T>>>> batches = new ArrayList<>();
+
+        for (int batchStart = 0; batchStart < blockNumbers.size(); batchStart += maximumBatchSize) {
+            List<RequestWrapperDTO> requestObjects = new ArrayList<>();
+            for (Long blockNumber : blockNumbers.subList(batchStart,
+                    Math.min(blockNumbers.size(), batchStart + maximumBatchSize))) {
+                requestObjects.add(createGetBlockRequest(blockNumber));
+            }
+
+            batches.add(communicationHandler.performBatchRequestAsync(requestObjects, targetClass));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[batches.size()]))
+                .thenApply(new Function<Void, List<List<T>>>() {
+                    @Override
+                    public List<List<T>> apply(Void ignored) {
+                        List<List<T>> responses = new ArrayList<>();
+                        for (CompletableFuture<List<List<T>>> batch : batches) {
+                            responses.addAll(batch.join());
+                        }
+
+                        return responses;
+                    }
+                });
+    }
+
+    /**
+     * Get the data of the block with the given <code>blockNumber</code> from
+     * the given <code>store</code>. If it has not been stored yet, it is
+     * requested from the Steem Node and added to the store if the block is
+     * irreversible.
+     * 
+     * @param store
+     *            The store to use or <code>null</code> to always perform the
+     *            request.
+     * @param blockNumber
+     *            The number of the block the data belongs to.
+     * @param requestObject
+     *            The request to perform if the data is not stored yet.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return A future that completes with the stored or requested data.
+     */
+    private <T> CompletableFuture<List<T>> performStoredRequest(final BlockStore store, final long blockNumber,
+            final RequestWrapperDTO requestObject, final Class<T> targetClass,
+            final Set<OperationType> operationTypes) {
+        if (store == null) {
+            return communicationHandler.performRequestAsync(requestObject, targetClass, operationTypes);
+        }
+
+        List<T> storedResult = readStoredResult(store, blockNumber, targetClass, operationTypes);
+        if (storedResult != null) {
+            return CompletableFuture.completedFuture(storedResult);
+        }
+
+        return isIrreversible(blockNumber).thenCompose(new Function<Boolean, CompletableFuture<List<T>>>() {
+            @Override
+            public CompletableFuture<List<T>> apply(Boolean irreversible) {
+                if (!irreversible) {
+                    return communicationHandler.performRequestAsync(requestObject, targetClass, operationTypes);
+                }
+
+                // Keep the raw result, so it can be stored as it has been
+                // received.
+                return communicationHandler.performRequestAsync(requestObject, JsonNode.class)
+                        .thenApply(new Function<List<JsonNode>, List<T>>() {
+                            @Override
+                            public List<T> apply(List<JsonNode> result) {
+                                return transformAndStoreResult(store, blockNumber, result, targetClass,
+                                        operationTypes);
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Read the data of the block with the given <code>blockNumber</code> from
+     * the given <code>store</code>.
+     * 
+     * @param store
+     *            The store to read from or <code>null</code>.
+     * @param blockNumber
+     *            The number of the block the data belongs to.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The stored data or <code>null</code> if it is not available.
+     */
+    private <T> List<T> readStoredResult(BlockStore store, long blockNumber, Class<T> targetClass,
+            Set<OperationType> operationTypes) {
+        if (store == null) {
+            return null;
+        }
+
+        try {
+            String storedResult = store.get(blockNumber);
+            if (storedResult != null) {
+                return getResultReader(targetClass, operationTypes).readValue(storedResult);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not read block {} from the block store.", blockNumber, e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Transform the raw <code>result</code> received for the block with the
+     * given <code>blockNumber</code> and add it to the given
+     * <code>store</code> if the block is irreversible.
+     * 
+     * @param store
+     *            The store to add the result to or <code>null</code>.
+     * @param blockNumber
+     *            The number of the block the result belongs to.
+     * @param result
+     *            The raw result.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The transformed result.
+     * @throws CompletionException
+     *             If the result could not be transformed.
+     */
+    private <T> List<T> transformAndStoreResult(BlockStore store, long blockNumber, List<JsonNode> result,
+            Class<T> targetClass, Set<OperationType> operationTypes) {
+        String rawResult;
+        List<T> transformedResult;
+        try {
+            rawResult = CommunicationHandler.getObjectMapper().writeValueAsString(result);
+            transformedResult = getResultReader(targetClass, operationTypes).readValue(rawResult);
+        } catch (IOException e) {
+            throw new CompletionException(
+                    new SteemTransformationException("Could not transform the response into an object.", e));
+        }
+
+        if (store != null && blockNumber <= lastIrreversibleBlockNumber && !result.contains(null)) {
+            try {
+                store.put(blockNumber, rawResult);
+            } catch (IOException e) {
+                LOGGER.warn("Could not add block {} to the block store.", blockNumber, e);
+            }
+        }
+
+        return transformedResult;
+    }
+
+    /**
+     * Get a reader that transforms a JSON array into a list of the given
+     * <code>targetClass</code>.
+     * 
+     * @param targetClass
+     *            The type of the list elements.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @return The reader.
+     */
+    private ObjectReader getResultReader(Class<?> targetClass, Set<OperationType> operationTypes) {
+        ObjectMapper mapper = CommunicationHandler.getObjectMapper();
+        ObjectReader resultReader = mapper
+                .readerFor(mapper.getTypeFactory().constructCollectionType(List.class, targetClass));
+        if (operationTypes != null) {
+            resultReader = resultReader.withAttribute(OperationFilterDeserializer.OPERATION_FILTER, operationTypes);
+        }
+
+        return resultReader;
+    }
+
+    /**
+     * Check if the block with the given <code>blockNumber</code> is
+     * irreversible. The last irreversible block number is requested at most
+     * once per block interval.
+     * 
+     * @param blockNumber
+     *            The number of the block to check.
+     * @return A future that completes with <code>true</code> if the block is
+     *         irreversible.
+     */
+    private CompletableFuture<Boolean> isIrreversible(final long blockNumber) {
+        if (blockNumber <= lastIrreversibleBlockNumber || System.currentTimeMillis()
+                - lastIrreversibleBlockNumberUpdate <= LAST_IRREVERSIBLE_BLOCK_REFRESH_INTERVAL) {
+            return CompletableFuture.completedFuture(blockNumber <= lastIrreversibleBlockNumber);
+        }
+
+        return getDynamicGlobalProperties().thenApply(new Function<GlobalProperties, Boolean>() {
+            @Override
+            public Boolean apply(GlobalProperties globalProperties) {
+                lastIrreversibleBlockNumber = globalProperties.getLastIrreversibleBlockNum();
+                lastIrreversibleBlockNumberUpdate = System.currentTimeMillis();
+
+                return blockNumber <= lastIrreversibleBlockNumber;
+            }
+        });
+    }
+}
@@ -10,7 +10,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem data type "account_name_type".
@@ -98,7 +98,12 @@ public class AccountName implements ByteTransformable, SignatureObject {
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        return SteemJUtils.transformStringToVarIntByteArray(this.getName());
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeString(this.getName());
     }
 
     @Override
@@ -36,6 +36,34 @@ public class AppliedOperation {
     private AppliedOperation() {
     }
 
+    /**
+     * Create the context of an operation that has been taken from a block, so
+     * operations of a block and virtual operations can be processed the same
+     * way.
+     * 
+     * @param trxId
+     *            The id of the transaction containing the operation.
+     * @param block
+     *            The block number.
+     * @param trxInBlock
+     *            The index of the transaction inside the block.
+     * @param opInTrx
+     *            The index of the operation inside the transaction.
+     * @param timestamp
+     *            The time point at which the block has been produced.
+     * @param op
+     *            The operation.
+     */
+    public AppliedOperation(TransactionId trxId, int block, int trxInBlock, int opInTrx, TimePointSec timestamp,
+            Operation op) {
+        this.trxId = trxId;
+        this.block = block;
+        this.trxInBlock = trxInBlock;
+        this.opInTrx = opInTrx;
+        this.timestamp = timestamp;
+        this.op = op;
+    }
+
     /**
      * Get the id of this transaction.
      * 
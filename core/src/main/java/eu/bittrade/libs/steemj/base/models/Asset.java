@@ -1,8 +1,5 @@
 package eu.bittrade.libs.steemj.base.models;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
@@ -14,7 +11,7 @@ import eu.bittrade.libs.steemj.configuration.SteemJConfig;
 import eu.bittrade.libs.steemj.enums.AssetSymbolType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class is the java implementation of the <a href=
@@ -121,22 +118,19 @@ public class Asset implements ByteTransformable {
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedAsset = new ByteArrayOutputStream()) {
-            serializedAsset.write(SteemJUtils.transformLongToByteArray(this.amount));
-            serializedAsset.write(SteemJUtils.transformByteToLittleEndian(this.precision));
-
-            serializedAsset
-                    .write(this.symbol.name().toUpperCase().getBytes(SteemJConfig.getInstance().getEncodingCharset()));
-            String filledAssetSymbol = this.symbol.name().toUpperCase();
-
-            for (int i = filledAssetSymbol.length(); i < 7; i++) {
-                serializedAsset.write(0x00);
-            }
-
-            return serializedAsset.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming an asset into a byte array.", e);
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeLong(this.amount);
+        out.writeByte(this.precision);
+
+        out.write(this.symbol.name().toUpperCase().getBytes(SteemJConfig.getInstance().getEncodingCharset()));
+        String filledAssetSymbol = this.symbol.name().toUpperCase();
+
+        for (int i = filledAssetSymbol.length(); i < 7; i++) {
+            out.writeByte(0x00);
         }
     }
 
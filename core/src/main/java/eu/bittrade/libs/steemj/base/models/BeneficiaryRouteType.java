@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -13,7 +11,7 @@ import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
 import eu.bittrade.libs.steemj.interfaces.Validatable;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents a Steem "beneficiary_route_type" object
@@ -99,15 +97,13 @@ public class BeneficiaryRouteType implements ByteTransformable, Validatable {
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedBeneficiaryRouteType = new ByteArrayOutputStream()) {
-            serializedBeneficiaryRouteType.write(this.getAccount().toByteArray());
-            serializedBeneficiaryRouteType.write(SteemJUtils.transformShortToByteArray(this.getWeight()));
-
-            return serializedBeneficiaryRouteType.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        this.getAccount().writeTo(out);
+        out.writeShort(this.getWeight());
     }
 
     @Override
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * @author <a href="http://steemit.com/@dez1337">dez1337</a>
@@ -112,9 +113,15 @@ public class BlockHeader implements ByteTransformable {
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        // TODO Auto-generated method stub
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
         // serializedRecoverAccountOperation
         // .write(SteemJUtils.transformIntToVarIntByteArray(this.getExtensions().size()));
-        return null;
+        // TODO: Implement the serialization of this object.
+        throw new SteemInvalidTransactionException(
+                "The serialization of a " + this.getClass().getSimpleName() + " is not supported yet.");
     }
 }
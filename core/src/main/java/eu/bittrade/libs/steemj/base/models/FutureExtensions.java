@@ -1,8 +1,5 @@
 package eu.bittrade.libs.steemj.base.models;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -10,6 +7,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import eu.bittrade.libs.steemj.base.models.serializer.FutureExtensionsSerializer;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents a "future_extensions_type" object which has no member
@@ -21,15 +19,13 @@ import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
 public class FutureExtensions implements ByteTransformable {
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedFutureExtensions = new ByteArrayOutputStream()) {
-            byte[] extension = { 0x00 };
-            serializedFutureExtensions.write(extension);
+        return SteemBinaryWriter.toByteArray(this);
+    }
 
-            return serializedFutureExtensions.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        byte[] extension = { 0x00 };
+        out.write(extension);
     }
 
     @Override
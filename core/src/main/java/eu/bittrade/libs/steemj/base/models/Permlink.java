@@ -9,7 +9,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
 
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents a "permlink". Steem defines "permlinks" as Strings,
@@ -86,7 +86,12 @@ public class Permlink implements ByteTransformable {
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        return SteemJUtils.transformStringToVarIntByteArray(this.getLink());
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeString(this.getLink());
     }
 
     @Override
@@ -19,6 +19,7 @@ import eu.bittrade.libs.steemj.base.models.serializer.PublicKeySerializer;
 import eu.bittrade.libs.steemj.configuration.SteemJConfig;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class is the java implementation of the <a href=
@@ -165,6 +166,11 @@ public class PublicKey implements ByteTransformable {
         }
     }
 
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.write(this.toByteArray());
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
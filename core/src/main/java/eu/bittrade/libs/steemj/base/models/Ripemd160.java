@@ -8,6 +8,7 @@ import org.bitcoinj.core.Utils;
 
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class is a wrapper for ripemd160 hashes.
@@ -77,6 +78,11 @@ public abstract class Ripemd160 implements ByteTransformable, Serializable {
         return this.hashValue;
     }
 
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.write(this.hashValue);
+    }
+
     @Override
     public String toString() {
         return Utils.HEX.encode(this.hashValue);
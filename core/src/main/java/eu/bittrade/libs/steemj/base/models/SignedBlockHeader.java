@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class is the java implementation of the Steem "signed_block_header"
@@ -35,8 +36,14 @@ public class SignedBlockHeader extends BlockHeader implements ByteTransformable
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        // TODO Auto-generated method stub
-        return null;
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        // TODO: Implement the serialization of this object.
+        throw new SteemInvalidTransactionException(
+                "The serialization of a " + this.getClass().getSimpleName() + " is not supported yet.");
     }
 
     @Override
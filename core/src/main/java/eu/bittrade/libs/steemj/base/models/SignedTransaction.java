@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.Serializable;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
@@ -11,7 +9,6 @@ import java.util.Map.Entry;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.bitcoinj.core.ECKey;
-import org.bitcoinj.core.ECKey.ECDSASignature;
 import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Utils;
 import org.joou.UInteger;
@@ -26,11 +23,14 @@ import com.google.common.annotations.VisibleForTesting;
 
 import eu.bittrade.libs.steemj.base.models.operations.Operation;
 import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.CanonicalRetryMode;
 import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.CompactSigner;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents a Steem "signed_transaction" object.
@@ -128,7 +128,11 @@ public class SignedTransaction extends Transaction implements ByteTransformable,
     }
 
     /**
-     * Verify that the signature is canonical.
+     * The canonical check SteemJ used before
+     * {@link CompactSigner#isCanonical(byte[])} has been added. It rejects
+     * some signatures the Steem Nodes would accept, but it is still applied
+     * when the expiration date is increased, so the resulting signatures do
+     * not change.
      * 
      * Original implementation can be found <a href=
      * "https://github.com/kenCode-de/graphenej/blob/master/graphenej/src/main/java/de/bitsharesmunich/graphenej/Transaction.java"
@@ -136,9 +140,9 @@ public class SignedTransaction extends Transaction implements ByteTransformable,
      * 
      * @param signature
      *            A single signature in its byte representation.
-     * @return True if the signature is canonical or false if not.
+     * @return True if the signature has been rejected by the old check.
      */
-    private boolean isCanonical(byte[] signature) {
+    private boolean failsLegacyCanonicalCheck(byte[] signature) {
         return ((signature[0] & 0x80) != 0) || (signature[0] == 0) || ((signature[1] & 0x80) != 0)
                 || ((signature[32] & 0x80) != 0) || (signature[32] == 0) || ((signature[33] & 0x80) != 0);
     }
@@ -187,6 +191,9 @@ public class SignedTransaction extends Transaction implements ByteTransformable,
      * Use this method if you want to specify a different chainId than the
      * default one for STEEM. Otherwise use the {@link #sign() sign()} method.
      * 
+     * Non canonical signatures are retried as defined by the configured
+     * {@link SteemJConfig#getCanonicalRetryMode() canonicalRetryMode}.
+     * 
      * @param chainId
      *            The chain id that should be used during signing.
      * @param skipValidation
@@ -199,38 +206,170 @@ public class SignedTransaction extends Transaction implements ByteTransformable,
             this.validate();
         }
 
-        for (ECKey requiredPrivateKey : getRequiredSignatureKeys()) {
-            boolean isCanonical = false;
+        signWithKeys(getRequiredSignatureKeys(), chainId);
+    }
 
-            Sha256Hash messageAsHash;
-            while (!isCanonical) {
-                try {
-                    messageAsHash = Sha256Hash.wrap(Sha256Hash.hash(this.toByteArray(chainId)));
-                } catch (SteemInvalidTransactionException e) {
-                    throw new SteemInvalidTransactionException(
-                            "The required encoding is not supported by your platform.", e);
-                }
+    /**
+     * Like {@link #sign(String) sign(String)}, but uses the given
+     * <code>privateKeys</code> instead of looking them up in the
+     * {@link eu.bittrade.libs.steemj.configuration.PrivateKeyStorage}. This
+     * allows to resolve the keys once for a lot of transactions.
+     * 
+     * @param privateKeys
+     *            The keys to sign this transaction with.
+     * @param chainId
+     *            The chain id that should be used during signing.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be signed.
+     */
+    public void sign(List<ECKey> privateKeys, String chainId) throws SteemInvalidTransactionException {
+        this.validate();
 
-                ECDSASignature signature = requiredPrivateKey.sign(messageAsHash);
+        signWithKeys(privateKeys, chainId);
+    }
 
+    /**
+     * Sign this transaction with each of the given <code>privateKeys</code>.
+     * 
+     * @param privateKeys
+     *            The keys to sign this transaction with.
+     * @param chainId
+     *            The chain id that should be used during signing.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be signed.
+     */
+    private void signWithKeys(List<ECKey> privateKeys, String chainId) throws SteemInvalidTransactionException {
+        boolean useExtraEntropy = SteemJConfig.getInstance()
+                .getCanonicalRetryMode() == CanonicalRetryMode.EXTRA_ENTROPY;
+
+        for (ECKey requiredPrivateKey : privateKeys) {
+            CompactSigner signer = new CompactSigner(requiredPrivateKey);
+
+            if (useExtraEntropy) {
+                this.signatures.add(Utils.HEX.encode(signer.signCanonical(this.getDigest(chainId))));
+                continue;
+            }
+
+            boolean isCanonical = false;
+            while (!isCanonical) {
                 /*
-                 * Use 0 as the key type until the signature is canonical as the
-                 * key type does not effect the canonical test. The correct key
-                 * type will be tested later on. This technique improves the
-                 * performance (thanks to ray66rus).
+                 * The signer calculates the recovery id while signing, so the
+                 * public key does not need to be recovered to find it.
                  */
-                if (isCanonical(SteemJUtils.createSignedTransaction(0, signature, requiredPrivateKey))) {
-                    this.getExpirationDate().setDateTime(this.getExpirationDate().getDateTimeAsTimestamp() + 1);
-                } else {
+                byte[] signature = signer.sign(this.getDigest(chainId));
+
+                if (CompactSigner.isCanonical(signature) && !failsLegacyCanonicalCheck(signature)) {
                     isCanonical = true;
-                    int keyType = SteemJUtils.getKeyType(signature, messageAsHash, requiredPrivateKey);
-                    this.signatures.add(Utils.HEX
-                            .encode(SteemJUtils.createSignedTransaction(keyType, signature, requiredPrivateKey)));
+                    this.signatures.add(Utils.HEX.encode(signature));
+                } else {
+                    /*
+                     * The expiration date is serialized in seconds, so it has
+                     * to be increased by a whole second to change the digest.
+                     */
+                    this.getExpirationDate().setDateTime(this.getExpirationDate().getDateTimeAsTimestamp() + 1000);
                 }
             }
         }
     }
 
+    /**
+     * Get the SHA-256 hash of the serialized transaction that has to be
+     * signed. The transaction is written directly into the digest, so its
+     * binary representation is never created as a whole. The digest is not
+     * cached, as the operations and the expiration date can be changed in
+     * place, and the operations are validated each time.
+     * 
+     * @param chainId
+     *            The HEX representation of the chain Id you want to use for
+     *            this transaction.
+     * @return The digest of this transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be serialized.
+     */
+    public Sha256Hash getDigest(String chainId) throws SteemInvalidTransactionException {
+        return getDigest(chainId, SteemJConfig.getInstance().getValidationLevel());
+    }
+
+    /**
+     * Like {@link #getDigest(String) getDigest(String)}, but allows to define
+     * how the operations are validated.
+     * 
+     * @param chainId
+     *            The HEX representation of the chain Id you want to use for
+     *            this transaction.
+     * @param validationType
+     *            The validation to perform for each operation.
+     * @return The digest of this transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be serialized.
+     */
+    private Sha256Hash getDigest(String chainId, ValidationType validationType)
+            throws SteemInvalidTransactionException {
+        SteemBinaryWriter digestWriter = new SteemBinaryWriter(Sha256Hash.newDigest());
+        writeTo(digestWriter, chainId, validationType);
+
+        return Sha256Hash.wrap(digestWriter.digest());
+    }
+
+    /**
+     * Like {@link #getSignatureKeys(String) getSignatureKeys(String)}, but
+     * uses the default Steem chain id.
+     * 
+     * @return The public keys that have signed this transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be serialized or one of its
+     *             signatures is invalid.
+     */
+    @JsonIgnore
+    public List<PublicKey> getSignatureKeys() throws SteemInvalidTransactionException {
+        return getSignatureKeys(SteemJConfig.getInstance().getChainId());
+    }
+
+    /**
+     * Recover the public keys that have created the {@link #getSignatures()
+     * signatures} of this transaction without asking a Steem Node. The keys
+     * are returned in the same order as the signatures.
+     * 
+     * A key can only be recovered from a valid signature, so this method can
+     * be used to verify the signatures locally. The caller still has to check
+     * if the recovered keys belong to the required authorities. The operations
+     * are not validated, as a transaction that has already been signed has to
+     * be verified as it is.
+     * 
+     * @param chainId
+     *            The HEX representation of the chain Id that has been used to
+     *            sign this transaction.
+     * @return The public keys that have signed this transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be serialized or one of its
+     *             signatures is invalid.
+     */
+    public List<PublicKey> getSignatureKeys(String chainId) throws SteemInvalidTransactionException {
+        List<PublicKey> signatureKeys = new ArrayList<>();
+        if (this.signatures == null) {
+            return signatureKeys;
+        }
+
+        Sha256Hash transactionDigest = this.getDigest(chainId, ValidationType.SKIP_VALIDATION);
+        for (String signature : this.signatures) {
+            ECKey publicKey;
+            try {
+                publicKey = CompactSigner.recoverPublicKey(Utils.HEX.decode(signature), transactionDigest);
+            } catch (IllegalArgumentException e) {
+                throw new SteemInvalidTransactionException("The signature '" + signature + "' is invalid.", e);
+            }
+
+            if (publicKey == null) {
+                throw new SteemInvalidTransactionException(
+                        "Could not recover a public key from the signature '" + signature + "'.");
+            }
+
+            signatureKeys.add(new PublicKey(publicKey));
+        }
+
+        return signatureKeys;
+    }
+
     /**
      * @return The list of private keys required to sign this transaction.
      * @throws SteemInvalidTransactionException
@@ -321,34 +460,102 @@ public class SignedTransaction extends Transaction implements ByteTransformable,
      *             If the transaction can not be signed.
      */
     protected byte[] toByteArray(String chainId) throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedTransaction = new ByteArrayOutputStream()) {
-            if (chainId != null && !chainId.isEmpty()) {
-                serializedTransaction.write(Utils.HEX.decode(chainId));
-            }
-            serializedTransaction.write(SteemJUtils.transformShortToByteArray(this.getRefBlockNum().shortValue()));
-            serializedTransaction.write(SteemJUtils.transformIntToByteArray(this.getRefBlockPrefix().intValue()));
-            serializedTransaction.write(this.getExpirationDate().toByteArray());
+        SteemBinaryWriter serializedTransaction = new SteemBinaryWriter();
+        writeTo(serializedTransaction, chainId);
 
-            serializedTransaction.write(SteemJUtils.transformLongToVarIntByteArray(this.getOperations().size()));
-            for (Operation operation : this.getOperations()) {
-                /*
-                 * Validate all Operations
-                 * 
-                 * TODO: Add a validation method to the Transaction Object?
-                 */
-                operation.validate(SteemJConfig.getInstance().getValidationLevel());
-                serializedTransaction.write(operation.toByteArray());
-            }
+        return serializedTransaction.toByteArray();
+    }
 
-            serializedTransaction.write(SteemJUtils.transformIntToVarIntByteArray(this.getExtensions().size()));
-            for (FutureExtensions futureExtensions : this.getExtensions()) {
-                serializedTransaction.write(futureExtensions.toByteArray());
-            }
+    /**
+     * Create the HEX representation of this transaction including its
+     * signatures, as it is returned by
+     * {@link eu.bittrade.libs.steemj.SteemJ#getTransactionHex(SignedTransaction)
+     * getTransactionHex}, without asking a Steem Node.
+     * 
+     * The result can be parsed again using
+     * {@link eu.bittrade.libs.steemj.transactions.TransactionDecoder#decodeTransaction(String)
+     * decodeTransaction}.
+     * 
+     * @return The HEX representation of this transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be serialized.
+     */
+    public String toHex() throws SteemInvalidTransactionException {
+        SteemBinaryWriter serializedTransaction = new SteemBinaryWriter();
+        writeTo(serializedTransaction, null);
 
-            return serializedTransaction.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the transaction into a byte array.", e);
+        serializedTransaction.writeVarLong(this.getSignatures().size());
+        for (String signature : this.getSignatures()) {
+            serializedTransaction.write(Utils.HEX.decode(signature));
+        }
+
+        return Utils.HEX.encode(serializedTransaction.toByteArray());
+    }
+
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        writeTo(out, SteemJConfig.getInstance().getChainId());
+    }
+
+    /**
+     * Like {@link #writeTo(SteemBinaryWriter) writeTo(SteemBinaryWriter)}, but
+     * allows to define a Steem chain id.
+     * 
+     * @param out
+     *            The writer to write the byte representation to.
+     * @param chainId
+     *            The HEX representation of the chain Id you want to use for
+     *            this transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be signed.
+     */
+    protected void writeTo(SteemBinaryWriter out, String chainId) throws SteemInvalidTransactionException {
+        writeTo(out, chainId, SteemJConfig.getInstance().getValidationLevel());
+    }
+
+    /**
+     * Like {@link #writeTo(SteemBinaryWriter, String)
+     * writeTo(SteemBinaryWriter, String)}, but allows to define how the
+     * operations are validated.
+     * 
+     * @param out
+     *            The writer to write the byte representation to.
+     * @param chainId
+     *            The HEX representation of the chain Id you want to use for
+     *            this transaction.
+     * @param validationType
+     *            The validation to perform for each operation.
+     * @throws SteemInvalidTransactionException
+     *             If the transaction can not be signed.
+     */
+    private void writeTo(SteemBinaryWriter out, String chainId, ValidationType validationType)
+            throws SteemInvalidTransactionException {
+        if (this.hasSkippedOperations()) {
+            // The skipped operations are part of the signed data.
+            throw new SteemInvalidTransactionException(SKIPPED_OPERATIONS_ERROR_MESSAGE);
+        }
+
+        if (chainId != null && !chainId.isEmpty()) {
+            out.write(Utils.HEX.decode(chainId));
+        }
+        out.writeShort(this.getRefBlockNum().shortValue());
+        out.writeInt(this.getRefBlockPrefix().intValue());
+        this.getExpirationDate().writeTo(out);
+
+        out.writeVarLong(this.getOperations().size());
+        for (Operation operation : this.getOperations()) {
+            /*
+             * Validate all Operations
+             * 
+             * TODO: Add a validation method to the Transaction Object?
+             */
+            operation.validate(validationType);
+            operation.writeTo(out);
+        }
+
+        out.writeVarInt(this.getExtensions().size());
+        for (FutureExtensions futureExtensions : this.getExtensions()) {
+            futureExtensions.writeTo(out);
         }
     }
 
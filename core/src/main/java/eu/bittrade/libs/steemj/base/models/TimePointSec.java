@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.text.ParseException;
 import java.util.Date;
 
@@ -13,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonValue;
 
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 import eu.bittrade.libs.steemj.util.SteemJUtils;
 
 /**
@@ -129,14 +128,12 @@ public class TimePointSec implements ByteTransformable {
 
     @Override
     public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedDateTime = new ByteArrayOutputStream()) {
-            serializedDateTime.write(SteemJUtils.transformIntToByteArray(this.getDateTimeAsInt()));
+        return SteemBinaryWriter.toByteArray(this);
+    }
 
-            return serializedDateTime.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the model into a byte array.", e);
-        }
+    @Override
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeInt(this.getDateTimeAsInt());
     }
 
     @Override
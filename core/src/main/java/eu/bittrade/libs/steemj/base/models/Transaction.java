@@ -17,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.annotations.VisibleForTesting;
 
@@ -35,6 +36,9 @@ public class Transaction implements Serializable {
     /** Generated serial version uid. */
     private static final long serialVersionUID = -3834759301983200246L;
     private static final Logger LOGGER = LoggerFactory.getLogger(Transaction.class);
+    /** The error reported for transactions with skipped operations. */
+    protected static final String SKIPPED_OPERATIONS_ERROR_MESSAGE = "The transaction only contains a part of its "
+            + "operations, as the others have been skipped while it has been parsed.";
 
     /**
      * The ref_block_num indicates a particular block in the past by referring
@@ -106,7 +110,8 @@ public class Transaction implements Serializable {
      *            (see {@link #setExtensions(List)}).
      */
     public Transaction(BlockId blockId, List<Operation> operations, List<FutureExtensions> extensions) {
-        this.setRefBlockNum(UShort.valueOf(blockId.getNumberFromHash()));
+        // Only the lower 16 bits of the block number are used as reference.
+        this.setRefBlockNum(UShort.valueOf(blockId.getNumberFromHash() & 0xFFFF));
         this.setRefBlockPrefix(UInteger.valueOf(blockId.getHashValue()));
         this.setExpirationDate(new TimePointSec(
                 System.currentTimeMillis() + SteemJConfig.getInstance().getMaximumExpirationDateOffset() - 60000L));
@@ -144,6 +149,22 @@ public class Transaction implements Serializable {
         return operations;
     }
 
+    /**
+     * Check if operations of this transaction have been skipped while it has
+     * been parsed (see
+     * {@link eu.bittrade.libs.steemj.SteemJAsync#getBlock(long, java.util.Set)
+     * getBlock(long, Set)}). Skipped operations are represented by
+     * <code>null</code>, so the other operations keep their position. Such a
+     * transaction only contains a part of its operations, so it can't be
+     * serialized, signed or verified.
+     * 
+     * @return <code>true</code> if operations have been skipped.
+     */
+    @JsonIgnore
+    public boolean hasSkippedOperations() {
+        return this.operations != null && this.operations.contains(null);
+    }
+
     /**
      * Get the ref block number in its int representation.
      * 
@@ -269,17 +290,21 @@ public class Transaction implements Serializable {
      * This method collects the required authorities for all operations stored
      * in this transaction. The returned list is already a minimized version to
      * avoid an "irrelevant signature included Unnecessary signature(s)
-     * detected" error.
+     * detected" error. The authorities of {@link #hasSkippedOperations()
+     * skipped operations} are unknown.
      * 
      * @return All required authorities and private key types.
      */
-    protected Map<SignatureObject, PrivateKeyType> getRequiredAuthorities() {
+    @JsonIgnore
+    public Map<SignatureObject, PrivateKeyType> getRequiredAuthorities() {
 
         Map<SignatureObject, PrivateKeyType> requiredAuthorities = new HashMap<>();
 
         // Iterate over all Operations and collect the requried authorities.
         for (Operation operation : this.getOperations()) {
-            requiredAuthorities.putAll(operation.getRequiredAuthorities(requiredAuthorities));
+            if (operation != null) {
+                requiredAuthorities.putAll(operation.getRequiredAuthorities(requiredAuthorities));
+            }
         }
 
         return requiredAuthorities;
@@ -292,6 +317,10 @@ public class Transaction implements Serializable {
      *             In case a field does not fulfill the requirements.
      */
     public void validate() throws SteemInvalidTransactionException {
+        if (this.hasSkippedOperations()) {
+            throw new SteemInvalidTransactionException(SKIPPED_OPERATIONS_ERROR_MESSAGE);
+        }
+
         if (this.getExpirationDate().getDateTimeAsTimestamp() > (new Timestamp(System.currentTimeMillis())).getTime()
                 + SteemJConfig.getInstance().getMaximumExpirationDateOffset()) {
             LOGGER.warn("The configured expiration date for this transaction is to far "
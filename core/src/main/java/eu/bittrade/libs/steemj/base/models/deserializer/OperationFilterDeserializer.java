@@ -0,0 +1,94 @@
+package eu.bittrade.libs.steemj.base.models.deserializer;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.enums.OperationType;
+
+/**
+ * This deserializer is used to skip the operations a caller is not
+ * interested in, without creating Java objects for them.
+ *
+ * <p>
+ * If the {@link #OPERATION_FILTER} attribute of the reader contains a set of
+ * {@link OperationType}s, only operations of these types are transformed into
+ * Java objects. For all other operations, the payload is skipped using
+ * {@link JsonParser#skipChildren()} and <code>null</code> is returned. If the
+ * attribute has not been set, operations are handled by the
+ * {@link com.fasterxml.jackson.annotation.JsonSubTypes JsonSubTypes} mapping
+ * of {@link Operation} as usual.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class OperationFilterDeserializer extends JsonDeserializer<Operation> {
+    /** The reader attribute containing the operation types to keep. */
+    public static final String OPERATION_FILTER = "steemj.operationFilter";
+
+    /** The operation types by the names used in the JSON representation. */
+    private static final Map<String, OperationType> OPERATION_TYPES = new HashMap<>();
+
+    static {
+        String suffix = "_OPERATION";
+        for (OperationType operationType : OperationType.values()) {
+            String name = operationType.name();
+            OPERATION_TYPES.put(name.substring(0, name.length() - suffix.length()).toLowerCase(Locale.ENGLISH),
+                    operationType);
+        }
+    }
+
+    @Override
+    public Operation deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        throw JsonMappingException.from(jsonParser,
+                "Operations can only be transformed using the type information of the Operation class.");
+    }
+
+    @Override
+    public Object deserializeWithType(JsonParser jsonParser, DeserializationContext deserializationContext,
+            TypeDeserializer typeDeserializer) throws IOException {
+        Object operationFilter = deserializationContext.getAttribute(OPERATION_FILTER);
+        if (!(operationFilter instanceof Set) || !jsonParser.isExpectedStartArrayToken()) {
+            return typeDeserializer.deserializeTypedFromAny(jsonParser, deserializationContext);
+        }
+
+        String typeId = jsonParser.nextTextValue();
+        if (typeId == null) {
+            throw deserializationContext.wrongTokenException(jsonParser, Operation.class, JsonToken.VALUE_STRING,
+                    "The operation type is missing.");
+        }
+
+        // Move to the payload of the operation.
+        jsonParser.nextToken();
+
+        Operation operation = null;
+        OperationType operationType = OPERATION_TYPES.get(typeId);
+        if (operationType != null && ((Set<?>) operationFilter).contains(operationType)) {
+            JavaType type = typeDeserializer.getTypeIdResolver().typeFromId(deserializationContext, typeId);
+            JsonDeserializer<Object> deserializer = deserializationContext.findContextualValueDeserializer(type,
+                    null);
+            operation = (Operation) deserializer.deserialize(jsonParser, deserializationContext);
+        } else {
+            jsonParser.skipChildren();
+        }
+
+        if (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            throw deserializationContext.wrongTokenException(jsonParser, Operation.class, JsonToken.END_ARRAY,
+                    "An operation has to consist of its type and its payload.");
+        }
+
+        return operation;
+    }
+}
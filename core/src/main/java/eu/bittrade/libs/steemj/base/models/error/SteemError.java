@@ -13,6 +13,25 @@ public class SteemError {
     @JsonProperty("error")
     private SteemErrorDetails steemErrorDetails;
 
+    /**
+     * This constructor is used by Jackson.
+     */
+    public SteemError() {
+    }
+
+    /**
+     * Create a new error for an already parsed response.
+     * 
+     * @param responseId
+     *            The id of the response.
+     * @param steemErrorDetails
+     *            The error details.
+     */
+    public SteemError(int responseId, SteemErrorDetails steemErrorDetails) {
+        this.responseId = responseId;
+        this.steemErrorDetails = steemErrorDetails;
+    }
+
     public int getResponseId() {
         return responseId;
     }
@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -15,7 +13,7 @@ import eu.bittrade.libs.steemj.base.models.Authority;
 import eu.bittrade.libs.steemj.base.models.PublicKey;
 import eu.bittrade.libs.steemj.enums.OperationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "account_create_operation" object.
@@ -73,25 +71,16 @@ public class AccountCreateOperation extends AbstractAccountCreateOperation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedAccountCreateOperation = new ByteArrayOutputStream()) {
-            serializedAccountCreateOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(OperationType.ACCOUNT_CREATE_OPERATION.ordinal()));
-            serializedAccountCreateOperation.write(this.getFee().toByteArray());
-            serializedAccountCreateOperation.write(this.getCreator().toByteArray());
-            serializedAccountCreateOperation.write(this.getNewAccountName().toByteArray());
-            serializedAccountCreateOperation.write(this.getOwner().toByteArray());
-            serializedAccountCreateOperation.write(this.getActive().toByteArray());
-            serializedAccountCreateOperation.write(this.getPosting().toByteArray());
-            serializedAccountCreateOperation.write(this.getMemoKey().toByteArray());
-            serializedAccountCreateOperation
-                    .write(SteemJUtils.transformStringToVarIntByteArray(this.getJsonMetadata()));
-
-            return serializedAccountCreateOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.ACCOUNT_CREATE_OPERATION.ordinal());
+        this.getFee().writeTo(out);
+        this.getCreator().writeTo(out);
+        this.getNewAccountName().writeTo(out);
+        this.getOwner().writeTo(out);
+        this.getActive().writeTo(out);
+        this.getPosting().writeTo(out);
+        this.getMemoKey().writeTo(out);
+        out.writeString(this.getJsonMetadata());
     }
 
     @Override
@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.Map;
 
@@ -17,7 +15,7 @@ import eu.bittrade.libs.steemj.enums.OperationType;
 import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "account_update_operation" object.
@@ -186,29 +184,35 @@ public class AccountUpdateOperation extends AbstractAccountOperation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedAccountUpdateOperation = new ByteArrayOutputStream()) {
-            serializedAccountUpdateOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(OperationType.ACCOUNT_UPDATE_OPERATION.ordinal()));
-            serializedAccountUpdateOperation.write(this.getAccount().toByteArray());
-
-            // Handle optional values.
-            if (this.getOwner() != null) {
-                serializedAccountUpdateOperation.write(this.getOwner().toByteArray());
-            } else if (this.getActive() != null) {
-                serializedAccountUpdateOperation.write(this.getActive().toByteArray());
-            } else if (this.getPosting() != null) {
-                serializedAccountUpdateOperation.write(this.getPosting().toByteArray());
-            }
-
-            serializedAccountUpdateOperation.write(this.getMemoKey().toByteArray());
-            serializedAccountUpdateOperation
-                    .write(SteemJUtils.transformStringToVarIntByteArray(this.getJsonMetadata()));
-
-            return serializedAccountUpdateOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.ACCOUNT_UPDATE_OPERATION.ordinal());
+        this.getAccount().writeTo(out);
+
+        writeOptionalAuthority(out, this.getOwner());
+        writeOptionalAuthority(out, this.getActive());
+        writeOptionalAuthority(out, this.getPosting());
+
+        this.getMemoKey().writeTo(out);
+        out.writeString(this.getJsonMetadata());
+    }
+
+    /**
+     * Write an optional authority, which is prefixed by a flag that indicates
+     * if the authority is present.
+     * 
+     * @param out
+     *            The writer to write the byte representation to.
+     * @param authority
+     *            The authority or <code>null</code> if it should not be
+     *            updated.
+     * @throws SteemInvalidTransactionException
+     *             If the authority can not be serialized.
+     */
+    private static void writeOptionalAuthority(SteemBinaryWriter out, Authority authority)
+            throws SteemInvalidTransactionException {
+        out.writeBoolean(authority != null);
+        if (authority != null) {
+            authority.writeTo(out);
         }
     }
 
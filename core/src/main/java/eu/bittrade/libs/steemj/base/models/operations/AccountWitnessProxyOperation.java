@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.Map;
 
@@ -15,7 +13,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "account_witness_proxy_operation" object.
@@ -106,18 +104,10 @@ public class AccountWitnessProxyOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedAccountWitnessProxyOperation = new ByteArrayOutputStream()) {
-            serializedAccountWitnessProxyOperation.write(
-                    SteemJUtils.transformIntToVarIntByteArray(OperationType.ACCOUNT_WITNESS_PROXY_OPERATION.ordinal()));
-            serializedAccountWitnessProxyOperation.write(this.getAccount().toByteArray());
-            serializedAccountWitnessProxyOperation.write(this.getProxy().toByteArray());
-
-            return serializedAccountWitnessProxyOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.ACCOUNT_WITNESS_PROXY_OPERATION.ordinal());
+        this.getAccount().writeTo(out);
+        this.getProxy().writeTo(out);
     }
 
     @Override
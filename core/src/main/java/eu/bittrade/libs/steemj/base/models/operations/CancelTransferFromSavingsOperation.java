@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.Map;
 
@@ -16,7 +14,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "cancel_transfer_from_savings_operation"
@@ -127,19 +125,10 @@ public class CancelTransferFromSavingsOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedCancelTransferFromSavingsOperation = new ByteArrayOutputStream()) {
-            serializedCancelTransferFromSavingsOperation.write(SteemJUtils
-                    .transformIntToVarIntByteArray(OperationType.CANCEL_TRANSFER_FROM_SAVINGS_OPERATION.ordinal()));
-            serializedCancelTransferFromSavingsOperation.write(this.getFrom().toByteArray());
-            serializedCancelTransferFromSavingsOperation
-                    .write(SteemJUtils.transformIntToByteArray(this.getRequestId()));
-
-            return serializedCancelTransferFromSavingsOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.CANCEL_TRANSFER_FROM_SAVINGS_OPERATION.ordinal());
+        this.getFrom().writeTo(out);
+        out.writeInt(this.getRequestId());
     }
 
     @Override
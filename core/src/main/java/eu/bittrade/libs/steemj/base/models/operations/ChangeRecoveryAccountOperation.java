@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +17,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "change_recovery_account_operation" object.
@@ -174,23 +172,14 @@ public class ChangeRecoveryAccountOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedChangeRecoveryAccountOperation = new ByteArrayOutputStream()) {
-            serializedChangeRecoveryAccountOperation.write(SteemJUtils
-                    .transformIntToVarIntByteArray(OperationType.CHANGE_RECOVERY_ACCOUNT_OPERATION.ordinal()));
-            serializedChangeRecoveryAccountOperation.write(this.getAccountToRecover().toByteArray());
-            serializedChangeRecoveryAccountOperation.write(this.getNewRecoveryAccount().toByteArray());
-
-            serializedChangeRecoveryAccountOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(this.getExtensions().size()));
-            for (FutureExtensions futureExtensions : this.getExtensions()) {
-                serializedChangeRecoveryAccountOperation.write(futureExtensions.toByteArray());
-            }
-
-            return serializedChangeRecoveryAccountOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.CHANGE_RECOVERY_ACCOUNT_OPERATION.ordinal());
+        this.getAccountToRecover().writeTo(out);
+        this.getNewRecoveryAccount().writeTo(out);
+
+        out.writeVarInt(this.getExtensions().size());
+        for (FutureExtensions futureExtensions : this.getExtensions()) {
+            futureExtensions.writeTo(out);
         }
     }
 
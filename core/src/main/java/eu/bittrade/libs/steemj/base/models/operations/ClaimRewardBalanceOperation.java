@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.List;
 import java.util.Map;
@@ -19,7 +17,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "claim_reward_balance_operation" object.
@@ -185,20 +183,12 @@ public class ClaimRewardBalanceOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedClaimRewardOperation = new ByteArrayOutputStream()) {
-            serializedClaimRewardOperation.write(
-                    SteemJUtils.transformIntToVarIntByteArray(OperationType.CLAIM_REWARD_BALANCE_OPERATION.ordinal()));
-            serializedClaimRewardOperation.write(this.getAccount().toByteArray());
-            serializedClaimRewardOperation.write(this.getRewardSteem().toByteArray());
-            serializedClaimRewardOperation.write(this.getRewardSbd().toByteArray());
-            serializedClaimRewardOperation.write(this.getRewardVests().toByteArray());
-
-            return serializedClaimRewardOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.CLAIM_REWARD_BALANCE_OPERATION.ordinal());
+        this.getAccount().writeTo(out);
+        this.getRewardSteem().writeTo(out);
+        this.getRewardSbd().writeTo(out);
+        this.getRewardVests().writeTo(out);
     }
 
     @Override
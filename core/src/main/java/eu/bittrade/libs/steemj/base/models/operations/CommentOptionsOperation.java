@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,7 +20,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "comment_options_operation" object.
@@ -350,30 +348,19 @@ public class CommentOptionsOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedCommentOptionsOperation = new ByteArrayOutputStream()) {
-            serializedCommentOptionsOperation.write(
-                    SteemJUtils.transformIntToVarIntByteArray(OperationType.COMMENT_OPTIONS_OPERATION.ordinal()));
-            serializedCommentOptionsOperation.write(this.getAuthor().toByteArray());
-            serializedCommentOptionsOperation.write(this.getPermlink().toByteArray());
-            serializedCommentOptionsOperation.write(this.getMaxAcceptedPayout().toByteArray());
-            serializedCommentOptionsOperation
-                    .write(SteemJUtils.transformShortToByteArray(this.getPercentSteemDollars()));
-            serializedCommentOptionsOperation.write(SteemJUtils.transformBooleanToByteArray(this.getAllowVotes()));
-            serializedCommentOptionsOperation
-                    .write(SteemJUtils.transformBooleanToByteArray(this.getAllowCurationRewards()));
-
-            serializedCommentOptionsOperation
-                    .write(SteemJUtils.transformLongToVarIntByteArray(this.getExtensions().size()));
-
-            for (CommentOptionsExtension commentOptionsExtension : this.getExtensions()) {
-                serializedCommentOptionsOperation.write(commentOptionsExtension.toByteArray());
-            }
-
-            return serializedCommentOptionsOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.COMMENT_OPTIONS_OPERATION.ordinal());
+        this.getAuthor().writeTo(out);
+        this.getPermlink().writeTo(out);
+        this.getMaxAcceptedPayout().writeTo(out);
+        out.writeShort(this.getPercentSteemDollars());
+        out.writeBoolean(this.getAllowVotes());
+        out.writeBoolean(this.getAllowCurationRewards());
+
+        out.writeVarLong(this.getExtensions().size());
+
+        for (CommentOptionsExtension commentOptionsExtension : this.getExtensions()) {
+            commentOptionsExtension.writeTo(out);
         }
     }
 
@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.Map;
 
@@ -18,7 +16,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "delegate_vesting_shares_operation" object.
@@ -147,19 +145,11 @@ public class DelegateVestingSharesOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedDelegateVestingSharesOperation = new ByteArrayOutputStream()) {
-            serializedDelegateVestingSharesOperation.write(SteemJUtils
-                    .transformIntToVarIntByteArray(OperationType.DELEGATE_VESTING_SHARES_OPERATION.ordinal()));
-            serializedDelegateVestingSharesOperation.write(this.getDelegator().toByteArray());
-            serializedDelegateVestingSharesOperation.write(this.getDelegatee().toByteArray());
-            serializedDelegateVestingSharesOperation.write(this.getVestingShares().toByteArray());
-
-            return serializedDelegateVestingSharesOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.DELEGATE_VESTING_SHARES_OPERATION.ordinal());
+        this.getDelegator().writeTo(out);
+        this.getDelegatee().writeTo(out);
+        this.getVestingShares().writeTo(out);
     }
 
     @Override
@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.Map;
 
@@ -16,7 +14,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "escrow_dispute_operation" object.
@@ -116,21 +114,13 @@ public class EscrowDisputeOperation extends AbstractEscrowOperation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedEscrowDisputeOperation = new ByteArrayOutputStream()) {
-            serializedEscrowDisputeOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(OperationType.ESCROW_DISPUTE_OPERATION.ordinal()));
-            serializedEscrowDisputeOperation.write(this.getFrom().toByteArray());
-            serializedEscrowDisputeOperation.write(this.getTo().toByteArray());
-            serializedEscrowDisputeOperation.write(this.getAgent().toByteArray());
-            serializedEscrowDisputeOperation.write(this.getWho().toByteArray());
-            serializedEscrowDisputeOperation.write(SteemJUtils.transformIntToByteArray(this.getEscrowId()));
-
-            return serializedEscrowDisputeOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.ESCROW_DISPUTE_OPERATION.ordinal());
+        this.getFrom().writeTo(out);
+        this.getTo().writeTo(out);
+        this.getAgent().writeTo(out);
+        this.getWho().writeTo(out);
+        out.writeInt(this.getEscrowId());
     }
 
     @Override
@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.Map;
 
@@ -18,7 +16,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "escrow_release_operation" object.
@@ -280,24 +278,16 @@ public class EscrowReleaseOperation extends AbstractEscrowOperation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedEscrowReleaseOperation = new ByteArrayOutputStream()) {
-            serializedEscrowReleaseOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(OperationType.ESCROW_RELEASE_OPERATION.ordinal()));
-            serializedEscrowReleaseOperation.write(this.getFrom().toByteArray());
-            serializedEscrowReleaseOperation.write(this.getTo().toByteArray());
-            serializedEscrowReleaseOperation.write(this.getAgent().toByteArray());
-            serializedEscrowReleaseOperation.write(this.getWho().toByteArray());
-            serializedEscrowReleaseOperation.write(this.getReceiver().toByteArray());
-            serializedEscrowReleaseOperation.write(SteemJUtils.transformIntToByteArray(this.getEscrowId()));
-            serializedEscrowReleaseOperation.write(this.getSbdAmount().toByteArray());
-            serializedEscrowReleaseOperation.write(this.getSteemAmount().toByteArray());
-
-            return serializedEscrowReleaseOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.ESCROW_RELEASE_OPERATION.ordinal());
+        this.getFrom().writeTo(out);
+        this.getTo().writeTo(out);
+        this.getAgent().writeTo(out);
+        this.getWho().writeTo(out);
+        this.getReceiver().writeTo(out);
+        out.writeInt(this.getEscrowId());
+        this.getSbdAmount().writeTo(out);
+        this.getSteemAmount().writeTo(out);
     }
 
     @Override
@@ -317,7 +307,7 @@ public class EscrowReleaseOperation extends AbstractEscrowOperation {
             if (!ValidationType.SKIP_ASSET_VALIDATION.equals(validationType)) {
                 if (steemAmount.getAmount() < 0) {
                     throw new InvalidParameterException("The steem amount cannot be negative.");
-                } else if (!steemAmount.getSymbol().equals(AssetSymbolType.SBD)) {
+                } else if (!steemAmount.getSymbol().equals(AssetSymbolType.STEEM)) {
                     throw new InvalidParameterException("The steem amount must contain STEEM.");
                 } else if (sbdAmount.getAmount() < 0) {
                     throw new InvalidParameterException("The sbd amount cannot be negative.");
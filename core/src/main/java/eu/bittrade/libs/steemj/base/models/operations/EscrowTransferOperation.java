@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
@@ -16,6 +14,7 @@ import eu.bittrade.libs.steemj.enums.AssetSymbolType;
 import eu.bittrade.libs.steemj.enums.OperationType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 import eu.bittrade.libs.steemj.util.SteemJUtils;
 
 /**
@@ -403,26 +402,18 @@ public class EscrowTransferOperation extends AbstractEscrowOperation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedEscrowTransferOperation = new ByteArrayOutputStream()) {
-            serializedEscrowTransferOperation.write(
-                    SteemJUtils.transformIntToVarIntByteArray(OperationType.ESCROW_TRANSFER_OPERATION.ordinal()));
-            serializedEscrowTransferOperation.write(this.getFrom().toByteArray());
-            serializedEscrowTransferOperation.write(this.getTo().toByteArray());
-            serializedEscrowTransferOperation.write(this.getAgent().toByteArray());
-            serializedEscrowTransferOperation.write(SteemJUtils.transformIntToByteArray(this.getEscrowId()));
-            serializedEscrowTransferOperation.write(this.getSbdAmount().toByteArray());
-            serializedEscrowTransferOperation.write(this.getSteemAmount().toByteArray());
-            serializedEscrowTransferOperation.write(this.getFee().toByteArray());
-            serializedEscrowTransferOperation.write(this.getRatificationDeadlineDate().toByteArray());
-            serializedEscrowTransferOperation.write(this.getEscrowExpirationDate().toByteArray());
-            serializedEscrowTransferOperation.write(SteemJUtils.transformStringToVarIntByteArray(this.getJsonMeta()));
-
-            return serializedEscrowTransferOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.ESCROW_TRANSFER_OPERATION.ordinal());
+        this.getFrom().writeTo(out);
+        this.getTo().writeTo(out);
+        this.getAgent().writeTo(out);
+        out.writeInt(this.getEscrowId());
+        this.getSbdAmount().writeTo(out);
+        this.getSteemAmount().writeTo(out);
+        this.getFee().writeTo(out);
+        this.getRatificationDeadlineDate().writeTo(out);
+        this.getEscrowExpirationDate().writeTo(out);
+        out.writeString(this.getJsonMeta());
     }
 
     @Override
@@ -447,7 +438,7 @@ public class EscrowTransferOperation extends AbstractEscrowOperation {
                     throw new InvalidParameterException("The fee must be STEEM or SBD.");
                 } else if (!sbdAmount.getSymbol().equals(AssetSymbolType.SBD)) {
                     throw new InvalidParameterException("The sbd amount must contain SBD.");
-                } else if (!steemAmount.getSymbol().equals(AssetSymbolType.SBD)) {
+                } else if (!steemAmount.getSymbol().equals(AssetSymbolType.STEEM)) {
                     throw new InvalidParameterException("The steem amount must contain STEEM.");
                 }
             }
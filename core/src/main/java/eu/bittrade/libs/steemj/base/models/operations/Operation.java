@@ -27,9 +27,11 @@ import eu.bittrade.libs.steemj.base.models.operations.virtual.ProducerRewardOper
 import eu.bittrade.libs.steemj.base.models.operations.virtual.ReturnVestingDelegationOperation;
 import eu.bittrade.libs.steemj.base.models.operations.virtual.ShutdownWitnessOpeartion;
 import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
 import eu.bittrade.libs.steemj.interfaces.Validatable;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class is a wrapper for the different kinds of operations that an user
@@ -125,6 +127,11 @@ public abstract class Operation implements ByteTransformable, Validatable {
         return virtual;
     }
 
+    @Override
+    public byte[] toByteArray() throws SteemInvalidTransactionException {
+        return SteemBinaryWriter.toByteArray(this);
+    }
+
     /**
      * Add the authorities which are required to sign this operation to an
      * existing map.
@@ -11,6 +11,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "pow2_operation" object.
@@ -81,9 +82,10 @@ public class Pow2Operation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        // TODO Auto-generated method stub
-        return null;
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        // TODO: Implement the serialization of this object.
+        throw new SteemInvalidTransactionException(
+                "The serialization of a " + this.getClass().getSimpleName() + " is not supported yet.");
     }
 
     @Override
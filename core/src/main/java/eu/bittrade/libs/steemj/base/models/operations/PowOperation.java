@@ -15,6 +15,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "pow_operation" object.
@@ -121,9 +122,10 @@ public class PowOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        // TODO Auto-generated method stub
-        return null;
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        // TODO: Implement the serialization of this object.
+        throw new SteemInvalidTransactionException(
+                "The serialization of a " + this.getClass().getSimpleName() + " is not supported yet.");
     }
 
     @Override
@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,7 +17,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "request_account_recovery_operation" object.
@@ -227,24 +225,15 @@ public class RequestAccountRecoveryOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedRequestAccountRecoveryOperation = new ByteArrayOutputStream()) {
-            serializedRequestAccountRecoveryOperation.write(SteemJUtils
-                    .transformIntToVarIntByteArray(OperationType.REQUEST_ACCOUNT_RECOVERY_OPERATION.ordinal()));
-            serializedRequestAccountRecoveryOperation.write(this.getRecoveryAccount().toByteArray());
-            serializedRequestAccountRecoveryOperation.write(this.getAccountToRecover().toByteArray());
-            serializedRequestAccountRecoveryOperation.write(this.getNewOwnerAuthority().toByteArray());
-
-            serializedRequestAccountRecoveryOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(this.getExtensions().size()));
-            for (FutureExtensions futureExtensions : this.getExtensions()) {
-                serializedRequestAccountRecoveryOperation.write(futureExtensions.toByteArray());
-            }
-
-            return serializedRequestAccountRecoveryOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.REQUEST_ACCOUNT_RECOVERY_OPERATION.ordinal());
+        this.getRecoveryAccount().writeTo(out);
+        this.getAccountToRecover().writeTo(out);
+        this.getNewOwnerAuthority().writeTo(out);
+
+        out.writeVarInt(this.getExtensions().size());
+        for (FutureExtensions futureExtensions : this.getExtensions()) {
+            futureExtensions.writeTo(out);
         }
     }
 
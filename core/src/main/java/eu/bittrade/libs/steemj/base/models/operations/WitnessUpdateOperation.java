@@ -1,7 +1,5 @@
 package eu.bittrade.libs.steemj.base.models.operations;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.net.URL;
 import java.security.InvalidParameterException;
 import java.util.Map;
@@ -21,7 +19,7 @@ import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.ValidationType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
 import eu.bittrade.libs.steemj.interfaces.SignatureObject;
-import eu.bittrade.libs.steemj.util.SteemJUtils;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This class represents the Steem "witness_update_operation" object.
@@ -251,22 +249,13 @@ public class WitnessUpdateOperation extends Operation {
     }
 
     @Override
-    public byte[] toByteArray() throws SteemInvalidTransactionException {
-        try (ByteArrayOutputStream serializedWitnessUpdateOperation = new ByteArrayOutputStream()) {
-            serializedWitnessUpdateOperation
-                    .write(SteemJUtils.transformIntToVarIntByteArray(OperationType.WITNESS_UPDATE_OPERATION.ordinal()));
-            serializedWitnessUpdateOperation.write(this.getOwner().toByteArray());
-            serializedWitnessUpdateOperation
-                    .write(SteemJUtils.transformStringToVarIntByteArray(this.getUrl().toString()));
-            serializedWitnessUpdateOperation.write(this.getBlockSigningKey().toByteArray());
-            serializedWitnessUpdateOperation.write(this.getProperties().toByteArray());
-            serializedWitnessUpdateOperation.write(this.getFee().toByteArray());
-
-            return serializedWitnessUpdateOperation.toByteArray();
-        } catch (IOException e) {
-            throw new SteemInvalidTransactionException(
-                    "A problem occured while transforming the operation into a byte array.", e);
-        }
+    public void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException {
+        out.writeVarInt(OperationType.WITNESS_UPDATE_OPERATION.ordinal());
+        this.getOwner().writeTo(out);
+        out.writeString(this.getUrl().toString());
+        this.getBlockSigningKey().writeTo(out);
+        this.getProperties().writeTo(out);
+        this.getFee().writeTo(out);
     }
 
     @Override
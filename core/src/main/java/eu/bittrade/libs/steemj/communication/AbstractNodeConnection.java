@@ -0,0 +1,105 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+
+/**
+ * This class contains the logic shared by all {@link NodeConnection}
+ * implementations, like the selection of the endpoint and the collection of
+ * the health statistics.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public abstract class AbstractNodeConnection implements NodeConnection {
+    /**
+     * The weight of a new latency sample when calculating the average latency.
+     */
+    private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+    /** The number of tries used to select the next endpoint. */
+    protected final AtomicInteger numberOfConnectionTries;
+    private final NodeHealth health = new NodeHealth();
+    private URI endpointURI;
+    private double averageLatency;
+
+    /**
+     * Initialize the shared state of a connection.
+     *
+     * @param endpointSelector
+     *            The index of the endpoint URI to connect to first.
+     */
+    protected AbstractNodeConnection(int endpointSelector) {
+        this.numberOfConnectionTries = new AtomicInteger(endpointSelector);
+    }
+
+    /**
+     * Get the configured endpoint selected by the current number of connection
+     * tries (see {@link SteemJConfig#getNextWebSocketEndpointURI(int)}) and
+     * remember its URI. If the endpoint differs from the previous one, the
+     * health statistics are reset.
+     *
+     * @return The selected endpoint and the flag if the SSL verification
+     *         should be disabled for it.
+     */
+    protected Pair<URI, Boolean> selectEndpoint() {
+        Pair<URI, Boolean> endpoint = SteemJConfig.getInstance()
+                .getNextWebSocketEndpointURI(numberOfConnectionTries.get());
+
+        if (!endpoint.getLeft().equals(endpointURI)) {
+            // The statistics of the previous node are meaningless for the new
+            // one.
+            health.reset();
+        }
+
+        this.endpointURI = endpoint.getLeft();
+        return endpoint;
+    }
+
+    @Override
+    public URI getEndpointURI() {
+        return endpointURI;
+    }
+
+    @Override
+    public NodeHealth getHealth() {
+        return health;
+    }
+
+    @Override
+    public synchronized double getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * Record a request that has been answered by the Steem Node.
+     *
+     * @param startTime
+     *            The value of {@link System#nanoTime()} when the request has
+     *            been send.
+     */
+    protected void recordSuccess(long startTime) {
+        double latency = (System.nanoTime() - startTime) / 1000000.0;
+
+        synchronized (this) {
+            if (averageLatency == 0) {
+                averageLatency = latency;
+            } else {
+                averageLatency = LATENCY_SMOOTHING_FACTOR * latency
+                        + (1 - LATENCY_SMOOTHING_FACTOR) * averageLatency;
+            }
+        }
+
+        health.recordSuccess(latency);
+    }
+
+    /**
+     * Record a request that has not been answered by the Steem Node.
+     */
+    protected void recordFailure() {
+        health.recordFailure();
+    }
+}
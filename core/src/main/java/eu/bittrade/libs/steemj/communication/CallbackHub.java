@@ -1,62 +1,339 @@
 package eu.bittrade.libs.steemj.communication;
 
-import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.CallbackOverflowPolicy;
 
 /**
  * This class is used to manage all callback instances.
- * 
+ *
+ * <p>
+ * The callbacks are stored by their uuid, so a notification is assigned to
+ * its callback in constant time. The callbacks are not executed by the thread
+ * that has received the notification, but by a separate dispatcher thread, so
+ * a slow callback does not delay the responses of the Steem Node. The
+ * notifications are executed in the order they have been received. If the
+ * callbacks can not keep up, at most
+ * {@link SteemJConfig#getCallbackQueueCapacity() callbackQueueCapacity}
+ * notifications wait for their execution and the configured
+ * {@link SteemJConfig#getCallbackOverflowPolicy() callbackOverflowPolicy} is
+ * applied to new ones.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
  * @author <a href="http://steemit.com/@dez1337">dez1337</a>
  */
 public class CallbackHub {
-    private static CallbackHub callbackHubInstance;
+    private static final Logger LOGGER = LoggerFactory.getLogger(CallbackHub.class);
 
-    private ArrayList<BlockAppliedCallback> blockAppliedCallbacks = new ArrayList<>();
+    private static final CallbackHub CALLBACK_HUB_INSTANCE = new CallbackHub();
+
+    private final ConcurrentMap<Integer, BlockAppliedCallback> blockAppliedCallbacks = new ConcurrentHashMap<>();
+    private final AtomicLong numberOfDroppedNotifications = new AtomicLong();
+    private final List<ImmutablePair<BlockAppliedCallback, Runnable>> connectionListeners = new CopyOnWriteArrayList<>();
+    /** The connection each callback has been registered on, by its uuid. */
+    private final ConcurrentMap<Integer, NodeConnection> callbackConnections = new ConcurrentHashMap<>();
+    private volatile Executor executor;
+    /** The dispatcher created by this hub, if any. */
+    private ThreadPoolExecutor defaultDispatcher;
 
     /**
-     * Lock instance creation by making the constructor private.
+     * Lock instance creation by making the constructor package private. Only
+     * tests create their own instances.
      */
-    private CallbackHub() {
+    @VisibleForTesting
+    CallbackHub() {
     }
 
     /**
      * Get the registered callback by providing its uuid.
-     * 
+     *
      * @param uuid
      *            The uuid of the callback instance to search for.
      * @return The callback instance if a callback with the given uuid has been
      *         found, otherwise null.
      */
     public BlockAppliedCallback getCallbackByUuid(int uuid) {
-        for (BlockAppliedCallback blockAppliedCallback : blockAppliedCallbacks) {
-            if (blockAppliedCallback.getUuid() == uuid)
-                return blockAppliedCallback;
-        }
-
-        return null;
+        return blockAppliedCallbacks.get(uuid);
     }
 
     /**
      * Add a <code>blockAppliedCallback</code> instance that should be called on
      * notifications.
-     * 
+     *
      * @param blockAppliedCallback
      *            The instance to call.
      */
     public void addCallback(BlockAppliedCallback blockAppliedCallback) {
-        this.blockAppliedCallbacks.add(blockAppliedCallback);
+        this.blockAppliedCallbacks.put(blockAppliedCallback.getUuid(), blockAppliedCallback);
+    }
+
+    /**
+     * Remove a <code>blockAppliedCallback</code> instance, so it is no longer
+     * called. Notifications that are already waiting for their execution are
+     * dropped as well.
+     *
+     * @param blockAppliedCallback
+     *            The instance to remove.
+     * @return <code>true</code> if the callback has been registered.
+     */
+    public boolean removeCallback(BlockAppliedCallback blockAppliedCallback) {
+        if (!this.blockAppliedCallbacks.remove(blockAppliedCallback.getUuid(), blockAppliedCallback)) {
+            return false;
+        }
+
+        this.callbackConnections.remove(blockAppliedCallback.getUuid());
+        return true;
+    }
+
+    /**
+     * Remember that the callback with the given <code>uuid</code> has been
+     * registered at the Steem Node using the given <code>connection</code>.
+     * The Steem Node only sends the notifications over this connection.
+     *
+     * @param uuid
+     *            The uuid of the callback.
+     * @param connection
+     *            The connection used for the registration.
+     */
+    void onCallbackRegistered(int uuid, NodeConnection connection) {
+        this.callbackConnections.put(uuid, connection);
+    }
+
+    /**
+     * Pass a notification to the callback with the given <code>uuid</code>.
+     * The callback is executed asynchronously, so this method never waits
+     * for the callback and never blocks the thread that has received the
+     * notification.
+     *
+     * @param uuid
+     *            The uuid of the callback.
+     * @param signedBlockHeader
+     *            The block header of the applied block.
+     * @return <code>true</code> if a callback with the given uuid has been
+     *         found.
+     */
+    public boolean dispatch(int uuid, final SignedBlockHeader signedBlockHeader) {
+        final BlockAppliedCallback blockAppliedCallback = blockAppliedCallbacks.get(uuid);
+        if (blockAppliedCallback == null) {
+            return false;
+        }
+
+        try {
+            getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    // The callback may have been removed in the meantime.
+                    if (blockAppliedCallbacks.get(blockAppliedCallback.getUuid()) != blockAppliedCallback) {
+                        return;
+                    }
+
+                    try {
+                        blockAppliedCallback.onNewBlock(signedBlockHeader);
+                    } catch (RuntimeException e) {
+                        LOGGER.error("The callback {} failed.", blockAppliedCallback.getUuid(), e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            numberOfDroppedNotifications.incrementAndGet();
+            LOGGER.warn("A notification for the callback {} has been rejected.", uuid, e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Add a <code>connectionListener</code> that is called whenever the web
+     * socket connection the given <code>blockAppliedCallback</code> has been
+     * registered on has been re-established. The callbacks registered at the
+     * Steem Node are bound to the session, so they are lost with every
+     * reconnect and have to be registered again. Connections of the pool that
+     * do not carry the callback do not call the listener, so the callback is
+     * only registered once.
+     *
+     * <p>
+     * <b>Notice:</b> The listener is called by the thread that established the
+     * connection, so it should return quickly and must not send requests
+     * itself.
+     * </p>
+     *
+     * @param blockAppliedCallback
+     *            The callback whose connection should be observed.
+     * @param connectionListener
+     *            The listener to call.
+     */
+    public void addConnectionListener(BlockAppliedCallback blockAppliedCallback, Runnable connectionListener) {
+        this.connectionListeners.add(new ImmutablePair<>(blockAppliedCallback, connectionListener));
+    }
+
+    /**
+     * Remove a <code>connectionListener</code>, so it is no longer called.
+     *
+     * @param connectionListener
+     *            The listener to remove.
+     * @return <code>true</code> if the listener has been registered.
+     */
+    public boolean removeConnectionListener(Runnable connectionListener) {
+        boolean removed = false;
+        for (ImmutablePair<BlockAppliedCallback, Runnable> listener : connectionListeners) {
+            if (listener.getRight() == connectionListener) {
+                removed |= this.connectionListeners.remove(listener);
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Inform the connection listeners whose callback has been registered on
+     * the given <code>connection</code> that it has been established again.
+     *
+     * @param connection
+     *            The connection that has been established.
+     */
+    void onConnectionOpened(NodeConnection connection) {
+        for (ImmutablePair<BlockAppliedCallback, Runnable> listener : connectionListeners) {
+            if (callbackConnections.get(listener.getLeft().getUuid()) != connection) {
+                continue;
+            }
+
+            try {
+                listener.getRight().run();
+            } catch (RuntimeException e) {
+                LOGGER.error("A connection listener failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of notifications that have been dropped because the
+     * callbacks could not keep up.
+     *
+     * @return The number of dropped notifications.
+     */
+    public long getNumberOfDroppedNotifications() {
+        return numberOfDroppedNotifications.get();
+    }
+
+    /**
+     * Execute the callbacks using the given <code>executor</code> instead of
+     * the default dispatcher thread. The given executor is responsible for
+     * the order and the queueing of the notifications.
+     *
+     * @param executor
+     *            The executor to run the callbacks with.
+     */
+    public synchronized void setExecutor(Executor executor) {
+        this.executor = executor;
+
+        if (defaultDispatcher != null) {
+            // Waiting notifications are still executed.
+            defaultDispatcher.shutdown();
+            defaultDispatcher = null;
+        }
+    }
+
+    /**
+     * Get the executor used to run the callbacks. The default dispatcher is
+     * created on first use, so the configuration can be changed before.
+     *
+     * @return The executor.
+     */
+    private Executor getExecutor() {
+        Executor currentExecutor = executor;
+        if (currentExecutor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    defaultDispatcher = createDispatcher(SteemJConfig.getInstance().getCallbackQueueCapacity(),
+                            SteemJConfig.getInstance().getCallbackOverflowPolicy());
+                    executor = defaultDispatcher;
+                }
+
+                currentExecutor = executor;
+            }
+        }
+
+        return currentExecutor;
+    }
+
+    /**
+     * Create a single threaded executor with a bounded queue.
+     *
+     * @param queueCapacity
+     *            The maximum number of waiting notifications.
+     * @param overflowPolicy
+     *            The policy to apply if the queue is full.
+     * @return The executor.
+     */
+    private ThreadPoolExecutor createDispatcher(int queueCapacity, final CallbackOverflowPolicy overflowPolicy) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "steemj-callback-dispatcher");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }, new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable notification, ThreadPoolExecutor dispatcher) {
+                        if (dispatcher.isShutdown()) {
+                            throw new RejectedExecutionException("The dispatcher has been shut down.");
+                        }
+
+                        switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            if (dispatcher.getQueue().poll() != null) {
+                                numberOfDroppedNotifications.incrementAndGet();
+                                LOGGER.warn("The callbacks can not keep up - Dropped the oldest notification.");
+                            }
+                            // Offer instead of execute, so a queue that has
+                            // been refilled in the meantime can not recurse.
+                            if (!dispatcher.getQueue().offer(notification)) {
+                                numberOfDroppedNotifications.incrementAndGet();
+                                LOGGER.warn("The callbacks can not keep up - Dropped the newest notification.");
+                            }
+                            break;
+                        case DROP_NEWEST:
+                        default:
+                            numberOfDroppedNotifications.incrementAndGet();
+                            LOGGER.warn("The callbacks can not keep up - Dropped the newest notification.");
+                            break;
+                        }
+                    }
+                });
     }
 
     /**
      * Receive a {@link eu.bittrade.libs.steemj.communication.CallbackHub
      * CallbackHub} instance.
-     * 
+     *
      * @return A CallbackHub instance.
      */
     public static CallbackHub getInstance() {
-        if (callbackHubInstance == null) {
-            callbackHubInstance = new CallbackHub();
-        }
-
-        return callbackHubInstance;
+        return CALLBACK_HUB_INSTANCE;
     }
 }
@@ -1,29 +1,25 @@
 package eu.bittrade.libs.steemj.communication;
 
 import java.io.IOException;
-import java.net.URI;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.TimeZone;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
-import javax.net.ssl.HostnameVerifier;
-import javax.net.ssl.SSLSession;
-import javax.websocket.CloseReason;
-import javax.websocket.DeploymentException;
-import javax.websocket.EncodeException;
-import javax.websocket.Endpoint;
-import javax.websocket.EndpointConfig;
-import javax.websocket.MessageHandler;
-import javax.websocket.Session;
-
-import org.apache.commons.lang3.tuple.Pair;
-import org.glassfish.tyrus.client.ClientManager;
-import org.glassfish.tyrus.client.ClientProperties;
-import org.glassfish.tyrus.client.SslContextConfigurator;
-import org.glassfish.tyrus.client.SslEngineConfigurator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,35 +29,76 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
-import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.base.models.deserializer.OperationFilterDeserializer;
 import eu.bittrade.libs.steemj.base.models.error.SteemError;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
 import eu.bittrade.libs.steemj.base.models.serializer.BooleanSerializer;
-import eu.bittrade.libs.steemj.communication.dto.NotificationDTO;
 import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
 import eu.bittrade.libs.steemj.communication.dto.ResponseWrapperDTO;
 import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.enums.SteemApis;
 import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
 import eu.bittrade.libs.steemj.exceptions.SteemResponseError;
 import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
 import eu.bittrade.libs.steemj.exceptions.SteemTransformationException;
+import eu.bittrade.libs.steemj.util.FutureUtils;
 
 /**
  * This class handles the communication to the Steem web socket API.
  * 
+ * <p>
+ * The communication handler keeps a pool of {@link NodeConnection}s using the
+ * configured {@link eu.bittrade.libs.steemj.enums.TransportType
+ * TransportType}, each connected to another one of the configured Steem Nodes
+ * (see
+ * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setConnectionPoolSize(int)
+ * setConnectionPoolSize}). Every request is send over the connection selected
+ * by the configured
+ * {@link eu.bittrade.libs.steemj.enums.LoadBalancingPolicy
+ * LoadBalancingPolicy}, so the load is spread across all nodes of the pool.
+ * Nodes that have been demoted by the {@link NodeHealthMonitor} are only used
+ * if no healthy node is available. Idempotent reads can optionally be hedged
+ * (see
+ * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setHedgingPercentile(double)
+ * setHedgingPercentile}).
+ * Requests can also be performed asynchronously (see
+ * {@link #performRequestAsync(RequestWrapperDTO, Class)}), in which case no
+ * thread is blocked while the request is in flight.
+ * </p>
+ * 
  * @author <a href="http://steemit.com/@dez1337">dez1337</a>
  */
-public class CommunicationHandler extends Endpoint implements MessageHandler.Whole<String> {
+public class CommunicationHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(CommunicationHandler.class);
 
+    /**
+     * The costs added to a demoted connection, so it will only be selected if
+     * all connections have been demoted.
+     */
+    private static final double DEMOTION_PENALTY = 1.0E12;
+
+    /** Used to send hedged requests after their delay. */
+    private static final ScheduledExecutorService HEDGING_SCHEDULER = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "steemj-hedging");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
     private static ObjectMapper mapper = getObjectMapper();
-    private static int numberOfConnectionTries = 0;
+    /** The readers for the different response types, created on demand. */
+    private static final ConcurrentMap<Class<?>, ObjectReader> RESPONSE_READERS = new ConcurrentHashMap<>();
 
-    private CountDownLatch responseCountDownLatch = new CountDownLatch(1);
-    private ClientManager client;
-    private Session session;
-    private String rawJsonResponse;
+    private List<NodeConnection> connections;
+    private NodeHealthMonitor nodeHealthMonitor;
 
     /**
      * Initialize the Connection Handler.
@@ -70,37 +107,158 @@ public class CommunicationHandler extends Endpoint implements MessageHandler.Who
      *             If no connection to the Steem Node could be established.
      */
     public CommunicationHandler() throws SteemCommunicationException {
-        this.client = ClientManager.createClient();
+        int poolSize = Math.min(SteemJConfig.getInstance().getConnectionPoolSize(),
+                SteemJConfig.getInstance().getWebSocketEndpointURIs().size());
+
+        this.connections = new ArrayList<>();
+        for (int i = 0; i < Math.max(poolSize, 1); i++) {
+            // Start each connection with another endpoint.
+            switch (SteemJConfig.getInstance().getTransportType()) {
+            case HTTP:
+                connections.add(new HttpNodeConnection(i));
+                break;
+            case WEBSOCKET:
+            default:
+                connections.add(new WebSocketNodeConnection(i));
+                break;
+            }
+        }
 
-        this.client.setDefaultMaxSessionIdleTimeout(SteemJConfig.getInstance().getSocketTimeout());
-        this.client.getProperties().put(ClientProperties.RECONNECT_HANDLER, new SteemJReconnectHandler());
+        this.nodeHealthMonitor = new NodeHealthMonitor(connections);
+        if (SteemJConfig.getInstance().getHealthCheckInterval() > 0) {
+            nodeHealthMonitor.start();
+        }
+    }
+
+    /**
+     * Initialize the Connection Handler with the given <code>connections</code>
+     * instead of connecting to the configured Steem Nodes. The health of the
+     * connections is not checked periodically.
+     * 
+     * @param connections
+     *            The connections of the pool.
+     */
+    CommunicationHandler(List<NodeConnection> connections) {
+        this.connections = connections;
+        this.nodeHealthMonitor = new NodeHealthMonitor(connections);
+    }
 
-        connect();
+    /**
+     * Get all connections of the pool.
+     * 
+     * @return The connections of the pool.
+     */
+    public List<NodeConnection> getConnections() {
+        return connections;
     }
 
-    @Override
-    public void onOpen(Session session, EndpointConfig config) {
-        this.session = session;
-        this.session.addMessageHandler(this);
+    /**
+     * Check if the connections of the pool support block applied callbacks.
+     * The Steem Node only sends notifications over web socket connections, so
+     * callbacks are not supported by the
+     * {@link eu.bittrade.libs.steemj.enums.TransportType#HTTP HTTP}
+     * transport.
+     * 
+     * @return <code>true</code> if callbacks are supported.
+     */
+    public boolean supportsCallbacks() {
+        for (NodeConnection connection : connections) {
+            if (connection instanceof HttpNodeConnection) {
+                return false;
+            }
+        }
 
-        LOGGER.info("Connection has been established.");
+        return true;
     }
 
-    @Override
-    public void onClose(Session session, CloseReason closeReason) {
-        LOGGER.info("Connection has been closed (Code: {}, Reason: {}).", closeReason.getCloseCode(),
-                closeReason.getReasonPhrase());
+    /**
+     * Get the monitor used to judge the health of the connected Steem Nodes.
+     * 
+     * @return The health monitor.
+     */
+    public NodeHealthMonitor getNodeHealthMonitor() {
+        return nodeHealthMonitor;
     }
 
-    @Override
-    public void onError(Session session, Throwable thr) {
-        LOGGER.error("Connection error.", thr);
+    /**
+     * Close all connections of the pool.
+     */
+    public void close() {
+        nodeHealthMonitor.stop();
+
+        for (NodeConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Select the connection the next request should be send over based on the
+     * configured {@link eu.bittrade.libs.steemj.enums.LoadBalancingPolicy
+     * LoadBalancingPolicy}.
+     * 
+     * @return The selected connection.
+     */
+    protected NodeConnection selectConnection() {
+        return selectConnection(null);
+    }
+
+    /**
+     * Select the connection the next request should be send over based on the
+     * configured {@link eu.bittrade.libs.steemj.enums.LoadBalancingPolicy
+     * LoadBalancingPolicy}, but ignore the <code>excludedConnection</code>
+     * as long as there is another connection.
+     * 
+     * @param excludedConnection
+     *            The connection that should not be selected or
+     *            <code>null</code>.
+     * @return The selected connection.
+     */
+    protected NodeConnection selectConnection(NodeConnection excludedConnection) {
+        NodeConnection selectedConnection = connections.get(0);
+        double lowestCosts = Double.MAX_VALUE;
+
+        for (NodeConnection connection : connections) {
+            if (connection == excludedConnection && connections.size() > 1) {
+                continue;
+            }
+
+            double costs;
+            switch (SteemJConfig.getInstance().getLoadBalancingPolicy()) {
+            case LATENCY_WEIGHTED:
+                // A node that has not answered yet is treated like a node
+                // with a latency of one millisecond, so it gets a chance.
+                costs = (connection.getNumberOfOutstandingRequests() + 1)
+                        * Math.max(connection.getAverageLatency(), 1);
+                break;
+            case LEAST_OUTSTANDING_REQUESTS:
+            default:
+                costs = connection.getNumberOfOutstandingRequests();
+                break;
+            }
+
+            if (connection.getHealth().isDemoted()) {
+                costs += DEMOTION_PENALTY;
+            }
+
+            if (costs < lowestCosts) {
+                lowestCosts = costs;
+                selectedConnection = connection;
+            }
+        }
+
+        selectedConnection.ensureOpen();
+
+        return selectedConnection;
     }
 
     /**
      * Perform a request to the web socket API whose response will automatically
      * get transformed into the given object.
      * 
+     * This method is thread safe. The calling thread will only wait for the
+     * response to its own request, so multiple requests can be pipelined over
+     * the same connection.
+     * 
      * @param requestObject
      *            A request object that contains all needed parameters.
      * @param targetClass
@@ -123,168 +281,409 @@ public class CommunicationHandler extends Endpoint implements MessageHandler.Who
      */
     public <T> List<T> performRequest(RequestWrapperDTO requestObject, Class<T> targetClass)
             throws SteemCommunicationException {
-        if (!session.isOpen()) {
-            connect();
+        if (isHedgingCandidate(requestObject)) {
+            return FutureUtils.await(performRequestAsync(requestObject, targetClass));
         }
 
         try {
-            sendMessageSynchronously(requestObject);
+            return transformResponse(selectConnectionFor(requestObject).sendMessageSynchronously(requestObject),
+                    requestObject, targetClass);
+        } catch (InterruptedException e) {
+            throw new SteemCommunicationException("Could not send the message to the Steem Node.", e);
+        }
+    }
 
-            @SuppressWarnings("unchecked")
-            ResponseWrapperDTO<T> response = mapper.readValue(rawJsonResponse, ResponseWrapperDTO.class);
+    /**
+     * Perform a request to the web socket API without blocking the calling
+     * thread. The response will automatically get transformed into the given
+     * object once it has been received.
+     * 
+     * <p>
+     * The returned future is completed exceptionally with a
+     * {@link SteemTimeoutException} if the server was not able to answer the
+     * request in the given time (@see
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setResponseTimeout(long)
+     * setResponseTimeout()}), with a {@link SteemTransformationException} if
+     * SteemJ is unable to transform the JSON response into a Java object, with
+     * a {@link SteemResponseError} if the Server returned an error object or
+     * with a {@link SteemCommunicationException} if there is a connection
+     * problem.
+     * </p>
+     * 
+     * @param requestObject
+     *            A request object that contains all needed parameters.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return A future that completes with the server response transformed
+     *         into a list of given objects.
+     */
+    public <T> CompletableFuture<List<T>> performRequestAsync(RequestWrapperDTO requestObject,
+            Class<T> targetClass) {
+        return performRequestAsync(requestObject, targetClass, null);
+    }
 
-            if (response == null || "".equals(response.toString()) || response.getResult() == null
-                    || "".equals(response.getResult().toString())) {
-                LOGGER.debug("The response was empty. The requested node may not provid the method {}.",
-                        requestObject.getApiMethod());
-                List<T> emptyResult = new ArrayList<>();
-                emptyResult.add(null);
-                return emptyResult;
-            }
+    /**
+     * Like {@link #performRequestAsync(RequestWrapperDTO, Class)
+     * performRequestAsync}, but only operations of the given
+     * <code>operationTypes</code> are transformed into Java objects. All
+     * other operations are skipped while the response is parsed and are
+     * represented by <code>null</code> (see {@link OperationFilterDeserializer}).
+     * 
+     * @param requestObject
+     *            A request object that contains all needed parameters.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return A future that completes with the server response transformed
+     *         into a list of given objects.
+     */
+    public <T> CompletableFuture<List<T>> performRequestAsync(RequestWrapperDTO requestObject,
+            Class<T> targetClass, Set<OperationType> operationTypes) {
+        CompletableFuture<String> pendingResponse;
+        if (isHedgingCandidate(requestObject)) {
+            pendingResponse = sendHedgedMessage(requestObject);
+        } else {
+            pendingResponse = selectConnectionFor(requestObject).sendMessageAsynchronously(requestObject);
+        }
 
-            if (response.getResponseId() != requestObject.getId()) {
-                LOGGER.error("The request and the response id are not equal! This may cause some strange behaivior.");
-            }
+        return transformResponseAsync(pendingResponse, requestObject, targetClass, operationTypes);
+    }
 
-            // Make sure that the inner result object has the correct type.
-            JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, targetClass);
+    /**
+     * Select the connection the given <code>requestObject</code> should be
+     * send over. The Steem Node only sends the notifications of a block
+     * applied callback over the connection it has been registered on, so this
+     * connection is passed to the {@link CallbackHub}.
+     * 
+     * @param requestObject
+     *            The request to send.
+     * @return The selected connection.
+     */
+    private NodeConnection selectConnectionFor(RequestWrapperDTO requestObject) {
+        NodeConnection connection = selectConnection();
 
-            return mapper.convertValue(response.getResult(), type);
-        } catch (JsonParseException | JsonMappingException e) {
-            LOGGER.debug("Could not parse the response. Trying to transform it to an error object.", e);
+        if (RequestMethods.SET_BLOCK_APPLIED_CALLBACK.equals(requestObject.getApiMethod())) {
+            CallbackHub.getInstance().onCallbackRegistered(
+                    ((Number) requestObject.getAdditionalParameters()[0]).intValue(), connection);
+        }
 
-            try {
-                // TODO: Find a better solution for errors in general.
-                throw new SteemResponseError(mapper.readValue(rawJsonResponse, SteemError.class));
-            } catch (IOException ex) {
-                throw new SteemTransformationException("Could not transform the response into an object.", ex);
-            }
+        return connection;
+    }
 
-        } catch (IOException | EncodeException | InterruptedException e) {
-            throw new SteemCommunicationException("Could not send the message to the Steem Node.", e);
-        }
+    /**
+     * Check if the given <code>requestObject</code> may be send to a second
+     * node if the first one is slow. This is only the case if hedging has been
+     * enabled (see
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setHedgingPercentile(double)
+     * setHedgingPercentile}), multiple connections are available and the
+     * request is an idempotent read of the database api.
+     * 
+     * @param requestObject
+     *            The request to check.
+     * @return <code>true</code> if the request may be hedged.
+     */
+    private boolean isHedgingCandidate(RequestWrapperDTO requestObject) {
+        return SteemJConfig.getInstance().getHedgingPercentile() > 0 && connections.size() > 1
+                && SteemApis.DATABASE_API.equals(requestObject.getSteemApi())
+                && (requestObject.getApiMethod().name().startsWith("GET_")
+                        || requestObject.getApiMethod().name().startsWith("LOOKUP_"));
     }
 
     /**
-     * This method establishes a new connection to the web socket Server.
+     * Send the given <code>requestObject</code> to the selected node. If the
+     * node did not answer within the configured percentile of its recent
+     * latencies, the same request is send to a second node. The first answer
+     * wins and the request that is still pending on the other node is
+     * cancelled.
+     * 
+     * @param requestObject
+     *            The request to send.
+     * @return A future that completes with the first raw JSON response.
      */
-    protected synchronized void connect() {
-        // Get a websocket URI based on the number of retries.
-        Pair<URI, Boolean> endpoint = SteemJConfig.getInstance().getNextWebSocketEndpointURI(numberOfConnectionTries);
-
-        // Tyrus expects a SSL connection if the SSL_ENGINE_CONFIGURATOR
-        // property is present. This leads to a "connection failed" error when
-        // a non SSL secured protocol is used. Due to this we only add the
-        // property when connecting to a SSL secured node.
-        if (endpoint.getRight() && endpoint.getLeft().getScheme().equals("wss")
-                || endpoint.getLeft().getScheme().equals("https")) {
-            SslEngineConfigurator sslEngineConfigurator = new SslEngineConfigurator(new SslContextConfigurator());
-            // TODO: This can also be solved with a lamda expression which would
-            // require Java 8:
-            // sslEngineConfigurator.setHostnameVerifier((String host,
-            // SSLSession sslSession) -> true);
-            sslEngineConfigurator.setHostnameVerifier(new HostnameVerifier() {
-                @Override
-                public boolean verify(String host, SSLSession sslSession) {
-                    return true;
-                }
-            });
-            client.getProperties().put(ClientProperties.SSL_ENGINE_CONFIGURATOR, sslEngineConfigurator);
+    private CompletableFuture<String> sendHedgedMessage(final RequestWrapperDTO requestObject) {
+        final NodeConnection primaryConnection = selectConnection();
+        final CompletableFuture<String> primaryResponse = primaryConnection.sendMessageAsynchronously(requestObject);
+
+        long hedgingDelay = (long) primaryConnection.getHealth()
+                .getLatencyPercentile(SteemJConfig.getInstance().getHedgingPercentile());
+        if (hedgingDelay <= 0) {
+            // There are no statistics for this node yet.
+            return primaryResponse;
         }
 
-        try {
-            if (session != null && session.isOpen()) {
-                LOGGER.debug("Closing existing session.");
-                session.close();
+        final CompletableFuture<String> firstResponse = new CompletableFuture<>();
+        final List<CompletableFuture<String>> secondaryResponses = new CopyOnWriteArrayList<>();
+        final AtomicInteger remainingAttempts = new AtomicInteger(1);
+        final BiConsumer<String, Throwable> responseHandler = new BiConsumer<String, Throwable>() {
+            @Override
+            public void accept(String rawJsonResponse, Throwable throwable) {
+                if (throwable == null) {
+                    firstResponse.complete(rawJsonResponse);
+                } else if (remainingAttempts.decrementAndGet() == 0) {
+                    firstResponse.completeExceptionally(throwable);
+                }
             }
+        };
+
+        final ScheduledFuture<?> hedgingTask = HEDGING_SCHEDULER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (firstResponse.isDone()) {
+                    return;
+                }
 
-            LOGGER.info("Connecting to {}.", endpoint.getLeft());
+                NodeConnection secondaryConnection = selectConnection(primaryConnection);
+                LOGGER.debug("{} did not answer request {} in time. Sending it to {}.",
+                        primaryConnection.getEndpointURI(), requestObject.getId(),
+                        secondaryConnection.getEndpointURI());
 
-            client.connectToServer(this, SteemJConfig.getInstance().getClientEndpointConfig(), endpoint.getLeft());
-        } catch (DeploymentException | IOException e) {
-            LOGGER.info("Could not connect to the node - Trying to reconnect.");
-            LOGGER.debug("Reason:", e);
-            // Increase the number of connection tries.
-            numberOfConnectionTries++;
-            // And reconnect.
-            connect();
-        }
+                remainingAttempts.incrementAndGet();
+                CompletableFuture<String> secondaryResponse = secondaryConnection
+                        .sendMessageAsynchronously(requestObject);
+                secondaryResponses.add(secondaryResponse);
+                secondaryResponse.whenComplete(responseHandler);
+
+                if (firstResponse.isDone()) {
+                    // The primary node answered while the request was send.
+                    secondaryResponse.cancel(false);
+                }
+            }
+        }, hedgingDelay, TimeUnit.MILLISECONDS);
+
+        primaryResponse.whenComplete(responseHandler);
+        firstResponse.whenComplete(new BiConsumer<String, Throwable>() {
+            @Override
+            public void accept(String rawJsonResponse, Throwable throwable) {
+                hedgingTask.cancel(false);
+
+                // Stop waiting for the loser. This has no effect on the
+                // request that already has been answered.
+                primaryResponse.cancel(false);
+                for (CompletableFuture<String> secondaryResponse : secondaryResponses) {
+                    secondaryResponse.cancel(false);
+                }
+            }
+        });
+
+        return firstResponse;
     }
 
     /**
-     * Sends a message to the Steem Node and waits for an answer.
+     * Perform multiple requests to the web socket API at once. All requests
+     * are packed into a single JSON-RPC batch, so they are transferred in one
+     * frame. The responses of the batch are assigned to the requests by their
+     * ids.
      * 
-     * @param requestObject
-     *            The object to send.
-     * @throws IOException
-     *             If something went wrong.
-     * @throws EncodeException
-     *             If something went wrong.
+     * @param requestObjects
+     *            The requests to perform.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param <T>
+     *            The object that you want to map the results to.
+     * @return The server responses transformed into lists of given objects.
+     *         The order of the list equals the order of the
+     *         <code>requestObjects</code>.
      * @throws SteemTimeoutException
-     *             If the node took to long to answer.
-     * @throws InterruptedException
-     *             If something went wrong.
-     * 
+     *             If the server was not able to answer the request in the given
+     *             time (@see
+     *             {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#setResponseTimeout(long)
+     *             setResponseTimeout()})
+     * @throws SteemCommunicationException
+     *             If there is a connection problem.
+     * @throws SteemTransformationException
+     *             If the SteemJ is unable to transform the JSON response into a
+     *             Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
      */
-    private void sendMessageSynchronously(RequestWrapperDTO requestObject)
-            throws EncodeException, SteemTimeoutException, InterruptedException {
-        responseCountDownLatch = new CountDownLatch(1);
+    public <T> List<List<T>> performBatchRequest(List<RequestWrapperDTO> requestObjects, Class<T> targetClass)
+            throws SteemCommunicationException {
+        return FutureUtils.await(performBatchRequestAsync(requestObjects, targetClass));
+    }
 
-        try {
-            session.getBasicRemote().sendObject(requestObject);
-        } catch (IOException e) {
-            LOGGER.warn("Could not transfer the data to the Steem Node. - Reconnecting.");
-            LOGGER.debug("Reason:", e);
-            // Increase the number of connection tries.
-            numberOfConnectionTries++;
-            // And reconnect.
-            connect();
-            // Resend the message.
-            sendMessageSynchronously(requestObject);
+    /**
+     * Like {@link #performBatchRequest(List, Class) performBatchRequest}, but
+     * without blocking the calling thread.
+     * 
+     * @param requestObjects
+     *            The requests to perform.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param <T>
+     *            The object that you want to map the results to.
+     * @return A future that completes with the server responses transformed
+     *         into lists of given objects. The order of the list equals the
+     *         order of the <code>requestObjects</code>.
+     */
+    public <T> CompletableFuture<List<List<T>>> performBatchRequestAsync(List<RequestWrapperDTO> requestObjects,
+            Class<T> targetClass) {
+        List<CompletableFuture<String>> pendingResponses = selectConnection().sendBatchAsynchronously(requestObjects);
+        final List<CompletableFuture<List<T>>> results = new ArrayList<>();
+        for (int i = 0; i < requestObjects.size(); i++) {
+            results.add(
+                    transformResponseAsync(pendingResponses.get(i), requestObjects.get(i), targetClass, null));
         }
 
-        // Wait until we received a response from the Server.
-        if (SteemJConfig.getInstance().getResponseTimeout() == 0) {
-            responseCountDownLatch.await();
-        } else {
-            if (!responseCountDownLatch.await(SteemJConfig.getInstance().getResponseTimeout(), TimeUnit.MILLISECONDS)) {
-                String errorMessage = "Timeout occured. The WebSocket server was not able to answer in "
-                        + SteemJConfig.getInstance().getResponseTimeout() + " millisecond(s).";
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+                .thenApply(new Function<Void, List<List<T>>>() {
+                    @Override
+                    public List<List<T>> apply(Void ignored) {
+                        List<List<T>> responses = new ArrayList<>();
+                        for (CompletableFuture<List<T>> result : results) {
+                            responses.add(result.join());
+                        }
+
+                        return responses;
+                    }
+                });
+    }
 
-                LOGGER.error(errorMessage);
-                throw new SteemTimeoutException(errorMessage);
+    /**
+     * Transform the raw JSON response the given <code>pendingResponse</code>
+     * completes with into a list of the given <code>targetClass</code>.
+     * 
+     * @param pendingResponse
+     *            The future that completes with the raw JSON response.
+     * @param requestObject
+     *            The request the response belongs to.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return A future that completes with the server response transformed
+     *         into a list of given objects.
+     */
+    static <T> CompletableFuture<List<T>> transformResponseAsync(CompletableFuture<String> pendingResponse,
+            final RequestWrapperDTO requestObject, final Class<T> targetClass,
+            final Set<OperationType> operationTypes) {
+        return pendingResponse.thenApply(new Function<String, List<T>>() {
+            @Override
+            public List<T> apply(String rawJsonResponse) {
+                try {
+                    return transformResponse(rawJsonResponse, requestObject, targetClass, operationTypes);
+                } catch (SteemCommunicationException e) {
+                    throw new CompletionException(e);
+                }
             }
-        }
+        });
+    }
+
+    /**
+     * Transform the raw JSON response of the Steem Node into a list of the
+     * given <code>targetClass</code>.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response.
+     * @param requestObject
+     *            The request the response belongs to.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The server response transformed into a list of given objects.
+     * @throws SteemTransformationException
+     *             If the SteemJ is unable to transform the JSON response into a
+     *             Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     * @throws SteemCommunicationException
+     *             If the response could not be read.
+     */
+    static <T> List<T> transformResponse(String rawJsonResponse, RequestWrapperDTO requestObject,
+            Class<T> targetClass) throws SteemCommunicationException {
+        return transformResponse(rawJsonResponse, requestObject, targetClass, null);
     }
 
-    @Override
-    public void onMessage(String message) {
-        // Check if we are waiting for an answer.
-        if (responseCountDownLatch.getCount() > 0) {
-            LOGGER.debug("Raw JSON response: {}", message);
+    /**
+     * Like {@link #transformResponse(String, RequestWrapperDTO, Class)
+     * transformResponse}, but only operations of the given
+     * <code>operationTypes</code> are transformed into Java objects.
+     * 
+     * @param rawJsonResponse
+     *            The raw JSON response.
+     * @param requestObject
+     *            The request the response belongs to.
+     * @param targetClass
+     *            The target class for the transformation.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @param <T>
+     *            The object that you want to map the result to.
+     * @return The server response transformed into a list of given objects.
+     * @throws SteemTransformationException
+     *             If the SteemJ is unable to transform the JSON response into a
+     *             Java object.
+     * @throws SteemResponseError
+     *             If the Server returned an error object.
+     * @throws SteemCommunicationException
+     *             If the response could not be read.
+     */
+    static <T> List<T> transformResponse(String rawJsonResponse, RequestWrapperDTO requestObject,
+            Class<T> targetClass, Set<OperationType> operationTypes) throws SteemCommunicationException {
+        try {
+            ObjectReader responseReader = getResponseReader(targetClass);
+            if (operationTypes != null) {
+                responseReader = responseReader.withAttribute(OperationFilterDeserializer.OPERATION_FILTER,
+                        operationTypes);
+            }
+
+            ResponseWrapperDTO<T> response = responseReader.readValue(rawJsonResponse);
 
-            this.rawJsonResponse = message;
+            if (response != null && response.getError() != null) {
+                throw new SteemResponseError(new SteemError(response.getResponseId(), response.getError()));
+            }
 
-            responseCountDownLatch.countDown();
-        } else {
-            // A message has been send while we are not waiting for it - It can
-            // be a callback.
-            LOGGER.debug("Received callback: {}", message);
-
-            try {
-                NotificationDTO response = mapper.readValue(message, NotificationDTO.class);
-
-                // Make sure that the inner result object is a BlockHeader.
-                CallbackHub.getInstance().getCallbackByUuid(Integer.valueOf(response.getParams()[0].toString()))
-                        .onNewBlock(mapper.convertValue(((ArrayList<Object>) (response.getParams()[1])).get(0),
-                                SignedBlockHeader.class));
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                LOGGER.error("Could not parse callback {}.", e);
+            if (response == null || response.getResult() == null) {
+                LOGGER.debug("The response was empty. The requested node may not provid the method {}.",
+                        requestObject.getApiMethod());
+                List<T> emptyResult = new ArrayList<>();
+                emptyResult.add(null);
+                return emptyResult;
             }
+
+            if (response.getResponseId() != requestObject.getId()) {
+                LOGGER.error("The request and the response id are not equal! This may cause some strange behaivior.");
+            }
+
+            return response.getResult();
+        } catch (JsonParseException | JsonMappingException e) {
+            throw new SteemTransformationException("Could not transform the response into an object.", e);
+        } catch (IOException e) {
+            throw new SteemCommunicationException("Could not send the message to the Steem Node.", e);
         }
     }
 
+    /**
+     * Get a reader that binds a whole response, including its
+     * <code>result</code> or <code>error</code> element, in a single pass.
+     * The result elements are directly bound to the <code>targetClass</code>.
+     * 
+     * @param targetClass
+     *            The type of the result elements.
+     * @return The reader for responses of the given type.
+     */
+    private static ObjectReader getResponseReader(Class<?> targetClass) {
+        ObjectReader responseReader = RESPONSE_READERS.get(targetClass);
+        if (responseReader == null) {
+            JavaType responseType = mapper.getTypeFactory().constructParametricType(ResponseWrapperDTO.class,
+                    targetClass);
+            responseReader = mapper.readerFor(responseType);
+            RESPONSE_READERS.putIfAbsent(targetClass, responseReader);
+        }
+
+        return responseReader;
+    }
+
     /**
      * Get a preconfigured jackson Object Mapper instance.
      * 
@@ -306,6 +705,12 @@ public class CommunicationHandler extends Endpoint implements MessageHandler.Who
             simpleModule.addSerializer(boolean.class, new BooleanSerializer());
 
             mapper.registerModule(simpleModule);
+
+            SimpleModule operationFilterModule = new SimpleModule("OperationFilter",
+                    new Version(1, 0, 0, null, null, null));
+            operationFilterModule.addDeserializer(Operation.class, new OperationFilterDeserializer());
+
+            mapper.registerModule(operationFilterModule);
         }
 
         return mapper;
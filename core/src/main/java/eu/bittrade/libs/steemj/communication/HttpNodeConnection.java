@@ -0,0 +1,435 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSession;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steemj.communication.dto.BatchRequestWrapperDTO;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
+
+/**
+ * This class sends the JSON-RPC requests as HTTP POST requests to one of the
+ * configured Steem Nodes.
+ *
+ * <p>
+ * In contrast to a {@link WebSocketNodeConnection}, multiple requests are
+ * send in parallel using up to
+ * {@link SteemJConfig#getHttpConnectionsPerNode() httpConnectionsPerNode}
+ * persistent HTTP/1.1 connections. The connections are kept alive and reused
+ * by the {@link HttpURLConnection} implementation of the JVM, which keeps up
+ * to <code>http.maxConnections</code> (a system property, default 5) idle
+ * connections per node. As every request is a stateless HTTP request, caching
+ * proxies can be used in front of the nodes. Callbacks are not supported by
+ * this transport.
+ * </p>
+ *
+ * <p>
+ * Web socket endpoint URIs are mapped to the corresponding HTTP URIs, so
+ * <code>wss://steemd.steemit.com</code> is requested as
+ * <code>https://steemd.steemit.com</code>.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class HttpNodeConnection extends AbstractNodeConnection {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpNodeConnection.class);
+
+    private final ObjectMapper mapper = CommunicationHandler.getObjectMapper();
+    private final AtomicInteger numberOfOutstandingRequests = new AtomicInteger();
+    private final ExecutorService executor;
+    /** Guarded by this connection, as it is changed together with the URL. */
+    private URL endpointURL;
+    /** Guarded by this connection, as it is changed together with the URL. */
+    private boolean sslVerificationDisabled;
+
+    /**
+     * Initialize a new connection to the configured endpoint URI selected by
+     * <code>endpointSelector</code> (see
+     * {@link SteemJConfig#getNextWebSocketEndpointURI(int)}). If a request
+     * fails, the next configured endpoint will be used for the following
+     * requests.
+     *
+     * @param endpointSelector
+     *            The index of the endpoint URI to use first.
+     */
+    public HttpNodeConnection(int endpointSelector) {
+        super(endpointSelector);
+
+        this.executor = Executors.newFixedThreadPool(SteemJConfig.getInstance().getHttpConnectionsPerNode(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "steemj-http-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        connect();
+    }
+
+    /**
+     * Resolve the HTTP URL of the currently selected endpoint.
+     */
+    protected synchronized void connect() {
+        Pair<URI, Boolean> endpoint = selectEndpoint();
+
+        try {
+            this.endpointURL = toHttpURI(endpoint.getLeft()).toURL();
+            this.sslVerificationDisabled = endpoint.getRight();
+
+            LOGGER.info("Using {} to send requests.", endpointURL);
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            LOGGER.error("The endpoint URI {} can't be used for HTTP requests.", endpoint.getLeft(), e);
+        }
+    }
+
+    /**
+     * Map a web socket URI to the corresponding HTTP URI.
+     *
+     * @param endpointURI
+     *            The configured endpoint URI.
+     * @return The HTTP URI of the endpoint.
+     * @throws URISyntaxException
+     *             If the URI could not be transformed.
+     */
+    protected static URI toHttpURI(URI endpointURI) throws URISyntaxException {
+        String scheme = endpointURI.getScheme();
+        if ("ws".equalsIgnoreCase(scheme)) {
+            scheme = "http";
+        } else if ("wss".equalsIgnoreCase(scheme)) {
+            scheme = "https";
+        } else {
+            return endpointURI;
+        }
+
+        return new URI(scheme, endpointURI.getUserInfo(), endpointURI.getHost(), endpointURI.getPort(),
+                endpointURI.getPath(), endpointURI.getQuery(), endpointURI.getFragment());
+    }
+
+    @Override
+    public synchronized void connectTo(int endpointSelector) {
+        numberOfConnectionTries.set(endpointSelector);
+        connect();
+    }
+
+    @Override
+    public void ensureOpen() {
+        // HTTP connections are established on demand.
+    }
+
+    @Override
+    public boolean isOpen() {
+        // HTTP connections are established on demand.
+        return true;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public int getNumberOfOutstandingRequests() {
+        return numberOfOutstandingRequests.get();
+    }
+
+    @Override
+    public String sendMessageSynchronously(RequestWrapperDTO requestObject) throws SteemCommunicationException {
+        return post(requestObject.toString());
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessageAsynchronously(final RequestWrapperDTO requestObject) {
+        final CompletableFuture<String> pendingResponse = new CompletableFuture<>();
+
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                if (pendingResponse.isCancelled()) {
+                    // Nobody is waiting for the answer anymore.
+                    return;
+                }
+
+                try {
+                    pendingResponse.complete(post(requestObject.toString()));
+                } catch (SteemCommunicationException e) {
+                    pendingResponse.completeExceptionally(e);
+                }
+            }
+        }, pendingResponse);
+
+        return pendingResponse;
+    }
+
+    @Override
+    public List<CompletableFuture<String>> sendBatchAsynchronously(final List<RequestWrapperDTO> requestObjects) {
+        final List<CompletableFuture<String>> pendingResponses = new ArrayList<>();
+        final Map<Integer, CompletableFuture<String>> pendingResponsesById = new HashMap<>();
+        for (RequestWrapperDTO requestObject : requestObjects) {
+            CompletableFuture<String> pendingResponse = new CompletableFuture<>();
+            pendingResponses.add(pendingResponse);
+            pendingResponsesById.put(requestObject.getId(), pendingResponse);
+        }
+
+        if (requestObjects.isEmpty()) {
+            return pendingResponses;
+        }
+
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    String message = post(new BatchRequestWrapperDTO(requestObjects).toString());
+
+                    for (JsonNode response : mapper.readTree(message)) {
+                        JsonNode responseId = response.get("id");
+                        CompletableFuture<String> pendingResponse = responseId == null
+                                || !responseId.canConvertToInt() ? null
+                                        : pendingResponsesById.get(responseId.intValue());
+
+                        if (pendingResponse != null) {
+                            pendingResponse.complete(response.toString());
+                        } else {
+                            LOGGER.warn("Received a batch response for an unknown request: {}", response);
+                        }
+                    }
+
+                    failAll(pendingResponses, new SteemCommunicationException(
+                            "The Steem Node did not answer all requests of the batch."));
+                } catch (SteemCommunicationException e) {
+                    failAll(pendingResponses, e);
+                } catch (IOException e) {
+                    failAll(pendingResponses,
+                            new SteemCommunicationException("Could not parse the batch response.", e));
+                }
+            }
+        }, pendingResponses.toArray(new CompletableFuture<?>[pendingResponses.size()]));
+
+        return pendingResponses;
+    }
+
+    /**
+     * Run the given <code>task</code> using the executor of this connection.
+     * If the executor does not accept the task, all given
+     * <code>pendingResponses</code> are completed exceptionally.
+     *
+     * @param task
+     *            The task to run.
+     * @param pendingResponses
+     *            The futures completed by the task.
+     */
+    private void execute(Runnable task, CompletableFuture<?>... pendingResponses) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            for (CompletableFuture<?> pendingResponse : pendingResponses) {
+                pendingResponse.completeExceptionally(
+                        new SteemCommunicationException("The connection has already been closed.", e));
+            }
+        }
+    }
+
+    /**
+     * Complete all given <code>pendingResponses</code> exceptionally. Futures
+     * that have already been completed are not changed.
+     *
+     * @param pendingResponses
+     *            The futures to fail.
+     * @param exception
+     *            The reason.
+     */
+    private static void failAll(List<CompletableFuture<String>> pendingResponses,
+            SteemCommunicationException exception) {
+        for (CompletableFuture<String> pendingResponse : pendingResponses) {
+            pendingResponse.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Send the given <code>payload</code> as a HTTP POST request to the Steem
+     * Node and read the whole response, so the underlying connection can be
+     * reused for the next request.
+     *
+     * @param payload
+     *            The JSON-RPC request to send.
+     * @return The raw JSON response of the Steem Node.
+     * @throws SteemTimeoutException
+     *             If the node took to long to answer.
+     * @throws SteemCommunicationException
+     *             If the request could not be send or the node answered with
+     *             an unexpected HTTP status.
+     */
+    private String post(String payload) throws SteemCommunicationException {
+        // Take a consistent snapshot, as another thread may switch the
+        // endpoint at any time.
+        URL url;
+        boolean sslVerificationDisabledForUrl;
+        synchronized (this) {
+            url = endpointURL;
+            sslVerificationDisabledForUrl = sslVerificationDisabled;
+        }
+
+        numberOfOutstandingRequests.incrementAndGet();
+        long startTime = System.nanoTime();
+
+        try {
+            String response = post(url, sslVerificationDisabledForUrl, payload);
+            recordSuccess(startTime);
+            return response;
+        } catch (SteemCommunicationException e) {
+            recordFailure();
+            synchronized (this) {
+                // Increase the number of connection tries so the next request
+                // uses another endpoint, unless a concurrent request already
+                // switched it.
+                if (url == endpointURL) {
+                    numberOfConnectionTries.incrementAndGet();
+                    connect();
+                }
+            }
+
+            throw e;
+        } finally {
+            numberOfOutstandingRequests.decrementAndGet();
+        }
+    }
+
+    /**
+     * Send the given <code>payload</code> as a HTTP POST request to the given
+     * <code>url</code>.
+     *
+     * @param url
+     *            The URL of the Steem Node.
+     * @param sslVerificationDisabled
+     *            Define if the host name verification should be disabled.
+     * @param payload
+     *            The JSON-RPC request to send.
+     * @return The raw JSON response of the Steem Node.
+     * @throws SteemTimeoutException
+     *             If the node took to long to answer.
+     * @throws SteemCommunicationException
+     *             If the request could not be send or the node answered with
+     *             an unexpected HTTP status.
+     */
+    private static String post(URL url, boolean sslVerificationDisabled, String payload)
+            throws SteemCommunicationException {
+        if (url == null) {
+            throw new SteemCommunicationException("No valid HTTP endpoint has been configured.");
+        }
+
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            if (sslVerificationDisabled && connection instanceof HttpsURLConnection) {
+                ((HttpsURLConnection) connection).setHostnameVerifier(new HostnameVerifier() {
+                    @Override
+                    public boolean verify(String host, SSLSession sslSession) {
+                        return true;
+                    }
+                });
+            }
+
+            byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setUseCaches(false);
+            connection.setConnectTimeout((int) SteemJConfig.getInstance().getResponseTimeout());
+            connection.setReadTimeout((int) SteemJConfig.getInstance().getResponseTimeout());
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+            connection.setRequestProperty("Accept", "application/json");
+
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(body);
+            }
+
+            int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                // Consume the error response so the connection can be reused.
+                String errorResponse = readFully(connection.getErrorStream());
+                throw new SteemCommunicationException("The Steem Node answered with HTTP status " + responseCode
+                        + " (" + errorResponse + ").");
+            }
+
+            String response = readFully(connection.getInputStream());
+            LOGGER.debug("Raw JSON response: {}", response);
+
+            return response;
+        } catch (SocketTimeoutException e) {
+            String errorMessage = "Timeout occured. The HTTP server was not able to answer in "
+                    + SteemJConfig.getInstance().getResponseTimeout() + " millisecond(s).";
+
+            LOGGER.error(errorMessage);
+            throw new SteemTimeoutException(errorMessage);
+        } catch (IOException e) {
+            if (connection != null) {
+                // The connection is broken and should not be reused.
+                connection.disconnect();
+            }
+
+            throw new SteemCommunicationException("Could not send the message to the Steem Node.", e);
+        }
+    }
+
+    /**
+     * Read the given <code>inputStream</code> completely and close it.
+     *
+     * @param inputStream
+     *            The stream to read.
+     * @return The content of the stream or an empty String if the stream is
+     *         <code>null</code>.
+     * @throws IOException
+     *             If the stream could not be read.
+     */
+    private static String readFully(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return "";
+        }
+
+        try (InputStream stream = inputStream) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = stream.read(buffer)) != -1) {
+                content.write(buffer, 0, length);
+            }
+
+            return new String(content.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * This interface represents a connection to one of the configured Steem Nodes,
+ * independent of the transport used to send the JSON-RPC requests.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public interface NodeConnection {
+    /**
+     * Connect to the configured endpoint URI selected by
+     * <code>endpointSelector</code> (see
+     * {@link eu.bittrade.libs.steemj.configuration.SteemJConfig#getNextWebSocketEndpointURI(int)
+     * getNextWebSocketEndpointURI}).
+     *
+     * @param endpointSelector
+     *            The index of the endpoint URI to connect to.
+     */
+    void connectTo(int endpointSelector);
+
+    /**
+     * Make sure that this connection is able to send requests and reconnect
+     * otherwise.
+     */
+    void ensureOpen();
+
+    /**
+     * Check if this connection is able to send requests without connecting to
+     * the Steem Node first.
+     *
+     * @return <code>true</code> if the connection is open.
+     */
+    boolean isOpen();
+
+    /**
+     * Close this connection.
+     */
+    void close();
+
+    /**
+     * Get the URI of the Steem Node this connection is connected to.
+     *
+     * @return The URI of the Steem Node.
+     */
+    URI getEndpointURI();
+
+    /**
+     * Get the health statistics of the Steem Node this connection is connected
+     * to.
+     *
+     * @return The health statistics.
+     */
+    NodeHealth getHealth();
+
+    /**
+     * Get the number of requests that have been send over this connection, but
+     * have not been answered yet.
+     *
+     * @return The number of outstanding requests.
+     */
+    int getNumberOfOutstandingRequests();
+
+    /**
+     * Get the exponentially weighted average time the Steem Node needed to
+     * answer a request send over this connection.
+     *
+     * @return The average latency in milliseconds or <code>0</code> if no
+     *         request has been answered yet.
+     */
+    double getAverageLatency();
+
+    /**
+     * Sends a message to the Steem Node and waits for the answer to this
+     * specific request.
+     *
+     * @param requestObject
+     *            The object to send.
+     * @return The raw JSON response of the Steem Node.
+     * @throws SteemCommunicationException
+     *             If the request could not be send or has not been answered.
+     * @throws InterruptedException
+     *             If the thread has been interrupted while waiting for the
+     *             answer.
+     */
+    String sendMessageSynchronously(RequestWrapperDTO requestObject)
+            throws SteemCommunicationException, InterruptedException;
+
+    /**
+     * Sends a message to the Steem Node without waiting for the answer.
+     *
+     * @param requestObject
+     *            The object to send.
+     * @return A future that completes with the raw JSON response of the Steem
+     *         Node.
+     */
+    CompletableFuture<String> sendMessageAsynchronously(RequestWrapperDTO requestObject);
+
+    /**
+     * Sends all given <code>requestObjects</code> as one batch to the Steem
+     * Node without waiting for the answer.
+     *
+     * @param requestObjects
+     *            The requests to send.
+     * @return A list of futures that complete with the raw JSON responses of
+     *         the Steem Node. The order of the list equals the order of the
+     *         <code>requestObjects</code>.
+     */
+    List<CompletableFuture<String>> sendBatchAsynchronously(List<RequestWrapperDTO> requestObjects);
+}
@@ -0,0 +1,182 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.util.Arrays;
+
+/**
+ * This class collects statistics about the requests that have been send to a
+ * single Steem Node, so the health of the node can be judged.
+ *
+ * <p>
+ * Only the outcome of the last {@value #WINDOW_SIZE} requests is taken into
+ * account, so the statistics follow changes of the node quickly.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class NodeHealth {
+    /** The number of requests the statistics are based on. */
+    public static final int WINDOW_SIZE = 100;
+
+    private final double[] latencies = new double[WINDOW_SIZE];
+    private final boolean[] failures = new boolean[WINDOW_SIZE];
+    private int numberOfLatencies;
+    private int latencyPosition;
+    private int numberOfOutcomes;
+    private int outcomePosition;
+    private long headBlockNumber;
+    private long headBlockLag;
+    private boolean demoted;
+
+    /**
+     * Record a request that has been answered by the node.
+     *
+     * @param latency
+     *            The time in milliseconds the node needed to answer.
+     */
+    public synchronized void recordSuccess(double latency) {
+        latencies[latencyPosition] = latency;
+        latencyPosition = (latencyPosition + 1) % WINDOW_SIZE;
+        numberOfLatencies = Math.min(numberOfLatencies + 1, WINDOW_SIZE);
+
+        recordOutcome(false);
+    }
+
+    /**
+     * Record a request that has not been answered by the node (e.g. because of
+     * a timeout or a closed connection).
+     */
+    public synchronized void recordFailure() {
+        recordOutcome(true);
+    }
+
+    /**
+     * Add the outcome of a request to the sliding window.
+     *
+     * @param failed
+     *            <code>true</code> if the request failed.
+     */
+    private void recordOutcome(boolean failed) {
+        failures[outcomePosition] = failed;
+        outcomePosition = (outcomePosition + 1) % WINDOW_SIZE;
+        numberOfOutcomes = Math.min(numberOfOutcomes + 1, WINDOW_SIZE);
+    }
+
+    /**
+     * Get the latency below which the given <code>percentile</code> of the
+     * recent requests have been answered.
+     *
+     * @param percentile
+     *            The percentile to calculate (e.g. <code>99</code> for the
+     *            p99 latency).
+     * @return The latency in milliseconds or <code>0</code> if no request has
+     *         been answered yet.
+     */
+    public synchronized double getLatencyPercentile(double percentile) {
+        if (numberOfLatencies == 0) {
+            return 0;
+        }
+
+        double[] sortedLatencies = Arrays.copyOf(latencies, numberOfLatencies);
+        Arrays.sort(sortedLatencies);
+
+        int index = (int) Math.ceil(percentile / 100 * numberOfLatencies) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, numberOfLatencies - 1))];
+    }
+
+    /**
+     * Get the share of recent requests that have not been answered.
+     *
+     * @return The error rate between <code>0</code> and <code>1</code>.
+     */
+    public synchronized double getErrorRate() {
+        if (numberOfOutcomes == 0) {
+            return 0;
+        }
+
+        int numberOfFailures = 0;
+        for (int i = 0; i < numberOfOutcomes; i++) {
+            if (failures[i]) {
+                numberOfFailures++;
+            }
+        }
+
+        return (double) numberOfFailures / numberOfOutcomes;
+    }
+
+    /**
+     * Get the head block number the node reported during the last health
+     * check.
+     *
+     * @return The head block number.
+     */
+    public synchronized long getHeadBlockNumber() {
+        return headBlockNumber;
+    }
+
+    /**
+     * Set the head block number the node reported during the last health
+     * check.
+     *
+     * @param headBlockNumber
+     *            The head block number.
+     */
+    public synchronized void setHeadBlockNumber(long headBlockNumber) {
+        this.headBlockNumber = headBlockNumber;
+    }
+
+    /**
+     * Get the number of blocks the node has been behind during the last health
+     * check.
+     *
+     * @return The number of blocks the node is lagging behind.
+     */
+    public synchronized long getHeadBlockLag() {
+        return headBlockLag;
+    }
+
+    /**
+     * Set the number of blocks the node has been behind during the last health
+     * check.
+     *
+     * @param headBlockLag
+     *            The number of blocks the node is lagging behind.
+     */
+    public synchronized void setHeadBlockLag(long headBlockLag) {
+        this.headBlockLag = headBlockLag;
+    }
+
+    /**
+     * Check if the node has been demoted by the {@link NodeHealthMonitor}.
+     * Requests will only be send to a demoted node if no healthy node is
+     * available.
+     *
+     * @return <code>true</code> if the node has been demoted.
+     */
+    public synchronized boolean isDemoted() {
+        return demoted;
+    }
+
+    /**
+     * Demote or promote the node.
+     *
+     * @param demoted
+     *            <code>true</code> to demote the node.
+     */
+    public synchronized void setDemoted(boolean demoted) {
+        this.demoted = demoted;
+    }
+
+    /**
+     * Forget all collected statistics, e.g. because the connection has been
+     * switched to another node.
+     */
+    public synchronized void reset() {
+        numberOfLatencies = 0;
+        latencyPosition = 0;
+        numberOfOutcomes = 0;
+        outcomePosition = 0;
+        headBlockNumber = 0;
+        headBlockLag = 0;
+        demoted = false;
+    }
+}
@@ -0,0 +1,385 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.base.models.GlobalProperties;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.enums.SteemApis;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
+
+/**
+ * This class periodically probes all connections of a
+ * {@link CommunicationHandler} by requesting the dynamic global properties and
+ * demotes nodes that are lagging behind, are slow or fail too often.
+ *
+ * <p>
+ * A node is demoted if:
+ * <ul>
+ * <li>its head block is more than
+ * {@link SteemJConfig#getMaximumHeadBlockLag() maximumHeadBlockLag} blocks
+ * behind the best node of the pool or behind the current time,</li>
+ * <li>more than {@link SteemJConfig#getMaximumErrorRate() maximumErrorRate} of
+ * the recent requests failed or</li>
+ * <li>its p50 latency is more than {@value #SLOW_NODE_FACTOR} times higher than
+ * the p50 latency of the fastest node of the pool.</li>
+ * </ul>
+ * Demoted nodes only receive requests if no healthy node is available. If
+ * there are configured endpoints that are not used by the pool, a demoted
+ * connection is switched to one of them.
+ * </p>
+ *
+ * <p>
+ * A health check never waits longer than the probe timeout for the answers of
+ * the nodes, and closed connections are reconnected in the background, so a
+ * single dead node can't stall the monitor.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class NodeHealthMonitor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeHealthMonitor.class);
+
+    /**
+     * A node is considered as slow if its p50 latency is this many times
+     * higher than the one of the fastest node.
+     */
+    private static final int SLOW_NODE_FACTOR = 3;
+    /** The time in milliseconds the Steem blockchain needs for one block. */
+    private static final long BLOCK_INTERVAL = 3000;
+    /**
+     * The maximum time in milliseconds a health check waits for the answers of
+     * the nodes.
+     */
+    private static final long MAXIMUM_PROBE_TIMEOUT = 10000;
+
+    /** Used to reconnect closed connections without blocking the monitor. */
+    private static final ExecutorService RECONNECT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "steemj-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final List<NodeConnection> connections;
+    private final long maximumProbeTimeout;
+    /**
+     * The connections that are currently reconnected, mapped to the endpoint
+     * they are switched to or to their current endpoint.
+     */
+    private final ConcurrentMap<NodeConnection, URI> reconnectingConnections = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create a new health monitor for the given <code>connections</code>.
+     *
+     * @param connections
+     *            The connections to monitor.
+     */
+    public NodeHealthMonitor(List<NodeConnection> connections) {
+        this(connections, MAXIMUM_PROBE_TIMEOUT);
+    }
+
+    /**
+     * Create a new health monitor for the given <code>connections</code>.
+     *
+     * @param connections
+     *            The connections to monitor.
+     * @param maximumProbeTimeout
+     *            The maximum time in milliseconds a health check waits for the
+     *            answers of the nodes.
+     */
+    NodeHealthMonitor(List<NodeConnection> connections, long maximumProbeTimeout) {
+        this.connections = connections;
+        this.maximumProbeTimeout = maximumProbeTimeout;
+    }
+
+    /**
+     * Start to check the health of the connections periodically, using the
+     * configured {@link SteemJConfig#getHealthCheckInterval()
+     * healthCheckInterval}.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        long healthCheckInterval = SteemJConfig.getInstance().getHealthCheckInterval();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steemj-health-monitor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    checkHealth();
+                } catch (RuntimeException e) {
+                    // Make sure that the periodic check is not cancelled.
+                    LOGGER.warn("The health check failed.", e);
+                }
+            }
+        }, healthCheckInterval, healthCheckInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic health checks.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Probe all connections once and update their health. This method returns
+     * at the latest after the probe timeout, which is the configured
+     * {@link SteemJConfig#getResponseTimeout() responseTimeout}, but never
+     * more than {@value #MAXIMUM_PROBE_TIMEOUT} milliseconds.
+     */
+    public void checkHealth() {
+        List<RequestWrapperDTO> requestObjects = new ArrayList<>();
+        List<CompletableFuture<String>> probes = new ArrayList<>();
+        for (NodeConnection connection : connections) {
+            RequestWrapperDTO requestObject = createProbeRequest();
+            requestObjects.add(requestObject);
+            probes.add(probe(connection, requestObject));
+        }
+
+        long responseTimeout = SteemJConfig.getInstance().getResponseTimeout();
+        long deadline = System.currentTimeMillis()
+                + (responseTimeout > 0 ? Math.min(responseTimeout, maximumProbeTimeout) : maximumProbeTimeout);
+
+        long bestHeadBlockNumber = 0;
+        List<GlobalProperties> probeResults = new ArrayList<>();
+        for (int i = 0; i < probes.size(); i++) {
+            GlobalProperties globalProperties = null;
+            try {
+                globalProperties = awaitProbe(probes.get(i), requestObjects.get(i), deadline);
+            } catch (SteemCommunicationException e) {
+                LOGGER.debug("A health check request failed.", e);
+            }
+
+            probeResults.add(globalProperties);
+            if (globalProperties != null) {
+                bestHeadBlockNumber = Math.max(bestHeadBlockNumber, globalProperties.getHeadBlockNumber());
+            }
+        }
+
+        double bestLatency = Double.MAX_VALUE;
+        for (NodeConnection connection : connections) {
+            double latency = connection.getHealth().getLatencyPercentile(50);
+            if (latency > 0) {
+                bestLatency = Math.min(bestLatency, latency);
+            }
+        }
+
+        for (int i = 0; i < connections.size(); i++) {
+            updateHealth(connections.get(i), probeResults.get(i), bestHeadBlockNumber, bestLatency);
+        }
+    }
+
+    /**
+     * Create a request for the dynamic global properties.
+     *
+     * @return The request object.
+     */
+    private static RequestWrapperDTO createProbeRequest() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_DYNAMIC_GLOBAL_PROPERTIES);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = {};
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * Send the given <code>requestObject</code> using the given
+     * <code>connection</code>. A closed connection is not probed, but
+     * reconnected in the background.
+     *
+     * @param connection
+     *            The connection to probe.
+     * @param requestObject
+     *            The request for the dynamic global properties.
+     * @return A future that completes with the raw response.
+     */
+    private CompletableFuture<String> probe(NodeConnection connection, RequestWrapperDTO requestObject) {
+        if (!connection.isOpen()) {
+            reconnect(connection, -1);
+
+            CompletableFuture<String> failedProbe = new CompletableFuture<>();
+            failedProbe.completeExceptionally(new SteemCommunicationException(
+                    "The connection to " + connection.getEndpointURI() + " is closed."));
+            return failedProbe;
+        }
+
+        return connection.sendMessageAsynchronously(requestObject);
+    }
+
+    /**
+     * Wait for the answer to a probe until the given <code>deadline</code>
+     * has been reached. A probe that has not been answered in time is failed,
+     * so it is counted as a failed request of its connection.
+     *
+     * @param probe
+     *            The pending probe.
+     * @param requestObject
+     *            The request of the probe.
+     * @param deadline
+     *            The time in milliseconds until the answer is expected.
+     * @return The dynamic global properties.
+     * @throws SteemCommunicationException
+     *             If the probe failed or has not been answered in time.
+     */
+    private static GlobalProperties awaitProbe(CompletableFuture<String> probe, RequestWrapperDTO requestObject,
+            long deadline) throws SteemCommunicationException {
+        try {
+            return CommunicationHandler.transformResponse(
+                    probe.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS),
+                    requestObject, GlobalProperties.class).get(0);
+        } catch (TimeoutException e) {
+            SteemTimeoutException timeoutException = new SteemTimeoutException(
+                    "The health check request " + requestObject.getId() + " has not been answered in time.");
+            probe.completeExceptionally(timeoutException);
+            throw timeoutException;
+        } catch (ExecutionException e) {
+            throw new SteemCommunicationException("The health check request failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteemCommunicationException("The health check has been interrupted.", e);
+        }
+    }
+
+    /**
+     * Reconnect the given <code>connection</code> in the background, unless
+     * it is already reconnected.
+     *
+     * @param connection
+     *            The connection to reconnect.
+     * @param endpointSelector
+     *            The index of the endpoint to switch to or <code>-1</code> to
+     *            reconnect to the current endpoint.
+     */
+    private void reconnect(final NodeConnection connection, final int endpointSelector) {
+        URI targetEndpoint = endpointSelector < 0 ? connection.getEndpointURI()
+                : SteemJConfig.getInstance().getWebSocketEndpointURIs().get(endpointSelector).getLeft();
+        if (targetEndpoint == null || reconnectingConnections.putIfAbsent(connection, targetEndpoint) != null) {
+            return;
+        }
+
+        RECONNECT_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (endpointSelector < 0) {
+                        connection.ensureOpen();
+                    } else {
+                        connection.connectTo(endpointSelector);
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Could not reconnect to {}.", connection.getEndpointURI(), e);
+                } finally {
+                    reconnectingConnections.remove(connection);
+                }
+            }
+        });
+    }
+
+    /**
+     * Judge the health of a single <code>connection</code>.
+     *
+     * @param connection
+     *            The connection to judge.
+     * @param globalProperties
+     *            The result of the probe or <code>null</code> if the probe
+     *            failed.
+     * @param bestHeadBlockNumber
+     *            The highest head block number reported by the pool.
+     * @param bestLatency
+     *            The lowest p50 latency of the pool.
+     */
+    private void updateHealth(NodeConnection connection, GlobalProperties globalProperties,
+            long bestHeadBlockNumber, double bestLatency) {
+        NodeHealth health = connection.getHealth();
+
+        if (globalProperties != null) {
+            long timeLag = (System.currentTimeMillis() - globalProperties.getTime().getDateTimeAsTimestamp())
+                    / BLOCK_INTERVAL;
+
+            health.setHeadBlockNumber(globalProperties.getHeadBlockNumber());
+            health.setHeadBlockLag(
+                    Math.max(bestHeadBlockNumber - globalProperties.getHeadBlockNumber(), Math.max(timeLag, 0)));
+        }
+
+        double latency = health.getLatencyPercentile(50);
+        boolean unhealthy = health.getHeadBlockLag() > SteemJConfig.getInstance().getMaximumHeadBlockLag()
+                || health.getErrorRate() > SteemJConfig.getInstance().getMaximumErrorRate()
+                || (latency > 0 && latency > SLOW_NODE_FACTOR * bestLatency);
+
+        if (unhealthy && !health.isDemoted()) {
+            LOGGER.warn(
+                    "Demoting {} (Head block lag: {}, Error rate: {}, p50 latency: {} ms, p99 latency: {} ms).",
+                    connection.getEndpointURI(), health.getHeadBlockLag(), health.getErrorRate(), latency,
+                    health.getLatencyPercentile(99));
+            health.setDemoted(true);
+
+            switchToUnusedEndpoint(connection);
+        } else if (!unhealthy && health.isDemoted()) {
+            LOGGER.info("Promoting {} as it is healthy again.", connection.getEndpointURI());
+            health.setDemoted(false);
+        }
+    }
+
+    /**
+     * Connect the given <code>connection</code> to a configured endpoint that
+     * is not used by any other connection of the pool, if there is one.
+     *
+     * @param connection
+     *            The connection to switch.
+     */
+    private void switchToUnusedEndpoint(NodeConnection connection) {
+        Set<URI> usedEndpoints = new HashSet<>(reconnectingConnections.values());
+        for (NodeConnection pooledConnection : connections) {
+            usedEndpoints.add(pooledConnection.getEndpointURI());
+        }
+
+        List<Pair<URI, Boolean>> endpoints = SteemJConfig.getInstance().getWebSocketEndpointURIs();
+        for (int i = 0; i < endpoints.size(); i++) {
+            if (!usedEndpoints.contains(endpoints.get(i).getLeft())) {
+                LOGGER.info("Switching from {} to {}.", connection.getEndpointURI(), endpoints.get(i).getLeft());
+                reconnect(connection, i);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLSession;
+import javax.websocket.CloseReason;
+import javax.websocket.DeploymentException;
+import javax.websocket.EncodeException;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.glassfish.tyrus.client.ClientManager;
+import org.glassfish.tyrus.client.ClientProperties;
+import org.glassfish.tyrus.client.SslContextConfigurator;
+import org.glassfish.tyrus.client.SslEngineConfigurator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.communication.dto.BatchRequestWrapperDTO;
+import eu.bittrade.libs.steemj.communication.dto.NotificationDTO;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
+
+/**
+ * This class represents a single web socket session to one of the configured
+ * Steem Nodes.
+ *
+ * <p>
+ * Requests are multiplexed over the session: Each request is registered with
+ * its JSON-RPC id before it is send, so multiple threads can have requests in
+ * flight at the same time. Incoming responses are routed to the waiting
+ * request by the id of the response, while messages without a known id are
+ * treated as callbacks.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class WebSocketNodeConnection extends AbstractNodeConnection implements MessageHandler.Whole<String> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketNodeConnection.class);
+
+    /** Used to fail requests that have not been answered in time. */
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "steemj-response-timeout");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    private final ObjectMapper mapper = CommunicationHandler.getObjectMapper();
+    /** The requests that have been send, but not answered yet. */
+    private final ConcurrentMap<Integer, CompletableFuture<String>> pendingRequests = new ConcurrentHashMap<>();
+    /** Used to make sure that only one thread writes to the session. */
+    private final Object sendLock = new Object();
+    /** Receives the life cycle events of the web socket sessions. */
+    private final Endpoint endpoint = new Endpoint() {
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            WebSocketNodeConnection.this.onOpen(session);
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            WebSocketNodeConnection.this.onClose(closeReason);
+        }
+
+        @Override
+        public void onError(Session session, Throwable thr) {
+            LOGGER.error("Connection error.", thr);
+        }
+    };
+    private ClientManager client;
+    private volatile Session session;
+
+    /**
+     * Initialize a new connection and connect to the configured web socket
+     * endpoint URI selected by <code>endpointSelector</code> (see
+     * {@link SteemJConfig#getNextWebSocketEndpointURI(int)}). If the
+     * connection fails, the next configured endpoint will be used.
+     *
+     * @param endpointSelector
+     *            The index of the endpoint URI to connect to first.
+     */
+    public WebSocketNodeConnection(int endpointSelector) {
+        super(endpointSelector);
+        this.client = ClientManager.createClient();
+
+        this.client.setDefaultMaxSessionIdleTimeout(SteemJConfig.getInstance().getSocketTimeout());
+        this.client.getProperties().put(ClientProperties.RECONNECT_HANDLER, new SteemJReconnectHandler());
+
+        connect();
+    }
+
+    /**
+     * Initialize a new connection that uses the given, already opened
+     * <code>session</code> instead of connecting to a Steem Node.
+     *
+     * @param endpointSelector
+     *            The index of the configured endpoint URI the session belongs
+     *            to.
+     * @param session
+     *            The opened session.
+     */
+    WebSocketNodeConnection(int endpointSelector, Session session) {
+        super(endpointSelector);
+        this.client = ClientManager.createClient();
+
+        selectEndpoint();
+        onOpen(session);
+    }
+
+    /**
+     * Called when a new session has been opened.
+     *
+     * @param session
+     *            The new session.
+     */
+    private void onOpen(Session session) {
+        this.session = session;
+        this.session.addMessageHandler(this);
+
+        LOGGER.info("Connection to {} has been established.", getEndpointURI());
+
+        CallbackHub.getInstance().onConnectionOpened(this);
+    }
+
+    /**
+     * Called when the current session has been closed.
+     *
+     * @param closeReason
+     *            The reason why the session has been closed.
+     */
+    void onClose(CloseReason closeReason) {
+        LOGGER.info("Connection has been closed (Code: {}, Reason: {}).", closeReason.getCloseCode(),
+                closeReason.getReasonPhrase());
+
+        // The node will not answer requests send over the closed session, so
+        // there is no need to let the callers wait for their timeout.
+        for (Entry<Integer, CompletableFuture<String>> pendingRequest : pendingRequests.entrySet()) {
+            pendingRequest.getValue().completeExceptionally(new SteemCommunicationException(
+                    "The connection has been closed before the request " + pendingRequest.getKey()
+                            + " has been answered."));
+        }
+    }
+
+    /**
+     * This method establishes a new connection to the web socket Server. If
+     * the connection fails, the next configured endpoint is used. Each
+     * configured endpoint is tried once, so the calling thread is not blocked
+     * forever if no Steem Node is reachable. In this case the connection stays
+     * closed until the next call.
+     */
+    protected synchronized void connect() {
+        int numberOfEndpoints = Math.max(SteemJConfig.getInstance().getWebSocketEndpointURIs().size(), 1);
+
+        for (int attempt = 0; attempt < numberOfEndpoints; attempt++) {
+            // Get a websocket URI based on the number of retries.
+            Pair<URI, Boolean> endpoint = selectEndpoint();
+
+            // Tyrus expects a SSL connection if the SSL_ENGINE_CONFIGURATOR
+            // property is present. This leads to a "connection failed" error
+            // when a non SSL secured protocol is used. Due to this we only add
+            // the property when connecting to a SSL secured node.
+            if (endpoint.getRight() && endpoint.getLeft().getScheme().equals("wss")
+                    || endpoint.getLeft().getScheme().equals("https")) {
+                SslEngineConfigurator sslEngineConfigurator = new SslEngineConfigurator(
+                        new SslContextConfigurator());
+                // TODO: This can also be solved with a lamda expression which
+                // would require Java 8:
+                // sslEngineConfigurator.setHostnameVerifier((String host,
+                // SSLSession sslSession) -> true);
+                sslEngineConfigurator.setHostnameVerifier(new HostnameVerifier() {
+                    @Override
+                    public boolean verify(String host, SSLSession sslSession) {
+                        return true;
+                    }
+                });
+                client.getProperties().put(ClientProperties.SSL_ENGINE_CONFIGURATOR, sslEngineConfigurator);
+            } else {
+                client.getProperties().remove(ClientProperties.SSL_ENGINE_CONFIGURATOR);
+            }
+
+            try {
+                if (session != null && session.isOpen()) {
+                    LOGGER.debug("Closing existing session.");
+                    session.close();
+                }
+
+                LOGGER.info("Connecting to {}.", endpoint.getLeft());
+
+                client.connectToServer(this.endpoint, SteemJConfig.getInstance().getClientEndpointConfig(),
+                        endpoint.getLeft());
+                return;
+            } catch (DeploymentException | IOException e) {
+                LOGGER.info("Could not connect to the node - Trying the next one.");
+                LOGGER.debug("Reason:", e);
+                // Increase the number of connection tries.
+                numberOfConnectionTries.incrementAndGet();
+            }
+        }
+
+        LOGGER.error("Could not connect to any of the configured Steem Nodes.");
+    }
+
+    @Override
+    public synchronized void connectTo(int endpointSelector) {
+        numberOfConnectionTries.set(endpointSelector);
+        connect();
+    }
+
+    @Override
+    public void ensureOpen() {
+        if (!isOpen()) {
+            connect();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        Session currentSession = session;
+        return currentSession != null && currentSession.isOpen();
+    }
+
+    @Override
+    public void close() {
+        if (session != null && session.isOpen()) {
+            try {
+                session.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close the session.", e);
+            }
+        }
+    }
+
+    @Override
+    public int getNumberOfOutstandingRequests() {
+        return pendingRequests.size();
+    }
+
+    @Override
+    public String sendMessageSynchronously(RequestWrapperDTO requestObject)
+            throws SteemCommunicationException, InterruptedException {
+        CompletableFuture<String> pendingResponse = registerPendingRequest(requestObject);
+
+        try {
+            sendMessage(requestObject);
+
+            // Wait until we received a response from the Server.
+            return pendingResponse.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SteemCommunicationException) {
+                throw (SteemCommunicationException) e.getCause();
+            }
+
+            throw new SteemCommunicationException("Could not receive a response from the Steem Node.", e.getCause());
+        } catch (EncodeException | IOException | IllegalStateException e) {
+            throw new SteemCommunicationException("Could not send the message to the Steem Node.", e);
+        } finally {
+            pendingRequests.remove(requestObject.getId(), pendingResponse);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessageAsynchronously(RequestWrapperDTO requestObject) {
+        CompletableFuture<String> pendingResponse = registerPendingRequest(requestObject);
+
+        sendObjectAsynchronously(requestObject, Collections.singletonList(pendingResponse));
+
+        return pendingResponse;
+    }
+
+    @Override
+    public List<CompletableFuture<String>> sendBatchAsynchronously(List<RequestWrapperDTO> requestObjects) {
+        List<CompletableFuture<String>> pendingResponses = new ArrayList<>();
+        for (RequestWrapperDTO requestObject : requestObjects) {
+            pendingResponses.add(registerPendingRequest(requestObject));
+        }
+
+        if (!requestObjects.isEmpty()) {
+            sendObjectAsynchronously(new BatchRequestWrapperDTO(requestObjects), pendingResponses);
+        }
+
+        return pendingResponses;
+    }
+
+    /**
+     * Register a request so that the response of the Steem Node can be routed
+     * to the returned future. The future will be completed exceptionally if
+     * the Steem Node does not answer within the configured response timeout.
+     *
+     * @param requestObject
+     *            The request to register.
+     * @return A future that completes with the raw JSON response of the Steem
+     *         Node.
+     */
+    private CompletableFuture<String> registerPendingRequest(final RequestWrapperDTO requestObject) {
+        final CompletableFuture<String> pendingResponse = new CompletableFuture<>();
+        pendingRequests.put(requestObject.getId(), pendingResponse);
+
+        final long startTime = System.nanoTime();
+        final long responseTimeout = SteemJConfig.getInstance().getResponseTimeout();
+        final ScheduledFuture<?> timeoutTask;
+        if (responseTimeout == 0) {
+            timeoutTask = null;
+        } else {
+            timeoutTask = TIMEOUT_SCHEDULER.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    String errorMessage = "Timeout occured. The WebSocket server was not able to answer in "
+                            + responseTimeout + " millisecond(s).";
+
+                    LOGGER.error(errorMessage);
+                    pendingResponse.completeExceptionally(new SteemTimeoutException(errorMessage));
+                }
+            }, responseTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        // Clean up as soon as the request has been answered, has failed or
+        // has timed out.
+        pendingResponse.whenComplete(new BiConsumer<String, Throwable>() {
+            @Override
+            public void accept(String rawJsonResponse, Throwable throwable) {
+                pendingRequests.remove(requestObject.getId(), pendingResponse);
+
+                if (timeoutTask != null) {
+                    timeoutTask.cancel(false);
+                }
+
+                if (throwable == null) {
+                    recordSuccess(startTime);
+                } else if (!(throwable instanceof CancellationException)) {
+                    // A cancelled request (e.g. the loser of a hedged
+                    // request) says nothing about the health of the node.
+                    recordFailure();
+                }
+            }
+        });
+
+        return pendingResponse;
+    }
+
+    /**
+     * Write the given <code>payload</code> to the current session without
+     * waiting for the transfer to complete. If the transfer fails, all given
+     * <code>pendingResponses</code> are completed exceptionally.
+     *
+     * @param payload
+     *            The object to send.
+     * @param pendingResponses
+     *            The futures waiting for an answer to the <code>payload</code>.
+     */
+    private void sendObjectAsynchronously(Object payload, final List<CompletableFuture<String>> pendingResponses) {
+        try {
+            synchronized (sendLock) {
+                getSession().getAsyncRemote().sendObject(payload, new SendHandler() {
+                    @Override
+                    public void onResult(SendResult result) {
+                        if (!result.isOK()) {
+                            LOGGER.warn("Could not transfer the data to the Steem Node.");
+                            LOGGER.debug("Reason:", result.getException());
+                            // Increase the number of connection tries so the
+                            // next connect uses another endpoint.
+                            numberOfConnectionTries.incrementAndGet();
+                            failAll(pendingResponses, new SteemCommunicationException(
+                                    "Could not send the message to the Steem Node.", result.getException()));
+                        }
+                    }
+                });
+            }
+        } catch (IllegalStateException e) {
+            failAll(pendingResponses,
+                    new SteemCommunicationException("Could not send the message to the Steem Node.", e));
+        }
+    }
+
+    /**
+     * Get the current session.
+     *
+     * @return The current session.
+     * @throws IllegalStateException
+     *             If no session has been opened.
+     */
+    private Session getSession() {
+        Session currentSession = session;
+        if (currentSession == null) {
+            throw new IllegalStateException("No connection to a Steem Node has been established.");
+        }
+
+        return currentSession;
+    }
+
+    /**
+     * Complete all given <code>pendingResponses</code> exceptionally.
+     *
+     * @param pendingResponses
+     *            The futures to fail.
+     * @param exception
+     *            The reason.
+     */
+    private static void failAll(List<CompletableFuture<String>> pendingResponses,
+            SteemCommunicationException exception) {
+        for (CompletableFuture<String> pendingResponse : pendingResponses) {
+            pendingResponse.completeExceptionally(exception);
+        }
+    }
+
+    /**
+     * Write the given <code>requestObject</code> to the current session. If the
+     * transfer fails, the session is closed, so the next request establishes
+     * a new connection.
+     *
+     * <p>
+     * The message is not send again: Closing the session fails all pending
+     * requests, including the one for this message, so an answer to a resend
+     * message could not be delivered anymore.
+     * </p>
+     *
+     * @param requestObject
+     *            The object to send.
+     * @throws EncodeException
+     *             If the message could not be encoded.
+     * @throws IOException
+     *             If the message could not be transferred.
+     */
+    private void sendMessage(RequestWrapperDTO requestObject) throws EncodeException, IOException {
+        try {
+            synchronized (sendLock) {
+                getSession().getBasicRemote().sendObject(requestObject);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not transfer the data to the Steem Node.");
+            LOGGER.debug("Reason:", e);
+            // Increase the number of connection tries so the next connect uses
+            // another endpoint.
+            numberOfConnectionTries.incrementAndGet();
+            close();
+
+            throw e;
+        }
+    }
+
+    /**
+     * Extract the JSON-RPC id of a message without transforming the whole
+     * message into an object. Only the top level fields are inspected.
+     *
+     * @param message
+     *            The raw JSON message received from the Steem Node.
+     * @return The id of the message or <code>null</code> if the message has
+     *         no id (e.g. a callback).
+     */
+    private Integer extractResponseId(String message) {
+        try (JsonParser parser = mapper.getFactory().createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("id".equals(fieldName) && value == JsonToken.VALUE_NUMBER_INT) {
+                    return parser.getIntValue();
+                }
+
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not extract the id of the message {}.", message, e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Split the response to a batch request into its single responses and
+     * route each of them to the request waiting for it.
+     *
+     * @param message
+     *            The raw JSON array received from the Steem Node.
+     */
+    private void onBatchMessage(String message) {
+        LOGGER.debug("Raw JSON batch response: {}", message);
+
+        try {
+            for (JsonNode response : mapper.readTree(message)) {
+                JsonNode responseId = response.get("id");
+                CompletableFuture<String> pendingResponse = responseId == null || !responseId.canConvertToInt()
+                        ? null : pendingRequests.get(responseId.intValue());
+
+                if (pendingResponse != null) {
+                    pendingResponse.complete(response.toString());
+                } else {
+                    LOGGER.warn("Received a batch response for an unknown request: {}", response);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not parse batch response {}.", message, e);
+        }
+    }
+
+    @Override
+    public void onMessage(String message) {
+        if (message.trim().startsWith("[")) {
+            onBatchMessage(message);
+            return;
+        }
+
+        Integer responseId = extractResponseId(message);
+        CompletableFuture<String> pendingResponse = responseId == null ? null : pendingRequests.get(responseId);
+
+        // Check if someone is waiting for this answer.
+        if (pendingResponse != null) {
+            LOGGER.debug("Raw JSON response: {}", message);
+
+            pendingResponse.complete(message);
+        } else if (responseId != null) {
+            // The request has already timed out or failed.
+            LOGGER.warn("Received a response for an unknown request: {}", message);
+        } else {
+            // A message has been send while we are not waiting for it - It can
+            // be a callback.
+            LOGGER.debug("Received callback: {}", message);
+
+            try {
+                NotificationDTO response = mapper.readValue(message, NotificationDTO.class);
+
+                int uuid = Integer.parseInt(response.getParams()[0].toString());
+
+                // Make sure that the inner result object is a BlockHeader.
+                // The callback itself is executed by the dispatcher of the
+                // hub, so it does not block this thread.
+                if (!CallbackHub.getInstance().dispatch(uuid, mapper.convertValue(
+                        ((ArrayList<Object>) (response.getParams()[1])).get(0), SignedBlockHeader.class))) {
+                    LOGGER.debug("Received a notification for the unknown callback {}.", uuid);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.error("Could not parse callback {}.", message, e);
+            }
+        }
+    }
+}
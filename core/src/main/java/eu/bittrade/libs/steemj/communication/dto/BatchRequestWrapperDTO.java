@@ -0,0 +1,74 @@
+package eu.bittrade.libs.steemj.communication.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A wrapper object that packs multiple {@link RequestWrapperDTO}s into a
+ * single JSON-RPC 2.0 batch request. The Steem Node will answer a batch with
+ * an array of responses which can be assigned to the single requests by their
+ * ids.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BatchRequestWrapperDTO {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchRequestWrapperDTO.class);
+
+    private List<RequestWrapperDTO> requests;
+
+    /**
+     * Instantiate a new, empty batch request.
+     */
+    public BatchRequestWrapperDTO() {
+        this.requests = new ArrayList<>();
+    }
+
+    /**
+     * Instantiate a new batch request containing the given
+     * <code>requests</code>.
+     *
+     * @param requests
+     *            The requests to send in one batch.
+     */
+    public BatchRequestWrapperDTO(List<RequestWrapperDTO> requests) {
+        this.requests = new ArrayList<>(requests);
+    }
+
+    /**
+     * Add a single request to this batch.
+     *
+     * @param request
+     *            The request to add.
+     */
+    public void addRequest(RequestWrapperDTO request) {
+        this.requests.add(request);
+    }
+
+    /**
+     * Get the requests of this batch in the order they have been added.
+     *
+     * @return The requests of this batch.
+     */
+    @JsonValue
+    public List<RequestWrapperDTO> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            LOGGER.error("Could not transform object to JSON.", e);
+            return "";
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package eu.bittrade.libs.steemj.communication.dto;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,10 +25,11 @@ public class RequestWrapperDTO {
 
     /**
      * The id of the request (used to identify which answer belongs to which
-     * request
+     * request). As requests can be created by multiple threads in parallel,
+     * the id is backed by an atomic counter.
      */
     @JsonIgnore
-    private static int globalRequestId = 0;
+    private static final AtomicInteger globalRequestId = new AtomicInteger(0);
     @JsonIgnore
     private SteemApis steemApi;
     @JsonIgnore
@@ -43,7 +46,7 @@ public class RequestWrapperDTO {
      * Instantiate a new RequestObject.
      */
     public RequestWrapperDTO() {
-        this.id = globalRequestId++;
+        this.id = globalRequestId.getAndIncrement();
     }
 
     /**
@@ -151,7 +154,7 @@ public class RequestWrapperDTO {
      *         incremented.
      */
     public static int incrementGlobalRequestId() {
-        return ++globalRequestId;
+        return globalRequestId.incrementAndGet();
     }
 
     @Override
@@ -7,19 +7,32 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import eu.bittrade.libs.steemj.base.models.error.SteemErrorDetails;
+
 /**
  * As every response starts with an id and a result element, this wrapper class
  * can carry every kind of responses.
  * 
+ * <p>
+ * If this wrapper is read using a {@link com.fasterxml.jackson.databind.JavaType
+ * JavaType} that has been parameterized with the expected type, the result is
+ * directly bound to that type. In case the Steem Node answered with an error,
+ * the {@link #getError() error} element is filled instead of the result, so
+ * both cases can be handled after reading the response only once.
+ * </p>
+ * 
  * @author <a href="http://steemit.com/@dez1337">dez1337</a>
  */
 public class ResponseWrapperDTO<T> {
     private int responseId;
     private List<T> result;
+    private SteemErrorDetails error;
 
     @JsonCreator
-    public ResponseWrapperDTO(@JsonProperty("result") List<T> result) {
+    public ResponseWrapperDTO(@JsonProperty("result") List<T> result,
+            @JsonProperty("error") SteemErrorDetails error) {
         this.result = result;
+        this.error = error;
     }
 
     @JsonProperty("id")
@@ -31,6 +44,16 @@ public class ResponseWrapperDTO<T> {
         return result;
     }
 
+    /**
+     * Get the error the Steem Node answered with.
+     * 
+     * @return The error details or <code>null</code> if the request was
+     *         successful.
+     */
+    public SteemErrorDetails getError() {
+        return error;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
@@ -4,6 +4,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +18,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.enums.CallbackOverflowPolicy;
+import eu.bittrade.libs.steemj.enums.CanonicalRetryMode;
+import eu.bittrade.libs.steemj.enums.LoadBalancingPolicy;
+import eu.bittrade.libs.steemj.enums.TransportType;
 import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.enums.SteemitAddressPrefix;
 import eu.bittrade.libs.steemj.enums.ValidationType;
@@ -68,9 +73,24 @@ public class SteemJConfig {
     private ClientEndpointConfig clientEndpointConfig;
     private List<Pair<URI, Boolean>> webSocketEndpointURIs;
     private long responseTimeout;
+    private int maximumBatchSize;
+    private int connectionPoolSize;
+    private LoadBalancingPolicy loadBalancingPolicy;
+    private long healthCheckInterval;
+    private long maximumHeadBlockLag;
+    private double maximumErrorRate;
+    private double hedgingPercentile;
+    private TransportType transportType;
+    private int httpConnectionsPerNode;
+    private Path blockStoreDirectory;
+    private CanonicalRetryMode canonicalRetryMode;
+    private int callbackQueueCapacity;
+    private CallbackOverflowPolicy callbackOverflowPolicy;
+    private boolean fastSignatureEngineEnabled;
     private long socketTimeout;
     private String dateTimePattern;
     private long maximumExpirationDateOffset;
+    private long referenceBlockMaximumAge;
     private String timeZoneId;
     private AccountName apiUsername;
     private char[] apiPassword;
@@ -98,11 +118,25 @@ public class SteemJConfig {
             LOGGER.error("At least one of the configured default URIs has a Syntax error.", e);
         }
         this.responseTimeout = 1000;
+        this.maximumBatchSize = 50;
+        this.connectionPoolSize = 1;
+        this.loadBalancingPolicy = LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS;
+        this.healthCheckInterval = 0;
+        this.maximumHeadBlockLag = 5;
+        this.maximumErrorRate = 0.25;
+        this.hedgingPercentile = 0;
+        this.transportType = TransportType.WEBSOCKET;
+        this.httpConnectionsPerNode = 8;
+        this.canonicalRetryMode = CanonicalRetryMode.EXPIRATION_DATE;
+        this.callbackQueueCapacity = 1000;
+        this.callbackOverflowPolicy = CallbackOverflowPolicy.DROP_OLDEST;
+        this.fastSignatureEngineEnabled = false;
         this.socketTimeout = 60000;
         this.dateTimePattern = "yyyy-MM-dd'T'HH:mm:ss";
         this.apiUsername = new AccountName(System.getProperty("steemj.api.username", ""));
         this.apiPassword = System.getProperty("steemj.api.password", "").toCharArray();
         this.maximumExpirationDateOffset = 3600000L;
+        this.referenceBlockMaximumAge = 30000L;
         this.timeZoneId = "GMT";
         this.encodingCharset = StandardCharsets.UTF_8;
         this.privateKeyStorage = new PrivateKeyStorage();
@@ -157,6 +191,45 @@ public class SteemJConfig {
         return defaultAccount;
     }
 
+    /**
+     * Get the directory used to store irreversible blocks locally.
+     * 
+     * @return The directory of the block store or <code>null</code> if the
+     *         block store is disabled.
+     */
+    public Path getBlockStoreDirectory() {
+        return blockStoreDirectory;
+    }
+
+    /**
+     * Get the way SteemJ handles new callback notifications while the
+     * callback queue is full.
+     * 
+     * @return The callback overflow policy.
+     */
+    public CallbackOverflowPolicy getCallbackOverflowPolicy() {
+        return callbackOverflowPolicy;
+    }
+
+    /**
+     * Get the maximum number of callback notifications that wait for their
+     * execution.
+     * 
+     * @return The capacity of the callback queue.
+     */
+    public int getCallbackQueueCapacity() {
+        return callbackQueueCapacity;
+    }
+
+    /**
+     * Get the way SteemJ uses to find a canonical signature for a transaction.
+     * 
+     * @return The canonical retry mode.
+     */
+    public CanonicalRetryMode getCanonicalRetryMode() {
+        return canonicalRetryMode;
+    }
+
     /**
      * Get the currently configured chain id used to sign transactions. For the
      * production chain the id is a 56bit long 0 sequence which is configured by
@@ -175,6 +248,16 @@ public class SteemJConfig {
         return clientEndpointConfig;
     }
 
+    /**
+     * Get the number of Steem Nodes SteemJ keeps a connection open to at the
+     * same time.
+     * 
+     * @return The size of the connection pool.
+     */
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
     /**
      * Get the currently configured date time pattern. This date pattern is used
      * to serialize and deserialize JSON/Java objects.
@@ -195,6 +278,92 @@ public class SteemJConfig {
         return encodingCharset;
     }
 
+    /**
+     * Check if the {@link eu.bittrade.libs.steemj.util.Secp256k1Engine
+     * Secp256k1Engine} uses its precomputed tables to sign and verify
+     * transactions.
+     * 
+     * @return <code>true</code> if the fast signature engine is enabled.
+     */
+    public boolean isFastSignatureEngineEnabled() {
+        return fastSignatureEngineEnabled;
+    }
+
+    /**
+     * Get the interval in which the health of the connected Steem Nodes is
+     * checked.
+     * 
+     * @return The health check interval in milliseconds or <code>0</code> if
+     *         the health checks are disabled.
+     */
+    public long getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Get the latency percentile after which an unanswered read request is
+     * send to a second Steem Node.
+     * 
+     * @return The hedging percentile or <code>0</code> if hedging is
+     *         disabled.
+     */
+    public double getHedgingPercentile() {
+        return hedgingPercentile;
+    }
+
+    /**
+     * Get the maximum number of HTTP requests that are send to one Steem Node
+     * in parallel if the {@link TransportType#HTTP HTTP} transport is used.
+     * 
+     * @return The maximum number of parallel HTTP requests per node.
+     */
+    public int getHttpConnectionsPerNode() {
+        return httpConnectionsPerNode;
+    }
+
+    /**
+     * Get the policy SteemJ uses to spread requests across the connections of
+     * the connection pool.
+     * 
+     * @return The load balancing policy.
+     */
+    public LoadBalancingPolicy getLoadBalancingPolicy() {
+        return loadBalancingPolicy;
+    }
+
+    /**
+     * Get the maximum share of failed requests a Steem Node may have before it
+     * is demoted by the health checks.
+     * 
+     * @return The maximum error rate between <code>0</code> and
+     *         <code>1</code>.
+     */
+    public double getMaximumErrorRate() {
+        return maximumErrorRate;
+    }
+
+    /**
+     * Get the maximum number of requests SteemJ will pack into one batch when
+     * a method needs to perform a lot of similar requests (e.g.
+     * {@link eu.bittrade.libs.steemj.SteemJ#getBlocks(long, long)
+     * getBlocks}).
+     * 
+     * @return The maximum number of requests per batch.
+     */
+    public int getMaximumBatchSize() {
+        return maximumBatchSize;
+    }
+
+    /**
+     * Get the maximum number of blocks a Steem Node may lag behind before it
+     * is demoted by the health checks.
+     * 
+     * @return The maximum head block lag.
+     */
+    public long getMaximumHeadBlockLag() {
+        return maximumHeadBlockLag;
+    }
+
     /**
      * Get the currently configured maximum offset of the expiration date.
      * 
@@ -235,6 +404,17 @@ public class SteemJConfig {
         return steemitAddressPrefix;
     }
 
+    /**
+     * Get the maximum time a cached reference block is used for new
+     * transactions.
+     * 
+     * @return The maximum age in milliseconds or <code>0</code> if the
+     *         reference block is requested for each transaction.
+     */
+    public long getReferenceBlockMaximumAge() {
+        return referenceBlockMaximumAge;
+    }
+
     /**
      * Get the configured, maximum time that SteemJ will wait for an answer of
      * the websocket server before throwing a {@link SteemTimeoutException}
@@ -258,6 +438,15 @@ public class SteemJConfig {
         return socketTimeout;
     }
 
+    /**
+     * Get the transport that is used to send requests to the Steem Nodes.
+     * 
+     * @return The transport type.
+     */
+    public TransportType getTransportType() {
+        return transportType;
+    }
+
     /**
      * Get the currently configured time zone id.
      * 
@@ -318,6 +507,81 @@ public class SteemJConfig {
         this.apiUsername = apiUsername;
     }
 
+    /**
+     * Enable the local block store. If a directory is configured, all
+     * irreversible blocks and operations requested by
+     * {@link eu.bittrade.libs.steemj.SteemJ#getBlock(long) getBlock} and
+     * {@link eu.bittrade.libs.steemj.SteemJ#getOpsInBlock(int, boolean)
+     * getOpsInBlock} are stored in this directory, so they can be served from
+     * disk the next time they are requested.
+     * 
+     * <p>
+     * This setting has to be changed before SteemJ is initialized.
+     * </p>
+     * 
+     * @param blockStoreDirectory
+     *            The directory of the block store or <code>null</code> to
+     *            disable the block store.
+     */
+    public void setBlockStoreDirectory(Path blockStoreDirectory) {
+        this.blockStoreDirectory = blockStoreDirectory;
+    }
+
+    /**
+     * Define how SteemJ handles new callback notifications while the callback
+     * queue is full (see {@link #setCallbackQueueCapacity(int)}). By default,
+     * the oldest waiting notification is dropped.
+     * 
+     * <p>
+     * <b>Notice:</b> This setting needs to be configured before the first
+     * callback notification is received.
+     * </p>
+     * 
+     * @param callbackOverflowPolicy
+     *            The callback overflow policy to use.
+     */
+    public void setCallbackOverflowPolicy(CallbackOverflowPolicy callbackOverflowPolicy) {
+        this.callbackOverflowPolicy = callbackOverflowPolicy;
+    }
+
+    /**
+     * Override the default, maximum number of callback notifications that
+     * wait for their execution. Callbacks are executed by a separate thread,
+     * so slow callbacks do not delay the responses of the Steem Node. If the
+     * callbacks can not keep up, the configured
+     * {@link #setCallbackOverflowPolicy(CallbackOverflowPolicy)
+     * callbackOverflowPolicy} is applied once the queue is full.
+     * 
+     * <p>
+     * <b>Notice:</b> This setting needs to be configured before the first
+     * callback notification is received.
+     * </p>
+     * 
+     * @param callbackQueueCapacity
+     *            The capacity of the callback queue.
+     * @throws IllegalArgumentException
+     *             If the value is less than 1.
+     */
+    public void setCallbackQueueCapacity(int callbackQueueCapacity) {
+        if (callbackQueueCapacity < 1) {
+            throw new IllegalArgumentException("The callback queue capacity has to be at least 1.");
+        }
+
+        this.callbackQueueCapacity = callbackQueueCapacity;
+    }
+
+    /**
+     * Define how SteemJ finds a canonical signature for a transaction. By
+     * default, the {@link CanonicalRetryMode#EXPIRATION_DATE EXPIRATION_DATE}
+     * of the transaction is increased until its signature is canonical.
+     * 
+     * @param canonicalRetryMode
+     *            The canonical retry mode to use.
+     */
+    public void setCanonicalRetryMode(CanonicalRetryMode canonicalRetryMode) {
+        this.canonicalRetryMode = canonicalRetryMode;
+    }
+
     /**
      * Set the chain id used to sign transactions. For the production chain the
      * id is a 56bit long 0 sequence which is configured by default.
@@ -339,6 +603,33 @@ public class SteemJConfig {
         this.clientEndpointConfig = clientEndpointConfig;
     }
 
+    /**
+     * Override the default number of Steem Nodes SteemJ keeps a connection
+     * open to at the same time. By default, SteemJ only connects to one node
+     * and uses the other configured endpoints for failover. If the value is
+     * greater than one, SteemJ connects to multiple endpoints (see
+     * {@link #getWebSocketEndpointURIs()}) and spreads the requests across
+     * them.
+     * 
+     * <p>
+     * <b>Notice:</b> This setting needs to be configured before the
+     * {@link eu.bittrade.libs.steemj.SteemJ SteemJ} instance is created. The
+     * pool size is limited by the number of configured endpoints.
+     * </p>
+     * 
+     * @param connectionPoolSize
+     *            The size of the connection pool.
+     * @throws IllegalArgumentException
+     *             If the value is less than 1.
+     */
+    public void setConnectionPoolSize(int connectionPoolSize) {
+        if (connectionPoolSize < 1) {
+            throw new IllegalArgumentException("The connection pool size has to be at least 1.");
+        }
+
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
     /**
      * Override the default date pattern. This date pattern is used to serialize
      * and deserialize JSON/Java objects.
@@ -372,6 +663,159 @@ public class SteemJConfig {
         this.encodingCharset = encodingCharset;
     }
 
+    /**
+     * Enable or disable the precomputed tables of the
+     * {@link eu.bittrade.libs.steemj.util.Secp256k1Engine Secp256k1Engine}.
+     * The signatures do not change, but signing gets faster at the cost of a
+     * one time precomputation and about 40 KB of memory. This is disabled by
+     * default.
+     * 
+     * @param fastSignatureEngineEnabled
+     *            <code>true</code> to enable the fast signature engine.
+     */
+    public void setFastSignatureEngineEnabled(boolean fastSignatureEngineEnabled) {
+        this.fastSignatureEngineEnabled = fastSignatureEngineEnabled;
+    }
+
+    /**
+     * Override the default interval in which the health of the connected Steem
+     * Nodes is checked. During a health check, each connection of the pool
+     * requests the dynamic global properties. Nodes that lag behind, fail too
+     * often or are significantly slower than the others will be demoted (see
+     * {@link eu.bittrade.libs.steemj.communication.NodeHealthMonitor
+     * NodeHealthMonitor}). By default, the health checks are disabled.
+     * 
+     * <p>
+     * <b>Notice:</b> This setting needs to be configured before the
+     * {@link eu.bittrade.libs.steemj.SteemJ SteemJ} instance is created.
+     * </p>
+     * 
+     * @param healthCheckInterval
+     *            The health check interval in milliseconds or <code>0</code>
+     *            to disable the health checks.
+     * @throws IllegalArgumentException
+     *             If the value is negative.
+     */
+    public void setHealthCheckInterval(long healthCheckInterval) {
+        if (healthCheckInterval < 0) {
+            throw new IllegalArgumentException(
+                    "The health check interval has to be greater than 0. (0 will disable the health checks).");
+        }
+
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    /**
+     * Enable hedged requests for idempotent reads of the database api (e.g.
+     * <code>get_block</code> or <code>get_content</code>). If the selected
+     * Steem Node did not answer such a request within the given
+     * <code>hedgingPercentile</code> of its recent latencies, the same
+     * request is send to a second node of the connection pool and the first
+     * answer wins. Hedging requires a connection pool with at least two
+     * connections (see {@link #setConnectionPoolSize(int)}) and is disabled
+     * by default.
+     * 
+     * <p>
+     * Example: A value of <code>95</code> will hedge a request if the node
+     * needs longer than 95% of its recent requests, which will increase the
+     * load by about 5%.
+     * </p>
+     * 
+     * @param hedgingPercentile
+     *            The hedging percentile or <code>0</code> to disable
+     *            hedging.
+     * @throws IllegalArgumentException
+     *             If the value is not between 0 and 100.
+     */
+    public void setHedgingPercentile(double hedgingPercentile) {
+        if (hedgingPercentile < 0 || hedgingPercentile > 100) {
+            throw new IllegalArgumentException("The hedging percentile has to be between 0 and 100.");
+        }
+
+        this.hedgingPercentile = hedgingPercentile;
+    }
+
+    /**
+     * Override the default, maximum number of HTTP requests that are send to
+     * one Steem Node in parallel if the {@link TransportType#HTTP HTTP}
+     * transport is used. Keep in mind that the JVM only keeps up to
+     * <code>http.maxConnections</code> (a system property, default 5) idle
+     * connections per node alive, so this property may need to be increased
+     * as well.
+     * 
+     * @param httpConnectionsPerNode
+     *            The maximum number of parallel HTTP requests per node.
+     * @throws IllegalArgumentException
+     *             If the value is less than 1.
+     */
+    public void setHttpConnectionsPerNode(int httpConnectionsPerNode) {
+        if (httpConnectionsPerNode < 1) {
+            throw new IllegalArgumentException("The number of HTTP connections per node has to be at least 1.");
+        }
+
+        this.httpConnectionsPerNode = httpConnectionsPerNode;
+    }
+
+    /**
+     * Override the default policy SteemJ uses to spread requests across the
+     * connections of the connection pool (see
+     * {@link #setConnectionPoolSize(int)}).
+     * 
+     * @param loadBalancingPolicy
+     *            The load balancing policy to use.
+     */
+    public void setLoadBalancingPolicy(LoadBalancingPolicy loadBalancingPolicy) {
+        this.loadBalancingPolicy = loadBalancingPolicy;
+    }
+
+    /**
+     * Override the default, maximum share of failed requests a Steem Node may
+     * have before it is demoted by the health checks.
+     * 
+     * @param maximumErrorRate
+     *            The maximum error rate between <code>0</code> and
+     *            <code>1</code>.
+     * @throws IllegalArgumentException
+     *             If the value is not between 0 and 1.
+     */
+    public void setMaximumErrorRate(double maximumErrorRate) {
+        if (maximumErrorRate < 0 || maximumErrorRate > 1) {
+            throw new IllegalArgumentException("The maximum error rate has to be between 0 and 1.");
+        }
+
+        this.maximumErrorRate = maximumErrorRate;
+    }
+
+    /**
+     * Override the default, maximum number of requests SteemJ will pack into
+     * one batch. Larger batches require less round trips, but the Steem Node
+     * will need more time to answer them, so the response timeout may need
+     * to be increased as well.
+     * 
+     * @param maximumBatchSize
+     *            The maximum number of requests per batch.
+     * @throws IllegalArgumentException
+     *             If the value is less than 1.
+     */
+    public void setMaximumBatchSize(int maximumBatchSize) {
+        if (maximumBatchSize < 1) {
+            throw new IllegalArgumentException("The maximum batch size has to be at least 1.");
+        }
+
+        this.maximumBatchSize = maximumBatchSize;
+    }
+
+    /**
+     * Override the default, maximum number of blocks a Steem Node may lag
+     * behind before it is demoted by the health checks.
+     * 
+     * @param maximumHeadBlockLag
+     *            The maximum head block lag.
+     */
+    public void setMaximumHeadBlockLag(long maximumHeadBlockLag) {
+        this.maximumHeadBlockLag = maximumHeadBlockLag;
+    }
+
     /**
      * A Steem Node will only accept transactions whose expiration date is not
      * to far in the future.
@@ -403,6 +847,29 @@ public class SteemJConfig {
         this.steemitAddressPrefix = steemitAddressPrefix;
     }
 
+    /**
+     * Override the default, maximum time a cached reference block is used for
+     * new transactions (see
+     * {@link eu.bittrade.libs.steemj.transactions.ReferenceBlockProvider
+     * ReferenceBlockProvider}). The head block of the Steem Node is used as
+     * reference, so a lower value reduces the risk that the reference block
+     * is no longer part of the chain after a fork. If set to <code>0</code>
+     * the reference block is requested for each transaction.
+     * 
+     * @param referenceBlockMaximumAge
+     *            Time in milliseconds.
+     * @throws IllegalArgumentException
+     *             If the value is negative.
+     */
+    public void setReferenceBlockMaximumAge(long referenceBlockMaximumAge) {
+        if (referenceBlockMaximumAge < 0) {
+            throw new IllegalArgumentException(
+                    "The maximum age has to be greater than 0. (0 will disable the reference block cache).");
+        }
+
+        this.referenceBlockMaximumAge = referenceBlockMaximumAge;
+    }
+
     /**
      * Override the default, maximum time that SteemJ will wait for an answer of
      * the Steem Node. If set to <code>0</code> the timeout mechanism will be
@@ -421,6 +888,26 @@ public class SteemJConfig {
         this.responseTimeout = responseTimeout;
     }
 
+    /**
+     * Override the default transport that is used to send requests to the
+     * Steem Nodes. If the {@link TransportType#HTTP HTTP} transport is used,
+     * the configured web socket endpoint URIs are requested using the
+     * corresponding HTTP protocol (e.g. <code>wss://steemd.steemit.com</code>
+     * is requested as <code>https://steemd.steemit.com</code>). Callbacks are
+     * only supported by the {@link TransportType#WEBSOCKET WEBSOCKET}
+     * transport.
+     * 
+     * <p>
+     * This setting has to be changed before SteemJ is initialized.
+     * </p>
+     * 
+     * @param transportType
+     *            The transport to use.
+     */
+    public void setTransportType(TransportType transportType) {
+        this.transportType = transportType;
+    }
+
     /**
      * Override the default validation level that SteemJ will use to validate if
      * an Object contains valid information before broadcasting it to the Steem
@@ -0,0 +1,22 @@
+package eu.bittrade.libs.steemj.enums;
+
+/**
+ * An enumeration for all bounds a
+ * {@link eu.bittrade.libs.steemj.streaming.BlockSubscription
+ * BlockSubscription} can follow.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public enum BlockStreamMode {
+    /**
+     * Deliver each block as soon as it has been applied by the Steem Node.
+     * Blocks delivered in this mode may still be reverted by a fork.
+     */
+    HEAD,
+    /**
+     * Only deliver blocks up to the last irreversible block, so a delivered
+     * block can never be reverted. The blocks are delivered about 45 seconds
+     * after they have been produced.
+     */
+    IRREVERSIBLE
+}
@@ -0,0 +1,22 @@
+package eu.bittrade.libs.steemj.enums;
+
+/**
+ * An enumeration for all ways SteemJ can handle a new callback notification
+ * while the queue of notifications waiting for their callback is full, which
+ * happens if the callbacks are slower than the Steem Node sends new
+ * notifications.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public enum CallbackOverflowPolicy {
+    /**
+     * Drop the oldest waiting notification, so the callbacks catch up with
+     * the newest blocks.
+     */
+    DROP_OLDEST,
+    /**
+     * Drop the new notification, so the callbacks receive the waiting
+     * notifications without gaps.
+     */
+    DROP_NEWEST
+}
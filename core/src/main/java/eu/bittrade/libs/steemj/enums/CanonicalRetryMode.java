@@ -0,0 +1,24 @@
+package eu.bittrade.libs.steemj.enums;
+
+/**
+ * An enumeration for all ways SteemJ can use to find a canonical signature for
+ * a transaction. The Steem Nodes only accept canonical signatures, but about
+ * every fourth signature is not.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public enum CanonicalRetryMode {
+    /**
+     * Increase the expiration date of the transaction by one second and sign
+     * the changed transaction again. This requires to serialize and hash the
+     * transaction for each attempt.
+     */
+    EXPIRATION_DATE,
+    /**
+     * Sign the same digest again using the next RFC6979 nonce, like the
+     * graphene <code>sign_compact</code> implementation does with its extra
+     * entropy counter. The transaction is only serialized and hashed once per
+     * key and the resulting signatures match the ones of the cli_wallet.
+     */
+    EXTRA_ENTROPY
+}
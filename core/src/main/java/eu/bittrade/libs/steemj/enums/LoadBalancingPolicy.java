@@ -0,0 +1,21 @@
+package eu.bittrade.libs.steemj.enums;
+
+/**
+ * An enumeration for all policies SteemJ can use to spread requests across
+ * the connections of its connection pool.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public enum LoadBalancingPolicy {
+    /**
+     * Send the request over the connection with the lowest number of requests
+     * that have not been answered yet.
+     */
+    LEAST_OUTSTANDING_REQUESTS,
+    /**
+     * Send the request over the connection with the lowest expected response
+     * time, which is calculated from the average latency of the node and the
+     * number of requests that have not been answered yet.
+     */
+    LATENCY_WEIGHTED
+}
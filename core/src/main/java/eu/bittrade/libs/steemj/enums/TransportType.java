@@ -0,0 +1,22 @@
+package eu.bittrade.libs.steemj.enums;
+
+/**
+ * An enumeration for all transports SteemJ can use to send JSON-RPC requests
+ * to a Steem Node.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public enum TransportType {
+    /**
+     * Keep one web socket session per connection and multiplex all requests
+     * over it. This transport is required for callbacks.
+     */
+    WEBSOCKET,
+    /**
+     * Send each request as a HTTP POST request using persistent (keep-alive)
+     * HTTP/1.1 connections. Multiple requests are send in parallel, which
+     * scales better for many stateless reads and allows to use standard HTTP
+     * proxies and caches.
+     */
+    HTTP
+}
@@ -1,6 +1,7 @@
 package eu.bittrade.libs.steemj.interfaces;
 
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.util.SteemBinaryWriter;
 
 /**
  * This interface is used to make sure each operation implements a method to get
@@ -18,4 +19,17 @@ public interface ByteTransformable {
      *             into a byte array.
      */
     byte[] toByteArray() throws SteemInvalidTransactionException;
+
+    /**
+     * Write the byte representation of the operation to the given writer.
+     * Nested objects are written to the same writer, so the whole transaction
+     * is serialized into one buffer.
+     * 
+     * @param out
+     *            The writer to write the byte representation to.
+     * @throws SteemInvalidTransactionException
+     *             If there was a problem while transforming the transaction
+     *             into a byte array.
+     */
+    void writeTo(SteemBinaryWriter out) throws SteemInvalidTransactionException;
 }
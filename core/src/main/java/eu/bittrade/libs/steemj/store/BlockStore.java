@@ -0,0 +1,392 @@
+package eu.bittrade.libs.steemj.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class stores the JSON representation of data that belongs to a single
+ * block (e.g. the block itself or its operations) in local files, so it does
+ * not need to be requested from a Steem Node again.
+ * 
+ * <p>
+ * The data is organized in segments of {@value #BLOCKS_PER_SEGMENT} blocks.
+ * Each segment consists of an append-only data file and an index file that
+ * contains the position and the length of the data of each block. The index
+ * files have a fixed size and are read through memory-mapped
+ * {@link FileChannel}s, so looking up a block does not require a system call.
+ * </p>
+ * 
+ * <p>
+ * Only data that will never change should be stored, which means that only
+ * irreversible blocks should be added. Data that has been stored once is never
+ * overwritten.
+ * </p>
+ * 
+ * <p>
+ * A store takes an exclusive lock on its directory, so only one store per
+ * directory can be open at the same time. Use {@link #open(Path)} to share one
+ * store between all users of a directory inside the same JVM.
+ * </p>
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BlockStore implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockStore.class);
+
+    /** The number of blocks stored in one segment. */
+    public static final int BLOCKS_PER_SEGMENT = 100000;
+    /** The size of an index entry: The position (long) and length (int). */
+    private static final int INDEX_ENTRY_SIZE = 12;
+    /** The maximum number of segments that are kept open at the same time. */
+    private static final int MAXIMUM_OPEN_SEGMENTS = 16;
+    /** The name of the file used to lock the directory of a store. */
+    private static final String LOCK_FILE_NAME = "store.lock";
+    /** The stores opened by {@link #open(Path)}, by their directory. */
+    private static final Map<Path, BlockStore> SHARED_STORES = new HashMap<>();
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    /** The number of users of a shared store, guarded by SHARED_STORES. */
+    private int references = 1;
+    /** The open segments, ordered by their last access. */
+    private final Map<Long, Segment> openSegments = new LinkedHashMap<Long, Segment>(MAXIMUM_OPEN_SEGMENTS, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Entry<Long, Segment> eldest) {
+            if (size() > MAXIMUM_OPEN_SEGMENTS) {
+                eldest.getValue().close();
+                return true;
+            }
+
+            return false;
+        }
+    };
+    private boolean closed;
+
+    /**
+     * Open the store located in the given <code>directory</code>. The
+     * directory will be created if it does not exist.
+     * 
+     * @param directory
+     *            The directory to store the files in.
+     * @throws IOException
+     *             If the directory could not be created or if it is already
+     *             used by another store.
+     */
+    public BlockStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+
+        FileLock directoryLock;
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // The lock is held by another store of this JVM.
+            directoryLock = null;
+        }
+
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IOException("The block store " + directory + " is already used by another store.");
+        }
+
+        this.lock = directoryLock;
+    }
+
+    /**
+     * Get the store located in the given <code>directory</code>. If the store
+     * has already been opened using this method, the open store is returned,
+     * so all users share the same files. Each returned store has to be closed
+     * once. The files are closed when the last user closed the store.
+     * 
+     * @param directory
+     *            The directory to store the files in.
+     * @return The store.
+     * @throws IOException
+     *             If the directory could not be created or if it is already
+     *             used by a store of another process or by a store that has
+     *             not been opened using this method.
+     */
+    public static BlockStore open(Path directory) throws IOException {
+        Path key = directory.toAbsolutePath().normalize();
+
+        synchronized (SHARED_STORES) {
+            BlockStore blockStore = SHARED_STORES.get(key);
+            if (blockStore != null) {
+                blockStore.references++;
+                return blockStore;
+            }
+
+            blockStore = new BlockStore(key);
+            SHARED_STORES.put(key, blockStore);
+            return blockStore;
+        }
+    }
+
+    /**
+     * Get the data stored for the given <code>blockNumber</code>.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @return The stored JSON or <code>null</code> if nothing has been stored
+     *         for this block yet.
+     * @throws IOException
+     *             If the data could not be read.
+     */
+    public synchronized String get(long blockNumber) throws IOException {
+        Segment segment = getSegment(blockNumber, false);
+        if (segment == null) {
+            return null;
+        }
+
+        return segment.read(getIndexPosition(blockNumber));
+    }
+
+    /**
+     * Check if data has been stored for the given <code>blockNumber</code>.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @return <code>true</code> if data has been stored for this block.
+     * @throws IOException
+     *             If the index could not be read.
+     */
+    public synchronized boolean contains(long blockNumber) throws IOException {
+        Segment segment = getSegment(blockNumber, false);
+
+        return segment != null && segment.contains(getIndexPosition(blockNumber));
+    }
+
+    /**
+     * Store the given <code>json</code> for the given
+     * <code>blockNumber</code>. If there is already data stored for this
+     * block, the new data is ignored.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @param json
+     *            The JSON representation of the data.
+     * @throws IOException
+     *             If the data could not be written.
+     */
+    public synchronized void put(long blockNumber, String json) throws IOException {
+        Segment segment = getSegment(blockNumber, true);
+        int indexPosition = getIndexPosition(blockNumber);
+
+        if (!segment.contains(indexPosition)) {
+            segment.append(indexPosition, json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Close all open files of this store and release the lock of its
+     * directory. A store returned by {@link #open(Path)} is only closed when
+     * all of its users closed it.
+     */
+    @Override
+    public void close() {
+        synchronized (SHARED_STORES) {
+            if (references == 0 || --references > 0) {
+                return;
+            }
+
+            SHARED_STORES.remove(directory.toAbsolutePath().normalize(), this);
+        }
+
+        synchronized (this) {
+            closed = true;
+
+            for (Segment segment : openSegments.values()) {
+                segment.close();
+            }
+
+            openSegments.clear();
+
+            try {
+                lock.release();
+                lockChannel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not release the lock of the block store {}.", directory, e);
+            }
+        }
+    }
+
+    /**
+     * Get the position of the index entry for the given
+     * <code>blockNumber</code> inside of its segment.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @return The position of the index entry.
+     */
+    private static int getIndexPosition(long blockNumber) {
+        return (int) (blockNumber % BLOCKS_PER_SEGMENT) * INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Get the segment that contains the given <code>blockNumber</code>.
+     * 
+     * @param blockNumber
+     *            The number of the block.
+     * @param create
+     *            Define if the segment should be created if it does not exist
+     *            yet.
+     * @return The segment or <code>null</code> if the segment does not exist
+     *         and <code>create</code> is <code>false</code>.
+     * @throws IOException
+     *             If the segment could not be opened.
+     */
+    private Segment getSegment(long blockNumber, boolean create) throws IOException {
+        if (closed) {
+            throw new IOException("The block store has already been closed.");
+        } else if (blockNumber < 0) {
+            throw new IllegalArgumentException("The block number can't be negative.");
+        }
+
+        long segmentNumber = blockNumber / BLOCKS_PER_SEGMENT;
+        Segment segment = openSegments.get(segmentNumber);
+
+        if (segment == null) {
+            Path dataFile = directory.resolve(String.format("%08d.dat", segmentNumber));
+            Path indexFile = directory.resolve(String.format("%08d.idx", segmentNumber));
+
+            if (!create && !Files.exists(indexFile)) {
+                return null;
+            }
+
+            segment = new Segment(dataFile, indexFile);
+            openSegments.put(segmentNumber, segment);
+        }
+
+        return segment;
+    }
+
+    /**
+     * A segment consists of the data file and the index file for
+     * {@value BlockStore#BLOCKS_PER_SEGMENT} blocks.
+     */
+    private static class Segment {
+        private final FileChannel dataChannel;
+        private final FileChannel indexChannel;
+        private final MappedByteBuffer index;
+
+        /**
+         * Open or create a segment.
+         * 
+         * @param dataFile
+         *            The path of the data file.
+         * @param indexFile
+         *            The path of the index file.
+         * @throws IOException
+         *             If one of the files could not be opened.
+         */
+        private Segment(Path dataFile, Path indexFile) throws IOException {
+            this.dataChannel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.indexChannel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            // Mapping a region that is larger than the file will extend the
+            // file, so new index files are filled with zeros.
+            this.index = indexChannel.map(MapMode.READ_WRITE, 0, (long) BLOCKS_PER_SEGMENT * INDEX_ENTRY_SIZE);
+        }
+
+        /**
+         * Check if the index entry at the given <code>indexPosition</code> has
+         * been written.
+         * 
+         * @param indexPosition
+         *            The position of the index entry.
+         * @return <code>true</code> if the index entry has been written.
+         */
+        private boolean contains(int indexPosition) {
+            return index.getInt(indexPosition + 8) > 0;
+        }
+
+        /**
+         * Read the data referenced by the index entry at the given
+         * <code>indexPosition</code>.
+         * 
+         * @param indexPosition
+         *            The position of the index entry.
+         * @return The data or <code>null</code> if the index entry has not been
+         *         written yet.
+         * @throws IOException
+         *             If the data could not be read.
+         */
+        private String read(int indexPosition) throws IOException {
+            long position = index.getLong(indexPosition);
+            int length = index.getInt(indexPosition + 8);
+            if (length <= 0) {
+                return null;
+            }
+
+            ByteBuffer data = ByteBuffer.allocate(length);
+            while (data.hasRemaining()) {
+                if (dataChannel.read(data, position + data.position()) < 0) {
+                    throw new IOException("The data file ends before the expected position.");
+                }
+            }
+
+            return new String(data.array(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Append the given <code>data</code> to the data file and write the
+         * index entry at the given <code>indexPosition</code> afterwards. This
+         * makes sure that the index never references data that has not been
+         * written completely.
+         * 
+         * @param indexPosition
+         *            The position of the index entry.
+         * @param data
+         *            The data to append.
+         * @throws IOException
+         *             If the data could not be written.
+         */
+        private void append(int indexPosition, byte[] data) throws IOException {
+            long position = dataChannel.size();
+
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                dataChannel.write(buffer, position + buffer.position());
+            }
+
+            index.putLong(indexPosition, position);
+            index.putInt(indexPosition + 8, data.length);
+        }
+
+        /**
+         * Close the files of this segment.
+         */
+        private void close() {
+            try {
+                index.force();
+                dataChannel.close();
+                indexChannel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the block store segment.", e);
+            }
+        }
+    }
+}
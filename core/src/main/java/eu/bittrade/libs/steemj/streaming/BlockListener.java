@@ -0,0 +1,25 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * This interface is used to receive the blocks of a {@link BlockSubscription}.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public interface BlockListener {
+    /**
+     * This method is called once for every block, strictly in order of the
+     * block numbers.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The block.
+     * @throws SteemCommunicationException
+     *             If further data required to process the block could not be
+     *             requested. The block is then delivered again later.
+     */
+    void onBlock(long blockNumber, SignedBlockWithInfo block) throws SteemCommunicationException;
+}
@@ -0,0 +1,286 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.util.FutureUtils;
+
+/**
+ * This class iterates over a range of blocks while the following blocks are
+ * already requested in the background.
+ * 
+ * <p>
+ * Up to <code>parallelism</code> blocks are requested at the same time, so
+ * the throughput is no longer limited by the round trip time to the Steem
+ * Node. The window of prefetched blocks is bounded, so a slow consumer will
+ * not cause an unlimited number of blocks to be kept in memory. Blocks are
+ * always returned strictly in order of their block number. Failed requests
+ * are retried up to <code>maximumRetries</code> times before
+ * {@link #next()} fails.
+ * </p>
+ * 
+ * <p>
+ * Example:
+ * 
+ * <pre>
+ * try (BlockStream blockStream = steemJ.getBlockStream(1, 10000000)) {
+ *     while (blockStream.hasNext()) {
+ *         SignedBlockWithInfo block = blockStream.next();
+ *         // ...
+ *     }
+ * }
+ * </pre>
+ * </p>
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BlockStream implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockStream.class);
+
+    /** The number of blocks that are requested in parallel by default. */
+    public static final int DEFAULT_PARALLELISM = 16;
+    /** The number of times a failed request is retried by default. */
+    public static final int DEFAULT_MAXIMUM_RETRIES = 3;
+
+    private final LongFunction<CompletableFuture<SignedBlockWithInfo>> blockFetcher;
+    private final long toBlockNumber;
+    private final int parallelism;
+    private final int maximumRetries;
+    /** The blocks that have been requested, ordered by their block number. */
+    private final Deque<CompletableFuture<SignedBlockWithInfo>> window = new ArrayDeque<>();
+    private long nextBlockToReturn;
+    private long nextBlockToRequest;
+    private volatile boolean closed;
+
+    /**
+     * Create a new stream for the blocks from <code>fromBlockNumber</code> to
+     * <code>toBlockNumber</code> using the {@link #DEFAULT_PARALLELISM} and
+     * the {@link #DEFAULT_MAXIMUM_RETRIES}.
+     * 
+     * @param steemJAsync
+     *            The API used to request the blocks.
+     * @param fromBlockNumber
+     *            The number of the first block to return.
+     * @param toBlockNumber
+     *            The number of the last block to return (inclusive).
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is greater than the
+     *             <code>toBlockNumber</code>.
+     */
+    public BlockStream(SteemJAsync steemJAsync, long fromBlockNumber, long toBlockNumber) {
+        this(steemJAsync, fromBlockNumber, toBlockNumber, DEFAULT_PARALLELISM, DEFAULT_MAXIMUM_RETRIES);
+    }
+
+    /**
+     * Create a new stream for the blocks from <code>fromBlockNumber</code> to
+     * <code>toBlockNumber</code>.
+     * 
+     * @param steemJAsync
+     *            The API used to request the blocks.
+     * @param fromBlockNumber
+     *            The number of the first block to return.
+     * @param toBlockNumber
+     *            The number of the last block to return (inclusive).
+     * @param parallelism
+     *            The maximum number of blocks that are requested, but have
+     *            not been returned yet.
+     * @param maximumRetries
+     *            The number of times a failed request is retried.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is greater than the
+     *             <code>toBlockNumber</code>, the <code>parallelism</code> is
+     *             less than 1 or the <code>maximumRetries</code> are
+     *             negative.
+     */
+    public BlockStream(final SteemJAsync steemJAsync, long fromBlockNumber, long toBlockNumber, int parallelism,
+            int maximumRetries) {
+        this(new LongFunction<CompletableFuture<SignedBlockWithInfo>>() {
+            @Override
+            public CompletableFuture<SignedBlockWithInfo> apply(long blockNumber) {
+                return steemJAsync.getBlock(blockNumber);
+            }
+        }, fromBlockNumber, toBlockNumber, parallelism, maximumRetries);
+    }
+
+    /**
+     * Create a new stream that uses the given <code>blockFetcher</code> to
+     * request the blocks.
+     * 
+     * @param blockFetcher
+     *            The function used to request a single block.
+     * @param fromBlockNumber
+     *            The number of the first block to return.
+     * @param toBlockNumber
+     *            The number of the last block to return (inclusive).
+     * @param parallelism
+     *            The maximum number of blocks that are requested, but have
+     *            not been returned yet.
+     * @param maximumRetries
+     *            The number of times a failed request is retried.
+     * @throws InvalidParameterException
+     *             If one of the parameters is invalid.
+     */
+    BlockStream(LongFunction<CompletableFuture<SignedBlockWithInfo>> blockFetcher, long fromBlockNumber,
+            long toBlockNumber, int parallelism, int maximumRetries) {
+        if (fromBlockNumber > toBlockNumber) {
+            throw new InvalidParameterException("The fromBlockNumber can't be greater than the toBlockNumber.");
+        } else if (parallelism < 1) {
+            throw new InvalidParameterException("The parallelism has to be at least 1.");
+        } else if (maximumRetries < 0) {
+            throw new InvalidParameterException("The maximum number of retries can't be negative.");
+        }
+
+        this.blockFetcher = blockFetcher;
+        this.toBlockNumber = toBlockNumber;
+        this.parallelism = parallelism;
+        this.maximumRetries = maximumRetries;
+        this.nextBlockToReturn = fromBlockNumber;
+        this.nextBlockToRequest = fromBlockNumber;
+
+        fillWindow();
+    }
+
+    /**
+     * Check if there are more blocks to return.
+     * 
+     * @return <code>true</code> if {@link #next()} will return another block.
+     */
+    public synchronized boolean hasNext() {
+        return !closed && nextBlockToReturn <= toBlockNumber;
+    }
+
+    /**
+     * Get the next block of the range. This method blocks until the block has
+     * been received.
+     * 
+     * @return The next block.
+     * @throws NoSuchElementException
+     *             If all blocks of the range have been returned or the stream
+     *             has been closed.
+     * @throws SteemCommunicationException
+     *             If the block could not be requested, even after the
+     *             configured number of retries.
+     */
+    public synchronized SignedBlockWithInfo next() throws SteemCommunicationException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There are no more blocks in this stream.");
+        }
+
+        SignedBlockWithInfo block = FutureUtils.await(window.peekFirst());
+
+        window.removeFirst();
+        nextBlockToReturn++;
+        fillWindow();
+
+        return block;
+    }
+
+    /**
+     * Get the number of the block that will be returned by the next call of
+     * {@link #next()}.
+     * 
+     * @return The number of the next block.
+     */
+    public synchronized long getNextBlockNumber() {
+        return nextBlockToReturn;
+    }
+
+    /**
+     * Stop to prefetch blocks. Requests that are already in flight are
+     * cancelled.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        for (CompletableFuture<SignedBlockWithInfo> pendingBlock : window) {
+            pendingBlock.cancel(false);
+        }
+
+        window.clear();
+    }
+
+    /**
+     * Request further blocks until the window is full or all blocks of the
+     * range have been requested.
+     */
+    private void fillWindow() {
+        while (!closed && window.size() < parallelism && nextBlockToRequest <= toBlockNumber) {
+            window.addLast(fetchBlock(nextBlockToRequest, 0));
+            nextBlockToRequest++;
+        }
+    }
+
+    /**
+     * Request a single block and request it again if the request failed or the
+     * Steem Node did not know the block yet.
+     * 
+     * @param blockNumber
+     *            The number of the block to request.
+     * @param attempt
+     *            The number of attempts that already failed.
+     * @return A future that completes with the block.
+     */
+    private CompletableFuture<SignedBlockWithInfo> fetchBlock(final long blockNumber, final int attempt) {
+        CompletableFuture<SignedBlockWithInfo> pendingBlock;
+        try {
+            pendingBlock = blockFetcher.apply(blockNumber);
+        } catch (RuntimeException e) {
+            pendingBlock = new CompletableFuture<>();
+            pendingBlock.completeExceptionally(e);
+        }
+
+        return pendingBlock.handle(
+                new BiFunction<SignedBlockWithInfo, Throwable, CompletableFuture<SignedBlockWithInfo>>() {
+                    @Override
+                    public CompletableFuture<SignedBlockWithInfo> apply(SignedBlockWithInfo block,
+                            Throwable throwable) {
+                        if (throwable == null && block != null) {
+                            return CompletableFuture.completedFuture(block);
+                        }
+
+                        Throwable reason = throwable == null
+                                ? new SteemCommunicationException(
+                                        "The Steem Node did not return the block " + blockNumber + ".")
+                                : throwable;
+
+                        if (attempt >= maximumRetries || isClosed()) {
+                            CompletableFuture<SignedBlockWithInfo> failedBlock = new CompletableFuture<>();
+                            failedBlock.completeExceptionally(reason);
+                            return failedBlock;
+                        }
+
+                        LOGGER.debug("Could not get block {} - Retrying.", blockNumber, reason);
+                        return fetchBlock(blockNumber, attempt + 1);
+                    }
+                }).thenCompose(
+                        new Function<CompletableFuture<SignedBlockWithInfo>, CompletableFuture<SignedBlockWithInfo>>() {
+                            @Override
+                            public CompletableFuture<SignedBlockWithInfo> apply(
+                                    CompletableFuture<SignedBlockWithInfo> block) {
+                                return block;
+                            }
+                        });
+    }
+
+    /**
+     * Check if the stream has been closed.
+     * 
+     * @return <code>true</code> if the stream has been closed.
+     */
+    private boolean isClosed() {
+        return closed;
+    }
+}
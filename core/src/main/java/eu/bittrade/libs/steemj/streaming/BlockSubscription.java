@@ -0,0 +1,534 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import java.security.InvalidParameterException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.GlobalProperties;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.communication.BlockAppliedCallback;
+import eu.bittrade.libs.steemj.communication.CallbackHub;
+import eu.bittrade.libs.steemj.enums.BlockStreamMode;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * This class delivers every block starting at a given block number to a
+ * {@link BlockListener}, strictly in order and exactly once, even if the
+ * connection to the Steem Node is lost in between.
+ *
+ * <p>
+ * The subscription registers a block applied callback at the Steem Node (see
+ * {@link eu.bittrade.libs.steemj.SteemJ#setBlockAppliedCallback(BlockAppliedCallback)
+ * setBlockAppliedCallback}), but only uses its notifications to learn about
+ * the new head block. All blocks between the last delivered block and the
+ * head block are requested using a {@link BlockStream}, so blocks whose
+ * notification has been dropped or has never been sent are requested as
+ * well. As the Steem Node forgets the callback if the connection is closed,
+ * the callback is registered again and the head block is requested whenever
+ * the connection that carries the callback has been re-established. All
+ * missed blocks are then requested in parallel before the live blocks are
+ * delivered again. If no notification has been received for
+ * {@link #STALL_TIMEOUT} milliseconds, the head block is requested as well.
+ * </p>
+ *
+ * <p>
+ * If the connections do not support callbacks (see
+ * {@link SteemJAsync#supportsCallbacks()}), the head block is requested
+ * every {@link #BLOCK_INTERVAL} milliseconds instead.
+ * </p>
+ *
+ * <p>
+ * In the {@link BlockStreamMode#IRREVERSIBLE IRREVERSIBLE} mode, only blocks
+ * up to the last irreversible block are delivered. Instead of polling, the
+ * last irreversible block number is requested once for each notification,
+ * and all blocks that became irreversible in the meantime are requested in
+ * parallel.
+ * </p>
+ *
+ * <p>
+ * The listener is called by a separate thread of this subscription. If it
+ * throws a {@link SteemCommunicationException}, the block is delivered again
+ * after a short delay. Any other exception is logged and the block is still
+ * treated as delivered.
+ * </p>
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * try (BlockSubscription blockSubscription = steemJ.getBlockSubscription(lastIndexedBlock + 1, blockListener)) {
+ *     blockSubscription.start();
+ *     // ...
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BlockSubscription implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockSubscription.class);
+
+    /**
+     * The time in milliseconds without a notification after which the head
+     * block is requested. Steem produces a block every three seconds, so
+     * three blocks have been missed by then.
+     */
+    public static final long STALL_TIMEOUT = 9000;
+    /**
+     * The time in milliseconds between two blocks, which is used as polling
+     * interval if callbacks are not supported.
+     */
+    public static final long BLOCK_INTERVAL = 3000;
+    /** The time in milliseconds to wait before a failed request is repeated. */
+    private static final long RETRY_DELAY = 1000;
+
+    private final LongFunction<CompletableFuture<SignedBlockWithInfo>> blockFetcher;
+    private final Supplier<CompletableFuture<Long>> lastAvailableBlockNumberFetcher;
+    private final Function<BlockAppliedCallback, CompletableFuture<Void>> callbackRegistrar;
+    private final BlockListener blockListener;
+    private final int parallelism;
+    private final long retryDelay;
+    private final BlockStreamMode mode;
+    /** The number of the newest block that may be delivered. */
+    private final AtomicLong lastAvailableBlockNumber;
+    private final AtomicBoolean requestPending = new AtomicBoolean();
+    private volatile long lastDeliveredBlockNumber;
+    private volatile long lastNotification;
+    private volatile boolean closed;
+    private ScheduledExecutorService executor;
+    private final BlockAppliedCallback blockAppliedCallback = new BlockAppliedCallback() {
+        @Override
+        public void onNewBlock(SignedBlockHeader signedBlockHeader) {
+            lastNotification = System.currentTimeMillis();
+
+            if (mode == BlockStreamMode.IRREVERSIBLE) {
+                // The header does not tell which blocks became irreversible.
+                requestLastAvailableBlockNumber();
+            } else {
+                updateLastAvailableBlockNumber(signedBlockHeader.getPrevious().getNumberFromHash() + 1L);
+            }
+        }
+    };
+    private final Runnable connectionListener = new Runnable() {
+        @Override
+        public void run() {
+            onConnectionOpened();
+        }
+    };
+
+    /**
+     * Create a new subscription for all blocks starting at
+     * <code>fromBlockNumber</code> using the
+     * {@link BlockStream#DEFAULT_PARALLELISM}.
+     *
+     * @param steemJAsync
+     *            The API used to request the blocks.
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> is less than 1.
+     */
+    public BlockSubscription(SteemJAsync steemJAsync, long fromBlockNumber, BlockListener blockListener) {
+        this(steemJAsync, fromBlockNumber, blockListener, BlockStreamMode.HEAD, BlockStream.DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Create a new subscription for all blocks starting at
+     * <code>fromBlockNumber</code>.
+     *
+     * @param steemJAsync
+     *            The API used to request the blocks.
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @param mode
+     *            Defines if all blocks or only irreversible blocks are
+     *            delivered.
+     * @param parallelism
+     *            The maximum number of missed blocks that are requested in
+     *            parallel.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> or the
+     *             <code>parallelism</code> is less than 1.
+     */
+    public BlockSubscription(SteemJAsync steemJAsync, long fromBlockNumber, BlockListener blockListener,
+            BlockStreamMode mode, int parallelism) {
+        this(steemJAsync, fromBlockNumber, blockListener, mode, parallelism, null);
+    }
+
+    /**
+     * Create a new subscription for all blocks starting at
+     * <code>fromBlockNumber</code>, whose transactions only contain the
+     * operations of the given <code>operationTypes</code> (see
+     * {@link SteemJAsync#getBlock(long, Set)}).
+     *
+     * @param steemJAsync
+     *            The API used to request the blocks.
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @param mode
+     *            Defines if all blocks or only irreversible blocks are
+     *            delivered.
+     * @param parallelism
+     *            The maximum number of missed blocks that are requested in
+     *            parallel.
+     * @param operationTypes
+     *            The types of the operations to keep or <code>null</code> to
+     *            keep all operations.
+     * @throws InvalidParameterException
+     *             If the <code>fromBlockNumber</code> or the
+     *             <code>parallelism</code> is less than 1.
+     */
+    public BlockSubscription(final SteemJAsync steemJAsync, long fromBlockNumber, BlockListener blockListener,
+            final BlockStreamMode mode, int parallelism, final Set<OperationType> operationTypes) {
+        this(new LongFunction<CompletableFuture<SignedBlockWithInfo>>() {
+            @Override
+            public CompletableFuture<SignedBlockWithInfo> apply(long blockNumber) {
+                if (operationTypes != null) {
+                    return steemJAsync.getBlock(blockNumber, operationTypes);
+                }
+
+                return steemJAsync.getBlock(blockNumber);
+            }
+        }, new Supplier<CompletableFuture<Long>>() {
+            @Override
+            public CompletableFuture<Long> get() {
+                return steemJAsync.getDynamicGlobalProperties().thenApply(new Function<GlobalProperties, Long>() {
+                    @Override
+                    public Long apply(GlobalProperties globalProperties) {
+                        if (mode == BlockStreamMode.IRREVERSIBLE) {
+                            return globalProperties.getLastIrreversibleBlockNum();
+                        }
+
+                        return globalProperties.getHeadBlockNumber();
+                    }
+                });
+            }
+        }, createCallbackRegistrar(steemJAsync), fromBlockNumber, blockListener, mode, parallelism, RETRY_DELAY);
+    }
+
+    /**
+     * Create the function used to register the block applied callback using
+     * the given <code>steemJAsync</code>.
+     *
+     * @param steemJAsync
+     *            The API used to register the callback.
+     * @return The function or <code>null</code> if the connections of the
+     *         <code>steemJAsync</code> do not support callbacks.
+     */
+    private static Function<BlockAppliedCallback, CompletableFuture<Void>> createCallbackRegistrar(
+            final SteemJAsync steemJAsync) {
+        if (!steemJAsync.supportsCallbacks()) {
+            return null;
+        }
+
+        return new Function<BlockAppliedCallback, CompletableFuture<Void>>() {
+            @Override
+            public CompletableFuture<Void> apply(BlockAppliedCallback blockAppliedCallback) {
+                return steemJAsync.setBlockAppliedCallback(blockAppliedCallback);
+            }
+        };
+    }
+
+    /**
+     * Create a new subscription that uses the given functions to communicate
+     * with the Steem Node.
+     *
+     * @param blockFetcher
+     *            The function used to request a single block.
+     * @param lastAvailableBlockNumberFetcher
+     *            The function used to request the number of the newest block
+     *            that may be delivered.
+     * @param callbackRegistrar
+     *            The function used to register the block applied callback at
+     *            the Steem Node or <code>null</code> to poll the newest block
+     *            every {@link #BLOCK_INTERVAL} milliseconds instead.
+     * @param fromBlockNumber
+     *            The number of the first block to deliver.
+     * @param blockListener
+     *            The listener to deliver the blocks to.
+     * @param mode
+     *            Defines if the notifications tell the newest block that may
+     *            be delivered ({@link BlockStreamMode#HEAD HEAD}) or only
+     *            trigger a request of the
+     *            <code>lastAvailableBlockNumberFetcher</code>.
+     * @param parallelism
+     *            The maximum number of missed blocks that are requested in
+     *            parallel.
+     * @param retryDelay
+     *            The time in milliseconds to wait before a failed request is
+     *            repeated.
+     * @throws InvalidParameterException
+     *             If one of the parameters is invalid.
+     */
+    BlockSubscription(LongFunction<CompletableFuture<SignedBlockWithInfo>> blockFetcher,
+            Supplier<CompletableFuture<Long>> lastAvailableBlockNumberFetcher,
+            Function<BlockAppliedCallback, CompletableFuture<Void>> callbackRegistrar, long fromBlockNumber,
+            BlockListener blockListener, BlockStreamMode mode, int parallelism, long retryDelay) {
+        if (fromBlockNumber < 1) {
+            throw new InvalidParameterException("The fromBlockNumber has to be at least 1.");
+        } else if (parallelism < 1) {
+            throw new InvalidParameterException("The parallelism has to be at least 1.");
+        }
+
+        this.blockFetcher = blockFetcher;
+        this.lastAvailableBlockNumberFetcher = lastAvailableBlockNumberFetcher;
+        this.callbackRegistrar = callbackRegistrar;
+        this.blockListener = blockListener;
+        this.parallelism = parallelism;
+        this.retryDelay = retryDelay;
+        this.lastDeliveredBlockNumber = fromBlockNumber - 1;
+        this.mode = mode;
+        this.lastAvailableBlockNumber = new AtomicLong(fromBlockNumber - 1);
+    }
+
+    /**
+     * Register the callback at the Steem Node, if callbacks are supported,
+     * and start to deliver the blocks. Nothing happens if the subscription has
+     * already been started.
+     *
+     * @throws IllegalStateException
+     *             If the subscription has already been closed.
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("The subscription has already been closed.");
+        } else if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steemj-block-subscription");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Without callbacks, the newest block is polled once per block.
+        final long pollingInterval = callbackRegistrar == null ? BLOCK_INTERVAL : STALL_TIMEOUT;
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (System.currentTimeMillis() - lastNotification >= pollingInterval) {
+                    requestLastAvailableBlockNumber();
+                }
+            }
+        }, pollingInterval, pollingInterval, TimeUnit.MILLISECONDS);
+
+        if (callbackRegistrar != null) {
+            CallbackHub.getInstance().addConnectionListener(blockAppliedCallback, connectionListener);
+        }
+
+        onConnectionOpened();
+    }
+
+    /**
+     * Get the number of the last block that has been delivered to the
+     * listener.
+     *
+     * @return The number of the last delivered block.
+     */
+    public long getLastDeliveredBlockNumber() {
+        return lastDeliveredBlockNumber;
+    }
+
+    /**
+     * Stop to deliver blocks. A block that is currently delivered is
+     * completed, but no further blocks are delivered afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+
+        CallbackHub.getInstance().removeConnectionListener(connectionListener);
+        CallbackHub.getInstance().removeCallback(blockAppliedCallback);
+
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Register the callback again and request the head block, as blocks may
+     * have been missed while the connection was closed.
+     */
+    void onConnectionOpened() {
+        // The connection listener must not send requests itself.
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                if (callbackRegistrar != null) {
+                    registerCallback();
+                }
+
+                requestLastAvailableBlockNumber();
+            }
+        }, 0);
+    }
+
+    /**
+     * Register the block applied callback at the Steem Node and repeat the
+     * registration if it failed.
+     */
+    private void registerCallback() {
+        CompletableFuture<Void> registration;
+        try {
+            registration = callbackRegistrar.apply(blockAppliedCallback);
+        } catch (RuntimeException e) {
+            registration = new CompletableFuture<>();
+            registration.completeExceptionally(e);
+        }
+
+        registration.whenComplete(new BiConsumer<Void, Throwable>() {
+            @Override
+            public void accept(Void ignored, Throwable throwable) {
+                if (throwable != null) {
+                    LOGGER.warn("Could not register the block applied callback - Retrying.", throwable);
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            registerCallback();
+                        }
+                    }, retryDelay);
+                }
+            }
+        });
+    }
+
+    /**
+     * Request the number of the newest block that may be delivered and
+     * deliver all blocks up to it. The request is repeated if it failed.
+     * Nothing happens if another request is still pending.
+     */
+    private void requestLastAvailableBlockNumber() {
+        if (!requestPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        CompletableFuture<Long> pendingBlockNumber;
+        try {
+            pendingBlockNumber = lastAvailableBlockNumberFetcher.get();
+        } catch (RuntimeException e) {
+            pendingBlockNumber = new CompletableFuture<>();
+            pendingBlockNumber.completeExceptionally(e);
+        }
+
+        pendingBlockNumber.whenComplete(new BiConsumer<Long, Throwable>() {
+            @Override
+            public void accept(Long blockNumber, Throwable throwable) {
+                requestPending.set(false);
+
+                if (throwable != null) {
+                    LOGGER.warn("Could not request the {} block - Retrying.", mode, throwable);
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            requestLastAvailableBlockNumber();
+                        }
+                    }, retryDelay);
+                } else {
+                    updateLastAvailableBlockNumber(blockNumber);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remember the given block as the newest block that may be delivered and
+     * deliver all blocks up to it.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     */
+    private void updateLastAvailableBlockNumber(long blockNumber) {
+        long currentBlockNumber = lastAvailableBlockNumber.get();
+        while (blockNumber > currentBlockNumber
+                && !lastAvailableBlockNumber.compareAndSet(currentBlockNumber, blockNumber)) {
+            currentBlockNumber = lastAvailableBlockNumber.get();
+        }
+
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                deliverBlocks();
+            }
+        }, 0);
+    }
+
+    /**
+     * Deliver all blocks between the last delivered block and the last
+     * available block. This method is only called by the thread of this
+     * subscription, so the blocks are delivered in order and only once.
+     */
+    private void deliverBlocks() {
+        while (!closed && lastDeliveredBlockNumber < lastAvailableBlockNumber.get()) {
+            try (BlockStream blockStream = new BlockStream(blockFetcher, lastDeliveredBlockNumber + 1,
+                    lastAvailableBlockNumber.get(), parallelism, BlockStream.DEFAULT_MAXIMUM_RETRIES)) {
+                while (!closed && blockStream.hasNext()) {
+                    long blockNumber = blockStream.getNextBlockNumber();
+                    SignedBlockWithInfo block = blockStream.next();
+
+                    try {
+                        blockListener.onBlock(blockNumber, block);
+                    } catch (RuntimeException e) {
+                        LOGGER.error("The listener failed to process block {}.", blockNumber, e);
+                    }
+
+                    lastDeliveredBlockNumber = blockNumber;
+                }
+            } catch (SteemCommunicationException e) {
+                LOGGER.warn("Could not process block {} - Retrying.", lastDeliveredBlockNumber + 1, e);
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliverBlocks();
+                    }
+                }, retryDelay);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run the given <code>task</code> on the thread of this subscription.
+     *
+     * @param task
+     *            The task to run.
+     * @param delay
+     *            The time in milliseconds to wait before the task is run.
+     */
+    private synchronized void execute(Runnable task, long delay) {
+        if (closed || executor == null) {
+            return;
+        }
+
+        try {
+            executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("The subscription has been closed.", e);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.AppliedOperation;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.TransactionId;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.base.models.operations.virtual.AuthorRewardOperation;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.util.FutureUtils;
+
+/**
+ * This class passes every block and every operation it receives to all
+ * listeners that are interested in them.
+ *
+ * <p>
+ * Register this dispatcher at a {@link BlockSubscription} (or call
+ * {@link #onBlock(long, SignedBlockWithInfo)} directly) instead of letting
+ * each consumer request the blocks and the virtual operations on its own.
+ * Each block is requested and transformed into Java objects only once, no
+ * matter how many listeners are registered. The virtual operations of a
+ * block are only requested if a listener for a virtual operation (or for all
+ * operations) has been registered.
+ * </p>
+ *
+ * <p>
+ * For each block, the block listeners are called first. Afterwards the
+ * operations of the transactions are passed to the operation listeners in
+ * the order they appear in the block, followed by the virtual operations.
+ * An exception thrown by a listener is logged and does not prevent the other
+ * listeners from being called.
+ * </p>
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * OperationDispatcher operationDispatcher = steemJ.getOperationDispatcher();
+ * operationDispatcher.addOperationListener(TransferOperation.class, new OperationListener&lt;TransferOperation&gt;() {
+ *     &#64;Override
+ *     public void onOperation(TransferOperation transferOperation, AppliedOperation context) {
+ *         // ...
+ *     }
+ * });
+ * steemJ.getBlockSubscription(fromBlockNumber, operationDispatcher).start();
+ * </pre>
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class OperationDispatcher implements BlockListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperationDispatcher.class);
+
+    /** The package containing all virtual operations. */
+    private static final String VIRTUAL_OPERATIONS_PACKAGE = AuthorRewardOperation.class.getPackage().getName();
+
+    private final IntFunction<CompletableFuture<List<AppliedOperation>>> virtualOperationFetcher;
+    private final List<BlockListener> blockListeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Class<?>, List<OperationListener<Operation>>> operationListeners = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new dispatcher that requests the virtual operations using the
+     * given <code>steemJAsync</code> instance.
+     *
+     * @param steemJAsync
+     *            The API used to request the virtual operations.
+     */
+    public OperationDispatcher(SteemJAsync steemJAsync) {
+        this(steemJAsync, null);
+    }
+
+    /**
+     * Create a new dispatcher that requests the virtual operations using the
+     * given <code>steemJAsync</code> instance, but only transforms the
+     * virtual operations of the given <code>operationTypes</code> into Java
+     * objects (see {@link SteemJAsync#getOpsInBlock(int, boolean, Set)}).
+     *
+     * @param steemJAsync
+     *            The API used to request the virtual operations.
+     * @param operationTypes
+     *            The types of the virtual operations to keep or
+     *            <code>null</code> to keep all virtual operations.
+     */
+    public OperationDispatcher(final SteemJAsync steemJAsync, final Set<OperationType> operationTypes) {
+        this(new IntFunction<CompletableFuture<List<AppliedOperation>>>() {
+            @Override
+            public CompletableFuture<List<AppliedOperation>> apply(int blockNumber) {
+                if (operationTypes != null) {
+                    return steemJAsync.getOpsInBlock(blockNumber, true, operationTypes);
+                }
+
+                return steemJAsync.getOpsInBlock(blockNumber, true);
+            }
+        });
+    }
+
+    /**
+     * Create a new dispatcher that uses the given
+     * <code>virtualOperationFetcher</code> to request the virtual operations
+     * of a block.
+     *
+     * @param virtualOperationFetcher
+     *            The function used to request the virtual operations.
+     */
+    OperationDispatcher(IntFunction<CompletableFuture<List<AppliedOperation>>> virtualOperationFetcher) {
+        this.virtualOperationFetcher = virtualOperationFetcher;
+    }
+
+    /**
+     * Add a <code>blockListener</code> that receives every complete block.
+     *
+     * @param blockListener
+     *            The listener to call.
+     */
+    public void addBlockListener(BlockListener blockListener) {
+        this.blockListeners.add(blockListener);
+    }
+
+    /**
+     * Remove a <code>blockListener</code>, so it is no longer called.
+     *
+     * @param blockListener
+     *            The listener to remove.
+     * @return <code>true</code> if the listener has been registered.
+     */
+    public boolean removeBlockListener(BlockListener blockListener) {
+        return this.blockListeners.remove(blockListener);
+    }
+
+    /**
+     * Add an <code>operationListener</code> that receives all operations of
+     * the given <code>operationType</code>. Use {@link Operation
+     * Operation.class} to receive all operations.
+     *
+     * @param operationType
+     *            The class of the operations to receive.
+     * @param operationListener
+     *            The listener to call.
+     * @param <T>
+     *            The type of the operations to receive.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Operation> void addOperationListener(Class<T> operationType,
+            OperationListener<? super T> operationListener) {
+        List<OperationListener<Operation>> listeners = operationListeners.get(operationType);
+        if (listeners == null) {
+            operationListeners.putIfAbsent(operationType, new CopyOnWriteArrayList<OperationListener<Operation>>());
+            listeners = operationListeners.get(operationType);
+        }
+
+        // The listener is only called with operations of the given type.
+        listeners.add((OperationListener<Operation>) operationListener);
+    }
+
+    /**
+     * Remove an <code>operationListener</code>, so it is no longer called.
+     *
+     * @param operationType
+     *            The class the listener has been registered for.
+     * @param operationListener
+     *            The listener to remove.
+     * @return <code>true</code> if the listener has been registered.
+     */
+    public boolean removeOperationListener(Class<? extends Operation> operationType,
+            OperationListener<?> operationListener) {
+        List<OperationListener<Operation>> listeners = operationListeners.get(operationType);
+        return listeners != null && listeners.remove(operationListener);
+    }
+
+    /**
+     * Pass the given block, its operations and its virtual operations to the
+     * registered listeners.
+     *
+     * @param blockNumber
+     *            The number of the block.
+     * @param block
+     *            The block.
+     * @throws SteemCommunicationException
+     *             If the virtual operations could not be requested. No
+     *             listener has been called in this case.
+     */
+    @Override
+    public void onBlock(long blockNumber, SignedBlockWithInfo block) throws SteemCommunicationException {
+        // Request the virtual operations first, so nothing has been passed to
+        // the listeners if the block has to be delivered again.
+        List<AppliedOperation> virtualOperations = new ArrayList<>();
+        if (hasVirtualOperationListeners()) {
+            List<AppliedOperation> requestedOperations = FutureUtils
+                    .await(virtualOperationFetcher.apply((int) blockNumber));
+            if (requestedOperations != null) {
+                virtualOperations = requestedOperations;
+            }
+        }
+
+        for (BlockListener blockListener : blockListeners) {
+            try {
+                blockListener.onBlock(blockNumber, block);
+            } catch (SteemCommunicationException | RuntimeException e) {
+                LOGGER.error("A block listener failed to process block {}.", blockNumber, e);
+            }
+        }
+
+        if (operationListeners.isEmpty()) {
+            return;
+        }
+
+        List<SignedTransaction> transactions = block.getTransactions();
+        List<TransactionId> transactionIds = block.getTransactionIds();
+        for (int trxInBlock = 0; transactions != null && trxInBlock < transactions.size(); trxInBlock++) {
+            TransactionId transactionId = transactionIds != null && trxInBlock < transactionIds.size()
+                    ? transactionIds.get(trxInBlock) : null;
+            List<Operation> operations = transactions.get(trxInBlock).getOperations();
+
+            for (int opInTrx = 0; operations != null && opInTrx < operations.size(); opInTrx++) {
+                Operation operation = operations.get(opInTrx);
+                dispatch(operation, new AppliedOperation(transactionId, (int) blockNumber, trxInBlock, opInTrx,
+                        block.getTimestamp(), operation));
+            }
+        }
+
+        for (AppliedOperation virtualOperation : virtualOperations) {
+            dispatch(virtualOperation.getOp(), virtualOperation);
+        }
+    }
+
+    /**
+     * Pass the given <code>operation</code> to all listeners registered for
+     * its type and to all listeners registered for all operations.
+     *
+     * @param operation
+     *            The operation.
+     * @param context
+     *            The context of the operation.
+     */
+    private void dispatch(Operation operation, AppliedOperation context) {
+        if (operation == null) {
+            return;
+        }
+
+        callListeners(operationListeners.get(operation.getClass()), operation, context);
+        callListeners(operationListeners.get(Operation.class), operation, context);
+    }
+
+    /**
+     * Call the given listeners.
+     *
+     * @param listeners
+     *            The listeners to call, may be null.
+     * @param operation
+     *            The operation.
+     * @param context
+     *            The context of the operation.
+     */
+    private static void callListeners(List<OperationListener<Operation>> listeners, Operation operation,
+            AppliedOperation context) {
+        if (listeners == null) {
+            return;
+        }
+
+        for (OperationListener<Operation> listener : listeners) {
+            try {
+                listener.onOperation(operation, context);
+            } catch (RuntimeException e) {
+                LOGGER.error("An operation listener failed to process an operation of block {}.",
+                        context.getBlock(), e);
+            }
+        }
+    }
+
+    /**
+     * Check if a listener for virtual operations has been registered.
+     *
+     * @return <code>true</code> if the virtual operations have to be
+     *         requested.
+     */
+    private boolean hasVirtualOperationListeners() {
+        for (Class<?> operationType : operationListeners.keySet()) {
+            if ((operationType.equals(Operation.class)
+                    || operationType.getName().startsWith(VIRTUAL_OPERATIONS_PACKAGE + "."))
+                    && !operationListeners.get(operationType).isEmpty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
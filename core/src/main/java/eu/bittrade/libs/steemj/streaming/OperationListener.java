@@ -0,0 +1,25 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import eu.bittrade.libs.steemj.base.models.AppliedOperation;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+
+/**
+ * This interface is used to receive operations of a specific type from an
+ * {@link OperationDispatcher}.
+ *
+ * @param <T>
+ *            The type of the operations to receive.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public interface OperationListener<T extends Operation> {
+    /**
+     * This method is called once for every operation of the registered type.
+     *
+     * @param operation
+     *            The operation.
+     * @param context
+     *            The block, the transaction and the time of the operation.
+     */
+    void onOperation(T operation, AppliedOperation context);
+}
@@ -0,0 +1,208 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.BlockId;
+import eu.bittrade.libs.steemj.base.models.GlobalProperties;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.communication.BlockAppliedCallback;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.util.FutureUtils;
+
+/**
+ * This class provides the block that new transactions refer to (see
+ * {@link eu.bittrade.libs.steemj.base.models.SignedTransaction#SignedTransaction(BlockId, java.util.List, java.util.List)
+ * SignedTransaction(BlockId, ...)}).
+ *
+ * <p>
+ * Instead of requesting the dynamic global properties for each transaction,
+ * the head block id is cached for the configured
+ * {@link SteemJConfig#getReferenceBlockMaximumAge() referenceBlockMaximumAge}.
+ * Once half of that time has passed, the cached id is still returned, but a
+ * new one is requested in the background. The cache can also be kept up to
+ * date by {@link #start() refreshing} it periodically or by registering the
+ * {@link #getBlockAppliedCallback() block applied callback} of this provider.
+ * </p>
+ *
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class ReferenceBlockProvider implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceBlockProvider.class);
+
+    private final Supplier<CompletableFuture<BlockId>> blockIdFetcher;
+    private volatile BlockId referenceBlockId;
+    private volatile long lastUpdate;
+    /** The refresh that is currently in progress. */
+    private CompletableFuture<BlockId> pendingRefresh;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create a new provider that requests the head block id using the given
+     * <code>steemJAsync</code> instance.
+     *
+     * @param steemJAsync
+     *            The API used to request the dynamic global properties.
+     */
+    public ReferenceBlockProvider(final SteemJAsync steemJAsync) {
+        this(new Supplier<CompletableFuture<BlockId>>() {
+            @Override
+            public CompletableFuture<BlockId> get() {
+                return steemJAsync.getDynamicGlobalProperties()
+                        .thenApply(new Function<GlobalProperties, BlockId>() {
+                            @Override
+                            public BlockId apply(GlobalProperties globalProperties) {
+                                return globalProperties.getHeadBlockId();
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Create a new provider that uses the given <code>blockIdFetcher</code> to
+     * request the current reference block id.
+     *
+     * @param blockIdFetcher
+     *            The function used to request the block id.
+     */
+    ReferenceBlockProvider(Supplier<CompletableFuture<BlockId>> blockIdFetcher) {
+        this.blockIdFetcher = blockIdFetcher;
+    }
+
+    /**
+     * Get the block id new transactions should refer to. If there is no
+     * cached block id or if it is older than the configured
+     * {@link SteemJConfig#getReferenceBlockMaximumAge()
+     * referenceBlockMaximumAge}, the calling thread waits until a new block id
+     * has been received.
+     *
+     * @return The reference block id.
+     * @throws SteemCommunicationException
+     *             If the block id could not be requested.
+     */
+    public BlockId getReferenceBlockId() throws SteemCommunicationException {
+        long maximumAge = SteemJConfig.getInstance().getReferenceBlockMaximumAge();
+        BlockId cachedBlockId = referenceBlockId;
+        long age = System.currentTimeMillis() - lastUpdate;
+
+        if (cachedBlockId == null || age >= maximumAge) {
+            return FutureUtils.await(refresh());
+        } else if (age >= maximumAge / 2) {
+            refresh();
+        }
+
+        return cachedBlockId;
+    }
+
+    /**
+     * Request a new reference block id. If a request is already in progress,
+     * no additional request is sent.
+     *
+     * @return A future that completes with the new reference block id.
+     */
+    public synchronized CompletableFuture<BlockId> refresh() {
+        if (pendingRefresh == null || pendingRefresh.isDone()) {
+            pendingRefresh = blockIdFetcher.get().thenApply(new Function<BlockId, BlockId>() {
+                @Override
+                public BlockId apply(BlockId blockId) {
+                    update(blockId);
+                    return blockId;
+                }
+            });
+        }
+
+        return pendingRefresh;
+    }
+
+    /**
+     * Use the given <code>blockId</code> as reference block from now on.
+     *
+     * @param blockId
+     *            A recent block id.
+     */
+    public void update(BlockId blockId) {
+        if (blockId != null) {
+            referenceBlockId = blockId;
+            lastUpdate = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Get a callback that updates the reference block whenever a new block
+     * has been applied. As a block header does not contain its own id, the
+     * previous block is used as reference. The callback can be registered
+     * using
+     * {@link eu.bittrade.libs.steemj.SteemJ#setBlockAppliedCallback(BlockAppliedCallback)
+     * setBlockAppliedCallback}.
+     *
+     * @return The callback.
+     */
+    public BlockAppliedCallback getBlockAppliedCallback() {
+        return new BlockAppliedCallback() {
+            @Override
+            public void onNewBlock(SignedBlockHeader signedBlockHeader) {
+                update(signedBlockHeader.getPrevious());
+            }
+        };
+    }
+
+    /**
+     * Start to refresh the reference block periodically, using half of the
+     * configured {@link SteemJConfig#getReferenceBlockMaximumAge()
+     * referenceBlockMaximumAge} as interval, so
+     * {@link #getReferenceBlockId()} never has to wait. Nothing happens if the
+     * cache is disabled.
+     */
+    public synchronized void start() {
+        long refreshInterval = SteemJConfig.getInstance().getReferenceBlockMaximumAge() / 2;
+        if (scheduler != null || refreshInterval == 0) {
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steemj-reference-block");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    FutureUtils.await(refresh());
+                } catch (SteemCommunicationException e) {
+                    // Keep the cached block id and try again later.
+                    LOGGER.warn("Could not refresh the reference block.", e);
+                }
+            }
+        }, 0, refreshInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic refresh.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
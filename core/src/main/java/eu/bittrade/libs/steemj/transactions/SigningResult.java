@@ -0,0 +1,57 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+
+/**
+ * This class represents the outcome of signing a single transaction using the
+ * {@link TransactionSigner}.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class SigningResult {
+    private final SignedTransaction transaction;
+    private final SteemInvalidTransactionException exception;
+
+    /**
+     * Create a new result.
+     * 
+     * @param transaction
+     *            The transaction that should have been signed.
+     * @param exception
+     *            The reason why the transaction could not be signed or
+     *            <code>null</code> if it has been signed.
+     */
+    public SigningResult(SignedTransaction transaction, SteemInvalidTransactionException exception) {
+        this.transaction = transaction;
+        this.exception = exception;
+    }
+
+    /**
+     * Get the transaction that should have been signed.
+     * 
+     * @return The transaction.
+     */
+    public SignedTransaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Get the reason why the transaction could not be signed.
+     * 
+     * @return The exception or <code>null</code> if the transaction has been
+     *         signed.
+     */
+    public SteemInvalidTransactionException getException() {
+        return exception;
+    }
+
+    /**
+     * Check if the transaction has been signed.
+     * 
+     * @return <code>true</code> if the transaction has been signed.
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+}
@@ -0,0 +1,434 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.exceptions.SteemResponseError;
+import eu.bittrade.libs.steemj.interfaces.SignatureObject;
+
+/**
+ * This class collects operations from any number of threads and broadcasts
+ * them in as few transactions as possible.
+ *
+ * <p>
+ * As Steem does not allow to mix operations requiring a POSTING key with
+ * operations requiring an ACTIVE or OWNER key (see
+ * {@link eu.bittrade.libs.steemj.base.models.Transaction#validate()
+ * Transaction.validate}), and as a missing key of one account should not
+ * affect the operations of other accounts, the operations are collected in
+ * one batch per set of required authorities. A batch is signed and
+ * broadcasted on a background thread as soon as it contains
+ * <code>maximumOperations</code> operations, if the next operation would
+ * exceed the size limit of a transaction or if its first operation has been
+ * added <code>flushInterval</code> milliseconds ago.
+ * </p>
+ *
+ * <p>
+ * <b>Notice:</b> A transaction is only accepted if all of its operations are
+ * valid, so a single invalid operation (e.g. a second vote for the same post)
+ * causes the whole batch to be rejected. The operations of a rejected batch
+ * are broadcasted again one by one, so only the invalid operations fail.
+ * Other failures, like timeouts, are reported for all operations of the
+ * batch, as the transaction may have been accepted anyway.
+ * </p>
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>
+ * try (TransactionBatcher transactionBatcher = steemJ.getTransactionBatcher()) {
+ *     CompletableFuture&lt;Void&gt; result = transactionBatcher.add(voteOperation);
+ *     // ...
+ * }
+ * </pre>
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionBatcher implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionBatcher.class);
+
+    /** The number of operations that are packed into one transaction by default. */
+    public static final int DEFAULT_MAXIMUM_OPERATIONS = 50;
+    /** The time in milliseconds an operation waits for others by default. */
+    public static final long DEFAULT_FLUSH_INTERVAL = 1000;
+    /**
+     * The maximum size of the operations of one transaction in bytes. The
+     * Steem Nodes accept transactions of up to 64 KiB, so there is enough
+     * space left for the header and the signatures.
+     */
+    private static final int MAXIMUM_OPERATIONS_SIZE = 60 * 1024;
+
+    private final Function<List<Operation>, CompletableFuture<Void>> transactionBroadcaster;
+    private final int maximumOperations;
+    private final long flushInterval;
+    private final Map<Map<SignatureObject, PrivateKeyType>, Batch> batches = new HashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private boolean closed;
+
+    /**
+     * Create a new batcher using the {@link #DEFAULT_MAXIMUM_OPERATIONS} and
+     * the {@link #DEFAULT_FLUSH_INTERVAL}.
+     *
+     * @param steemJAsync
+     *            The API used to broadcast the transactions.
+     * @param referenceBlockProvider
+     *            The provider of the block the transactions refer to.
+     */
+    public TransactionBatcher(SteemJAsync steemJAsync, ReferenceBlockProvider referenceBlockProvider) {
+        this(steemJAsync, referenceBlockProvider, DEFAULT_MAXIMUM_OPERATIONS, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * Create a new batcher.
+     *
+     * @param steemJAsync
+     *            The API used to broadcast the transactions.
+     * @param referenceBlockProvider
+     *            The provider of the block the transactions refer to.
+     * @param maximumOperations
+     *            The maximum number of operations of one transaction.
+     * @param flushInterval
+     *            The maximum time in milliseconds an operation waits for
+     *            other operations before it is broadcasted.
+     * @throws InvalidParameterException
+     *             If the <code>maximumOperations</code> are less than 1 or
+     *             the <code>flushInterval</code> is negative.
+     */
+    public TransactionBatcher(final SteemJAsync steemJAsync, final ReferenceBlockProvider referenceBlockProvider,
+            int maximumOperations, long flushInterval) {
+        this(new Function<List<Operation>, CompletableFuture<Void>>() {
+            @Override
+            public CompletableFuture<Void> apply(List<Operation> operations) {
+                try {
+                    SignedTransaction signedTransaction = new SignedTransaction(
+                            referenceBlockProvider.getReferenceBlockId(), operations, null);
+                    signedTransaction.sign();
+
+                    return steemJAsync.broadcastTransaction(signedTransaction);
+                } catch (SteemCommunicationException | SteemInvalidTransactionException e) {
+                    CompletableFuture<Void> failedBroadcast = new CompletableFuture<>();
+                    failedBroadcast.completeExceptionally(e);
+                    return failedBroadcast;
+                }
+            }
+        }, maximumOperations, flushInterval);
+    }
+
+    /**
+     * Create a new batcher that uses the given
+     * <code>transactionBroadcaster</code> to sign and broadcast the
+     * operations of a batch.
+     *
+     * @param transactionBroadcaster
+     *            The function used to broadcast a transaction.
+     * @param maximumOperations
+     *            The maximum number of operations of one transaction.
+     * @param flushInterval
+     *            The maximum time in milliseconds an operation waits for
+     *            other operations before it is broadcasted.
+     * @throws InvalidParameterException
+     *             If one of the parameters is invalid.
+     */
+    TransactionBatcher(Function<List<Operation>, CompletableFuture<Void>> transactionBroadcaster,
+            int maximumOperations, long flushInterval) {
+        if (maximumOperations < 1) {
+            throw new InvalidParameterException("The maximum number of operations has to be at least 1.");
+        } else if (flushInterval < 0) {
+            throw new InvalidParameterException("The flush interval can't be negative.");
+        }
+
+        this.transactionBroadcaster = transactionBroadcaster;
+        this.maximumOperations = maximumOperations;
+        this.flushInterval = flushInterval;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "steemj-transaction-batcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Pending flushes are not needed after close() broadcasted everything.
+        this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Add an operation to the next transaction that requires the same
+     * authorities. The transaction is signed and broadcasted on a background
+     * thread, so this method does not block.
+     *
+     * @param operation
+     *            The operation to broadcast.
+     * @return A future that completes as soon as the transaction containing
+     *         the <code>operation</code> has been accepted by the Steem Node.
+     *         It completes exceptionally if the operation is invalid or the
+     *         transaction could not be signed or broadcasted.
+     */
+    public CompletableFuture<Void> add(Operation operation) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+
+        Map<SignatureObject, PrivateKeyType> authorities;
+        int operationSize;
+        try {
+            authorities = getRequiredAuthorities(operation);
+            operationSize = operation.toByteArray().length;
+        } catch (SteemInvalidTransactionException | InvalidParameterException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        List<Batch> fullBatches = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                result.completeExceptionally(new IllegalStateException("The batcher has already been closed."));
+                return result;
+            }
+
+            Batch batch = batches.get(authorities);
+            if (batch != null && batch.size + operationSize > MAXIMUM_OPERATIONS_SIZE) {
+                fullBatches.add(batches.remove(authorities));
+                batch = null;
+            }
+
+            if (batch == null) {
+                batch = new Batch();
+                batches.put(authorities, batch);
+                scheduleFlush(authorities, batch);
+            }
+
+            batch.operations.add(operation);
+            batch.results.add(result);
+            batch.size += operationSize;
+
+            if (batch.operations.size() >= maximumOperations) {
+                fullBatches.add(batches.remove(authorities));
+            }
+        }
+
+        for (Batch fullBatch : fullBatches) {
+            submitBroadcast(fullBatch);
+        }
+
+        return result;
+    }
+
+    /**
+     * Broadcast all collected operations immediately. The broadcasts are
+     * performed on a background thread.
+     */
+    public void flush() {
+        List<Batch> pendingBatches;
+        synchronized (this) {
+            pendingBatches = new ArrayList<>(batches.values());
+            batches.clear();
+        }
+
+        for (Batch batch : pendingBatches) {
+            submitBroadcast(batch);
+        }
+    }
+
+    /**
+     * Broadcast all collected operations and stop accepting new ones.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+
+        flush();
+        scheduler.shutdown();
+    }
+
+    /**
+     * Get the authorities a transaction containing the given
+     * <code>operation</code> requires. Only operations requiring the same
+     * authorities are packed into one transaction.
+     *
+     * @param operation
+     *            The operation.
+     * @return The required authorities.
+     * @throws SteemInvalidTransactionException
+     *             If the operation requires a POSTING key together with an
+     *             ACTIVE or OWNER key.
+     */
+    private static Map<SignatureObject, PrivateKeyType> getRequiredAuthorities(Operation operation)
+            throws SteemInvalidTransactionException {
+        Map<SignatureObject, PrivateKeyType> requiredAuthorities = new HashMap<>(
+                operation.getRequiredAuthorities(new HashMap<SignatureObject, PrivateKeyType>()));
+        boolean isPostingKeyRequired = false;
+        boolean isActiveKeyRequired = false;
+
+        for (PrivateKeyType keyType : requiredAuthorities.values()) {
+            if (keyType.equals(PrivateKeyType.POSTING)) {
+                isPostingKeyRequired = true;
+            } else {
+                isActiveKeyRequired = true;
+            }
+        }
+
+        if (isPostingKeyRequired && isActiveKeyRequired) {
+            throw new SteemInvalidTransactionException("Steem does not allow to process Operation requiring a POSTING "
+                    + "key together with Operations requireing an ACTIVE or OWNER key.");
+        }
+
+        return Collections.unmodifiableMap(requiredAuthorities);
+    }
+
+    /**
+     * Broadcast the given <code>batch</code> once the flush interval has
+     * passed, unless it has been broadcasted before.
+     *
+     * @param authorities
+     *            The authorities required by the batch.
+     * @param batch
+     *            The batch to broadcast.
+     */
+    private void scheduleFlush(final Map<SignatureObject, PrivateKeyType> authorities, final Batch batch) {
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (TransactionBatcher.this) {
+                    if (batches.get(authorities) != batch) {
+                        return;
+                    }
+
+                    batches.remove(authorities);
+                }
+
+                broadcast(batch);
+            }
+        }, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Broadcast the given <code>batch</code> on the thread of the scheduler,
+     * so signing it does not block the caller.
+     *
+     * @param batch
+     *            The batch to broadcast.
+     * @param failure
+     *            The exception used to fail the operations of the batch if
+     *            the batcher has already been shut down.
+     */
+    private void submitBroadcast(final Batch batch, Throwable failure) {
+        try {
+            scheduler.execute(new Runnable() {
+                @Override
+                public void run() {
+                    broadcast(batch);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            batch.fail(failure == null ? new IllegalStateException("The batcher has already been closed.", e)
+                    : failure);
+        }
+    }
+
+    /**
+     * Like {@link #submitBroadcast(Batch, Throwable)}, for a batch that has
+     * not been broadcasted yet.
+     *
+     * @param batch
+     *            The batch to broadcast.
+     */
+    private void submitBroadcast(Batch batch) {
+        submitBroadcast(batch, null);
+    }
+
+    /**
+     * Broadcast the operations of the given <code>batch</code> as one
+     * transaction and complete the futures of its operations with the result.
+     *
+     * @param batch
+     *            The batch to broadcast.
+     */
+    private void broadcast(final Batch batch) {
+        CompletableFuture<Void> broadcast;
+        try {
+            broadcast = transactionBroadcaster.apply(batch.operations);
+        } catch (RuntimeException e) {
+            broadcast = new CompletableFuture<>();
+            broadcast.completeExceptionally(e);
+        }
+
+        broadcast.handle(new BiFunction<Void, Throwable, Void>() {
+            @Override
+            public Void apply(Void ignored, Throwable throwable) {
+                Throwable cause = throwable;
+                if (cause instanceof CompletionException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+
+                if (cause == null) {
+                    for (CompletableFuture<Void> result : batch.results) {
+                        result.complete(null);
+                    }
+                } else if (cause instanceof SteemResponseError && batch.operations.size() > 1) {
+                    /*
+                     * The Steem Node rejected the transaction, so none of its
+                     * operations has been applied and the valid ones can be
+                     * broadcasted again without the invalid ones.
+                     */
+                    LOGGER.debug("The transaction of {} operations has been rejected - Retrying them one by one.",
+                            batch.operations.size(), cause);
+                    for (int i = 0; i < batch.operations.size(); i++) {
+                        Batch singleOperation = new Batch();
+                        singleOperation.operations.add(batch.operations.get(i));
+                        singleOperation.results.add(batch.results.get(i));
+                        submitBroadcast(singleOperation, cause);
+                    }
+                } else {
+                    LOGGER.debug("The broadcast of {} operations failed.", batch.operations.size(), cause);
+                    batch.fail(cause);
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * The operations that will be broadcasted in one transaction.
+     */
+    private static class Batch {
+        private final List<Operation> operations = new ArrayList<>();
+        private final List<CompletableFuture<Void>> results = new ArrayList<>();
+        private int size;
+
+        /**
+         * Complete the futures of all operations of this batch exceptionally.
+         *
+         * @param cause
+         *            The reason why the batch failed.
+         */
+        private void fail(Throwable cause) {
+            for (CompletableFuture<Void> result : results) {
+                result.completeExceptionally(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Utils;
+import org.joou.UInteger;
+import org.joou.UShort;
+
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.Asset;
+import eu.bittrade.libs.steemj.base.models.Authority;
+import eu.bittrade.libs.steemj.base.models.BeneficiaryRouteType;
+import eu.bittrade.libs.steemj.base.models.ChainProperties;
+import eu.bittrade.libs.steemj.base.models.CommentOptionsExtension;
+import eu.bittrade.libs.steemj.base.models.CommentPayoutBeneficiaries;
+import eu.bittrade.libs.steemj.base.models.FutureExtensions;
+import eu.bittrade.libs.steemj.base.models.Permlink;
+import eu.bittrade.libs.steemj.base.models.Price;
+import eu.bittrade.libs.steemj.base.models.PublicKey;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.TimePointSec;
+import eu.bittrade.libs.steemj.base.models.operations.AccountCreateOperation;
+import eu.bittrade.libs.steemj.base.models.operations.AccountCreateWithDelegationOperation;
+import eu.bittrade.libs.steemj.base.models.operations.AccountUpdateOperation;
+import eu.bittrade.libs.steemj.base.models.operations.AccountWitnessProxyOperation;
+import eu.bittrade.libs.steemj.base.models.operations.AccountWitnessVoteOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CancelTransferFromSavingsOperation;
+import eu.bittrade.libs.steemj.base.models.operations.ChallengeAuthorityOperation;
+import eu.bittrade.libs.steemj.base.models.operations.ChangeRecoveryAccountOperation;
+import eu.bittrade.libs.steemj.base.models.operations.ClaimRewardBalanceOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CommentOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CommentOptionsOperation;
+import eu.bittrade.libs.steemj.base.models.operations.ConvertOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CustomBinaryOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CustomJsonOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CustomOperation;
+import eu.bittrade.libs.steemj.base.models.operations.DeclineVotingRightsOperation;
+import eu.bittrade.libs.steemj.base.models.operations.DelegateVestingSharesOperation;
+import eu.bittrade.libs.steemj.base.models.operations.DeleteCommentOperation;
+import eu.bittrade.libs.steemj.base.models.operations.EscrowApproveOperation;
+import eu.bittrade.libs.steemj.base.models.operations.EscrowDisputeOperation;
+import eu.bittrade.libs.steemj.base.models.operations.EscrowReleaseOperation;
+import eu.bittrade.libs.steemj.base.models.operations.EscrowTransferOperation;
+import eu.bittrade.libs.steemj.base.models.operations.FeedPublishOperation;
+import eu.bittrade.libs.steemj.base.models.operations.LimitOrderCancelOperation;
+import eu.bittrade.libs.steemj.base.models.operations.LimitOrderCreate2Operation;
+import eu.bittrade.libs.steemj.base.models.operations.LimitOrderCreateOperation;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.base.models.operations.ProveAuthorityOperation;
+import eu.bittrade.libs.steemj.base.models.operations.RecoverAccountOperation;
+import eu.bittrade.libs.steemj.base.models.operations.RequestAccountRecoveryOperation;
+import eu.bittrade.libs.steemj.base.models.operations.ResetAccountOperation;
+import eu.bittrade.libs.steemj.base.models.operations.SetResetAccountOperation;
+import eu.bittrade.libs.steemj.base.models.operations.SetWithdrawVestingRouteOperation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferFromSavingsOperation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferOperation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferToSavingsOperation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferToVestingOperation;
+import eu.bittrade.libs.steemj.base.models.operations.VoteOperation;
+import eu.bittrade.libs.steemj.base.models.operations.WithdrawVestingOperation;
+import eu.bittrade.libs.steemj.base.models.operations.WitnessUpdateOperation;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.AssetSymbolType;
+import eu.bittrade.libs.steemj.enums.CommentOptionsExtensionsType;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.util.SteemBinaryReader;
+
+/**
+ * This class parses the binary representation of transactions and operations
+ * as created by {@link SignedTransaction#toHex()} or returned by
+ * {@link eu.bittrade.libs.steemj.SteemJ#getTransactionHex(SignedTransaction)
+ * getTransactionHex}.
+ *
+ * <p>
+ * All operations that can be serialized by SteemJ can be decoded. Virtual
+ * operations are never part of a transaction and the binary representation of
+ * the "pow", "pow2" and "report_over_production" operations is not supported
+ * yet, so those types result in a {@link SteemInvalidTransactionException}.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionDecoder {
+    /** The length of a compact signature. */
+    private static final int SIGNATURE_LENGTH = 65;
+    /** The length of a compressed public key. */
+    private static final int PUBLIC_KEY_LENGTH = 33;
+    /** The length of the symbol of an asset. */
+    private static final int ASSET_SYMBOL_LENGTH = 7;
+
+    /** Add a private constructor to hide the implicit public one. */
+    private TransactionDecoder() {
+    }
+
+    /**
+     * Like {@link #decodeTransaction(byte[])}, but accepts the HEX
+     * representation of the transaction.
+     *
+     * @param transactionHex
+     *            The transaction in its HEX representation.
+     * @return The transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the given data is not a valid transaction.
+     */
+    public static SignedTransaction decodeTransaction(String transactionHex) throws SteemInvalidTransactionException {
+        try {
+            return decodeTransaction(Utils.HEX.decode(transactionHex));
+        } catch (IllegalArgumentException e) {
+            throw new SteemInvalidTransactionException("The given transaction is not a valid HEX String.", e);
+        }
+    }
+
+    /**
+     * Parse a signed transaction, including its signatures. The bytes must not
+     * contain a chain id.
+     *
+     * @param transactionBytes
+     *            The binary representation of the transaction.
+     * @return The transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the given data is not a valid transaction.
+     */
+    public static SignedTransaction decodeTransaction(byte[] transactionBytes)
+            throws SteemInvalidTransactionException {
+        SteemBinaryReader in = new SteemBinaryReader(transactionBytes);
+        SignedTransaction signedTransaction = readTransaction(in);
+
+        if (in.remaining() != 0) {
+            throw new SteemInvalidTransactionException(
+                    "The transaction has been followed by " + in.remaining() + " unexpected bytes.");
+        }
+
+        return signedTransaction;
+    }
+
+    /**
+     * Parse a single operation.
+     *
+     * @param operationBytes
+     *            The binary representation of the operation.
+     * @return The operation.
+     * @throws SteemInvalidTransactionException
+     *             If the given data is not a valid operation.
+     */
+    public static Operation decodeOperation(byte[] operationBytes) throws SteemInvalidTransactionException {
+        SteemBinaryReader in = new SteemBinaryReader(operationBytes);
+        Operation operation = readOperation(in);
+
+        if (in.remaining() != 0) {
+            throw new SteemInvalidTransactionException(
+                    "The operation has been followed by " + in.remaining() + " unexpected bytes.");
+        }
+
+        return operation;
+    }
+
+    /**
+     * Read a signed transaction.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The transaction.
+     * @throws SteemInvalidTransactionException
+     *             If the data is not a valid transaction.
+     */
+    public static SignedTransaction readTransaction(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        UShort refBlockNum = UShort.valueOf(in.readShort());
+        UInteger refBlockPrefix = UInteger.valueOf(in.readUnsignedInt());
+        TimePointSec expirationDate = readTimePointSec(in);
+
+        int numberOfOperations = in.readVarInt();
+        List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < numberOfOperations; i++) {
+            operations.add(readOperation(in));
+        }
+
+        List<FutureExtensions> extensions = readFutureExtensions(in);
+
+        SignedTransaction signedTransaction;
+        try {
+            signedTransaction = new SignedTransaction(refBlockNum, refBlockPrefix, expirationDate, operations,
+                    extensions);
+        } catch (InvalidParameterException e) {
+            throw new SteemInvalidTransactionException("The transaction is invalid.", e);
+        }
+
+        int numberOfSignatures = in.readVarInt();
+        for (int i = 0; i < numberOfSignatures; i++) {
+            signedTransaction.getSignatures().add(Utils.HEX.encode(in.readBytes(SIGNATURE_LENGTH)));
+        }
+
+        return signedTransaction;
+    }
+
+    /**
+     * Read a single operation.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The operation.
+     * @throws SteemInvalidTransactionException
+     *             If the data is not a valid operation or the operation type is
+     *             not supported.
+     */
+    public static Operation readOperation(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        int operationId = in.readVarInt();
+        if (operationId >= OperationType.values().length) {
+            throw new SteemInvalidTransactionException("Unknown operation type " + operationId + ".");
+        }
+
+        OperationType operationType = OperationType.values()[operationId];
+        try {
+            return readOperation(in, operationType);
+        } catch (IllegalArgumentException e) {
+            // Also covers the InvalidParameterException thrown by the setters.
+            throw new SteemInvalidTransactionException("The " + operationType + " is invalid.", e);
+        }
+    }
+
+    /**
+     * Read the fields of an operation of the given <code>operationType</code>.
+     *
+     * @param in
+     *            The reader to read from.
+     * @param operationType
+     *            The type of the operation.
+     * @return The operation.
+     * @throws SteemInvalidTransactionException
+     *             If the data is not a valid operation or the operation type is
+     *             not supported.
+     */
+    private static Operation readOperation(SteemBinaryReader in, OperationType operationType)
+            throws SteemInvalidTransactionException {
+        switch (operationType) {
+        case VOTE_OPERATION:
+            return new VoteOperation(readAccountName(in), readAccountName(in), readPermlink(in),
+                    (short) in.readShort());
+        case COMMENT_OPERATION:
+            return new CommentOperation(readAccountName(in), readPermlink(in), readAccountName(in), readPermlink(in),
+                    in.readString(), in.readString(), in.readString());
+        case TRANSFER_OPERATION:
+            return new TransferOperation(readAccountName(in), readAccountName(in), readAsset(in), in.readString());
+        case TRANSFER_TO_VESTING_OPERATION:
+            return new TransferToVestingOperation(readAccountName(in), readAccountName(in), readAsset(in));
+        case WITHDRAW_VESTING_OPERATION:
+            return new WithdrawVestingOperation(readAccountName(in), readAsset(in));
+        case LIMIT_ORDER_CREATE_OPERATION: {
+            AccountName owner = readAccountName(in);
+            UInteger orderId = UInteger.valueOf(in.readUnsignedInt());
+            Asset amountToSell = readAsset(in);
+            Asset minToReceive = readAsset(in);
+            boolean fillOrKill = in.readBoolean();
+            return new LimitOrderCreateOperation(owner, orderId, amountToSell, minToReceive, fillOrKill,
+                    readTimePointSec(in));
+        }
+        case LIMIT_ORDER_CANCEL_OPERATION:
+            return new LimitOrderCancelOperation(readAccountName(in), UInteger.valueOf(in.readUnsignedInt()));
+        case FEED_PUBLISH_OPERATION:
+            return new FeedPublishOperation(readAccountName(in), readPrice(in));
+        case CONVERT_OPERATION:
+            return new ConvertOperation(readAccountName(in), in.readUnsignedInt(), readAsset(in));
+        case ACCOUNT_CREATE_OPERATION: {
+            Asset fee = readAsset(in);
+            AccountName creator = readAccountName(in);
+            return new AccountCreateOperation(creator, fee, readAccountName(in), readAuthority(in), readAuthority(in),
+                    readAuthority(in), readPublicKey(in), in.readString());
+        }
+        case ACCOUNT_UPDATE_OPERATION:
+            return new AccountUpdateOperation(readAccountName(in), readOptionalAuthority(in),
+                    readOptionalAuthority(in), readOptionalAuthority(in), readPublicKey(in), in.readString());
+        case WITNESS_UPDATE_OPERATION:
+            return new WitnessUpdateOperation(readAccountName(in), readUrl(in), readPublicKey(in),
+                    readChainProperties(in), readAsset(in));
+        case ACCOUNT_WITNESS_VOTE_OPERATION:
+            return new AccountWitnessVoteOperation(readAccountName(in), readAccountName(in), in.readBoolean());
+        case ACCOUNT_WITNESS_PROXY_OPERATION:
+            return new AccountWitnessProxyOperation(readAccountName(in), readAccountName(in));
+        case CUSTOM_OPERATION: {
+            List<AccountName> requiredAuths = readAccountNames(in);
+            int id = in.readShort();
+            CustomOperation customOperation = new CustomOperation(requiredAuths, readData(in));
+            customOperation.setId(id);
+            return customOperation;
+        }
+        case DELETE_COMMENT_OPERATION:
+            return new DeleteCommentOperation(readAccountName(in), readPermlink(in));
+        case CUSTOM_JSON_OPERATION:
+            return new CustomJsonOperation(readAccountNames(in), readAccountNames(in), in.readString(),
+                    in.readString());
+        case COMMENT_OPTIONS_OPERATION:
+            return new CommentOptionsOperation(readAccountName(in), readPermlink(in), readAsset(in),
+                    (short) in.readShort(), in.readBoolean(), in.readBoolean(), readCommentOptionsExtensions(in));
+        case SET_WITHDRAW_VESTING_ROUTE_OPERATION:
+            return new SetWithdrawVestingRouteOperation(readAccountName(in), readAccountName(in), in.readShort(),
+                    in.readBoolean());
+        case LIMIT_ORDER_CREATE2_OPERATION: {
+            AccountName owner = readAccountName(in);
+            UInteger orderId = UInteger.valueOf(in.readUnsignedInt());
+            Asset amountToSell = readAsset(in);
+            Price exchangeRate = readPrice(in);
+            boolean fillOrKill = in.readBoolean();
+            return new LimitOrderCreate2Operation(owner, orderId, amountToSell, fillOrKill, exchangeRate,
+                    readTimePointSec(in));
+        }
+        case CHALLENGE_AUTHORITY_OPERATION:
+            return new ChallengeAuthorityOperation(readAccountName(in), readAccountName(in), in.readBoolean());
+        case PROVE_AUTHORITY_OPERATION:
+            return new ProveAuthorityOperation(readAccountName(in), in.readBoolean());
+        case REQUEST_ACCOUNT_RECOVERY_OPERATION:
+            return new RequestAccountRecoveryOperation(readAccountName(in), readAccountName(in), readAuthority(in),
+                    readFutureExtensions(in));
+        case RECOVER_ACCOUNT_OPERATION:
+            return new RecoverAccountOperation(readAccountName(in), readAuthority(in), readAuthority(in),
+                    readFutureExtensions(in));
+        case CHANGE_RECOVERY_ACCOUNT_OPERATION:
+            return new ChangeRecoveryAccountOperation(readAccountName(in), readAccountName(in),
+                    readFutureExtensions(in));
+        case ESCROW_TRANSFER_OPERATION: {
+            AccountName from = readAccountName(in);
+            AccountName to = readAccountName(in);
+            AccountName agent = readAccountName(in);
+            long escrowId = in.readUnsignedInt();
+            return new EscrowTransferOperation(from, to, agent, escrowId, readAsset(in), readAsset(in),
+                    readAsset(in), readTimePointSec(in), readTimePointSec(in), in.readString());
+        }
+        case ESCROW_DISPUTE_OPERATION: {
+            AccountName from = readAccountName(in);
+            AccountName to = readAccountName(in);
+            AccountName agent = readAccountName(in);
+            AccountName who = readAccountName(in);
+            return new EscrowDisputeOperation(from, to, agent, in.readUnsignedInt(), who);
+        }
+        case ESCROW_RELEASE_OPERATION: {
+            AccountName from = readAccountName(in);
+            AccountName to = readAccountName(in);
+            AccountName agent = readAccountName(in);
+            AccountName who = readAccountName(in);
+            AccountName receiver = readAccountName(in);
+            long escrowId = in.readUnsignedInt();
+            return new EscrowReleaseOperation(from, to, agent, escrowId, who, receiver, readAsset(in),
+                    readAsset(in));
+        }
+        case ESCROW_APPROVE_OPERATION: {
+            AccountName from = readAccountName(in);
+            AccountName to = readAccountName(in);
+            AccountName agent = readAccountName(in);
+            AccountName who = readAccountName(in);
+            long escrowId = in.readUnsignedInt();
+            return new EscrowApproveOperation(from, to, agent, escrowId, who, in.readBoolean());
+        }
+        case TRANSFER_TO_SAVINGS_OPERATION:
+            return new TransferToSavingsOperation(readAccountName(in), readAccountName(in), readAsset(in),
+                    in.readString());
+        case TRANSFER_FROM_SAVINGS_OPERATION: {
+            AccountName from = readAccountName(in);
+            long requestId = in.readUnsignedInt();
+            return new TransferFromSavingsOperation(from, readAccountName(in), readAsset(in), requestId,
+                    in.readString());
+        }
+        case CANCEL_TRANSFER_FROM_SAVINGS_OPERATION:
+            return new CancelTransferFromSavingsOperation(readAccountName(in), in.readUnsignedInt());
+        case CUSTOM_BINARY_OPERATION:
+            return new CustomBinaryOperation(readAccountNames(in), readAccountNames(in), readAccountNames(in),
+                    readAuthorities(in), in.readString(), readData(in));
+        case DECLINE_VOTING_RIGHTS_OPERATION:
+            return new DeclineVotingRightsOperation(readAccountName(in), in.readBoolean());
+        case RESET_ACCOUNT_OPERATION:
+            return new ResetAccountOperation(readAccountName(in), readAccountName(in), readAuthority(in));
+        case SET_RESET_ACCOUNT_OPERATION:
+            return new SetResetAccountOperation(readAccountName(in), readAccountName(in), readAccountName(in));
+        case CLAIM_REWARD_BALANCE_OPERATION:
+            return new ClaimRewardBalanceOperation(readAccountName(in), readAsset(in), readAsset(in),
+                    readAsset(in));
+        case DELEGATE_VESTING_SHARES_OPERATION:
+            return new DelegateVestingSharesOperation(readAccountName(in), readAccountName(in), readAsset(in));
+        case ACCOUNT_CREATE_WITH_DELEGATION_OPERATION: {
+            Asset fee = readAsset(in);
+            Asset delegation = readAsset(in);
+            AccountName creator = readAccountName(in);
+            return new AccountCreateWithDelegationOperation(creator, fee, readAccountName(in), delegation,
+                    readAuthority(in), readAuthority(in), readAuthority(in), readPublicKey(in), in.readString(),
+                    readFutureExtensions(in));
+        }
+        default:
+            throw new SteemInvalidTransactionException(
+                    "The binary representation of a " + operationType + " is not supported.");
+        }
+    }
+
+    /**
+     * Read an account name.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The account name.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static AccountName readAccountName(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return new AccountName(in.readString());
+    }
+
+    /**
+     * Read a list of account names prefixed by its size.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The account names.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static List<AccountName> readAccountNames(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        int numberOfAccountNames = in.readVarInt();
+        List<AccountName> accountNames = new ArrayList<>();
+        for (int i = 0; i < numberOfAccountNames; i++) {
+            accountNames.add(readAccountName(in));
+        }
+
+        return accountNames;
+    }
+
+    /**
+     * Read a permlink.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The permlink.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static Permlink readPermlink(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return new Permlink(in.readString());
+    }
+
+    /**
+     * Read a date that is stored in seconds.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The date.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static TimePointSec readTimePointSec(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return new TimePointSec(in.readUnsignedInt() * 1000L);
+    }
+
+    /**
+     * Read an asset.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The asset.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete or the symbol is unknown.
+     */
+    private static Asset readAsset(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        long amount = in.readLong();
+        int precision = in.readByte();
+        String symbol = new String(in.readBytes(ASSET_SYMBOL_LENGTH),
+                SteemJConfig.getInstance().getEncodingCharset()).trim();
+
+        Asset asset;
+        try {
+            asset = new Asset(amount, AssetSymbolType.valueOf(symbol));
+        } catch (IllegalArgumentException e) {
+            throw new SteemInvalidTransactionException("Unknown asset symbol '" + symbol + "'.", e);
+        }
+
+        if (asset.getPrecision() != precision) {
+            throw new SteemInvalidTransactionException(
+                    "The precision " + precision + " does not match the symbol " + symbol + ".");
+        }
+
+        return asset;
+    }
+
+    /**
+     * Read a price.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The price.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static Price readPrice(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return new Price(readAsset(in), readAsset(in));
+    }
+
+    /**
+     * Read a compressed public key.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The public key.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete or not a valid key.
+     */
+    private static PublicKey readPublicKey(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return new PublicKey(ECKey.fromPublicOnly(in.readBytes(PUBLIC_KEY_LENGTH)));
+    }
+
+    /**
+     * Read an authority.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The authority.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static Authority readAuthority(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        Authority authority = new Authority();
+        authority.setWeightThreshold(in.readUnsignedInt());
+
+        int numberOfAccountAuths = in.readVarInt();
+        Map<AccountName, Integer> accountAuths = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfAccountAuths; i++) {
+            accountAuths.put(readAccountName(in), in.readShort());
+        }
+        authority.setAccountAuths(accountAuths);
+
+        int numberOfKeyAuths = in.readVarInt();
+        Map<PublicKey, Integer> keyAuths = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfKeyAuths; i++) {
+            keyAuths.put(readPublicKey(in), in.readShort());
+        }
+        authority.setKeyAuths(keyAuths);
+
+        return authority;
+    }
+
+    /**
+     * Read an authority that is prefixed by a flag that indicates if it is
+     * present.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The authority or <code>null</code> if it is not present.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static Authority readOptionalAuthority(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return in.readBoolean() ? readAuthority(in) : null;
+    }
+
+    /**
+     * Read a list of authorities prefixed by its size.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The authorities.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static List<Authority> readAuthorities(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        int numberOfAuthorities = in.readVarInt();
+        List<Authority> authorities = new ArrayList<>();
+        for (int i = 0; i < numberOfAuthorities; i++) {
+            authorities.add(readAuthority(in));
+        }
+
+        return authorities;
+    }
+
+    /**
+     * Read the chain properties proposed by a witness.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The chain properties.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static ChainProperties readChainProperties(SteemBinaryReader in)
+            throws SteemInvalidTransactionException {
+        return new ChainProperties(readAsset(in), in.readUnsignedInt(), in.readShort());
+    }
+
+    /**
+     * Read an URL.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The URL.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete or not a valid URL.
+     */
+    private static URL readUrl(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        String url = in.readString();
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new SteemInvalidTransactionException("The URL '" + url + "' is invalid.", e);
+        }
+    }
+
+    /**
+     * Read binary data prefixed by its length.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The data in its HEX representation.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete.
+     */
+    private static String readData(SteemBinaryReader in) throws SteemInvalidTransactionException {
+        return Utils.HEX.encode(in.readBytes(in.readVarInt()));
+    }
+
+    /**
+     * Read a list of future extensions prefixed by its size.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The extensions.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete or contains an unknown extension.
+     */
+    private static List<FutureExtensions> readFutureExtensions(SteemBinaryReader in)
+            throws SteemInvalidTransactionException {
+        int numberOfExtensions = in.readVarInt();
+        List<FutureExtensions> extensions = new ArrayList<>();
+        for (int i = 0; i < numberOfExtensions; i++) {
+            int extensionType = in.readVarInt();
+            if (extensionType != 0) {
+                throw new SteemInvalidTransactionException("Unknown extension type " + extensionType + ".");
+            }
+
+            extensions.add(new FutureExtensions());
+        }
+
+        return extensions;
+    }
+
+    /**
+     * Read the extensions of a comment options operation.
+     *
+     * @param in
+     *            The reader to read from.
+     * @return The extensions.
+     * @throws SteemInvalidTransactionException
+     *             If the data is incomplete or contains an unknown extension.
+     */
+    private static List<CommentOptionsExtension> readCommentOptionsExtensions(SteemBinaryReader in)
+            throws SteemInvalidTransactionException {
+        int numberOfExtensions = in.readVarInt();
+        List<CommentOptionsExtension> extensions = new ArrayList<>();
+        for (int i = 0; i < numberOfExtensions; i++) {
+            int extensionType = in.readVarInt();
+            if (extensionType != CommentOptionsExtensionsType.COMMENT_PAYOUT_BENEFICIARIES.ordinal()) {
+                throw new SteemInvalidTransactionException("Unknown comment options extension " + extensionType + ".");
+            }
+
+            int numberOfBeneficiaries = in.readVarInt();
+            List<BeneficiaryRouteType> beneficiaries = new ArrayList<>();
+            for (int j = 0; j < numberOfBeneficiaries; j++) {
+                beneficiaries.add(new BeneficiaryRouteType(readAccountName(in), (short) in.readShort()));
+            }
+
+            CommentPayoutBeneficiaries commentPayoutBeneficiaries = new CommentPayoutBeneficiaries();
+            commentPayoutBeneficiaries.setBeneficiaries(beneficiaries);
+            extensions.add(commentPayoutBeneficiaries);
+        }
+
+        return extensions;
+    }
+}
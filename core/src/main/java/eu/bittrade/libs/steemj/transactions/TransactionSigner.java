@@ -0,0 +1,237 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.bitcoinj.core.ECKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.Authority;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.configuration.PrivateKeyStorage;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.interfaces.SignatureObject;
+
+/**
+ * This class signs a lot of independent transactions in parallel.
+ *
+ * <p>
+ * The private keys are looked up in the {@link PrivateKeyStorage} only once
+ * per account and key type for all transactions of a call. The signing itself
+ * is CPU bound and is distributed over the configured {@link Executor}, which
+ * is the {@link ForkJoinPool#commonPool() common ForkJoinPool} by default.
+ * </p>
+ *
+ * <p>
+ * A transaction must not be changed or signed by someone else while it is
+ * signed by this class.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionSigner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionSigner.class);
+
+    private final Executor executor;
+
+    /**
+     * Create a new signer that uses the common ForkJoinPool.
+     */
+    public TransactionSigner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new signer that uses the given <code>executor</code>.
+     *
+     * @param executor
+     *            The executor to sign the transactions with.
+     */
+    public TransactionSigner(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Like {@link #signAll(Collection, String)}, but uses the configured
+     * {@link SteemJConfig#getChainId() chainId}.
+     *
+     * @param transactions
+     *            The transactions to sign.
+     * @return One result per transaction, in the same order.
+     */
+    public List<SigningResult> signAll(Collection<? extends SignedTransaction> transactions) {
+        return signAll(transactions, SteemJConfig.getInstance().getChainId());
+    }
+
+    /**
+     * Sign all <code>transactions</code> and wait until all of them are done.
+     * A transaction that can not be signed does not affect the others.
+     *
+     * @param transactions
+     *            The transactions to sign.
+     * @param chainId
+     *            The chain id that should be used during signing.
+     * @return One result per transaction, in the same order.
+     */
+    public List<SigningResult> signAll(Collection<? extends SignedTransaction> transactions, String chainId) {
+        return signAllAsync(transactions, chainId).join();
+    }
+
+    /**
+     * Like {@link #signAll(Collection, String)}, but does not wait for the
+     * signatures.
+     *
+     * @param transactions
+     *            The transactions to sign.
+     * @param chainId
+     *            The chain id that should be used during signing.
+     * @return A future that completes with one result per transaction, in the
+     *         same order. It never completes exceptionally.
+     */
+    public CompletableFuture<List<SigningResult>> signAllAsync(Collection<? extends SignedTransaction> transactions,
+            final String chainId) {
+        Map<ImmutablePair<AccountName, PrivateKeyType>, ECKey> resolvedKeys = new HashMap<>();
+        final List<CompletableFuture<SigningResult>> results = new ArrayList<>(transactions.size());
+
+        for (final SignedTransaction transaction : transactions) {
+            final List<ECKey> privateKeys;
+            try {
+                privateKeys = getRequiredKeys(transaction, resolvedKeys);
+            } catch (SteemInvalidTransactionException e) {
+                results.add(CompletableFuture.completedFuture(new SigningResult(transaction, e)));
+                continue;
+            }
+
+            results.add(CompletableFuture.supplyAsync(new Supplier<SigningResult>() {
+                @Override
+                public SigningResult get() {
+                    return sign(transaction, privateKeys, chainId);
+                }
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+                .thenApply(new Function<Void, List<SigningResult>>() {
+                    @Override
+                    public List<SigningResult> apply(Void ignored) {
+                        List<SigningResult> signingResults = new ArrayList<>(results.size());
+                        for (CompletableFuture<SigningResult> result : results) {
+                            signingResults.add(result.join());
+                        }
+
+                        return signingResults;
+                    }
+                });
+    }
+
+    /**
+     * Sign a single <code>transaction</code>.
+     *
+     * @param transaction
+     *            The transaction to sign.
+     * @param privateKeys
+     *            The keys to sign with.
+     * @param chainId
+     *            The chain id that should be used during signing.
+     * @return The result.
+     */
+    private static SigningResult sign(SignedTransaction transaction, List<ECKey> privateKeys, String chainId) {
+        try {
+            transaction.sign(privateKeys, chainId);
+            return new SigningResult(transaction, null);
+        } catch (SteemInvalidTransactionException e) {
+            return new SigningResult(transaction, e);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not sign the transaction.", e);
+            return new SigningResult(transaction,
+                    new SteemInvalidTransactionException("Could not sign the transaction.", e));
+        }
+    }
+
+    /**
+     * Collect the private keys that are required to sign the given
+     * <code>transaction</code>.
+     *
+     * @param transaction
+     *            The transaction to collect the keys for.
+     * @param resolvedKeys
+     *            The keys that have already been looked up during this call.
+     * @return The required keys.
+     * @throws SteemInvalidTransactionException
+     *             If a required private key is not present in the
+     *             {@link PrivateKeyStorage} or if an {@link Authority} is
+     *             required.
+     */
+    private static List<ECKey> getRequiredKeys(SignedTransaction transaction,
+            Map<ImmutablePair<AccountName, PrivateKeyType>, ECKey> resolvedKeys)
+            throws SteemInvalidTransactionException {
+        List<ECKey> requiredKeys = new ArrayList<>();
+
+        for (Entry<SignatureObject, PrivateKeyType> requiredAuthority : transaction.getRequiredAuthorities()
+                .entrySet()) {
+            if (requiredAuthority.getKey() instanceof AccountName) {
+                ImmutablePair<AccountName, PrivateKeyType> account = new ImmutablePair<>(
+                        (AccountName) requiredAuthority.getKey(), requiredAuthority.getValue());
+
+                ECKey privateKey = resolvedKeys.get(account);
+                if (privateKey == null) {
+                    privateKey = getKeyForAccount(account.getLeft(), account.getRight());
+                    resolvedKeys.put(account, privateKey);
+                }
+
+                if (!requiredKeys.contains(privateKey)) {
+                    requiredKeys.add(privateKey);
+                }
+            } else if (requiredAuthority.getKey() instanceof Authority) {
+                /*
+                 * The keys of an authority can not be looked up in the
+                 * PrivateKeyStorage, so the transaction can not be signed
+                 * completely.
+                 */
+                throw new SteemInvalidTransactionException("Signing for a " + requiredAuthority.getValue()
+                        + " authority is not supported. Only account authorities can be signed for.");
+            } else {
+                LOGGER.warn("Unknown SigningObject type {}", requiredAuthority.getKey());
+            }
+        }
+
+        return requiredKeys;
+    }
+
+    /**
+     * Fetch the requested private key from the {@link PrivateKeyStorage}.
+     *
+     * @param accountName
+     *            The account name to fetch the key for.
+     * @param privateKeyType
+     *            The key type to fetch.
+     * @return The private key.
+     * @throws SteemInvalidTransactionException
+     *             If the private key is not present in the
+     *             {@link PrivateKeyStorage}.
+     */
+    private static ECKey getKeyForAccount(AccountName accountName, PrivateKeyType privateKeyType)
+            throws SteemInvalidTransactionException {
+        try {
+            return SteemJConfig.getInstance().getPrivateKeyStorage().getKeyForAccount(privateKeyType, accountName);
+        } catch (InvalidParameterException ipe) {
+            throw new SteemInvalidTransactionException(
+                    "Could not find private " + privateKeyType + " key for the user " + accountName.getName() + ".");
+        }
+    }
+}
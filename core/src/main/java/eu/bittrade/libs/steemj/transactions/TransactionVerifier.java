@@ -0,0 +1,142 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import eu.bittrade.libs.steemj.base.models.SignedBlock;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+
+/**
+ * This class recovers the public keys that have signed the transactions of a
+ * block locally and in parallel, so no Steem Node has to be asked to verify
+ * them.
+ * 
+ * <p>
+ * The recovery is CPU bound and is distributed over the configured
+ * {@link Executor}, which is the {@link ForkJoinPool#commonPool() common
+ * ForkJoinPool} by default.
+ * </p>
+ * 
+ * @see SignedTransaction#getSignatureKeys(String)
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionVerifier {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionVerifier.class);
+
+    private final Executor executor;
+
+    /**
+     * Create a new verifier that uses the common ForkJoinPool.
+     */
+    public TransactionVerifier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a new verifier that uses the given <code>executor</code>.
+     * 
+     * @param executor
+     *            The executor to verify the transactions with.
+     */
+    public TransactionVerifier(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Like {@link #verifyAll(Collection, String)}, but verifies the
+     * transactions of the given <code>block</code> using the configured
+     * {@link SteemJConfig#getChainId() chainId}.
+     * 
+     * @param block
+     *            The block to verify.
+     * @return One result per transaction, in the same order.
+     */
+    public List<VerificationResult> verifyAll(SignedBlock block) {
+        return verifyAll(block.getTransactions(), SteemJConfig.getInstance().getChainId());
+    }
+
+    /**
+     * Recover the signature keys of all <code>transactions</code> and wait
+     * until all of them are done. A transaction with an invalid signature
+     * does not affect the others.
+     * 
+     * @param transactions
+     *            The transactions to verify.
+     * @param chainId
+     *            The chain id that has been used to sign the transactions.
+     * @return One result per transaction, in the same order.
+     */
+    public List<VerificationResult> verifyAll(Collection<? extends SignedTransaction> transactions, String chainId) {
+        return verifyAllAsync(transactions, chainId).join();
+    }
+
+    /**
+     * Like {@link #verifyAll(Collection, String)}, but does not wait for the
+     * results.
+     * 
+     * @param transactions
+     *            The transactions to verify.
+     * @param chainId
+     *            The chain id that has been used to sign the transactions.
+     * @return A future that completes with one result per transaction, in the
+     *         same order. It never completes exceptionally.
+     */
+    public CompletableFuture<List<VerificationResult>> verifyAllAsync(
+            Collection<? extends SignedTransaction> transactions, final String chainId) {
+        final List<CompletableFuture<VerificationResult>> results = new ArrayList<>(transactions.size());
+
+        for (final SignedTransaction transaction : transactions) {
+            results.add(CompletableFuture.supplyAsync(new Supplier<VerificationResult>() {
+                @Override
+                public VerificationResult get() {
+                    return verify(transaction, chainId);
+                }
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+                .thenApply(new Function<Void, List<VerificationResult>>() {
+                    @Override
+                    public List<VerificationResult> apply(Void ignored) {
+                        List<VerificationResult> verificationResults = new ArrayList<>(results.size());
+                        for (CompletableFuture<VerificationResult> result : results) {
+                            verificationResults.add(result.join());
+                        }
+
+                        return verificationResults;
+                    }
+                });
+    }
+
+    /**
+     * Recover the signature keys of a single <code>transaction</code>.
+     * 
+     * @param transaction
+     *            The transaction to verify.
+     * @param chainId
+     *            The chain id that has been used to sign the transaction.
+     * @return The result.
+     */
+    private static VerificationResult verify(SignedTransaction transaction, String chainId) {
+        try {
+            return new VerificationResult(transaction, transaction.getSignatureKeys(chainId), null);
+        } catch (SteemInvalidTransactionException e) {
+            return new VerificationResult(transaction, null, e);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not verify the transaction.", e);
+            return new VerificationResult(transaction, null,
+                    new SteemInvalidTransactionException("Could not verify the transaction.", e));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import java.util.List;
+
+import eu.bittrade.libs.steemj.base.models.PublicKey;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+
+/**
+ * This class represents the outcome of recovering the signature keys of a
+ * single transaction using the {@link TransactionVerifier}.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class VerificationResult {
+    private final SignedTransaction transaction;
+    private final List<PublicKey> signatureKeys;
+    private final SteemInvalidTransactionException exception;
+
+    /**
+     * Create a new result.
+     * 
+     * @param transaction
+     *            The transaction that has been verified.
+     * @param signatureKeys
+     *            The public keys that have signed the transaction or
+     *            <code>null</code> if they could not be recovered.
+     * @param exception
+     *            The reason why the keys could not be recovered or
+     *            <code>null</code> if all signatures are valid.
+     */
+    public VerificationResult(SignedTransaction transaction, List<PublicKey> signatureKeys,
+            SteemInvalidTransactionException exception) {
+        this.transaction = transaction;
+        this.signatureKeys = signatureKeys;
+        this.exception = exception;
+    }
+
+    /**
+     * Get the transaction that has been verified.
+     * 
+     * @return The transaction.
+     */
+    public SignedTransaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Get the public keys that have signed the transaction, in the same order
+     * as its signatures.
+     * 
+     * @return The public keys or <code>null</code> if they could not be
+     *         recovered.
+     */
+    public List<PublicKey> getSignatureKeys() {
+        return signatureKeys;
+    }
+
+    /**
+     * Get the reason why the keys could not be recovered.
+     * 
+     * @return The exception or <code>null</code> if all signatures are valid.
+     */
+    public SteemInvalidTransactionException getException() {
+        return exception;
+    }
+
+    /**
+     * Check if the keys of all signatures have been recovered.
+     * 
+     * @return <code>true</code> if all signatures are valid.
+     */
+    public boolean isSuccessful() {
+        return exception == null;
+    }
+}
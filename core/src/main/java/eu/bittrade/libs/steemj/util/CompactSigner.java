@@ -0,0 +1,314 @@
+package eu.bittrade.libs.steemj.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Utils;
+import org.spongycastle.crypto.digests.SHA256Digest;
+import org.spongycastle.crypto.macs.HMac;
+import org.spongycastle.crypto.params.KeyParameter;
+import org.spongycastle.math.ec.ECPoint;
+
+/**
+ * This class creates compact signatures (65 bytes: a header byte containing
+ * the recovery id followed by <code>r</code> and <code>s</code>) as expected
+ * by the Steem Nodes.
+ *
+ * <p>
+ * The nonces are derived as described in RFC6979 and the signatures are
+ * canonicalised to a low <code>s</code> value, so {@link #sign(Sha256Hash)} is
+ * bit-identical to {@link ECKey#sign(Sha256Hash)}. In contrast to
+ * {@link SteemJUtils#getKeyType(ECKey.ECDSASignature, Sha256Hash, ECKey)
+ * getKeyType}, the recovery id is taken from the <code>R</code> point that is
+ * calculated while signing, so no public key has to be recovered afterwards.
+ * </p>
+ *
+ * <p>
+ * A signer only keeps immutable state and can be shared between threads.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class CompactSigner {
+    /** The offset the Steem Nodes expect for the recovery id. */
+    private static final int HEADER_OFFSET = 27;
+    /** Added to the header byte if the public key is compressed. */
+    private static final int COMPRESSED_FLAG = 4;
+
+    private static final BigInteger CURVE_ORDER = ECKey.CURVE.getN();
+
+    private static final AtomicLong NUMBER_OF_SIGNATURES = new AtomicLong();
+    private static final AtomicLong NUMBER_OF_NON_CANONICAL_SIGNATURES = new AtomicLong();
+
+    private final ECKey privateKey;
+    private final BigInteger privateKeyValue;
+    private final byte[] privateKeyBytes;
+    private final int headerOffset;
+
+    /**
+     * Create a new signer for the given <code>privateKey</code>.
+     *
+     * @param privateKey
+     *            The key to sign with.
+     * @throws IllegalArgumentException
+     *             If the given key does not contain a private key.
+     */
+    public CompactSigner(ECKey privateKey) {
+        if (privateKey == null || !privateKey.hasPrivKey()) {
+            throw new IllegalArgumentException("A private key is required to sign.");
+        }
+
+        this.privateKey = privateKey;
+        this.privateKeyValue = privateKey.getPrivKey();
+        this.privateKeyBytes = Utils.bigIntegerToBytes(privateKeyValue, 32);
+        this.headerOffset = HEADER_OFFSET + (privateKey.isCompressed() ? COMPRESSED_FLAG : 0);
+    }
+
+    /**
+     * Verify that the given compact signature is canonical, using the same
+     * rule as the Steem Nodes: Neither <code>r</code> nor <code>s</code> may
+     * be negative or start with an unnecessary zero byte in their DER
+     * encoding.
+     *
+     * @param signature
+     *            A compact signature.
+     * @return <code>true</code> if the signature is canonical.
+     */
+    public static boolean isCanonical(byte[] signature) {
+        return (signature[1] & 0x80) == 0 && !(signature[1] == 0 && (signature[2] & 0x80) == 0)
+                && (signature[33] & 0x80) == 0 && !(signature[33] == 0 && (signature[34] & 0x80) == 0);
+    }
+
+    /**
+     * Recover the public key that has created the given compact
+     * <code>signature</code> of the <code>messageHash</code>. As the
+     * signature has to be valid for the recovered key, this also verifies the
+     * signature.
+     *
+     * @param signature
+     *            A compact signature as created by {@link #sign(Sha256Hash)}.
+     * @param messageHash
+     *            The hash that has been signed.
+     * @return The public key or <code>null</code> if no key can be recovered
+     *         from the signature.
+     * @throws IllegalArgumentException
+     *             If the signature is not a compact signature.
+     */
+    public static ECKey recoverPublicKey(byte[] signature, Sha256Hash messageHash) {
+        if (signature == null || signature.length != 65) {
+            throw new IllegalArgumentException("A compact signature has to be 65 bytes long.");
+        }
+
+        int recoveryId = (signature[0] & 0xFF) - HEADER_OFFSET;
+        if (recoveryId < 0 || recoveryId > 7) {
+            throw new IllegalArgumentException("The header byte of the signature is invalid.");
+        }
+
+        boolean compressed = recoveryId >= COMPRESSED_FLAG;
+        if (compressed) {
+            recoveryId -= COMPRESSED_FLAG;
+        }
+
+        BigInteger r = new BigInteger(1, Arrays.copyOfRange(signature, 1, 33));
+        BigInteger s = new BigInteger(1, Arrays.copyOfRange(signature, 33, 65));
+
+        if (Secp256k1Engine.isEnabled()) {
+            ECPoint publicKey = Secp256k1Engine.recoverPublicKey(recoveryId, r, s, messageHash);
+            return publicKey == null ? null : ECKey.fromPublicOnly(publicKey.getEncoded(compressed));
+        } else if (r.signum() == 0 || s.signum() == 0) {
+            // bitcoinj rejects these values with an exception.
+            return null;
+        }
+
+        return ECKey.recoverFromSignature(recoveryId, new ECKey.ECDSASignature(r, s), messageHash, compressed);
+    }
+
+    /**
+     * Get the number of signatures that have been created by all signers.
+     *
+     * @return The number of signatures.
+     */
+    public static long getNumberOfSignatures() {
+        return NUMBER_OF_SIGNATURES.get();
+    }
+
+    /**
+     * Get the number of signatures created by all signers that have not been
+     * {@link #isCanonical(byte[]) canonical}. Together with
+     * {@link #getNumberOfSignatures()} this allows to monitor how often a
+     * transaction has to be signed again.
+     *
+     * @return The number of non canonical signatures.
+     */
+    public static long getNumberOfNonCanonicalSignatures() {
+        return NUMBER_OF_NON_CANONICAL_SIGNATURES.get();
+    }
+
+    /**
+     * Get the key this signer uses.
+     *
+     * @return The private key.
+     */
+    public ECKey getPrivateKey() {
+        return privateKey;
+    }
+
+    /**
+     * Sign the given <code>messageHash</code> using the first RFC6979 nonce.
+     * The signature is not necessarily canonical.
+     *
+     * @param messageHash
+     *            The hash to sign.
+     * @return The compact signature.
+     */
+    public byte[] sign(Sha256Hash messageHash) {
+        NonceGenerator nonceGenerator = new NonceGenerator(privateKeyBytes, messageHash.getBytes());
+
+        byte[] signature;
+        do {
+            signature = sign(messageHash, nonceGenerator.nextNonce());
+        } while (signature == null);
+
+        return signature;
+    }
+
+    /**
+     * Sign the given <code>messageHash</code> until the signature is
+     * canonical, using the next RFC6979 nonce for each attempt. Like the
+     * graphene implementation, the first nonce is skipped (its extra entropy
+     * counter starts at <code>1</code>), so the signatures are identical to
+     * the ones created by the cli_wallet.
+     *
+     * @param messageHash
+     *            The hash to sign.
+     * @return The canonical compact signature.
+     */
+    public byte[] signCanonical(Sha256Hash messageHash) {
+        NonceGenerator nonceGenerator = new NonceGenerator(privateKeyBytes, messageHash.getBytes());
+        nonceGenerator.nextNonce();
+
+        byte[] signature;
+        do {
+            signature = sign(messageHash, nonceGenerator.nextNonce());
+        } while (signature == null || !isCanonical(signature));
+
+        return signature;
+    }
+
+    /**
+     * Sign the given <code>messageHash</code> using the given
+     * <code>nonce</code>.
+     *
+     * @param messageHash
+     *            The hash to sign.
+     * @param nonce
+     *            The nonce to use.
+     * @return The compact signature or <code>null</code> if the nonce can not
+     *         be used.
+     */
+    private byte[] sign(Sha256Hash messageHash, byte[] nonce) {
+        BigInteger k = new BigInteger(1, nonce);
+        if (k.signum() == 0 || k.compareTo(CURVE_ORDER) >= 0) {
+            return null;
+        }
+
+        ECPoint point = Secp256k1Engine.multiplyGenerator(k);
+        BigInteger x = point.getAffineXCoord().toBigInteger();
+        BigInteger r = x.mod(CURVE_ORDER);
+        if (r.signum() == 0) {
+            return null;
+        }
+
+        BigInteger e = new BigInteger(1, messageHash.getBytes());
+        BigInteger s = k.modInverse(CURVE_ORDER).multiply(e.add(privateKeyValue.multiply(r))).mod(CURVE_ORDER);
+        if (s.signum() == 0) {
+            return null;
+        }
+
+        // Bit 0 stores the parity of y, bit 1 if x had to be reduced.
+        int recoveryId = (point.getAffineYCoord().toBigInteger().testBit(0) ? 1 : 0) | (x.equals(r) ? 0 : 2);
+        if (s.compareTo(ECKey.HALF_CURVE_ORDER) > 0) {
+            // Negating s is equivalent to using -R, which flips the parity of y.
+            s = CURVE_ORDER.subtract(s);
+            recoveryId ^= 1;
+        }
+
+        byte[] signature = new byte[65];
+        signature[0] = (byte) (headerOffset + recoveryId);
+        System.arraycopy(Utils.bigIntegerToBytes(r, 32), 0, signature, 1, 32);
+        System.arraycopy(Utils.bigIntegerToBytes(s, 32), 0, signature, 33, 32);
+
+        NUMBER_OF_SIGNATURES.incrementAndGet();
+        if (!isCanonical(signature)) {
+            NUMBER_OF_NON_CANONICAL_SIGNATURES.incrementAndGet();
+        }
+
+        return signature;
+    }
+
+    /**
+     * The HMAC-SHA256 based generator described in RFC6979, section 3.2. Each
+     * call of {@link #nextNonce()} returns the next candidate of the sequence
+     * (step h), as the secp256k1 library does for an increased counter.
+     */
+    private static class NonceGenerator {
+        private final HMac hMac = new HMac(new SHA256Digest());
+        private final byte[] k = new byte[32];
+        private final byte[] v = new byte[32];
+        private boolean retry;
+
+        /**
+         * Initialize the generator (steps b to g).
+         *
+         * @param privateKeyBytes
+         *            The private key as 32 bytes.
+         * @param message
+         *            The hash to sign.
+         */
+        NonceGenerator(byte[] privateKeyBytes, byte[] message) {
+            Arrays.fill(v, (byte) 0x01);
+            Arrays.fill(k, (byte) 0x00);
+
+            update(k, v, new byte[] { 0x00 }, privateKeyBytes, message);
+            update(v, v);
+            update(k, v, new byte[] { 0x01 }, privateKeyBytes, message);
+            update(v, v);
+        }
+
+        /**
+         * Get the next nonce candidate.
+         *
+         * @return The nonce as 32 bytes.
+         */
+        byte[] nextNonce() {
+            if (retry) {
+                update(k, v, new byte[] { 0x00 });
+                update(v, v);
+            }
+
+            retry = true;
+            update(v, v);
+            return Arrays.copyOf(v, v.length);
+        }
+
+        /**
+         * Calculate the HMAC of the given <code>parts</code> using the current
+         * <code>k</code> and store it in <code>target</code>.
+         *
+         * @param target
+         *            The array to store the result in.
+         * @param parts
+         *            The data to authenticate.
+         */
+        private void update(byte[] target, byte[]... parts) {
+            hMac.init(new KeyParameter(k));
+            for (byte[] part : parts) {
+                hMac.update(part, 0, part.length);
+            }
+            hMac.doFinal(target, 0);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package eu.bittrade.libs.steemj.util;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * This class contains several utility methods to work with the futures
+ * returned by the asynchronous SteemJ API.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class FutureUtils {
+    /** Add a private constructor to hide the implicit public one. */
+    private FutureUtils() {
+    }
+
+    /**
+     * Get a future that completes with the first element of the list the given
+     * <code>results</code> future completes with. This is the asynchronous
+     * counterpart of the <code>performRequest(...).get(0)</code> pattern.
+     *
+     * @param results
+     *            The future to take the first result from.
+     * @param <T>
+     *            The type of the result.
+     * @return A future that completes with the first result.
+     */
+    public static <T> CompletableFuture<T> getFirstResult(CompletableFuture<List<T>> results) {
+        return results.thenApply(new Function<List<T>, T>() {
+            @Override
+            public T apply(List<T> result) {
+                return result.get(0);
+            }
+        });
+    }
+
+    /**
+     * Wait for the given <code>future</code> to complete and return its
+     * result. If the future completed exceptionally, the original
+     * {@link SteemCommunicationException} is thrown again so that the caller
+     * can handle it like a synchronous SteemJ call.
+     *
+     * @param future
+     *            The future to wait for.
+     * @param <T>
+     *            The type of the result.
+     * @return The result of the future.
+     * @throws SteemCommunicationException
+     *             If the future completed with a
+     *             {@link SteemCommunicationException} or any other error.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SteemCommunicationException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteemCommunicationException("Interrupted while waiting for the Steem Node.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SteemCommunicationException) {
+                throw (SteemCommunicationException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new SteemCommunicationException("Could not receive a response from the Steem Node.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package eu.bittrade.libs.steemj.util;
+
+import java.math.BigInteger;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Sha256Hash;
+import org.spongycastle.asn1.x9.X9IntegerConverter;
+import org.spongycastle.math.ec.ECAlgorithms;
+import org.spongycastle.math.ec.ECMultiplier;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
+import org.spongycastle.math.ec.custom.sec.SecP256K1Curve;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+
+/**
+ * This class bundles the elliptic curve operations SteemJ needs to sign and
+ * verify transactions, tuned for the secp256k1 curve.
+ *
+ * <p>
+ * All calculations use the secp256k1 implementation of the used crypto
+ * library, which works in Jacobian coordinates and uses a field arithmetic
+ * specialized for the secp256k1 prime. On top of that:
+ * <ul>
+ * <li>Multiplications of the generator use a fixed-base comb with a
+ * {@value #GENERATOR_COMB_WIDTH} bit wide, precomputed table (256 points)
+ * instead of the default 5 bit wide one, which needs about a third less point
+ * operations.</li>
+ * <li>Verifications and public key recoveries calculate
+ * <code>u1 * G + u2 * Q</code> in one pass using interleaved wNAF and the GLV
+ * endomorphism of the curve. The wNAF table of a public key is kept with its
+ * {@link ECPoint}, so verifying several signatures of the same
+ * <code>ECPoint</code> instance only calculates it once.</li>
+ * </ul>
+ * The results are bit-identical to the ones of bitcoinj.
+ * </p>
+ *
+ * <p>
+ * The comb table is only precomputed if the engine is enabled using
+ * {@link SteemJConfig#setFastSignatureEngineEnabled(boolean)}.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class Secp256k1Engine {
+    /** The width of the comb used for multiplications of the generator. */
+    private static final int GENERATOR_COMB_WIDTH = 8;
+
+    private static final BigInteger CURVE_ORDER = ECKey.CURVE.getN();
+    private static final ECMultiplier DEFAULT_GENERATOR_MULTIPLIER = new FixedPointCombMultiplier();
+    private static final ECMultiplier WIDE_GENERATOR_MULTIPLIER = new FixedPointCombMultiplier() {
+        @Override
+        protected int getWidthForCombSize(int combSize) {
+            return GENERATOR_COMB_WIDTH;
+        }
+    };
+
+    /** Add a private constructor to hide the implicit public one. */
+    private Secp256k1Engine() {
+    }
+
+    /**
+     * Check if the engine has been enabled in the {@link SteemJConfig}.
+     *
+     * @return <code>true</code> if the engine is enabled.
+     */
+    public static boolean isEnabled() {
+        return SteemJConfig.getInstance().isFastSignatureEngineEnabled();
+    }
+
+    /**
+     * Multiply the generator of the curve by <code>k</code>. If the engine is
+     * {@link #isEnabled() enabled}, the wide comb table is used.
+     *
+     * @param k
+     *            The scalar to multiply with.
+     * @return The normalized result.
+     */
+    public static ECPoint multiplyGenerator(BigInteger k) {
+        ECMultiplier multiplier = isEnabled() ? WIDE_GENERATOR_MULTIPLIER : DEFAULT_GENERATOR_MULTIPLIER;
+        return multiplier.multiply(ECKey.CURVE.getG(), k).normalize();
+    }
+
+    /**
+     * Verify that the signature (<code>r</code>, <code>s</code>) of the given
+     * <code>messageHash</code> has been created by the private key of the
+     * given <code>publicKey</code>.
+     *
+     * @param messageHash
+     *            The hash that has been signed.
+     * @param r
+     *            The r value of the signature.
+     * @param s
+     *            The s value of the signature.
+     * @param publicKey
+     *            The public key to verify the signature with. Reuse the same
+     *            instance to benefit from its cached wNAF table.
+     * @return <code>true</code> if the signature is valid.
+     */
+    public static boolean verify(Sha256Hash messageHash, BigInteger r, BigInteger s, ECPoint publicKey) {
+        if (!isValidScalar(r) || !isValidScalar(s)) {
+            return false;
+        }
+
+        BigInteger e = new BigInteger(1, messageHash.getBytes());
+        BigInteger w = s.modInverse(CURVE_ORDER);
+
+        ECPoint point = ECAlgorithms
+                .sumOfTwoMultiplies(ECKey.CURVE.getG(), e.multiply(w).mod(CURVE_ORDER), publicKey,
+                        r.multiply(w).mod(CURVE_ORDER))
+                .normalize();
+
+        return !point.isInfinity() && point.getAffineXCoord().toBigInteger().mod(CURVE_ORDER).equals(r);
+    }
+
+    /**
+     * Recover the public key that has been used to create the signature
+     * (<code>r</code>, <code>s</code>) of the given <code>messageHash</code>.
+     * This is the same calculation as
+     * {@link ECKey#recoverFromSignature(int, ECKey.ECDSASignature, Sha256Hash, boolean)},
+     * but does not create intermediate key objects.
+     *
+     * @param recoveryId
+     *            The recovery id (0 to 3).
+     * @param r
+     *            The r value of the signature.
+     * @param s
+     *            The s value of the signature.
+     * @param messageHash
+     *            The hash that has been signed.
+     * @return The normalized public key point or <code>null</code> if no key
+     *         can be recovered using the given <code>recoveryId</code>.
+     */
+    public static ECPoint recoverPublicKey(int recoveryId, BigInteger r, BigInteger s, Sha256Hash messageHash) {
+        if (recoveryId < 0 || recoveryId > 3 || !isValidScalar(r) || !isValidScalar(s)) {
+            return null;
+        }
+
+        BigInteger x = r.add(BigInteger.valueOf(recoveryId / 2).multiply(CURVE_ORDER));
+        if (x.compareTo(SecP256K1Curve.q) >= 0) {
+            return null;
+        }
+
+        ECPoint rPoint = decompressPoint(x, (recoveryId & 1) == 1);
+        BigInteger e = new BigInteger(1, messageHash.getBytes());
+        BigInteger rInverse = r.modInverse(CURVE_ORDER);
+
+        ECPoint publicKey = ECAlgorithms.sumOfTwoMultiplies(ECKey.CURVE.getG(),
+                CURVE_ORDER.subtract(e).mod(CURVE_ORDER).multiply(rInverse).mod(CURVE_ORDER), rPoint,
+                rInverse.multiply(s).mod(CURVE_ORDER)).normalize();
+
+        return publicKey.isInfinity() ? null : publicKey;
+    }
+
+    /**
+     * Find the point with the given <code>x</code> coordinate.
+     *
+     * @param x
+     *            The x coordinate.
+     * @param yBit
+     *            <code>true</code> if the y coordinate is odd.
+     * @return The point.
+     */
+    private static ECPoint decompressPoint(BigInteger x, boolean yBit) {
+        X9IntegerConverter x9 = new X9IntegerConverter();
+        byte[] compEnc = x9.integerToBytes(x, 1 + x9.getByteLength(ECKey.CURVE.getCurve()));
+        compEnc[0] = (byte) (yBit ? 0x03 : 0x02);
+        return ECKey.CURVE.getCurve().decodePoint(compEnc);
+    }
+
+    /**
+     * Check that the given <code>value</code> is between 1 and the curve
+     * order.
+     *
+     * @param value
+     *            The value to check.
+     * @return <code>true</code> if the value is valid.
+     */
+    private static boolean isValidScalar(BigInteger value) {
+        return value.signum() > 0 && value.compareTo(CURVE_ORDER) < 0;
+    }
+}
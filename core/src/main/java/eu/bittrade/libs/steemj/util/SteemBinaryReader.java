@@ -0,0 +1,219 @@
+package eu.bittrade.libs.steemj.util;
+
+import java.util.Arrays;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+
+/**
+ * This class reads the binary representation of Steem objects as created by
+ * the {@link SteemBinaryWriter}.
+ *
+ * <p>
+ * All values are read in the little endian byte order. Reading beyond the end
+ * of the given bytes results in a {@link SteemInvalidTransactionException}.
+ * </p>
+ *
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class SteemBinaryReader {
+    private final byte[] buffer;
+    private int position;
+
+    /**
+     * Create a new reader for the given <code>bytes</code>.
+     *
+     * @param bytes
+     *            The bytes to read.
+     */
+    public SteemBinaryReader(byte[] bytes) {
+        this.buffer = bytes;
+        this.position = 0;
+    }
+
+    /**
+     * Make sure that at least <code>length</code> bytes are left.
+     *
+     * @param length
+     *            The number of bytes that will be read.
+     * @throws SteemInvalidTransactionException
+     *             If less bytes are left.
+     */
+    private void require(long length) throws SteemInvalidTransactionException {
+        if (length < 0 || length > buffer.length - position) {
+            throw new SteemInvalidTransactionException("Unexpected end of data at position " + position + ".");
+        }
+    }
+
+    /**
+     * Read a single unsigned byte.
+     *
+     * @return The byte value between 0 and 255.
+     * @throws SteemInvalidTransactionException
+     *             If there are no bytes left.
+     */
+    public int readByte() throws SteemInvalidTransactionException {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Read the given number of bytes as they are.
+     *
+     * @param length
+     *            The number of bytes to read.
+     * @return The bytes.
+     * @throws SteemInvalidTransactionException
+     *             If less bytes are left.
+     */
+    public byte[] readBytes(int length) throws SteemInvalidTransactionException {
+        require(length);
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    /**
+     * Read a boolean value stored as a single byte.
+     *
+     * @return The value.
+     * @throws SteemInvalidTransactionException
+     *             If there are no bytes left.
+     */
+    public boolean readBoolean() throws SteemInvalidTransactionException {
+        return readByte() != 0;
+    }
+
+    /**
+     * Read an unsigned 16 bit value in little endian byte order.
+     *
+     * @return The value between 0 and 65535.
+     * @throws SteemInvalidTransactionException
+     *             If less than 2 bytes are left.
+     */
+    public int readShort() throws SteemInvalidTransactionException {
+        require(2);
+        int value = (buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8;
+        position += 2;
+        return value;
+    }
+
+    /**
+     * Read an int value in little endian byte order.
+     *
+     * @return The value.
+     * @throws SteemInvalidTransactionException
+     *             If less than 4 bytes are left.
+     */
+    public int readInt() throws SteemInvalidTransactionException {
+        require(4);
+        int value = (buffer[position] & 0xFF) | (buffer[position + 1] & 0xFF) << 8
+                | (buffer[position + 2] & 0xFF) << 16 | (buffer[position + 3] & 0xFF) << 24;
+        position += 4;
+        return value;
+    }
+
+    /**
+     * Read an unsigned 32 bit value in little endian byte order.
+     *
+     * @return The value.
+     * @throws SteemInvalidTransactionException
+     *             If less than 4 bytes are left.
+     */
+    public long readUnsignedInt() throws SteemInvalidTransactionException {
+        return readInt() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Read a long value in little endian byte order.
+     *
+     * @return The value.
+     * @throws SteemInvalidTransactionException
+     *             If less than 8 bytes are left.
+     */
+    public long readLong() throws SteemInvalidTransactionException {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value |= (buffer[position++] & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+
+    /**
+     * Read an unsigned VarInt.
+     *
+     * @return The value.
+     * @throws SteemInvalidTransactionException
+     *             If the VarInt is incomplete or longer than 64 bits.
+     */
+    public long readVarLong() throws SteemInvalidTransactionException {
+        long value = 0;
+        int currentByte;
+        int shift = 0;
+
+        do {
+            if (shift >= 64) {
+                throw new SteemInvalidTransactionException("VarInt at position " + position + " is too long.");
+            }
+
+            currentByte = readByte();
+            value |= (long) (currentByte & 0x7F) << shift;
+            shift += 7;
+        } while ((currentByte & 0x80) != 0);
+
+        return value;
+    }
+
+    /**
+     * Read an unsigned VarInt that is used as a length or a type id, which
+     * have to fit into an int.
+     *
+     * @return The value.
+     * @throws SteemInvalidTransactionException
+     *             If the VarInt is incomplete or does not fit into an int.
+     */
+    public int readVarInt() throws SteemInvalidTransactionException {
+        long value = readVarLong();
+        // A VarInt of ten bytes can set the sign bit of the long.
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new SteemInvalidTransactionException("The value " + value + " does not fit into an int.");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Read a String prefixed by its length as VarInt, using the configured
+     * {@link SteemJConfig#getEncodingCharset() encodingCharset}.
+     *
+     * @return The String.
+     * @throws SteemInvalidTransactionException
+     *             If the String is incomplete.
+     */
+    public String readString() throws SteemInvalidTransactionException {
+        return new String(readBytes(readVarInt()), SteemJConfig.getInstance().getEncodingCharset());
+    }
+
+    /**
+     * Get the number of bytes that have not been read yet.
+     *
+     * @return The number of bytes.
+     */
+    public int remaining() {
+        return buffer.length - position;
+    }
+
+    /**
+     * Get the position of the next byte to read.
+     *
+     * @return The position.
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,358 @@
+package eu.bittrade.libs.steemj.util;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.interfaces.ByteTransformable;
+
+/**
+ * This class is used to create the binary representation of Steem objects as
+ * expected by the Steem Nodes.
+ *
+ * <p>
+ * All values are written into one growable buffer using the little endian
+ * byte order, so serializing a whole transaction only requires to fill this
+ * buffer instead of creating small arrays for each value. A writer can be
+ * {@link #reset() reset} and reused for the next object.
+ * </p>
+ *
+ * <p>
+ * A writer created for a {@link MessageDigest} does not keep the written bytes.
+ * Instead, its buffer is passed to the digest whenever it is full, so the hash
+ * of an object can be calculated without creating its binary representation
+ * first.
+ * </p>
+ *
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class SteemBinaryWriter {
+    private static final int DEFAULT_CAPACITY = 256;
+    /** Writers with a larger buffer are not kept for the next use. */
+    private static final int MAXIMUM_CACHED_CAPACITY = 64 * 1024;
+
+    /** One writer per thread used by {@link #toByteArray(ByteTransformable)}. */
+    private static final ThreadLocal<SteemBinaryWriter> CACHED_WRITER = new ThreadLocal<>();
+
+    private final MessageDigest digest;
+    private byte[] buffer;
+    private int size;
+    /** The number of bytes that have already been passed to the digest. */
+    private long digestedBytes;
+
+    /**
+     * Create a new writer with the default capacity.
+     */
+    public SteemBinaryWriter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new writer with the given initial <code>capacity</code>. The
+     * buffer will grow if more bytes are written.
+     *
+     * @param capacity
+     *            The initial capacity in bytes.
+     */
+    public SteemBinaryWriter(int capacity) {
+        this.buffer = new byte[Math.max(capacity, 16)];
+        this.digest = null;
+    }
+
+    /**
+     * Create a new writer that passes all written bytes to the given
+     * <code>digest</code> instead of keeping them. Use {@link #digest()} to get
+     * the result.
+     *
+     * @param digest
+     *            The digest to update.
+     */
+    public SteemBinaryWriter(MessageDigest digest) {
+        this.buffer = new byte[DEFAULT_CAPACITY];
+        this.digest = digest;
+    }
+
+    /**
+     * Get the binary representation of the given <code>byteTransformable</code>
+     * using a writer that is reused by the current thread.
+     *
+     * @param byteTransformable
+     *            The object to transform.
+     * @return The binary representation of the object.
+     * @throws SteemInvalidTransactionException
+     *             If there was a problem while transforming the object.
+     */
+    public static byte[] toByteArray(ByteTransformable byteTransformable) throws SteemInvalidTransactionException {
+        SteemBinaryWriter writer = CACHED_WRITER.get();
+        if (writer == null) {
+            writer = new SteemBinaryWriter();
+        } else {
+            // Make sure that a nested call does not use the same writer.
+            CACHED_WRITER.remove();
+        }
+
+        try {
+            byteTransformable.writeTo(writer);
+            return writer.toByteArray();
+        } finally {
+            if (writer.buffer.length <= MAXIMUM_CACHED_CAPACITY) {
+                writer.reset();
+                CACHED_WRITER.set(writer);
+            }
+        }
+    }
+
+    /**
+     * Make sure that at least <code>additionalBytes</code> can be written
+     * without exceeding the buffer.
+     *
+     * @param additionalBytes
+     *            The number of bytes that will be written.
+     */
+    private void ensureCapacity(int additionalBytes) {
+        if (digest != null && size + additionalBytes > buffer.length) {
+            flush();
+        }
+
+        if (size + additionalBytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additionalBytes));
+        }
+    }
+
+    /**
+     * Pass the buffered bytes to the digest.
+     */
+    private void flush() {
+        digest.update(buffer, 0, size);
+        digestedBytes += size;
+        size = 0;
+    }
+
+    /**
+     * Write a single byte.
+     *
+     * @param byteValue
+     *            The byte to write. Only the lower 8 bits are used.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeByte(int byteValue) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) byteValue;
+        return this;
+    }
+
+    /**
+     * Write the given <code>bytes</code> as they are.
+     *
+     * @param bytes
+     *            The bytes to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter write(byte[] bytes) {
+        return write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Write <code>length</code> bytes of the given <code>bytes</code>, starting
+     * at <code>offset</code>.
+     *
+     * @param bytes
+     *            The bytes to write.
+     * @param offset
+     *            The position of the first byte to write.
+     * @param length
+     *            The number of bytes to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter write(byte[] bytes, int offset, int length) {
+        if (digest != null && length >= buffer.length) {
+            // There is no need to copy large arrays into the buffer first.
+            flush();
+            digest.update(bytes, offset, length);
+            digestedBytes += length;
+            return this;
+        }
+
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+        return this;
+    }
+
+    /**
+     * Write a boolean value as a single byte.
+     *
+     * @param boolValue
+     *            The value to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeBoolean(boolean boolValue) {
+        return writeByte(boolValue ? 1 : 0);
+    }
+
+    /**
+     * Write the lower 16 bits of the given value in little endian byte order.
+     *
+     * @param shortValue
+     *            The value to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeShort(int shortValue) {
+        ensureCapacity(2);
+        buffer[size++] = (byte) shortValue;
+        buffer[size++] = (byte) (shortValue >>> 8);
+        return this;
+    }
+
+    /**
+     * Write an int value in little endian byte order.
+     *
+     * @param intValue
+     *            The value to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeInt(int intValue) {
+        ensureCapacity(4);
+        buffer[size++] = (byte) intValue;
+        buffer[size++] = (byte) (intValue >>> 8);
+        buffer[size++] = (byte) (intValue >>> 16);
+        buffer[size++] = (byte) (intValue >>> 24);
+        return this;
+    }
+
+    /**
+     * Write a long value in little endian byte order.
+     *
+     * @param longValue
+     *            The value to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeLong(long longValue) {
+        ensureCapacity(8);
+        for (int i = 0; i < 8; i++) {
+            buffer[size++] = (byte) (longValue >>> (8 * i));
+        }
+        return this;
+    }
+
+    /**
+     * Write an int value as an unsigned VarInt.
+     *
+     * @param intValue
+     *            The value to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeVarInt(int intValue) {
+        ensureCapacity(5);
+
+        int value = intValue;
+        while ((value & 0xFFFFFF80) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[size++] = (byte) (value & 0x7F);
+        return this;
+    }
+
+    /**
+     * Write a long value as an unsigned VarInt.
+     *
+     * @param longValue
+     *            The value to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeVarLong(long longValue) {
+        ensureCapacity(10);
+
+        long value = longValue;
+        while ((value & 0xFFFFFFFFFFFFFF80L) != 0L) {
+            buffer[size++] = (byte) (((int) value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[size++] = (byte) ((int) value & 0x7F);
+        return this;
+    }
+
+    /**
+     * Write a String prefixed by its length as VarInt, using the configured
+     * {@link SteemJConfig#getEncodingCharset() encodingCharset}. Nothing is
+     * written for <code>null</code>.
+     *
+     * @param string
+     *            The String to write.
+     * @return This writer.
+     */
+    public SteemBinaryWriter writeString(String string) {
+        if (string == null) {
+            return this;
+        }
+
+        byte[] stringAsByteArray = string.getBytes(SteemJConfig.getInstance().getEncodingCharset());
+
+        writeVarLong(stringAsByteArray.length);
+        return write(stringAsByteArray);
+    }
+
+    /**
+     * Get the number of bytes that have been written.
+     *
+     * @return The number of bytes.
+     */
+    public int size() {
+        return (int) (digestedBytes + size);
+    }
+
+    /**
+     * Forget all bytes that have been written, so the writer can be reused.
+     * The buffer is kept.
+     */
+    public void reset() {
+        size = 0;
+        digestedBytes = 0;
+        if (digest != null) {
+            digest.reset();
+        }
+    }
+
+    /**
+     * Get a copy of all bytes that have been written.
+     *
+     * @return The written bytes.
+     * @throws IllegalStateException
+     *             If this writer has been created for a {@link MessageDigest}.
+     */
+    public byte[] toByteArray() {
+        if (digest != null) {
+            throw new IllegalStateException("A writer created for a digest does not keep the written bytes.");
+        }
+
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * Complete the hash calculation of all bytes that have been written and
+     * {@link #reset() reset} this writer.
+     *
+     * @return The resulting hash.
+     * @throws IllegalStateException
+     *             If this writer has not been created for a
+     *             {@link MessageDigest}.
+     */
+    public byte[] digest() {
+        if (digest == null) {
+            throw new IllegalStateException("This writer has not been created for a digest.");
+        }
+
+        flush();
+        byte[] hash = digest.digest();
+        reset();
+        return hash;
+    }
+}
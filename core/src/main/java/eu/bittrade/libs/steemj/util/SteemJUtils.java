@@ -19,6 +19,7 @@ import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Utils;
 import org.bitcoinj.core.VarInt;
+import org.spongycastle.math.ec.ECPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -144,7 +145,7 @@ public class SteemJUtils {
                 value >>>= 7;
             }
 
-            out.writeByte(intValue & 0x7F);
+            out.writeByte(value & 0x7F);
 
             return byteArrayOutputStream.toByteArray();
         } catch (IOException e) {
@@ -287,10 +288,18 @@ public class SteemJUtils {
      */
     public static int getKeyType(ECDSASignature signature, Sha256Hash messageAsHash, ECKey requiredPrivateKey) {
         Integer recId = null;
+        boolean useEngine = Secp256k1Engine.isEnabled();
         for (int i = 0; i < 4; i++) {
-            ECKey publicKey = ECKey.recoverFromSignature(i, signature, messageAsHash,
-                    requiredPrivateKey.isCompressed());
-            if (publicKey != null && publicKey.getPubKeyPoint().equals(requiredPrivateKey.getPubKeyPoint())) {
+            ECPoint publicKey;
+            if (useEngine) {
+                publicKey = Secp256k1Engine.recoverPublicKey(i, signature.r, signature.s, messageAsHash);
+            } else {
+                ECKey recoveredKey = ECKey.recoverFromSignature(i, signature, messageAsHash,
+                        requiredPrivateKey.isCompressed());
+                publicKey = recoveredKey == null ? null : recoveredKey.getPubKeyPoint();
+            }
+
+            if (publicKey != null && publicKey.equals(requiredPrivateKey.getPubKeyPoint())) {
                 recId = i;
                 break;
             }
@@ -133,6 +133,16 @@ public class SteemJIT extends BaseIntegrationTest {
         assertThat(hardforkVersionVoteExtension, instanceOf(HardforkVersionVote.class));
     }
 
+    @Category({ IntegrationTest.class })
+    @Test
+    public void testGetBlocks() throws Exception {
+        final List<SignedBlockWithInfo> signedBlocksWithInfo = steemJ.getBlocks(13310400L, 13310402L);
+
+        assertThat(signedBlocksWithInfo.size(), equalTo(3));
+        assertThat(signedBlocksWithInfo.get(1).getTimestamp().getDateTime(), equalTo("2017-07-01T19:24:42"));
+        assertThat(signedBlocksWithInfo.get(1).getWitness(), equalTo("riverhead"));
+    }
+
     @Category({ IntegrationTest.class })
     @Test
     public void testGetBlockHeader() throws Exception {
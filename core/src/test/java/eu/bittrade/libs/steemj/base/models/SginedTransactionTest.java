@@ -2,13 +2,17 @@ package eu.bittrade.libs.steemj.base.models;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.fail;
 
 import java.io.UnsupportedEncodingException;
+import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Arrays;
 
+import org.bitcoinj.core.ECKey;
 import org.bitcoinj.core.Sha256Hash;
 import org.bitcoinj.core.Utils;
+import org.joou.UShort;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -18,8 +22,10 @@ import eu.bittrade.libs.steemj.base.models.operations.CustomJsonOperation;
 import eu.bittrade.libs.steemj.base.models.operations.Operation;
 import eu.bittrade.libs.steemj.base.models.operations.VoteOperation;
 import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.CanonicalRetryMode;
 import eu.bittrade.libs.steemj.enums.PrivateKeyType;
 import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.util.CompactSigner;
 
 /**
  * Test the transaction object.
@@ -87,6 +93,171 @@ public class SginedTransactionTest extends BaseTransactionalUnitTest {
                 equalTo(EXPECTED_HASH));
     }
 
+    /**
+     * Test that the digest is calculated without creating the byte
+     * representation and that it is recalculated after a change.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testDigest() throws Exception {
+        final String EXPECTED_HASH = "2581eb832809ca62a75871c72c275e32b5d2c320a761412a1158f52798530490";
+
+        ArrayList<Operation> operations = new ArrayList<>();
+        operations.add(voteOperation);
+
+        signedTransaction.setOperations(operations);
+
+        String chainId = SteemJConfig.getInstance().getChainId();
+        Sha256Hash digest = signedTransaction.getDigest(chainId);
+        assertThat(digest.toString(), equalTo(EXPECTED_HASH));
+
+        UShort refBlockNum = signedTransaction.getRefBlockNum();
+        try {
+            signedTransaction.setRefBlockNum(UShort.valueOf(refBlockNum.intValue() + 1));
+            assertThat(signedTransaction.getDigest(chainId),
+                    equalTo(Sha256Hash.wrap(Sha256Hash.hash(signedTransaction.toByteArray(chainId)))));
+            assertThat(signedTransaction.getDigest(chainId).toString().equals(EXPECTED_HASH), equalTo(false));
+        } finally {
+            signedTransaction.setRefBlockNum(refBlockNum);
+        }
+    }
+
+    /**
+     * Test that an operation changed in place after the digest has been
+     * calculated is part of the next digest and is validated again.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testDigestAfterOperationChanged() throws Exception {
+        VoteOperation changedVoteOperation = new VoteOperation(new AccountName("xeroc"), new AccountName("xeroc"),
+                new Permlink("piston"), (short) 10000);
+        SignedTransaction transaction = new SignedTransaction(signedTransaction.getRefBlockNum(),
+                signedTransaction.getRefBlockPrefix(), signedTransaction.getExpirationDate(),
+                new ArrayList<Operation>(Arrays.asList((Operation) changedVoteOperation)), null);
+
+        String chainId = SteemJConfig.getInstance().getChainId();
+        Sha256Hash digest = transaction.getDigest(chainId);
+
+        changedVoteOperation.setWeight((short) 5000);
+        assertThat(transaction.getDigest(chainId).equals(digest), equalTo(false));
+        assertThat(transaction.getDigest(chainId),
+                equalTo(Sha256Hash.wrap(Sha256Hash.hash(transaction.toByteArray(chainId)))));
+
+        changedVoteOperation.setWeight((short) 20000);
+        try {
+            transaction.getDigest(chainId);
+            fail("The changed operation should have been validated.");
+        } catch (InvalidParameterException e) {
+            assertThat(e.getMessage().contains("10000"), equalTo(true));
+        }
+    }
+
+    /**
+     * Test that a transaction whose operations have been skipped while it has
+     * been parsed can neither be serialized nor verified, as the skipped
+     * operations are part of the signed data.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testTransactionWithSkippedOperations() throws Exception {
+        SignedTransaction transaction = new SignedTransaction(signedTransaction.getRefBlockNum(),
+                signedTransaction.getRefBlockPrefix(), signedTransaction.getExpirationDate(),
+                new ArrayList<>(Arrays.asList(null, (Operation) voteOperation)), null);
+        transaction.getSignatures().add("1f");
+
+        assertThat(transaction.hasSkippedOperations(), equalTo(true));
+        assertThat(signedTransaction.hasSkippedOperations(), equalTo(false));
+
+        try {
+            transaction.toByteArray();
+            fail("A transaction with skipped operations should not be serialized.");
+        } catch (SteemInvalidTransactionException e) {
+            assertThat(transaction.getOperations().get(1), equalTo((Operation) voteOperation));
+        }
+
+        try {
+            transaction.getSignatureKeys();
+            fail("A transaction with skipped operations should not be verified.");
+        } catch (SteemInvalidTransactionException e) {
+            assertThat(transaction.getOperations().size(), equalTo(2));
+        }
+
+        try {
+            transaction.validate();
+            fail("A transaction with skipped operations should not be signed.");
+        } catch (SteemInvalidTransactionException e) {
+            assertThat(transaction.getSignatures().size(), equalTo(1));
+        }
+    }
+
+    /**
+     * Test that the extra entropy mode signs without changing the expiration
+     * date.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testSignWithExtraEntropy() throws Exception {
+        SignedTransaction transaction = new SignedTransaction();
+        transaction.setExpirationDate(new TimePointSec(EXPIRATION_DATE));
+        transaction.setRefBlockNum(REF_BLOCK_NUM);
+        transaction.setRefBlockPrefix(REF_BLOCK_PREFIX);
+        transaction.setOperations(new ArrayList<Operation>(Arrays.asList(voteOperation)));
+
+        SteemJConfig.getInstance().setCanonicalRetryMode(CanonicalRetryMode.EXTRA_ENTROPY);
+        try {
+            transaction.sign(true);
+        } finally {
+            SteemJConfig.getInstance().setCanonicalRetryMode(CanonicalRetryMode.EXPIRATION_DATE);
+        }
+
+        assertThat(transaction.getExpirationDate().getDateTimeAsTimestamp(),
+                equalTo(new TimePointSec(EXPIRATION_DATE).getDateTimeAsTimestamp()));
+        assertThat(transaction.getSignatures().size(), equalTo(1));
+        assertThat(CompactSigner.isCanonical(Utils.HEX.decode(transaction.getSignatures().get(0))), equalTo(true));
+    }
+
+    /**
+     * Test that the keys that have signed a transaction are recovered locally
+     * and that a changed transaction or a broken signature is detected.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testGetSignatureKeys() throws Exception {
+        SignedTransaction transaction = new SignedTransaction();
+        transaction.setExpirationDate(new TimePointSec(EXPIRATION_DATE));
+        transaction.setRefBlockNum(REF_BLOCK_NUM);
+        transaction.setRefBlockPrefix(REF_BLOCK_PREFIX);
+        transaction.setOperations(new ArrayList<Operation>(Arrays.asList(voteOperation)));
+        transaction.sign(true);
+
+        ECKey privateKey = SteemJConfig.getInstance().getPrivateKeyStorage().getKeyForAccount(PrivateKeyType.POSTING,
+                new AccountName("xeroc"));
+        PublicKey expectedKey = new PublicKey(ECKey.fromPublicOnly(privateKey.getPubKey()));
+
+        assertThat(transaction.getSignatureKeys(), equalTo(Arrays.asList(expectedKey)));
+
+        transaction.setRefBlockNum(UShort.valueOf(REF_BLOCK_NUM.intValue() + 1));
+        assertThat(transaction.getSignatureKeys().get(0).equals(expectedKey), equalTo(false));
+
+        transaction.getSignatures().set(0, "00" + transaction.getSignatures().get(0).substring(2));
+        try {
+            transaction.getSignatureKeys();
+            fail("A signature with an invalid header has been accepted.");
+        } catch (SteemInvalidTransactionException e) {
+            // Expected.
+        }
+    }
+
     /**
      * Test if the required authorities are collected correctly.
      * 
@@ -168,4 +339,20 @@ public class SginedTransactionTest extends BaseTransactionalUnitTest {
         assertThat(Utils.HEX.encode(Sha256Hash.wrap(Sha256Hash.hash(signedTransaction.toByteArray())).getBytes()),
                 equalTo(EXPECTED_HASH));
     }
+
+    /**
+     * Test that only the lower 16 bits of the block number are used as the
+     * reference block number of a transaction.
+     */
+    @Test
+    public void testReferenceBlockAboveUShortRange() {
+        int blockNumber = 13138393;
+        BlockId blockId = new BlockId(String.format("%08x", blockNumber) + "00000000000000000000000000000000");
+
+        SignedTransaction signedTransaction = new SignedTransaction(blockId,
+                Arrays.asList((Operation) voteOperation), null);
+
+        assertThat(signedTransaction.getRefBlockNum(), equalTo(UShort.valueOf(blockNumber & 0xFFFF)));
+        assertThat(signedTransaction.getRefBlockPrefix().longValue(), equalTo(blockId.getHashValue()));
+    }
 }
@@ -0,0 +1,215 @@
+package eu.bittrade.libs.steemj.communication;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.base.models.BlockId;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.CallbackOverflowPolicy;
+
+/**
+ * Test the registration of callbacks at the {@link CallbackHub} and the
+ * asynchronous dispatching of notifications.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class CallbackHubTest {
+    /**
+     * A callback that remembers the received blocks. The first notification
+     * blocks until the test releases it, which simulates a slow callback.
+     */
+    private static class SlowCallback extends BlockAppliedCallback {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final CountDownLatch finished;
+        private final List<Integer> receivedBlocks = new ArrayList<>();
+
+        private SlowCallback(int expectedBlocks) {
+            this.finished = new CountDownLatch(expectedBlocks);
+        }
+
+        @Override
+        public void onNewBlock(SignedBlockHeader signedBlockHeader) {
+            started.countDown();
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            synchronized (receivedBlocks) {
+                receivedBlocks.add(signedBlockHeader.getPrevious().getNumberFromHash());
+            }
+            finished.countDown();
+
+            if (signedBlockHeader.getPrevious().getNumberFromHash() == 0) {
+                throw new IllegalStateException("A broken callback.");
+            }
+        }
+    }
+
+    /**
+     * Restore the default configuration.
+     */
+    @After
+    public void resetConfig() {
+        SteemJConfig.getInstance().setCallbackQueueCapacity(1000);
+        SteemJConfig.getInstance().setCallbackOverflowPolicy(CallbackOverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Test that callbacks can be found by their uuid and removed again.
+     */
+    @Test
+    public void testRegistration() {
+        CallbackHub callbackHub = new CallbackHub();
+        SlowCallback callback = new SlowCallback(0);
+
+        callbackHub.addCallback(callback);
+        assertThat(callbackHub.getCallbackByUuid(callback.getUuid()), sameInstance((BlockAppliedCallback) callback));
+
+        assertThat(callbackHub.removeCallback(callback), equalTo(true));
+        assertThat(callbackHub.removeCallback(callback), equalTo(false));
+        assertThat(callbackHub.getCallbackByUuid(callback.getUuid()), nullValue());
+        assertThat(callbackHub.dispatch(callback.getUuid(), createHeader(1)), equalTo(false));
+    }
+
+    /**
+     * Test that a connection listener is only called if the connection that
+     * carries its callback has been re-established.
+     */
+    @Test
+    public void testConnectionListener() {
+        CallbackHub callbackHub = new CallbackHub();
+        SlowCallback callback = new SlowCallback(0);
+        StubNodeConnection carrier = new StubNodeConnection("carrier");
+        StubNodeConnection other = new StubNodeConnection("other");
+        final List<String> calls = new ArrayList<>();
+        Runnable connectionListener = new Runnable() {
+            @Override
+            public void run() {
+                calls.add("reconnected");
+            }
+        };
+
+        callbackHub.addCallback(callback);
+        callbackHub.addConnectionListener(callback, connectionListener);
+
+        // The callback has not been registered at a Steem Node yet.
+        callbackHub.onConnectionOpened(carrier);
+        assertThat(calls.size(), equalTo(0));
+
+        callbackHub.onCallbackRegistered(callback.getUuid(), carrier);
+        callbackHub.onConnectionOpened(other);
+        assertThat(calls.size(), equalTo(0));
+
+        callbackHub.onConnectionOpened(carrier);
+        assertThat(calls.size(), equalTo(1));
+
+        assertThat(callbackHub.removeConnectionListener(connectionListener), equalTo(true));
+        callbackHub.onConnectionOpened(carrier);
+        assertThat(calls.size(), equalTo(1));
+    }
+
+    /**
+     * Test that a slow callback does not block the dispatching thread and
+     * that the oldest waiting notification is dropped if the queue is full.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testDropOldest() throws Exception {
+        assertThat(dispatchToSlowCallback(CallbackOverflowPolicy.DROP_OLDEST), equalTo(Arrays.asList(1, 3, 4)));
+    }
+
+    /**
+     * Test that the new notification is dropped if the queue is full.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testDropNewest() throws Exception {
+        assertThat(dispatchToSlowCallback(CallbackOverflowPolicy.DROP_NEWEST), equalTo(Arrays.asList(1, 2, 3)));
+    }
+
+    /**
+     * Test that an exception thrown by a callback does not stop the
+     * dispatcher.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testBrokenCallback() throws Exception {
+        CallbackHub callbackHub = new CallbackHub();
+        SlowCallback callback = new SlowCallback(2);
+        callback.released.countDown();
+        callbackHub.addCallback(callback);
+
+        callbackHub.dispatch(callback.getUuid(), createHeader(0));
+        callbackHub.dispatch(callback.getUuid(), createHeader(1));
+
+        assertThat(callback.finished.await(5, TimeUnit.SECONDS), equalTo(true));
+        assertThat(callback.receivedBlocks, equalTo(Arrays.asList(0, 1)));
+    }
+
+    /**
+     * Send four notifications to a slow callback using a queue capacity of
+     * two.
+     *
+     * @param overflowPolicy
+     *            The policy to use.
+     * @return The numbers of the blocks the callback has received.
+     * @throws Exception
+     *             If something went wrong.
+     */
+    private static List<Integer> dispatchToSlowCallback(CallbackOverflowPolicy overflowPolicy) throws Exception {
+        SteemJConfig.getInstance().setCallbackQueueCapacity(2);
+        SteemJConfig.getInstance().setCallbackOverflowPolicy(overflowPolicy);
+
+        CallbackHub callbackHub = new CallbackHub();
+        SlowCallback callback = new SlowCallback(3);
+        callbackHub.addCallback(callback);
+
+        callbackHub.dispatch(callback.getUuid(), createHeader(1));
+        assertThat(callback.started.await(5, TimeUnit.SECONDS), equalTo(true));
+        for (int blockNumber = 2; blockNumber <= 4; blockNumber++) {
+            assertThat(callbackHub.dispatch(callback.getUuid(), createHeader(blockNumber)), equalTo(true));
+        }
+
+        assertThat(callbackHub.getNumberOfDroppedNotifications(), equalTo(1L));
+
+        callback.released.countDown();
+        assertThat(callback.finished.await(5, TimeUnit.SECONDS), equalTo(true));
+
+        return callback.receivedBlocks;
+    }
+
+    /**
+     * Create a block header whose previous block has the given number.
+     *
+     * @param previousBlockNumber
+     *            The number of the previous block.
+     * @return The block header.
+     */
+    private static SignedBlockHeader createHeader(int previousBlockNumber) {
+        SignedBlockHeader signedBlockHeader = new SignedBlockHeader();
+        signedBlockHeader
+                .setPrevious(new BlockId(String.format("%08x", previousBlockNumber) + "00000000000000000000000000000000"));
+        return signedBlockHeader;
+    }
+}
@@ -0,0 +1,465 @@
+package eu.bittrade.libs.steemj.communication;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.AppliedOperation;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.base.models.operations.CommentOperation;
+import eu.bittrade.libs.steemj.base.models.operations.CustomJsonOperation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferOperation;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.LoadBalancingPolicy;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.enums.SteemApis;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemResponseError;
+import eu.bittrade.libs.steemj.exceptions.SteemTransformationException;
+
+/**
+ * This class tests the transformation of raw responses.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class CommunicationHandlerTest {
+    private static final double HEDGING_PERCENTILE = 95;
+
+    private LoadBalancingPolicy loadBalancingPolicy;
+    private double hedgingPercentile;
+
+    /**
+     * Remember the configuration changed by the tests.
+     */
+    @Before
+    public void setUp() {
+        loadBalancingPolicy = SteemJConfig.getInstance().getLoadBalancingPolicy();
+        hedgingPercentile = SteemJConfig.getInstance().getHedgingPercentile();
+    }
+
+    /**
+     * Restore the configuration changed by the tests.
+     */
+    @After
+    public void tearDown() {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(loadBalancingPolicy);
+        SteemJConfig.getInstance().setHedgingPercentile(hedgingPercentile);
+    }
+
+    /**
+     * Create a request object to transform the responses for.
+     * 
+     * @return The request object.
+     */
+    private RequestWrapperDTO createRequest() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.LOOKUP_ACCOUNTS);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { "dez1337", "2" };
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * Test that the result of a response is directly bound to the target
+     * class.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testTransformResponse() throws SteemCommunicationException {
+        RequestWrapperDTO requestObject = createRequest();
+        String rawJsonResponse = "{\"id\":" + requestObject.getId() + ",\"result\":[\"dez1337\",\"steemj\"]}";
+
+        List<AccountName> result = CommunicationHandler.transformResponse(rawJsonResponse, requestObject,
+                AccountName.class);
+
+        assertThat(result.size(), equalTo(2));
+        assertThat(result.get(0), instanceOf(AccountName.class));
+        assertThat(result.get(1).getName(), equalTo("steemj"));
+    }
+
+    /**
+     * Test that a missing result is transformed into a list containing
+     * <code>null</code>.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testTransformEmptyResponse() throws SteemCommunicationException {
+        RequestWrapperDTO requestObject = createRequest();
+        String rawJsonResponse = "{\"id\":" + requestObject.getId() + ",\"result\":null}";
+
+        List<AccountName> result = CommunicationHandler.transformResponse(rawJsonResponse, requestObject,
+                AccountName.class);
+
+        assertThat(result.size(), equalTo(1));
+        assertThat(result.get(0), nullValue());
+    }
+
+    /**
+     * Test that an error response is transformed into a
+     * {@link SteemResponseError}.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testTransformErrorResponse() throws SteemCommunicationException {
+        RequestWrapperDTO requestObject = createRequest();
+        String rawJsonResponse = "{\"id\":" + requestObject.getId()
+                + ",\"error\":{\"code\":1,\"message\":\"missing required active authority\"}}";
+
+        try {
+            CommunicationHandler.transformResponse(rawJsonResponse, requestObject, AccountName.class);
+            fail("A SteemResponseError has been expected.");
+        } catch (SteemResponseError e) {
+            assertThat(e.getError().getResponseId(), equalTo(requestObject.getId()));
+            assertThat(e.getError().getSteemErrorDetails().getCode(), equalTo(1));
+            assertThat(e.getError().getSteemErrorDetails().getMessage(),
+                    equalTo("missing required active authority"));
+        }
+    }
+
+    /**
+     * Test that a malformed response results in a
+     * {@link SteemTransformationException}.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test(expected = SteemTransformationException.class)
+    public void testTransformMalformedResponse() throws SteemCommunicationException {
+        RequestWrapperDTO requestObject = createRequest();
+
+        CommunicationHandler.transformResponse("{\"id\":1,\"result\":{\"unknown\":", requestObject,
+                AccountName.class);
+    }
+
+    /**
+     * Test that only the operations of the requested types are transformed
+     * into Java objects, while the other operations are skipped.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testTransformFilteredOperations() throws SteemCommunicationException {
+        RequestWrapperDTO requestObject = createRequest();
+        String rawJsonResponse = "{\"id\":" + requestObject.getId() + ",\"result\":["
+                + createAppliedOperation(0, "[\"comment\",{\"parent_author\":\"\",\"parent_permlink\":\"steemj\","
+                        + "\"author\":\"dez1337\",\"permlink\":\"steemj\",\"title\":\"SteemJ\","
+                        + "\"body\":\"[{\\\"nested\\\":[1,2]}]\",\"json_metadata\":\"{}\"}]")
+                + "," + createAppliedOperation(1, "[\"transfer\",{\"from\":\"dez1337\",\"to\":\"steemj\","
+                        + "\"amount\":\"1.000 STEEM\",\"memo\":\"steemj\"}]")
+                + "," + createAppliedOperation(2, "[\"custom_json\",{\"required_auths\":[],"
+                        + "\"required_posting_auths\":[\"dez1337\"],\"id\":\"follow\",\"json\":\"{}\"}]")
+                + "]}";
+
+        List<AppliedOperation> result = CommunicationHandler.transformResponse(rawJsonResponse, requestObject,
+                AppliedOperation.class, EnumSet.of(OperationType.TRANSFER_OPERATION));
+
+        assertThat(result.size(), equalTo(3));
+        assertThat(result.get(0).getOp(), nullValue());
+        assertThat(result.get(1).getOp(), instanceOf(TransferOperation.class));
+        assertThat(((TransferOperation) result.get(1).getOp()).getTo().getName(), equalTo("steemj"));
+        assertThat(result.get(2).getOp(), nullValue());
+        assertThat(result.get(2).getOpInTrx(), equalTo(2));
+
+        result = CommunicationHandler.transformResponse(rawJsonResponse, requestObject, AppliedOperation.class);
+
+        assertThat(result.get(0).getOp(), instanceOf(CommentOperation.class));
+        assertThat(result.get(1).getOp(), instanceOf(TransferOperation.class));
+        assertThat(result.get(2).getOp(), instanceOf(CustomJsonOperation.class));
+    }
+
+    /**
+     * Create the JSON representation of an applied operation.
+     * 
+     * @param opInTrx
+     *            The index of the operation in its transaction.
+     * @param operation
+     *            The JSON representation of the operation.
+     * @return The JSON representation of the applied operation.
+     */
+    private String createAppliedOperation(int opInTrx, String operation) {
+        return "{\"trx_id\":\"" + String.format("%040x", 1) + "\",\"block\":13138393,\"trx_in_block\":0,"
+                + "\"op_in_trx\":" + opInTrx + ",\"virtual_op\":0,\"timestamp\":\"2017-07-14T02:40:00\","
+                + "\"op\":" + operation + "}";
+    }
+
+    /**
+     * Test that the {@link LoadBalancingPolicy#LEAST_OUTSTANDING_REQUESTS}
+     * policy selects the connection with the fewest requests in flight and
+     * makes sure that it is open.
+     */
+    @Test
+    public void testSelectLeastOutstandingRequests() {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS);
+        StubNodeConnection first = new StubNodeConnection("first");
+        StubNodeConnection second = new StubNodeConnection("second");
+        StubNodeConnection third = new StubNodeConnection("third");
+        first.setNumberOfOutstandingRequests(3);
+        second.setNumberOfOutstandingRequests(1);
+        third.setNumberOfOutstandingRequests(2);
+        // The latency is ignored by this policy.
+        second.setAverageLatency(1000);
+
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(first, second, third));
+
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) second));
+        assertThat(second.getNumberOfEnsureOpenCalls(), equalTo(1));
+        assertThat(first.getNumberOfEnsureOpenCalls(), equalTo(0));
+
+        second.setNumberOfOutstandingRequests(5);
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) third));
+    }
+
+    /**
+     * Test that the {@link LoadBalancingPolicy#LATENCY_WEIGHTED} policy weights
+     * the requests in flight with the average latency of a node, and that a
+     * node without statistics gets a chance.
+     */
+    @Test
+    public void testSelectLatencyWeighted() {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(LoadBalancingPolicy.LATENCY_WEIGHTED);
+        StubNodeConnection slow = new StubNodeConnection("slow");
+        StubNodeConnection fast = new StubNodeConnection("fast");
+        StubNodeConnection unknown = new StubNodeConnection("unknown");
+        // Costs: (0 + 1) * 100 = 100
+        slow.setAverageLatency(100);
+        // Costs: (3 + 1) * 10 = 40
+        fast.setNumberOfOutstandingRequests(3);
+        fast.setAverageLatency(10);
+        // Costs: (0 + 1) * 1 = 1
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(slow, fast, unknown));
+
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) unknown));
+
+        // Costs: (100 + 1) * 1 = 101
+        unknown.setNumberOfOutstandingRequests(100);
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) fast));
+    }
+
+    /**
+     * Test that a demoted connection is only selected if all connections have
+     * been demoted.
+     */
+    @Test
+    public void testSelectWithDemotedConnections() {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS);
+        StubNodeConnection idle = new StubNodeConnection("idle");
+        StubNodeConnection busy = new StubNodeConnection("busy");
+        busy.setNumberOfOutstandingRequests(50);
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(idle, busy));
+
+        idle.getHealth().setDemoted(true);
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) busy));
+
+        busy.getHealth().setDemoted(true);
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) idle));
+
+        idle.getHealth().setDemoted(false);
+        busy.getHealth().setDemoted(false);
+        assertThat(communicationHandler.selectConnection(), sameInstance((NodeConnection) idle));
+    }
+
+    /**
+     * Test that an excluded connection is skipped, unless it is the only
+     * connection of the pool.
+     */
+    @Test
+    public void testSelectWithExcludedConnection() {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS);
+        StubNodeConnection idle = new StubNodeConnection("idle");
+        StubNodeConnection busy = new StubNodeConnection("busy");
+        busy.setNumberOfOutstandingRequests(50);
+        busy.getHealth().setDemoted(true);
+
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(idle, busy));
+        assertThat(communicationHandler.selectConnection(idle), sameInstance((NodeConnection) busy));
+        assertThat(communicationHandler.selectConnection(busy), sameInstance((NodeConnection) idle));
+
+        CommunicationHandler singleConnectionHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(idle));
+        assertThat(singleConnectionHandler.selectConnection(idle), sameInstance((NodeConnection) idle));
+    }
+
+    /**
+     * Test that a hedged request is only send to a second node after the
+     * hedging delay, that the first answer wins and that the request pending
+     * on the slower node is cancelled.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testHedgedRequest() throws Exception {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS);
+        SteemJConfig.getInstance().setHedgingPercentile(HEDGING_PERCENTILE);
+        StubNodeConnection primary = new StubNodeConnection("primary");
+        StubNodeConnection secondary = new StubNodeConnection("secondary");
+        secondary.setNumberOfOutstandingRequests(1);
+        // The hedging delay is the latency percentile of the primary node.
+        long hedgingDelay = 200;
+        primary.getHealth().recordSuccess(hedgingDelay);
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(primary, secondary));
+
+        RequestWrapperDTO requestObject = createRequest();
+        long startTime = System.nanoTime();
+        CompletableFuture<List<AccountName>> result = communicationHandler.performRequestAsync(requestObject,
+                AccountName.class);
+
+        Thread.sleep(hedgingDelay / 4);
+        assertThat(primary.sentRequests.size(), equalTo(1));
+        assertThat(secondary.sentRequests.size(), equalTo(0));
+
+        for (int i = 0; i < 200 && secondary.sentRequests.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(secondary.sentRequests.size(), equalTo(1));
+        assertThat(secondary.sentRequests.get(0), sameInstance(requestObject));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                greaterThanOrEqualTo(hedgingDelay));
+
+        secondary.pendingResponses.get(0)
+                .complete("{\"id\":" + requestObject.getId() + ",\"result\":[\"steemj\"]}");
+
+        assertThat(result.get().get(0).getName(), equalTo("steemj"));
+        assertThat(primary.pendingResponses.get(0).isCancelled(), equalTo(true));
+    }
+
+    /**
+     * Test that only idempotent reads of the database api are hedged.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testRequestsThatAreNotHedged() throws Exception {
+        SteemJConfig.getInstance().setLoadBalancingPolicy(LoadBalancingPolicy.LEAST_OUTSTANDING_REQUESTS);
+        SteemJConfig.getInstance().setHedgingPercentile(HEDGING_PERCENTILE);
+        StubNodeConnection primary = new StubNodeConnection("primary");
+        StubNodeConnection secondary = new StubNodeConnection("secondary");
+        secondary.setNumberOfOutstandingRequests(1);
+        primary.getHealth().recordSuccess(10);
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(primary, secondary));
+
+        RequestWrapperDTO broadcastRequest = new RequestWrapperDTO();
+        broadcastRequest.setApiMethod(RequestMethods.BROADCAST_TRANSACTION);
+        broadcastRequest.setSteemApi(SteemApis.DATABASE_API);
+        broadcastRequest.setAdditionalParameters(new Object[] {});
+        communicationHandler.performRequestAsync(broadcastRequest, Object.class);
+
+        RequestWrapperDTO followApiRequest = new RequestWrapperDTO();
+        followApiRequest.setApiMethod(RequestMethods.GET_FOLLOWERS);
+        followApiRequest.setSteemApi(SteemApis.FOLLOW_API);
+        followApiRequest.setAdditionalParameters(new Object[] {});
+        communicationHandler.performRequestAsync(followApiRequest, Object.class);
+
+        Thread.sleep(200);
+
+        assertThat(primary.sentRequests.size(), equalTo(2));
+        assertThat(secondary.sentRequests.size(), equalTo(0));
+    }
+
+    /**
+     * Test that a request is not hedged if the pool only contains one
+     * connection.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testSingleConnectionIsNotHedged() throws Exception {
+        SteemJConfig.getInstance().setHedgingPercentile(HEDGING_PERCENTILE);
+        StubNodeConnection connection = new StubNodeConnection("single");
+        connection.getHealth().recordSuccess(10);
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(connection));
+
+        communicationHandler.performRequestAsync(createRequest(), AccountName.class);
+
+        Thread.sleep(200);
+
+        assertThat(connection.sentRequests.size(), equalTo(1));
+        assertThat(connection.getNumberOfEnsureOpenCalls(), equalTo(1));
+    }
+
+    /**
+     * Test that the connection a block applied callback has been registered
+     * on is passed to the {@link CallbackHub}, so the callback is only
+     * registered again if this connection is re-established.
+     */
+    @Test
+    public void testCallbackRegistrationIsBoundToConnection() {
+        StubNodeConnection carrier = new StubNodeConnection("carrier");
+        StubNodeConnection other = new StubNodeConnection("other");
+        other.setNumberOfOutstandingRequests(1);
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(carrier, other));
+
+        BlockAppliedCallback callback = new BlockAppliedCallback() {
+            @Override
+            public void onNewBlock(SignedBlockHeader signedBlockHeader) {
+                // Nothing to do.
+            }
+        };
+        final AtomicInteger reconnects = new AtomicInteger();
+        Runnable connectionListener = new Runnable() {
+            @Override
+            public void run() {
+                reconnects.incrementAndGet();
+            }
+        };
+
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.SET_BLOCK_APPLIED_CALLBACK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        requestObject.setAdditionalParameters(new Object[] { callback.getUuid() });
+
+        CallbackHub.getInstance().addCallback(callback);
+        CallbackHub.getInstance().addConnectionListener(callback, connectionListener);
+        try {
+            communicationHandler.performRequestAsync(requestObject, Object.class);
+            assertThat(carrier.sentRequests.size(), equalTo(1));
+
+            CallbackHub.getInstance().onConnectionOpened(other);
+            assertThat(reconnects.get(), equalTo(0));
+
+            CallbackHub.getInstance().onConnectionOpened(carrier);
+            assertThat(reconnects.get(), equalTo(1));
+        } finally {
+            CallbackHub.getInstance().removeConnectionListener(connectionListener);
+            CallbackHub.getInstance().removeCallback(callback);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package eu.bittrade.libs.steemj.communication;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.fail;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.streaming.BlockListener;
+import eu.bittrade.libs.steemj.streaming.BlockSubscription;
+
+/**
+ * This class tests the HTTP transport.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class HttpNodeConnectionTest {
+    /**
+     * Test that web socket endpoint URIs are mapped to the corresponding HTTP
+     * URIs while HTTP URIs are used as they are.
+     * 
+     * @throws URISyntaxException
+     *             If one of the URIs is invalid.
+     */
+    @Test
+    public void testToHttpURI() throws URISyntaxException {
+        assertThat(HttpNodeConnection.toHttpURI(new URI("wss://steemd.steemit.com")),
+                equalTo(new URI("https://steemd.steemit.com")));
+        assertThat(HttpNodeConnection.toHttpURI(new URI("ws://127.0.0.1:8090/rpc")),
+                equalTo(new URI("http://127.0.0.1:8090/rpc")));
+        assertThat(HttpNodeConnection.toHttpURI(new URI("https://api.steemit.com")),
+                equalTo(new URI("https://api.steemit.com")));
+    }
+
+    /**
+     * Test that block applied callbacks are rejected by the HTTP transport, as
+     * the Steem Node can not send notifications over it, and that a block
+     * subscription polls the head block instead of registering a callback.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testCallbacksAreNotSupported() throws Exception {
+        final List<RequestWrapperDTO> sentRequests = new CopyOnWriteArrayList<>();
+        HttpNodeConnection connection = new HttpNodeConnection(0) {
+            @Override
+            public CompletableFuture<String> sendMessageAsynchronously(RequestWrapperDTO requestObject) {
+                sentRequests.add(requestObject);
+                return new CompletableFuture<>();
+            }
+        };
+        CommunicationHandler communicationHandler = new CommunicationHandler(
+                Arrays.<NodeConnection> asList(connection));
+        SteemJAsync steemJAsync = new SteemJAsync(communicationHandler);
+
+        assertThat(communicationHandler.supportsCallbacks(), equalTo(false));
+        assertThat(new CommunicationHandler(Arrays.<NodeConnection> asList(new StubNodeConnection("stub")))
+                .supportsCallbacks(), equalTo(true));
+
+        BlockAppliedCallback blockAppliedCallback = new BlockAppliedCallback() {
+            @Override
+            public void onNewBlock(SignedBlockHeader signedBlockHeader) {
+                // Never called.
+            }
+        };
+
+        try {
+            steemJAsync.setBlockAppliedCallback(blockAppliedCallback).get();
+            fail("The registration should have failed.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(SteemCommunicationException.class));
+        }
+
+        assertThat(CallbackHub.getInstance().removeCallback(blockAppliedCallback), equalTo(false));
+        assertThat(sentRequests.isEmpty(), equalTo(true));
+
+        try (BlockSubscription blockSubscription = new BlockSubscription(steemJAsync, 1, new BlockListener() {
+            @Override
+            public void onBlock(long blockNumber, SignedBlockWithInfo block) {
+                // Nothing to do.
+            }
+        })) {
+            blockSubscription.start();
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (sentRequests.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        assertThat(sentRequests.size(), equalTo(1));
+        assertThat(sentRequests.get(0).getApiMethod(), equalTo(RequestMethods.GET_DYNAMIC_GLOBAL_PROPERTIES));
+
+        communicationHandler.close();
+    }
+}
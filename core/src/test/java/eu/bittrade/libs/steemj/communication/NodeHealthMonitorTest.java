@@ -0,0 +1,103 @@
+package eu.bittrade.libs.steemj.communication;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
+
+/**
+ * Test that a {@link NodeHealthMonitor} can't be stalled by a dead node.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class NodeHealthMonitorTest {
+    private static final long PROBE_TIMEOUT = 200;
+
+    private long responseTimeout;
+
+    /**
+     * Disable the response timeout, so only the probe timeout applies.
+     */
+    @Before
+    public void setUp() {
+        responseTimeout = SteemJConfig.getInstance().getResponseTimeout();
+        SteemJConfig.getInstance().setResponseTimeout(0);
+    }
+
+    /**
+     * Restore the configured response timeout.
+     */
+    @After
+    public void tearDown() {
+        SteemJConfig.getInstance().setResponseTimeout(responseTimeout);
+    }
+
+    /**
+     * Test that a health check returns after the probe timeout, even if a node
+     * never answers, and that the unanswered probe is failed.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testUnansweredProbe() throws Exception {
+        StubNodeConnection deadNode = new StubNodeConnection("dead");
+        NodeHealthMonitor nodeHealthMonitor = new NodeHealthMonitor(Arrays.<NodeConnection> asList(deadNode),
+                PROBE_TIMEOUT);
+
+        long startTime = System.currentTimeMillis();
+        nodeHealthMonitor.checkHealth();
+
+        assertThat(System.currentTimeMillis() - startTime, lessThan(PROBE_TIMEOUT * 10));
+        assertThat(deadNode.sentRequests.size(), equalTo(1));
+        try {
+            deadNode.pendingResponses.get(0).get();
+            fail("The unanswered probe should have been failed.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(SteemTimeoutException.class));
+        }
+    }
+
+    /**
+     * Test that a closed connection is not probed, but reconnected without
+     * blocking the health check, and only once at a time.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testClosedConnectionIsReconnectedInBackground() throws Exception {
+        StubNodeConnection closedNode = new StubNodeConnection("closed");
+        closedNode.setOpen(false);
+        CountDownLatch connectLatch = new CountDownLatch(1);
+        closedNode.setConnectLatch(connectLatch);
+        NodeHealthMonitor nodeHealthMonitor = new NodeHealthMonitor(Arrays.<NodeConnection> asList(closedNode),
+                PROBE_TIMEOUT);
+
+        // The reconnect blocks until the latch is released.
+        nodeHealthMonitor.checkHealth();
+        nodeHealthMonitor.checkHealth();
+
+        assertThat(closedNode.sentRequests.size(), equalTo(0));
+
+        connectLatch.countDown();
+        for (int i = 0; i < 100 && !closedNode.isOpen(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(closedNode.isOpen(), equalTo(true));
+        assertThat(closedNode.getNumberOfEnsureOpenCalls(), equalTo(1));
+    }
+}
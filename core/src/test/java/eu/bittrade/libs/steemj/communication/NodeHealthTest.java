@@ -0,0 +1,56 @@
+package eu.bittrade.libs.steemj.communication;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.Test;
+
+/**
+ * Test the statistics collected by the {@link NodeHealth} class.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class NodeHealthTest {
+    /**
+     * Test if the latency percentiles are calculated correctly.
+     */
+    @Test
+    public void testLatencyPercentiles() {
+        NodeHealth nodeHealth = new NodeHealth();
+
+        assertThat(nodeHealth.getLatencyPercentile(50), equalTo(0.0));
+
+        for (int i = 100; i >= 1; i--) {
+            nodeHealth.recordSuccess(i);
+        }
+
+        assertThat(nodeHealth.getLatencyPercentile(50), equalTo(50.0));
+        assertThat(nodeHealth.getLatencyPercentile(99), equalTo(99.0));
+        assertThat(nodeHealth.getLatencyPercentile(100), equalTo(100.0));
+    }
+
+    /**
+     * Test if only the last {@link NodeHealth#WINDOW_SIZE} requests are taken
+     * into account when calculating the error rate.
+     */
+    @Test
+    public void testErrorRateSlidingWindow() {
+        NodeHealth nodeHealth = new NodeHealth();
+
+        for (int i = 0; i < NodeHealth.WINDOW_SIZE; i++) {
+            nodeHealth.recordFailure();
+        }
+
+        assertThat(nodeHealth.getErrorRate(), equalTo(1.0));
+
+        for (int i = 0; i < NodeHealth.WINDOW_SIZE / 4 * 3; i++) {
+            nodeHealth.recordSuccess(10);
+        }
+
+        assertThat(nodeHealth.getErrorRate(), equalTo(0.25));
+
+        nodeHealth.reset();
+
+        assertThat(nodeHealth.getErrorRate(), equalTo(0.0));
+    }
+}
@@ -0,0 +1,158 @@
+package eu.bittrade.libs.steemj.communication;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * A {@link NodeConnection} that does not send anything, but remembers the
+ * requests and lets the test decide when and how they are answered.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+class StubNodeConnection implements NodeConnection {
+    /** The requests send over this connection. */
+    final List<RequestWrapperDTO> sentRequests = new CopyOnWriteArrayList<>();
+    /** The futures returned for the send requests. */
+    final List<CompletableFuture<String>> pendingResponses = new CopyOnWriteArrayList<>();
+    private final URI endpointURI;
+    private final NodeHealth health = new NodeHealth();
+    private volatile boolean open = true;
+    private volatile CountDownLatch connectLatch;
+    private int numberOfOutstandingRequests;
+    private double averageLatency;
+    private volatile int numberOfEnsureOpenCalls;
+
+    /**
+     * Create a new stub.
+     *
+     * @param name
+     *            The host name used for the endpoint URI.
+     */
+    StubNodeConnection(String name) {
+        this.endpointURI = URI.create("wss://" + name);
+    }
+
+    @Override
+    public void connectTo(int endpointSelector) {
+        // Nothing to do.
+    }
+
+    @Override
+    public void ensureOpen() {
+        numberOfEnsureOpenCalls++;
+
+        if (connectLatch != null) {
+            try {
+                connectLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        open = true;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * @param open
+     *            <code>true</code> if the connection should be reported as
+     *            open.
+     */
+    void setOpen(boolean open) {
+        this.open = open;
+    }
+
+    /**
+     * @param connectLatch
+     *            The latch {@link #ensureOpen()} waits for before the
+     *            connection is opened or <code>null</code> to open it
+     *            immediately.
+     */
+    void setConnectLatch(CountDownLatch connectLatch) {
+        this.connectLatch = connectLatch;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to do.
+    }
+
+    @Override
+    public URI getEndpointURI() {
+        return endpointURI;
+    }
+
+    @Override
+    public NodeHealth getHealth() {
+        return health;
+    }
+
+    @Override
+    public int getNumberOfOutstandingRequests() {
+        return numberOfOutstandingRequests;
+    }
+
+    /**
+     * @param numberOfOutstandingRequests
+     *            The number of outstanding requests to report.
+     */
+    void setNumberOfOutstandingRequests(int numberOfOutstandingRequests) {
+        this.numberOfOutstandingRequests = numberOfOutstandingRequests;
+    }
+
+    @Override
+    public double getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * @param averageLatency
+     *            The average latency to report.
+     */
+    void setAverageLatency(double averageLatency) {
+        this.averageLatency = averageLatency;
+    }
+
+    /**
+     * @return The number of times {@link #ensureOpen()} has been called.
+     */
+    int getNumberOfEnsureOpenCalls() {
+        return numberOfEnsureOpenCalls;
+    }
+
+    @Override
+    public String sendMessageSynchronously(RequestWrapperDTO requestObject)
+            throws SteemCommunicationException, InterruptedException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public CompletableFuture<String> sendMessageAsynchronously(RequestWrapperDTO requestObject) {
+        CompletableFuture<String> pendingResponse = new CompletableFuture<>();
+        sentRequests.add(requestObject);
+        pendingResponses.add(pendingResponse);
+
+        return pendingResponse;
+    }
+
+    @Override
+    public List<CompletableFuture<String>> sendBatchAsynchronously(List<RequestWrapperDTO> requestObjects) {
+        List<CompletableFuture<String>> responses = new ArrayList<>();
+        for (RequestWrapperDTO requestObject : requestObjects) {
+            responses.add(sendMessageAsynchronously(requestObject));
+        }
+
+        return responses;
+    }
+}
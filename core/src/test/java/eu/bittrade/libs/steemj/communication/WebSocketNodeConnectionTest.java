@@ -0,0 +1,355 @@
+package eu.bittrade.libs.steemj.communication;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.websocket.CloseReason;
+import javax.websocket.CloseReason.CloseCodes;
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.communication.dto.BatchRequestWrapperDTO;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.enums.SteemApis;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemResponseError;
+import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
+
+/**
+ * Test that the {@link WebSocketNodeConnection} routes the responses of the
+ * Steem Node to the requests waiting for them.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class WebSocketNodeConnectionTest {
+    /**
+     * A web socket session that remembers the send messages instead of
+     * transferring them.
+     */
+    private static class StubSession implements InvocationHandler {
+        private final List<Object> sentMessages = new ArrayList<>();
+        private boolean failTransfer;
+        private boolean open = true;
+
+        /**
+         * @return A session backed by this stub.
+         */
+        private Session createSession() {
+            return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Session.class },
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+            switch (method.getName()) {
+            case "isOpen":
+                return open;
+            case "close":
+                open = false;
+                return null;
+            case "getAsyncRemote":
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { RemoteEndpoint.Async.class }, new InvocationHandler() {
+                            @Override
+                            public Object invoke(Object proxy, Method method, Object[] arguments) {
+                                sentMessages.add(arguments[0]);
+                                ((SendHandler) arguments[1]).onResult(
+                                        failTransfer ? new SendResult(new IOException("Broken pipe.")) : new SendResult());
+                                return null;
+                            }
+                        });
+            case "getBasicRemote":
+                return Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[] { RemoteEndpoint.Basic.class }, new InvocationHandler() {
+                            @Override
+                            public Object invoke(Object proxy, Method method, Object[] arguments)
+                                    throws IOException {
+                                sentMessages.add(arguments[0]);
+                                if (failTransfer) {
+                                    throw new IOException("Broken pipe.");
+                                }
+                                return null;
+                            }
+                        });
+            default:
+                return null;
+            }
+        }
+    }
+
+    private long responseTimeout;
+    private StubSession stubSession;
+    private WebSocketNodeConnection connection;
+
+    /**
+     * Create a connection backed by a stub session.
+     */
+    @Before
+    public void setUp() {
+        responseTimeout = SteemJConfig.getInstance().getResponseTimeout();
+        SteemJConfig.getInstance().setResponseTimeout(0);
+
+        stubSession = new StubSession();
+        connection = new WebSocketNodeConnection(0, stubSession.createSession());
+    }
+
+    /**
+     * Restore the configured response timeout.
+     */
+    @After
+    public void tearDown() {
+        SteemJConfig.getInstance().setResponseTimeout(responseTimeout);
+    }
+
+    /**
+     * Create a request object.
+     *
+     * @return The request object.
+     */
+    private RequestWrapperDTO createRequest() {
+        RequestWrapperDTO requestObject = new RequestWrapperDTO();
+        requestObject.setApiMethod(RequestMethods.GET_BLOCK);
+        requestObject.setSteemApi(SteemApis.DATABASE_API);
+        String[] parameters = { "1" };
+        requestObject.setAdditionalParameters(parameters);
+
+        return requestObject;
+    }
+
+    /**
+     * Create the raw response to the given request.
+     *
+     * @param requestObject
+     *            The request to answer.
+     * @param result
+     *            The raw JSON result.
+     * @return The raw response.
+     */
+    private static String createResponse(RequestWrapperDTO requestObject, String result) {
+        return "{\"id\":" + requestObject.getId() + ",\"result\":" + result + "}";
+    }
+
+    /**
+     * Test that each response is routed to the request with the same id, even
+     * if the responses arrive in a different order than the requests have
+     * been send.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testOutOfOrderResponses() throws Exception {
+        RequestWrapperDTO firstRequest = createRequest();
+        RequestWrapperDTO secondRequest = createRequest();
+
+        CompletableFuture<String> firstResponse = connection.sendMessageAsynchronously(firstRequest);
+        CompletableFuture<String> secondResponse = connection.sendMessageAsynchronously(secondRequest);
+
+        assertThat(stubSession.sentMessages.size(), equalTo(2));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(2));
+
+        connection.onMessage(createResponse(secondRequest, "\"second\""));
+
+        assertThat(firstResponse.isDone(), equalTo(false));
+        assertThat(secondResponse.get(), equalTo(createResponse(secondRequest, "\"second\"")));
+
+        connection.onMessage(createResponse(firstRequest, "\"first\""));
+
+        assertThat(firstResponse.get(), equalTo(createResponse(firstRequest, "\"first\"")));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+    }
+
+    /**
+     * Test that a response with an unknown id is dropped without completing
+     * any pending request.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testUnknownResponseId() throws Exception {
+        RequestWrapperDTO requestObject = createRequest();
+        CompletableFuture<String> response = connection.sendMessageAsynchronously(requestObject);
+
+        connection.onMessage("{\"id\":" + (requestObject.getId() + 1000) + ",\"result\":null}");
+        connection.onMessage("{\"method\":\"notice\",\"params\":[12345,[{}]]}");
+
+        assertThat(response.isDone(), equalTo(false));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(1));
+
+        connection.onMessage(createResponse(requestObject, "null"));
+
+        assertThat(response.get(), equalTo(createResponse(requestObject, "null")));
+    }
+
+    /**
+     * Test that a request fails with a {@link SteemTimeoutException} if the
+     * Steem Node does not answer in time and that a late response is dropped.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        SteemJConfig.getInstance().setResponseTimeout(50);
+        RequestWrapperDTO requestObject = createRequest();
+
+        CompletableFuture<String> response = connection.sendMessageAsynchronously(requestObject);
+
+        try {
+            response.get(5, TimeUnit.SECONDS);
+            fail("The request should have timed out.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(SteemTimeoutException.class));
+        }
+
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+        assertThat(connection.getHealth().getErrorRate(), equalTo(1.0));
+
+        connection.onMessage(createResponse(requestObject, "null"));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+    }
+
+    /**
+     * Test that closing the session fails all pending requests immediately.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testCloseFailsPendingRequests() throws Exception {
+        CompletableFuture<String> firstResponse = connection.sendMessageAsynchronously(createRequest());
+        CompletableFuture<String> secondResponse = connection.sendMessageAsynchronously(createRequest());
+
+        connection.onClose(new CloseReason(CloseCodes.GOING_AWAY, "Shutdown."));
+
+        for (CompletableFuture<String> response : new CompletableFuture[] { firstResponse, secondResponse }) {
+            try {
+                response.get();
+                fail("The request should have failed.");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(SteemCommunicationException.class));
+            }
+        }
+
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+    }
+
+    /**
+     * Test that a request whose transfer failed is reported as failed, is not
+     * send again and that the broken session is closed.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testFailedTransfer() throws Exception {
+        stubSession.failTransfer = true;
+
+        try {
+            connection.sendMessageSynchronously(createRequest());
+            fail("The failed transfer should be reported.");
+        } catch (SteemCommunicationException e) {
+            assertThat(e.getCause(), instanceOf(IOException.class));
+        }
+
+        assertThat(stubSession.sentMessages.size(), equalTo(1));
+        assertThat(stubSession.open, equalTo(false));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+
+        try {
+            connection.sendMessageAsynchronously(createRequest()).get();
+            fail("The failed transfer should be reported.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(SteemCommunicationException.class));
+        }
+    }
+
+    /**
+     * Test that a batch is send as one message and that the single responses
+     * of a batch response are routed to their requests, no matter in which
+     * order they arrive. Requests missing in the batch response stay pending,
+     * while error responses are passed to the request they belong to.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testBatchResponses() throws Exception {
+        RequestWrapperDTO firstRequest = createRequest();
+        RequestWrapperDTO secondRequest = createRequest();
+        RequestWrapperDTO thirdRequest = createRequest();
+
+        List<CompletableFuture<String>> responses = connection
+                .sendBatchAsynchronously(Arrays.asList(firstRequest, secondRequest, thirdRequest));
+
+        assertThat(stubSession.sentMessages.size(), equalTo(1));
+        assertThat(stubSession.sentMessages.get(0), instanceOf(BatchRequestWrapperDTO.class));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(3));
+
+        String errorResponse = "{\"id\":" + firstRequest.getId()
+                + ",\"error\":{\"code\":1,\"message\":\"unknown block\"}}";
+        connection.onMessage("[" + createResponse(thirdRequest, "\"third\"") + "," + errorResponse + "]");
+
+        assertThat(responses.get(2).get(), equalTo(createResponse(thirdRequest, "\"third\"")));
+        assertThat(responses.get(1).isDone(), equalTo(false));
+        try {
+            CommunicationHandler.transformResponse(responses.get(0).get(), firstRequest, Object.class);
+            fail("The error response should be passed to the first request.");
+        } catch (SteemResponseError e) {
+            assertThat(e.getError().getSteemErrorDetails().getMessage(), equalTo("unknown block"));
+        }
+
+        connection.onMessage("[" + createResponse(secondRequest, "\"second\"") + "]");
+
+        assertThat(responses.get(1).get(), equalTo(createResponse(secondRequest, "\"second\"")));
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+    }
+
+    /**
+     * Test that all requests of a batch fail if the batch could not be
+     * transferred.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testFailedBatchTransfer() throws Exception {
+        stubSession.failTransfer = true;
+
+        List<CompletableFuture<String>> responses = connection
+                .sendBatchAsynchronously(Arrays.asList(createRequest(), createRequest()));
+
+        for (CompletableFuture<String> response : responses) {
+            try {
+                response.get();
+                fail("The failed transfer should be reported.");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(SteemCommunicationException.class));
+            }
+        }
+
+        assertThat(connection.getNumberOfOutstandingRequests(), equalTo(0));
+    }
+}
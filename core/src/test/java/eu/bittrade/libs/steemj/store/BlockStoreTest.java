@@ -0,0 +1,123 @@
+package eu.bittrade.libs.steemj.store;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests the local block store.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BlockStoreTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test that stored data can be read again, also after the store has been
+     * reopened.
+     * 
+     * @throws IOException
+     *             If the store could not be used.
+     */
+    @Test
+    public void testPutAndGet() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("blocks");
+        long blockInSecondSegment = BlockStore.BLOCKS_PER_SEGMENT + 5;
+
+        try (BlockStore blockStore = new BlockStore(directory)) {
+            assertThat(blockStore.get(1), nullValue());
+            assertThat(blockStore.contains(1), equalTo(false));
+
+            blockStore.put(1, "[{\"witness\":\"dez1337\"}]");
+            blockStore.put(blockInSecondSegment, "[{\"witness\":\"steemj\"}]");
+            blockStore.put(0, "[]");
+
+            assertThat(blockStore.contains(1), equalTo(true));
+            assertThat(blockStore.get(2), nullValue());
+        }
+
+        try (BlockStore blockStore = new BlockStore(directory)) {
+            assertThat(blockStore.get(0), equalTo("[]"));
+            assertThat(blockStore.get(1), equalTo("[{\"witness\":\"dez1337\"}]"));
+            assertThat(blockStore.get(blockInSecondSegment), equalTo("[{\"witness\":\"steemj\"}]"));
+            assertThat(blockStore.get(3 * BlockStore.BLOCKS_PER_SEGMENT), nullValue());
+        }
+    }
+
+    /**
+     * Test that stored data is never overwritten.
+     * 
+     * @throws IOException
+     *             If the store could not be used.
+     */
+    @Test
+    public void testDataIsNotOverwritten() throws IOException {
+        try (BlockStore blockStore = new BlockStore(temporaryFolder.getRoot().toPath())) {
+            blockStore.put(42, "[\"first\"]");
+            blockStore.put(42, "[\"second\"]");
+
+            assertThat(blockStore.get(42), equalTo("[\"first\"]"));
+        }
+    }
+
+    /**
+     * Test that all users of a directory share one store, which is only closed
+     * when the last user closed it.
+     * 
+     * @throws IOException
+     *             If the store could not be used.
+     */
+    @Test
+    public void testSharedStore() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath().resolve("shared");
+
+        BlockStore firstStore = BlockStore.open(directory);
+        BlockStore secondStore = BlockStore.open(directory.resolve("..").resolve("shared"));
+
+        assertThat(secondStore, sameInstance(firstStore));
+
+        firstStore.put(7, "[\"shared\"]");
+        firstStore.close();
+
+        assertThat(secondStore.get(7), equalTo("[\"shared\"]"));
+        secondStore.close();
+
+        try (BlockStore reopenedStore = BlockStore.open(directory)) {
+            assertThat(reopenedStore, not(sameInstance(firstStore)));
+            assertThat(reopenedStore.get(7), equalTo("[\"shared\"]"));
+        }
+    }
+
+    /**
+     * Test that a directory can not be used by two stores at the same time.
+     * 
+     * @throws IOException
+     *             If the store could not be used.
+     */
+    @Test
+    public void testDirectoryIsLocked() throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath();
+
+        try (BlockStore blockStore = BlockStore.open(directory)) {
+            try {
+                new BlockStore(directory);
+                fail("The directory should be locked.");
+            } catch (IOException e) {
+                assertThat(blockStore.contains(1), equalTo(false));
+            }
+        }
+
+        new BlockStore(directory).close();
+    }
+}
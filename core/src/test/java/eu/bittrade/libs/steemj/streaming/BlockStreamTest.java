@@ -0,0 +1,249 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongFunction;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import eu.bittrade.libs.steemj.SteemJAsync;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.communication.CommunicationHandler;
+import eu.bittrade.libs.steemj.communication.dto.RequestWrapperDTO;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.OperationType;
+import eu.bittrade.libs.steemj.enums.RequestMethods;
+import eu.bittrade.libs.steemj.enums.TransportType;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.store.BlockStore;
+
+/**
+ * This class tests the prefetching of blocks.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BlockStreamTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * A fetcher that remembers the requested blocks and lets the test decide
+     * when they are answered.
+     */
+    private static class ControlledBlockFetcher implements LongFunction<CompletableFuture<SignedBlockWithInfo>> {
+        private final Map<Long, CompletableFuture<SignedBlockWithInfo>> pendingBlocks = new HashMap<>();
+        private final Map<Long, SignedBlockWithInfo> blocks = new HashMap<>();
+        private final Map<Long, Integer> failuresLeft = new HashMap<>();
+        private final List<Long> requestedBlocks = new ArrayList<>();
+        private boolean answerImmediately;
+
+        @Override
+        public synchronized CompletableFuture<SignedBlockWithInfo> apply(long blockNumber) {
+            requestedBlocks.add(blockNumber);
+
+            CompletableFuture<SignedBlockWithInfo> pendingBlock = new CompletableFuture<>();
+            Integer failures = failuresLeft.get(blockNumber);
+            if (failures != null && failures > 0) {
+                failuresLeft.put(blockNumber, failures - 1);
+                pendingBlock.completeExceptionally(new SteemCommunicationException("Node not available."));
+            } else if (answerImmediately) {
+                pendingBlock.complete(getBlock(blockNumber));
+            } else {
+                pendingBlocks.put(blockNumber, pendingBlock);
+            }
+
+            return pendingBlock;
+        }
+
+        private synchronized SignedBlockWithInfo getBlock(long blockNumber) {
+            if (!blocks.containsKey(blockNumber)) {
+                blocks.put(blockNumber, new SignedBlockWithInfo() {
+                });
+            }
+
+            return blocks.get(blockNumber);
+        }
+
+        private synchronized void answer(long blockNumber) {
+            pendingBlocks.remove(blockNumber).complete(getBlock(blockNumber));
+        }
+    }
+
+    /**
+     * A communication handler that answers the block requests itself and
+     * remembers the requested blocks.
+     */
+    private static class BlockNode extends CommunicationHandler {
+        private final List<Long> requestedBlocks = new CopyOnWriteArrayList<>();
+        private final long lastIrreversibleBlockNumber;
+
+        private BlockNode(long lastIrreversibleBlockNumber) throws SteemCommunicationException {
+            this.lastIrreversibleBlockNumber = lastIrreversibleBlockNumber;
+        }
+
+        @Override
+        public <T> CompletableFuture<List<T>> performRequestAsync(RequestWrapperDTO requestObject,
+                Class<T> targetClass, Set<OperationType> operationTypes) {
+            String result;
+            if (requestObject.getApiMethod() == RequestMethods.GET_DYNAMIC_GLOBAL_PROPERTIES) {
+                result = "[{\"last_irreversible_block_num\":" + lastIrreversibleBlockNumber + "}]";
+            } else {
+                requestedBlocks.add(Long.valueOf((String) requestObject.getAdditionalParameters()[0]));
+                result = "[{\"witness\":\"node\"}]";
+            }
+
+            ObjectMapper mapper = getObjectMapper();
+            CompletableFuture<List<T>> response = new CompletableFuture<>();
+            try {
+                response.complete(mapper.<List<T>> readValue(result,
+                        mapper.getTypeFactory().constructCollectionType(List.class, targetClass)));
+            } catch (IOException e) {
+                response.completeExceptionally(e);
+            }
+
+            return response;
+        }
+    }
+
+    /**
+     * Test that the blocks are returned in order, even if they have been
+     * received in another order.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testBlocksAreReturnedInOrder() throws SteemCommunicationException {
+        ControlledBlockFetcher blockFetcher = new ControlledBlockFetcher();
+        BlockStream blockStream = new BlockStream(blockFetcher, 10, 14, 5, 0);
+
+        for (long blockNumber = 14; blockNumber >= 10; blockNumber--) {
+            blockFetcher.answer(blockNumber);
+        }
+
+        for (long blockNumber = 10; blockNumber <= 14; blockNumber++) {
+            assertThat(blockStream.hasNext(), equalTo(true));
+            assertThat(blockStream.next(), sameInstance(blockFetcher.getBlock(blockNumber)));
+        }
+
+        assertThat(blockStream.hasNext(), equalTo(false));
+    }
+
+    /**
+     * Test that no more than <code>parallelism</code> blocks are requested
+     * ahead of the consumer.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testWindowIsBounded() throws SteemCommunicationException {
+        ControlledBlockFetcher blockFetcher = new ControlledBlockFetcher();
+        BlockStream blockStream = new BlockStream(blockFetcher, 1, 100, 3, 0);
+
+        assertThat(blockFetcher.requestedBlocks.size(), equalTo(3));
+
+        blockFetcher.answer(1);
+        blockStream.next();
+
+        assertThat(blockFetcher.requestedBlocks.size(), equalTo(4));
+        assertThat(blockFetcher.requestedBlocks.get(3), equalTo(4L));
+
+        blockStream.close();
+        assertThat(blockStream.hasNext(), equalTo(false));
+    }
+
+    /**
+     * Test that failed requests are retried.
+     * 
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testFailedRequestsAreRetried() throws SteemCommunicationException {
+        ControlledBlockFetcher blockFetcher = new ControlledBlockFetcher();
+        blockFetcher.answerImmediately = true;
+        blockFetcher.failuresLeft.put(2L, 2);
+
+        BlockStream blockStream = new BlockStream(blockFetcher, 1, 3, 2, 2);
+
+        assertThat(blockStream.next(), sameInstance(blockFetcher.getBlock(1)));
+        assertThat(blockStream.next(), sameInstance(blockFetcher.getBlock(2)));
+        assertThat(blockStream.next(), sameInstance(blockFetcher.getBlock(3)));
+    }
+
+    /**
+     * Test that the stream fails if a block could not be requested after the
+     * configured number of retries.
+     * 
+     * @throws SteemCommunicationException
+     *             If the block could not be requested.
+     */
+    @Test(expected = SteemCommunicationException.class)
+    public void testTooManyFailures() throws SteemCommunicationException {
+        ControlledBlockFetcher blockFetcher = new ControlledBlockFetcher();
+        blockFetcher.answerImmediately = true;
+        blockFetcher.failuresLeft.put(1L, 2);
+
+        new BlockStream(blockFetcher, 1, 3, 2, 1).next();
+    }
+
+    /**
+     * Test that a stream created from a {@link SteemJAsync} with a block store
+     * serves the stored blocks from disk, only requests the missing ones and
+     * stores the irreversible ones among them.
+     * 
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testBlocksAreServedFromTheBlockStore() throws Exception {
+        SteemJConfig.getInstance().setTransportType(TransportType.HTTP);
+        try (BlockStore blockStore = new BlockStore(temporaryFolder.getRoot().toPath())) {
+            blockStore.put(1, "[{\"witness\":\"stored\"}]");
+            blockStore.put(2, "[{\"witness\":\"stored\"}]");
+
+            BlockNode blockNode = new BlockNode(3);
+            SteemJAsync steemJAsync = new SteemJAsync(blockNode, blockStore, null, null);
+
+            BlockStream blockStream = new BlockStream(steemJAsync, 1, 4, 2, 0);
+            assertThat(blockStream.next().getWitness(), equalTo("stored"));
+            assertThat(blockStream.next().getWitness(), equalTo("stored"));
+            assertThat(blockStream.next().getWitness(), equalTo("node"));
+            assertThat(blockStream.next().getWitness(), equalTo("node"));
+            assertThat(blockStream.hasNext(), equalTo(false));
+
+            assertThat(blockNode.requestedBlocks, equalTo(Arrays.asList(3L, 4L)));
+            // Only the irreversible block has been added to the store.
+            assertThat(blockStore.get(3), equalTo("[{\"witness\":\"node\"}]"));
+            assertThat(blockStore.get(4), nullValue());
+
+            blockStream = new BlockStream(steemJAsync, 1, 3, 2, 0);
+            while (blockStream.hasNext()) {
+                blockStream.next();
+            }
+
+            assertThat(blockNode.requestedBlocks, equalTo(Arrays.asList(3L, 4L)));
+
+            blockNode.close();
+        } finally {
+            SteemJConfig.getInstance().setTransportType(TransportType.WEBSOCKET);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.base.models.BlockId;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.communication.BlockAppliedCallback;
+import eu.bittrade.libs.steemj.enums.BlockStreamMode;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * Test that the {@link BlockSubscription} delivers every block exactly once
+ * and in order.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class BlockSubscriptionTest {
+    /**
+     * A simulated Steem Node whose head block is set by the test.
+     */
+    private static class SimulatedNode implements LongFunction<CompletableFuture<SignedBlockWithInfo>>,
+            Supplier<CompletableFuture<Long>>, Function<BlockAppliedCallback, CompletableFuture<Void>> {
+        private final Map<Long, Integer> failuresLeft = new HashMap<>();
+        private final List<BlockAppliedCallback> registrations = new ArrayList<>();
+        private long headBlockNumber;
+        private long lastIrreversibleBlockNumber;
+        private boolean followIrreversibleBlocks;
+        private int numberOfBoundRequests;
+
+        @Override
+        public synchronized CompletableFuture<SignedBlockWithInfo> apply(long blockNumber) {
+            CompletableFuture<SignedBlockWithInfo> block = new CompletableFuture<>();
+
+            Integer failures = failuresLeft.get(blockNumber);
+            if (failures != null && failures > 0) {
+                failuresLeft.put(blockNumber, failures - 1);
+                block.completeExceptionally(new SteemCommunicationException("Node not available."));
+            } else if (blockNumber > headBlockNumber) {
+                // The node does not know the block yet.
+                block.complete(null);
+            } else {
+                SignedBlockWithInfo signedBlockWithInfo = new SignedBlockWithInfo() {
+                };
+                signedBlockWithInfo.setBlockId(createBlockId(blockNumber));
+                block.complete(signedBlockWithInfo);
+            }
+
+            return block;
+        }
+
+        @Override
+        public synchronized CompletableFuture<Long> get() {
+            numberOfBoundRequests++;
+            return CompletableFuture
+                    .completedFuture(followIrreversibleBlocks ? lastIrreversibleBlockNumber : headBlockNumber);
+        }
+
+        @Override
+        public synchronized CompletableFuture<Void> apply(BlockAppliedCallback blockAppliedCallback) {
+            registrations.add(blockAppliedCallback);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private synchronized void produceBlocks(long newHeadBlockNumber) {
+            headBlockNumber = newHeadBlockNumber;
+            lastIrreversibleBlockNumber = newHeadBlockNumber - 15;
+        }
+
+        private synchronized int getNumberOfBoundRequests() {
+            return numberOfBoundRequests;
+        }
+
+        private synchronized int getNumberOfRegistrations() {
+            return registrations.size();
+        }
+
+        private synchronized void notifyBlock(long blockNumber) {
+            SignedBlockHeader signedBlockHeader = new SignedBlockHeader();
+            signedBlockHeader.setPrevious(createBlockId(blockNumber - 1));
+            registrations.get(registrations.size() - 1).onNewBlock(signedBlockHeader);
+        }
+    }
+
+    /**
+     * A listener that remembers the delivered blocks.
+     */
+    private static class RecordingListener implements BlockListener {
+        private final List<Long> deliveredBlocks = new ArrayList<>();
+
+        @Override
+        public synchronized void onBlock(long blockNumber, SignedBlockWithInfo block) {
+            assertThat(block.getBlockId().getNumberFromHash(), equalTo((int) blockNumber));
+            deliveredBlocks.add(blockNumber);
+        }
+
+        private List<Long> awaitBlocks(long lastBlockNumber) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (System.currentTimeMillis() < deadline) {
+                synchronized (this) {
+                    if (!deliveredBlocks.isEmpty()
+                            && deliveredBlocks.get(deliveredBlocks.size() - 1) >= lastBlockNumber) {
+                        return new ArrayList<>(deliveredBlocks);
+                    }
+                }
+
+                Thread.sleep(10);
+            }
+
+            synchronized (this) {
+                return new ArrayList<>(deliveredBlocks);
+            }
+        }
+    }
+
+    /**
+     * Test that the blocks produced before the subscription has been started
+     * are delivered first, that blocks without a notification are not missed
+     * and that repeated notifications do not cause duplicates.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testBackfillAndLiveBlocks() throws Exception {
+        SimulatedNode node = new SimulatedNode();
+        node.produceBlocks(10);
+        RecordingListener listener = new RecordingListener();
+
+        try (BlockSubscription blockSubscription = new BlockSubscription(node, node, node, 5, listener,
+                BlockStreamMode.HEAD, 3, 10)) {
+            blockSubscription.start();
+            assertThat(listener.awaitBlocks(10), equalTo(createRange(5, 10)));
+
+            // The notification for block 11 got lost.
+            node.produceBlocks(12);
+            node.notifyBlock(12);
+            node.notifyBlock(12);
+            node.notifyBlock(11);
+            assertThat(listener.awaitBlocks(12), equalTo(createRange(5, 12)));
+
+            Thread.sleep(50);
+            assertThat(listener.awaitBlocks(12), equalTo(createRange(5, 12)));
+            assertThat(blockSubscription.getLastDeliveredBlockNumber(), equalTo(12L));
+        }
+    }
+
+    /**
+     * Test that the callback is registered again after a reconnect and that
+     * the blocks applied in the meantime are delivered.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testReconnect() throws Exception {
+        SimulatedNode node = new SimulatedNode();
+        node.produceBlocks(3);
+        RecordingListener listener = new RecordingListener();
+
+        try (BlockSubscription blockSubscription = new BlockSubscription(node, node, node, 1, listener,
+                BlockStreamMode.HEAD, 3, 10)) {
+            blockSubscription.start();
+            assertThat(listener.awaitBlocks(3), equalTo(createRange(1, 3)));
+            assertThat(node.getNumberOfRegistrations(), equalTo(1));
+
+            // The connection was closed while block 4 to 20 have been applied.
+            node.produceBlocks(20);
+            blockSubscription.onConnectionOpened();
+
+            assertThat(listener.awaitBlocks(20), equalTo(createRange(1, 20)));
+            assertThat(node.getNumberOfRegistrations(), equalTo(2));
+        }
+    }
+
+    /**
+     * Test that a block is requested again, if the request failed more often
+     * than the stream retries it, without skipping the block.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testFailedRequests() throws Exception {
+        SimulatedNode node = new SimulatedNode();
+        node.produceBlocks(6);
+        node.failuresLeft.put(4L, BlockStream.DEFAULT_MAXIMUM_RETRIES + 2);
+        RecordingListener listener = new RecordingListener();
+
+        try (BlockSubscription blockSubscription = new BlockSubscription(node, node, node, 1, listener,
+                BlockStreamMode.HEAD, 2, 10)) {
+            blockSubscription.start();
+            assertThat(listener.awaitBlocks(6), equalTo(createRange(1, 6)));
+        }
+    }
+
+    /**
+     * Test that only irreversible blocks are delivered and that the last
+     * irreversible block is requested once for each notification.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testIrreversibleBlocks() throws Exception {
+        SimulatedNode node = new SimulatedNode();
+        node.followIrreversibleBlocks = true;
+        node.produceBlocks(30);
+        RecordingListener listener = new RecordingListener();
+
+        try (BlockSubscription blockSubscription = new BlockSubscription(node, node, node, 1, listener,
+                BlockStreamMode.IRREVERSIBLE, 4, 10)) {
+            blockSubscription.start();
+            assertThat(listener.awaitBlocks(15), equalTo(createRange(1, 15)));
+            assertThat(node.getNumberOfBoundRequests(), equalTo(1));
+
+            node.produceBlocks(31);
+            node.notifyBlock(31);
+            assertThat(listener.awaitBlocks(16), equalTo(createRange(1, 16)));
+            assertThat(node.getNumberOfBoundRequests(), equalTo(2));
+
+            Thread.sleep(50);
+            assertThat(blockSubscription.getLastDeliveredBlockNumber(), equalTo(16L));
+        }
+    }
+
+    /**
+     * Test that a subscription without a callback registrar polls the head
+     * block once per block interval and never registers a callback.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testPollingWithoutCallbacks() throws Exception {
+        SimulatedNode node = new SimulatedNode();
+        node.produceBlocks(5);
+        RecordingListener listener = new RecordingListener();
+
+        try (BlockSubscription blockSubscription = new BlockSubscription(node, node, null, 1, listener,
+                BlockStreamMode.HEAD, 4, 10)) {
+            blockSubscription.start();
+            assertThat(listener.awaitBlocks(5), equalTo(createRange(1, 5)));
+
+            node.produceBlocks(8);
+            assertThat(listener.awaitBlocks(8), equalTo(createRange(1, 8)));
+            assertThat(node.getNumberOfRegistrations(), equalTo(0));
+        }
+    }
+
+    /**
+     * Create a list of all block numbers from <code>from</code> to
+     * <code>to</code>.
+     *
+     * @param from
+     *            The first block number.
+     * @param to
+     *            The last block number (inclusive).
+     * @return The block numbers.
+     */
+    private static List<Long> createRange(long from, long to) {
+        List<Long> blockNumbers = new ArrayList<>();
+        for (long blockNumber = from; blockNumber <= to; blockNumber++) {
+            blockNumbers.add(blockNumber);
+        }
+
+        return blockNumbers;
+    }
+
+    /**
+     * Create the id of the block with the given number.
+     *
+     * @param blockNumber
+     *            The block number.
+     * @return The block id.
+     */
+    private static BlockId createBlockId(long blockNumber) {
+        return new BlockId(String.format("%08x", blockNumber) + "00000000000000000000000000000000");
+    }
+}
@@ -0,0 +1,262 @@
+package eu.bittrade.libs.steemj.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.AppliedOperation;
+import eu.bittrade.libs.steemj.base.models.Asset;
+import eu.bittrade.libs.steemj.base.models.BlockId;
+import eu.bittrade.libs.steemj.base.models.Permlink;
+import eu.bittrade.libs.steemj.base.models.SignedBlockWithInfo;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.TimePointSec;
+import eu.bittrade.libs.steemj.base.models.TransactionId;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferOperation;
+import eu.bittrade.libs.steemj.base.models.operations.VoteOperation;
+import eu.bittrade.libs.steemj.base.models.operations.virtual.ProducerRewardOperation;
+import eu.bittrade.libs.steemj.communication.CommunicationHandler;
+import eu.bittrade.libs.steemj.enums.AssetSymbolType;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * Test that the {@link OperationDispatcher} passes the operations of a block
+ * to the listeners registered for their type.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class OperationDispatcherTest {
+    private static final long BLOCK_NUMBER = 13138393;
+
+    /**
+     * A fetcher that counts the requests for virtual operations.
+     */
+    private static class VirtualOperationFetcher implements IntFunction<CompletableFuture<List<AppliedOperation>>> {
+        private final List<AppliedOperation> virtualOperations;
+        private int numberOfRequests;
+        private boolean fail;
+
+        private VirtualOperationFetcher(List<AppliedOperation> virtualOperations) {
+            this.virtualOperations = virtualOperations;
+        }
+
+        @Override
+        public CompletableFuture<List<AppliedOperation>> apply(int blockNumber) {
+            numberOfRequests++;
+
+            CompletableFuture<List<AppliedOperation>> result = new CompletableFuture<>();
+            if (fail) {
+                result.completeExceptionally(new SteemCommunicationException("Node not available."));
+            } else {
+                result.complete(virtualOperations);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * A listener that remembers the received operations.
+     */
+    private static class RecordingListener<T extends Operation> implements OperationListener<T> {
+        private final List<T> operations = new ArrayList<>();
+        private final List<AppliedOperation> contexts = new ArrayList<>();
+
+        @Override
+        public void onOperation(T operation, AppliedOperation context) {
+            operations.add(operation);
+            contexts.add(context);
+        }
+    }
+
+    /**
+     * Test that each listener only receives the operations of its type
+     * together with their context and that the virtual operations are only
+     * requested once per block.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testTypedListeners() throws Exception {
+        VirtualOperationFetcher fetcher = new VirtualOperationFetcher(Arrays.asList(createProducerReward()));
+        OperationDispatcher operationDispatcher = new OperationDispatcher(fetcher);
+
+        RecordingListener<TransferOperation> transferListener = new RecordingListener<>();
+        RecordingListener<TransferOperation> secondTransferListener = new RecordingListener<>();
+        RecordingListener<ProducerRewardOperation> producerRewardListener = new RecordingListener<>();
+        RecordingListener<Operation> allOperationsListener = new RecordingListener<>();
+        operationDispatcher.addOperationListener(TransferOperation.class, transferListener);
+        operationDispatcher.addOperationListener(TransferOperation.class, secondTransferListener);
+        operationDispatcher.addOperationListener(ProducerRewardOperation.class, producerRewardListener);
+        operationDispatcher.addOperationListener(Operation.class, allOperationsListener);
+
+        final List<Long> blocks = new ArrayList<>();
+        operationDispatcher.addBlockListener(new BlockListener() {
+            @Override
+            public void onBlock(long blockNumber, SignedBlockWithInfo block) {
+                blocks.add(blockNumber);
+            }
+        });
+
+        operationDispatcher.onBlock(BLOCK_NUMBER, createBlock());
+
+        assertThat(fetcher.numberOfRequests, equalTo(1));
+        assertThat(blocks, equalTo(Arrays.asList(BLOCK_NUMBER)));
+
+        assertThat(transferListener.operations.size(), equalTo(1));
+        assertThat(secondTransferListener.operations.get(0), sameInstance(transferListener.operations.get(0)));
+        AppliedOperation transferContext = transferListener.contexts.get(0);
+        assertThat(transferContext.getBlock(), equalTo((int) BLOCK_NUMBER));
+        assertThat(transferContext.getTrxInBlock(), equalTo(1));
+        assertThat(transferContext.getOpInTrx(), equalTo(1));
+        assertThat(transferContext.getTrxId().toString(), equalTo(createTransactionId(1).toString()));
+
+        assertThat(producerRewardListener.operations.size(), equalTo(1));
+        assertThat(producerRewardListener.operations.get(0).getProducer(), equalTo(new AccountName("dez1337")));
+
+        assertThat(allOperationsListener.operations.size(), equalTo(4));
+        assertThat(allOperationsListener.operations.get(0), instanceOf(VoteOperation.class));
+        assertThat(allOperationsListener.operations.get(1), instanceOf(VoteOperation.class));
+        assertThat(allOperationsListener.operations.get(2), instanceOf(TransferOperation.class));
+        assertThat(allOperationsListener.operations.get(3), instanceOf(ProducerRewardOperation.class));
+    }
+
+    /**
+     * Test that the operations of a filtered block keep their position in the
+     * transaction, so skipped operations do not change the
+     * <code>opInTrx</code> of the following operations.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testSkippedOperations() throws Exception {
+        OperationDispatcher operationDispatcher = new OperationDispatcher(
+                new VirtualOperationFetcher(new ArrayList<AppliedOperation>()));
+        RecordingListener<Operation> allOperationsListener = new RecordingListener<>();
+        operationDispatcher.addOperationListener(Operation.class, allOperationsListener);
+
+        SignedBlockWithInfo block = createBlock();
+        // The vote of the second transaction has been skipped while parsing.
+        block.getTransactions().get(1).getOperations().set(0, null);
+
+        operationDispatcher.onBlock(BLOCK_NUMBER, block);
+
+        assertThat(allOperationsListener.operations.size(), equalTo(2));
+        assertThat(allOperationsListener.operations.get(1), instanceOf(TransferOperation.class));
+        assertThat(allOperationsListener.contexts.get(1).getTrxInBlock(), equalTo(1));
+        assertThat(allOperationsListener.contexts.get(1).getOpInTrx(), equalTo(1));
+    }
+
+    /**
+     * Test that the virtual operations are not requested if nobody is
+     * interested in them and that no listener is called if they could not be
+     * requested.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testVirtualOperationRequests() throws Exception {
+        VirtualOperationFetcher fetcher = new VirtualOperationFetcher(Arrays.asList(createProducerReward()));
+        OperationDispatcher operationDispatcher = new OperationDispatcher(fetcher);
+
+        RecordingListener<VoteOperation> voteListener = new RecordingListener<>();
+        operationDispatcher.addOperationListener(VoteOperation.class, voteListener);
+        operationDispatcher.onBlock(BLOCK_NUMBER, createBlock());
+
+        assertThat(fetcher.numberOfRequests, equalTo(0));
+        assertThat(voteListener.operations.size(), equalTo(2));
+
+        RecordingListener<ProducerRewardOperation> producerRewardListener = new RecordingListener<>();
+        operationDispatcher.addOperationListener(ProducerRewardOperation.class, producerRewardListener);
+        fetcher.fail = true;
+        try {
+            operationDispatcher.onBlock(BLOCK_NUMBER, createBlock());
+            fail("The failed request should be reported.");
+        } catch (SteemCommunicationException e) {
+            assertThat(voteListener.operations.size(), equalTo(2));
+        }
+
+        assertThat(operationDispatcher.removeOperationListener(ProducerRewardOperation.class, producerRewardListener),
+                equalTo(true));
+        operationDispatcher.onBlock(BLOCK_NUMBER, createBlock());
+        assertThat(fetcher.numberOfRequests, equalTo(1));
+        assertThat(voteListener.operations.size(), equalTo(4));
+    }
+
+    /**
+     * Create a block with two transactions. The first one contains a vote, the
+     * second one a vote and a transfer.
+     *
+     * @return The block.
+     */
+    private static SignedBlockWithInfo createBlock() {
+        BlockId blockId = new BlockId(String.format("%08x", BLOCK_NUMBER) + "00000000000000000000000000000000");
+        final List<SignedTransaction> blockTransactions = Arrays.asList(
+                new SignedTransaction(blockId, Arrays.asList(createVote()), null),
+                new SignedTransaction(blockId, Arrays.asList(createVote(),
+                        (Operation) new TransferOperation(new AccountName("dez1337"), new AccountName("steemj"),
+                                new Asset(1, AssetSymbolType.STEEM), "steemj")),
+                        null));
+
+        SignedBlockWithInfo block = new SignedBlockWithInfo() {
+            {
+                transactions = blockTransactions;
+            }
+        };
+        block.setBlockId(blockId);
+        block.setTimestamp(new TimePointSec(1500000000));
+        block.setTransactionIds(Arrays.asList(createTransactionId(0), createTransactionId(1)));
+
+        return block;
+    }
+
+    /**
+     * Create a vote operation.
+     *
+     * @return The vote.
+     */
+    private static Operation createVote() {
+        return new VoteOperation(new AccountName("dez1337"), new AccountName("steemj"), new Permlink("steemj"),
+                (short) 10000);
+    }
+
+    /**
+     * Create the id of a transaction.
+     *
+     * @param index
+     *            The index of the transaction in the block.
+     * @return The transaction id.
+     */
+    private static TransactionId createTransactionId(int index) {
+        return new TransactionId(String.format("%040x", index + 1));
+    }
+
+    /**
+     * Create a virtual operation as returned by the Steem Node.
+     *
+     * @return The virtual operation.
+     * @throws Exception
+     *             If the operation could not be parsed.
+     */
+    private static AppliedOperation createProducerReward() throws Exception {
+        return CommunicationHandler.getObjectMapper().readValue("{\"trx_id\":\"" + String.format("%040x", 0)
+                + "\",\"block\":" + BLOCK_NUMBER + ",\"trx_in_block\":2,\"op_in_trx\":0,\"virtual_op\":1,"
+                + "\"timestamp\":\"2017-07-14T02:40:00\",\"op\":[\"producer_reward\",{\"producer\":\"dez1337\","
+                + "\"vesting_shares\":\"1.000000 VESTS\"}]}", AppliedOperation.class);
+    }
+}
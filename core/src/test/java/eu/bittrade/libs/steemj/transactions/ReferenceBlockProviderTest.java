@@ -0,0 +1,141 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.base.models.BlockId;
+import eu.bittrade.libs.steemj.base.models.SignedBlockHeader;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+
+/**
+ * Test the caching of the {@link ReferenceBlockProvider}.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class ReferenceBlockProviderTest {
+    private static final BlockId FIRST_BLOCK_ID = new BlockId("0000000109833ce528d5bbfb3f6225b39ee10086");
+    private static final BlockId SECOND_BLOCK_ID = new BlockId("00000002ed04e3c3def0238f693931ee7eebbdf1");
+
+    /**
+     * A fetcher that counts the requests and lets the test decide when they
+     * are answered.
+     */
+    private static class ControlledBlockIdFetcher implements Supplier<CompletableFuture<BlockId>> {
+        private CompletableFuture<BlockId> pendingBlockId;
+        private BlockId blockId = FIRST_BLOCK_ID;
+        private boolean answerImmediately = true;
+        private SteemCommunicationException failure;
+        private int numberOfRequests;
+
+        @Override
+        public synchronized CompletableFuture<BlockId> get() {
+            numberOfRequests++;
+            pendingBlockId = new CompletableFuture<>();
+            if (failure != null) {
+                pendingBlockId.completeExceptionally(failure);
+            } else if (answerImmediately) {
+                pendingBlockId.complete(blockId);
+            }
+
+            return pendingBlockId;
+        }
+    }
+
+    /**
+     * Restore the default configuration.
+     */
+    @After
+    public void resetConfig() {
+        SteemJConfig.getInstance().setReferenceBlockMaximumAge(30000L);
+    }
+
+    /**
+     * Test that the block id is only requested once while it is fresh and
+     * that a block applied callback updates it.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testCachedBlockId() throws Exception {
+        ControlledBlockIdFetcher blockIdFetcher = new ControlledBlockIdFetcher();
+        ReferenceBlockProvider referenceBlockProvider = new ReferenceBlockProvider(blockIdFetcher);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(referenceBlockProvider.getReferenceBlockId(), equalTo(FIRST_BLOCK_ID));
+        }
+        assertThat(blockIdFetcher.numberOfRequests, equalTo(1));
+
+        SignedBlockHeader signedBlockHeader = new SignedBlockHeader() {
+            {
+                this.previous = SECOND_BLOCK_ID;
+            }
+        };
+        referenceBlockProvider.getBlockAppliedCallback().onNewBlock(signedBlockHeader);
+
+        assertThat(referenceBlockProvider.getReferenceBlockId(), equalTo(SECOND_BLOCK_ID));
+        assertThat(blockIdFetcher.numberOfRequests, equalTo(1));
+    }
+
+    /**
+     * Test that the block id is requested for each call if the cache is
+     * disabled and that concurrent refreshes share one request.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testDisabledCache() throws Exception {
+        SteemJConfig.getInstance().setReferenceBlockMaximumAge(0);
+
+        ControlledBlockIdFetcher blockIdFetcher = new ControlledBlockIdFetcher();
+        ReferenceBlockProvider referenceBlockProvider = new ReferenceBlockProvider(blockIdFetcher);
+
+        assertThat(referenceBlockProvider.getReferenceBlockId(), equalTo(FIRST_BLOCK_ID));
+        blockIdFetcher.blockId = SECOND_BLOCK_ID;
+        assertThat(referenceBlockProvider.getReferenceBlockId(), equalTo(SECOND_BLOCK_ID));
+        assertThat(blockIdFetcher.numberOfRequests, equalTo(2));
+
+        blockIdFetcher.answerImmediately = false;
+        CompletableFuture<BlockId> firstRefresh = referenceBlockProvider.refresh();
+        CompletableFuture<BlockId> secondRefresh = referenceBlockProvider.refresh();
+        assertThat(blockIdFetcher.numberOfRequests, equalTo(3));
+
+        blockIdFetcher.pendingBlockId.complete(FIRST_BLOCK_ID);
+        assertThat(firstRefresh.get(), equalTo(FIRST_BLOCK_ID));
+        assertThat(secondRefresh.get(), equalTo(FIRST_BLOCK_ID));
+    }
+
+    /**
+     * Test that a failed request is reported to the caller and that the next
+     * call sends a new request.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testFailedRequest() throws Exception {
+        ControlledBlockIdFetcher blockIdFetcher = new ControlledBlockIdFetcher();
+        blockIdFetcher.failure = new SteemCommunicationException("Node not available.");
+        ReferenceBlockProvider referenceBlockProvider = new ReferenceBlockProvider(blockIdFetcher);
+
+        try {
+            referenceBlockProvider.getReferenceBlockId();
+            fail("A SteemCommunicationException has been expected.");
+        } catch (SteemCommunicationException e) {
+            assertThat(blockIdFetcher.numberOfRequests, equalTo(1));
+        }
+
+        blockIdFetcher.failure = null;
+        assertThat(referenceBlockProvider.getReferenceBlockId(), equalTo(FIRST_BLOCK_ID));
+        assertThat(blockIdFetcher.numberOfRequests, equalTo(2));
+    }
+}
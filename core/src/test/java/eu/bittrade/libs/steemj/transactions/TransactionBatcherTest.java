@@ -0,0 +1,274 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.Asset;
+import eu.bittrade.libs.steemj.base.models.Permlink;
+import eu.bittrade.libs.steemj.base.models.operations.CustomJsonOperation;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.base.models.operations.TransferOperation;
+import eu.bittrade.libs.steemj.base.models.operations.VoteOperation;
+import eu.bittrade.libs.steemj.enums.AssetSymbolType;
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.exceptions.SteemResponseError;
+
+/**
+ * Test the grouping of operations by the {@link TransactionBatcher}.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionBatcherTest {
+    /**
+     * A broadcaster that remembers the transactions and answers them
+     * immediately.
+     */
+    private static class RecordingBroadcaster implements Function<List<Operation>, CompletableFuture<Void>> {
+        private final List<List<Operation>> transactions = new ArrayList<>();
+        private final List<String> threadNames = new ArrayList<>();
+        private SteemCommunicationException failure;
+        private Operation rejectedOperation;
+
+        @Override
+        public synchronized CompletableFuture<Void> apply(List<Operation> operations) {
+            transactions.add(new ArrayList<>(operations));
+            threadNames.add(Thread.currentThread().getName());
+
+            CompletableFuture<Void> broadcast = new CompletableFuture<>();
+            if (failure != null) {
+                broadcast.completeExceptionally(failure);
+            } else if (operations.contains(rejectedOperation)) {
+                broadcast.completeExceptionally(new SteemResponseError("The operation is invalid.", null));
+            } else {
+                broadcast.complete(null);
+            }
+
+            return broadcast;
+        }
+    }
+
+    /**
+     * Test that operations requiring different authorities are broadcasted in
+     * different transactions and that a batch is broadcasted as soon as it is
+     * full.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testGroupByAuthority() throws Exception {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        try (TransactionBatcher transactionBatcher = new TransactionBatcher(broadcaster, 3, 60000)) {
+            for (int i = 0; i < 4; i++) {
+                results.add(transactionBatcher.add(createVote(i)));
+                results.add(transactionBatcher.add(createTransfer(i)));
+            }
+
+            for (int i = 0; i < 6; i++) {
+                results.get(i).get(5, TimeUnit.SECONDS);
+            }
+
+            assertThat(broadcaster.transactions.size(), equalTo(2));
+            assertThat(broadcaster.transactions.get(0).size(), equalTo(3));
+            assertThat(broadcaster.transactions.get(0).get(0), instanceOf(VoteOperation.class));
+            assertThat(broadcaster.transactions.get(1).size(), equalTo(3));
+            assertThat(broadcaster.transactions.get(1).get(0), instanceOf(TransferOperation.class));
+
+            transactionBatcher.flush();
+        }
+
+        for (CompletableFuture<Void> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(broadcaster.transactions.size(), equalTo(4));
+        for (List<Operation> transaction : broadcaster.transactions) {
+            Class<?> operationType = transaction.get(0).getClass();
+            for (Operation operation : transaction) {
+                assertThat(operation.getClass(), equalTo((Object) operationType));
+            }
+        }
+
+        for (String threadName : broadcaster.threadNames) {
+            assertThat(threadName, equalTo("steemj-transaction-batcher"));
+        }
+    }
+
+    /**
+     * Test that operations of different accounts are broadcasted in different
+     * transactions, so a missing key of one account does not affect the
+     * operations of the other accounts.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testGroupByAccount() throws Exception {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        try (TransactionBatcher transactionBatcher = new TransactionBatcher(broadcaster, 2, 60000)) {
+            results.add(transactionBatcher.add(createVote("dez1337", 0)));
+            results.add(transactionBatcher.add(createVote("steemj", 1)));
+            results.add(transactionBatcher.add(createVote("dez1337", 2)));
+
+            results.get(0).get(5, TimeUnit.SECONDS);
+            assertThat(broadcaster.transactions.size(), equalTo(1));
+            assertThat(broadcaster.transactions.get(0).size(), equalTo(2));
+        }
+
+        results.get(1).get(5, TimeUnit.SECONDS);
+        assertThat(broadcaster.transactions.size(), equalTo(2));
+        assertThat(broadcaster.transactions.get(1).size(), equalTo(1));
+    }
+
+    /**
+     * Test that the operations of a transaction rejected by the Steem Node are
+     * broadcasted again one by one, so only the invalid operation fails.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testRetryRejectedBatch() throws Exception {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster();
+        broadcaster.rejectedOperation = createVote(1);
+
+        try (TransactionBatcher transactionBatcher = new TransactionBatcher(broadcaster, 3, 60000)) {
+            List<CompletableFuture<Void>> results = Arrays.asList(transactionBatcher.add(createVote(0)),
+                    transactionBatcher.add(broadcaster.rejectedOperation), transactionBatcher.add(createVote(2)));
+
+            results.get(0).get(5, TimeUnit.SECONDS);
+            assertFailure(results.get(1), SteemResponseError.class);
+            results.get(2).get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(broadcaster.transactions.size(), equalTo(4));
+        assertThat(broadcaster.transactions.get(0).size(), equalTo(3));
+        for (int i = 1; i < broadcaster.transactions.size(); i++) {
+            assertThat(broadcaster.transactions.get(i).size(), equalTo(1));
+        }
+    }
+
+    /**
+     * Test that an operation is broadcasted once the flush interval has
+     * passed.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testFlushInterval() throws Exception {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster();
+
+        try (TransactionBatcher transactionBatcher = new TransactionBatcher(broadcaster, 3, 10)) {
+            transactionBatcher.add(createVote(0)).get(5, TimeUnit.SECONDS);
+            transactionBatcher.add(createVote(1)).get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(broadcaster.transactions.size(), equalTo(2));
+    }
+
+    /**
+     * Test that a failed broadcast is reported for all operations of the
+     * transaction and that invalid operations are rejected immediately.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testFailures() throws Exception {
+        RecordingBroadcaster broadcaster = new RecordingBroadcaster();
+        broadcaster.failure = new SteemCommunicationException("Node not available.");
+
+        TransactionBatcher transactionBatcher = new TransactionBatcher(broadcaster, 2, 60000);
+        List<CompletableFuture<Void>> results = Arrays.asList(transactionBatcher.add(createVote(0)),
+                transactionBatcher.add(createVote(1)));
+
+        for (CompletableFuture<Void> result : results) {
+            assertFailure(result, SteemCommunicationException.class);
+        }
+
+        CustomJsonOperation mixedOperation = new CustomJsonOperation(Arrays.asList(new AccountName("dez1337")),
+                Arrays.asList(new AccountName("steemj")), "follow", "{}");
+        assertFailure(transactionBatcher.add(mixedOperation), SteemInvalidTransactionException.class);
+
+        transactionBatcher.close();
+        assertFailure(transactionBatcher.add(createVote(2)), IllegalStateException.class);
+        assertThat(broadcaster.transactions.size(), equalTo(1));
+    }
+
+    /**
+     * Assert that the given <code>result</code> failed with an exception of
+     * the given type.
+     *
+     * @param result
+     *            The result to check.
+     * @param expectedType
+     *            The type of the exception.
+     * @throws Exception
+     *             If the result did not fail in time.
+     */
+    private static void assertFailure(CompletableFuture<Void> result, Class<?> expectedType) throws Exception {
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("A " + expectedType.getSimpleName() + " has been expected.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(expectedType));
+        }
+    }
+
+    /**
+     * Create a vote for a different post each time.
+     *
+     * @param index
+     *            Used to create a different permlink for each vote.
+     * @return The vote.
+     */
+    private static Operation createVote(int index) {
+        return createVote("dez1337", index);
+    }
+
+    /**
+     * Create a vote of the given <code>voter</code> for a different post each
+     * time.
+     *
+     * @param voter
+     *            The account that votes.
+     * @param index
+     *            Used to create a different permlink for each vote.
+     * @return The vote.
+     */
+    private static Operation createVote(String voter, int index) {
+        return new VoteOperation(new AccountName(voter), new AccountName("steemj"), new Permlink("steemj-" + index),
+                (short) 10000);
+    }
+
+    /**
+     * Create a transfer with a different amount each time.
+     *
+     * @param index
+     *            Used to create a different amount for each transfer.
+     * @return The transfer.
+     */
+    private static Operation createTransfer(int index) {
+        return new TransferOperation(new AccountName("dez1337"), new AccountName("steemj"),
+                new Asset(index + 1, AssetSymbolType.STEEM), "steemj");
+    }
+}
@@ -0,0 +1,213 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.BaseTest;
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.Asset;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.TimePointSec;
+import eu.bittrade.libs.steemj.base.models.operations.EscrowTransferOperation;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.AssetSymbolType;
+import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+
+/**
+ * Test the {@link TransactionDecoder} and the
+ * {@link SignedTransaction#toHex()} method.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionDecoderTest extends BaseTest {
+    /** The binary format does not contain the milliseconds. */
+    private static final long EXPIRATION_DATE_AS_TIMESTAMP = (System.currentTimeMillis() / 1000 + 1800) * 1000;
+    private static final String PRIVATE_ACTIVE_KEY = "5KQwrPbwdL6PhXujxW37FSSQZ1JiwsST4cqQzDeyXtP79zkvFD3";
+    /** The result of the "get_transaction_hex" API for each operation type. */
+    private static final Map<String, String> NODE_TRANSACTIONS = new TreeMap<>();
+
+    /**
+     * Prepare the environment for the test execution.
+     */
+    @BeforeClass
+    public static void init() {
+        List<ImmutablePair<PrivateKeyType, String>> privateKeys = new ArrayList<>();
+        privateKeys.add(new ImmutablePair<>(PrivateKeyType.ACTIVE, PRIVATE_ACTIVE_KEY));
+
+        SteemJConfig.getInstance().getPrivateKeyStorage().addAccount(new AccountName("dez1337"), privateKeys);
+
+        NODE_TRANSACTIONS.put("AccountCreateOperation",
+                "f68585abf4dce9c804570109102700000000000003535445454d00000764657a3133333706737465656d6a010000000001026f6231b8ed1c5e964b42967759757f8bb879d68e7b09d9ea6eedec21de6fa4c4010001000000000102fe8cc11cc8251de6977636b55c1ab8a9d12b0b26154ac78e56e7c4257d8bcf69010001000000000103b453f46013fdbccb90b09ba169c388c34d84454a3b9fbec68d5a7819a734fca001000314aa202c9158990b3ec51a1aa49b2ab5d300c97b391df3beb34bb74f3c62699e0000011b45bfc693eb47ee2f002d0c2a6f432ce023e0dda97c2e76692a063b241752df0b37bd558982f2978e7923b44ba4c349845e3bd3dff50ce7785051918162dc64bc");
+        NODE_TRANSACTIONS.put("AccountCreateWithDelegationOperation",
+                "f68585abf4dce9c804570129f40100000000000003535445454d00001f6900312400000006564553545300000764657a3133333706737465656d6a010000000001026f6231b8ed1c5e964b42967759757f8bb879d68e7b09d9ea6eedec21de6fa4c4010001000000000102fe8cc11cc8251de6977636b55c1ab8a9d12b0b26154ac78e56e7c4257d8bcf69010001000000000103b453f46013fdbccb90b09ba169c388c34d84454a3b9fbec68d5a7819a734fca001000314aa202c9158990b3ec51a1aa49b2ab5d300c97b391df3beb34bb74f3c62699e000000011c6dbbad1d44a8cef307da8a7c542f2b442394edce566fe5680ce369ebf04276452e74669c28cfb6d7906d120adb2e52a38419ec09d51d2f88574f59e1f07cc4c9");
+        NODE_TRANSACTIONS.put("AccountUpdateOperation",
+                "f68585abf4dce7c80457010a0764657a31333337010100000000010245afe8ba78a2023ef69af6d3ecbbf26e37f5f5b9c1a8b37f80f4a1b761a75e590100010100000000010309b5f14e6ca97187ae2a2cdf4c6e7b15b5a434bf53ffcea6642f28e1aa5336c101000101000000000102a2a9e8a0ec260cfef0e7708d88a99f90809db2a61ea2a87dddb062d5f59a011c01000314aa202c9158990b3ec51a1aa49b2ab5d300c97b391df3beb34bb74f3c62699e0000011c792fac8bfdee0dac9086a4908f3d3798a7e551292f13c2dbfaa8c2b4b71cb6767136f8d7c11a6a24993980480ea45eef40485995e04062d5329ab1e98e80c6a5");
+        NODE_TRANSACTIONS.put("AccountWitnessProxyOperation",
+                "f68585abf4dcecc80457010d0764657a3133333706737465656d6a00011b0272a590d9302a4b49ab85683ec714fc85c8c4da9287701853016867fb834f6e4d28fea91a6e6f00690b8ac1c54fbc3db4d7c1d798ee66a638a431ab87640b0a");
+        NODE_TRANSACTIONS.put("AccountWitnessVoteOperation",
+                "f68585abf4dcebc80457010c0764657a313333370a676f6f642d6b61726d610100011c0bd317625d87f01e838165a689596eff95cb03d3cf2076ba670886eb29c2ab3f5155f80e7c52d388c0fbc52e362b9f9b00d3ff7426b9e0168c0281672ad19367");
+        NODE_TRANSACTIONS.put("CancelTransferFromSavingsOperation",
+                "f68585abf4dce8c8045701220764657a313333374b02000000011c1d758dde8a13c09292041cba1fd65989dde679a53516086e06db54ce3fa62f7524df42ea62a49ec775a854659fb6552c1b66e1e5eb1ce5c02c3eb0c8acfd7162");
+        NODE_TRANSACTIONS.put("ChangeRecoveryAccountOperation",
+                "f68585abf4dcebc80457011a0764657a3133333706737465656d6a0000011b6a2574daa46d4e964d37a2b129fbfff8db4e4e49eaf12f7c072e940833a6181c5c961d46ddc3eaaaf6e2500c7f954b06386f888e1f22d2ec5554a3cd9629770a");
+        NODE_TRANSACTIONS.put("ClaimRewardBalanceOperation",
+                "f68585abf4dceac8045701270764657a31333337020000000000000003535445454d0000010000000000000003534244000000000200000000000000065645535453000000011c3143bace1dc9ad51e382d0a30f6fa7565859154c1e337f30353f643a3af1f27e74095d7c7154bf2c973fe39c199fd1dffefc0986751bee498fd3cda286bafc41");
+        NODE_TRANSACTIONS.put("CommentOperation",
+                "f68585abf4dce8c8045701010764657a3133333728737465656d6a2d76302d322d342d6861732d6265656e2d72656c65617365642d7570646174652d390764657a313333372b72652d737465656d6a2d76302d322d342d6861732d6265656e2d72656c65617365642d7570646174652d39012dcd095465737420415343494920546573742077697468206d6f7265207468616e20313237206469676974733a204c6f72656d20697073756d20646f6c6f722073697420616d65742c20636f6e736574657475722073616469707363696e6720656c6974722c20736564206469616d206e6f6e756d79206569726d6f642074656d706f7220696e766964756e74207574206c61626f726520657420646f6c6f7265206d61676e6120616c69717579616d20657261742c20736564206469616d20766f6c75707475612e204174207665726f20656f73206574206163637573616d206574206a7573746f2064756f20646f6c6f72657320657420656120726562756d2e205374657420636c697461206b6173642067756265726772656e2c206e6f207365612074616b696d6174612073616e6374757320657374204c6f72656d20697073756d20646f6c6f722073697420616d65742e204c6f72656d20697073756d20646f6c6f722073697420616d65742c20636f6e736574657475722073616469707363696e6720656c6974722c20736564206469616d206e6f6e756d79206569726d6f642074656d706f7220696e766964756e74207574206c61626f726520657420646f6c6f7265206d61676e6120616c69717579616d20657261742c20736564206469616d20766f6c75707475612e204174207665726f20656f73206574206163637573616d206574206a7573746f2064756f20646f6c6f72657320657420656120726562756d2e205374657420636c697461206b6173642067756265726772656e2c206e6f207365612074616b696d6174612073616e6374757320657374204c6f72656d20697073756d20646f6c6f722073697420616d65742e204c6f72656d20697073756d20646f6c6f722073697420616d65742c20636f6e736574657475722073616469707363696e6720656c6974722c20736564206469616d206e6f6e756d79206569726d6f642074656d706f7220696e766964756e74207574206c61626f726520657420646f6c6f7265206d61676e6120616c69717579616d20657261742c20736564206469616d20766f6c75707475612e204174207665726f20656f73206574206163637573616d206574206a7573746f2064756f20646f6c6f72657320657420656120726562756d2e205374657420636c697461206b6173642067756265726772656e2c206e6f207365612074616b696d6174612073616e6374757320657374204c6f72656d20697073756d20646f6c6f722073697420616d65742e204475697320617574656d2076656c2065756d2069726975726520646f6c6f7220696e2068656e64726572697420696e2076756c7075746174652076656c69742065737365206d6f6c657374696520636f6e7365717561742c2076656c20696c6c756d20646f6c6f72652065752066657567696174206e756c6c6120666163696c69736973206174207665726f2065726f7320657420616363756d73616e20657420697573746f206f64696f206469676e697373696d2071756920626c616e646974207072616573656e74206c7570746174756d207a7a72696c2064656c656e6974206175677565206475697320646f6c6f72652074652066657567616974206e756c6c6120666163696c6973692e204c6f72656d20697073756d20646f6c6f722073697420616d65742c027b7d00011c321bf09771acb494bcdf4f62226126bcef873e8efacf6548fda29a238262551c3d8a71fbf9e1d3265eec7fe3db263b1377cdf6348539301b9cc5fc08636a19e9");
+        NODE_TRANSACTIONS.put("CommentOptionsOperation",
+                "f68585abf4dc6fd3865901130764657a3133333728737465656d6a2d76302d322d342d6861732d6265656e2d72656c65617365642d7570646174652d3900ca9a3b0000000003534244000000001027010101000106737465656d6af40100011c5a395bb3f457b120c7a55c4450f3e89bba93d1c737d1fc28d56de03dec07a82a0656243704c0905025b5510b414128d853ca4f3bc325f2280a34d3c7c405871b");
+        NODE_TRANSACTIONS.put("ConvertOperation",
+                "f68585abf4dceec8045701080764657a31333337390500000100000000000000035342440000000000011b39df7757e8d202e850d45ac9f7de49cce804ed0cb3ace0cbe87f34e9be7ee33f4f50c4212e551983a29f6f4827b96432a253400ecef29e468c1b31e33c559f2d");
+        NODE_TRANSACTIONS.put("CustomBinaryOperation",
+                "f68585abf4dc69fce55801230000010764657a3133333700096578616d706c6549641154657374466f72537465656d4a3132332100011c42f7ac344c3c54396efebd440d384fe0c2e4bc6902d632681e933297f6d886092ed53e7e729327f2d828f988b3fe3d8ae919330caa9a25edcba251b844260d1d");
+        NODE_TRANSACTIONS.put("CustomJsonOperation",
+                "f68585abf4dc68fce558041200010764657a3133333706666f6c6c6f773b7b22666f6c6c6f776572223a2264657a31333337222c22666f6c6c6f77696e67223a22737465656d6a222c2277686174223a5b22626c6f67225d7d1200010764657a3133333706666f6c6c6f77377b22666f6c6c6f776572223a2264657a31333337222c22666f6c6c6f77696e67223a22737465656d6a222c2277686174223a5b22225d7d1200010764657a3133333706666f6c6c6f773d7b22666f6c6c6f776572223a2264657a31333337222c22666f6c6c6f77696e67223a22737465656d6a222c2277686174223a5b2269676e6f7265225d7d1200010764657a31333337067265626c6f676a7b226163636f756e74223a2264657a31333337222c22617574686f72223a22737465656d6a222c227065726d6c696e6b223a22737465656d6a2d76302d342d302d666561747572652d707265766965772d73696d706c69666965642d7472616e73616374696f6e73227d00011b7f2fe3cace0d2a9b8c508bfb4bdd02e1675fb4fb612ae1b31d08578fcde3886c7e81d59c8622b470fc11cf8ab461e906ad673354c4ddf620b0ec6159649b3a91");
+        NODE_TRANSACTIONS.put("CustomOperation",
+                "f68585abf4dc6afce558010f010764657a31333337d8101154657374466f72537465656d4a3132332100011c772ec477ef96ee85b7b397e061a3659e2aa49b5c8d6e68a719900079f971571b3b19421af788636c6ecb30e4ac950d63841108bc8dd8de9e8947a94c656f2604");
+        NODE_TRANSACTIONS.put("DeclineVotingRightsOperation",
+                "f68585abf4dceac8045701240764657a313333370000011c79abd06afe01810282b23034df82c8213611311d563c75ccc9c185ab795ae86b2c40952782388455ca18267c7c7ba84743bde3234a12360db6d5a210a9a43c19");
+        NODE_TRANSACTIONS.put("DelegateVestingSharesOperation",
+                "f68585abf4dce9c8045701280764657a3133333706737465656d6ac4f4f51800000000065645535453000000011c7b28a34479885c3ca12abcd180577382cf2d7d05a4f64219587c9cc8ae87f2707ace6d2297830935a1c21922b51c2647af44f3baaf7a0a860f55f4fefdbf2cc4");
+        NODE_TRANSACTIONS.put("DeleteCommentOperation",
+                "f68585abf4dce7c8045701110764657a313333377c72652d72652d627573696e6573737772692d72652d64657a313333372d686f772d746f2d7365637572652d796f75722d7765622d736572766963652d776974682d612d76616c69642d73736c2d63657274696669636174652d666f722d667265652d706172742d332d3230313730353237743136313730323131387a00011b74fb5ec4f498b091172f3c15ee2d442408d7bf226697d7f538f1e8bc6f1b164869e56c65b91ae028417d7ae2b46ffae9e1a6655caa3c8583c8401f0f503848a8");
+        NODE_TRANSACTIONS.put("EscrowApproveOperation",
+                "f68585abf4dce7c80457011f0764657a313333370764657a3133333706737465656d6a0764657a31333337220000000100011c332f9e5eb7bbe20ba131e73ef6b399c09b6c109b6873b6fc333570e087cd25271ce54a4070c8a012ef6e1e0f050a1f7c992a1f4fd2b7e6a17b61f178988fbff0");
+        NODE_TRANSACTIONS.put("EscrowDisputeOperation",
+                "f68585abf4dce8c80457011c0764657a313333370764657a3133333706737465656d6a0764657a313333372200000000011c2deb8ab73f8e68ad02b700291a237e8dcd918d54b0259ba51d887de8726c653f306f27c86f76891c070a84f1979935afdba31ed2a08a896b73badfc4b1050b16");
+        NODE_TRANSACTIONS.put("EscrowReleaseOperation",
+                "f68585abf4dcecc80457011d0764657a313333370764657a3133333706737465656d6a0764657a313333370764657a3133333722000000010000000000000003534244000000000a0000000000000003535445454d000000011c247493deeaf210cddf6a7d406bf1b0c2b11a76e6227150ea4ff89d5b53ecd85b7f358f1e689b1678f5369f802e75c40d59906de4209cc0ecea8a36958f7ace1b");
+        NODE_TRANSACTIONS.put("FeedPublishOperation",
+                "f68585abf4dce8c8045701070764657a3133333773000000000000000353424400000000640000000000000003535445454d000000011b1d264143ac5f04d46e563aae4e657100b45a74380e9afaa5c9148a4ec77c0c3b5ef08414d0c210ed3ef9eea860686a40a19863389ee618605a980bdb6d01a42c");
+        NODE_TRANSACTIONS.put("LimitOrderCancelOperation",
+                "f68585abf4dce9c8045701060764657a31333337204e000000011b1044e4094a14f65d84a8da327d5fec0c740ce4f39b892105786686911eac09051373042e96fce01763a9cb2a004019dc38b278e8fae12f86198f60e28c981f2c");
+        NODE_TRANSACTIONS.put("LimitOrderCreate2Operation",
+                "f68585abf4dce8c8045701150764657a31333337bf85070001000000000000000353424400000000010000000000000003534244000000000a0000000000000003535445454d000000e7c8045700011b682f18ada39a8194c5408bbd3a7b6185cd85e75f94e1d533f629c76a9ac5a1723257562c699d267f4428b17c682106f846fd973539abb55f7e2c7423cb48af5a");
+        NODE_TRANSACTIONS.put("LimitOrderCreateOperation",
+                "f68585abf4dce7c8045701050764657a31333337c3850700010000000000000003534244000000000a0000000000000003535445454d000000e7c8045700011b69776cfd76f1e20da06f40c9df5fcc1c25156b7968b3566655ba39622bd31158798b91b16bc134740051be55e4c678a9fa0db60b50fb4ff8f77a26cc4e6ed73c");
+        NODE_TRANSACTIONS.put("ProveAuthorityOperation",
+                "f68585abf4dcefc8045702170764657a3133333700170764657a313333370100011c4c882be373ff6a4a3d06bd0da932b981ac46bfc4bde38284943dc2685cc2c00a5e8196f22c5b5704cf4fd963cd3a12347306bf9ea76e23f99c06ab74c3b8fe51");
+        NODE_TRANSACTIONS.put("RequestAccountRecoveryOperation",
+                "f68585abf4dce9c8045701180764657a3133333706737465656d6a010000000001026f6231b8ed1c5e964b42967759757f8bb879d68e7b09d9ea6eedec21de6fa4c401000000011c64dca26c66c15e1ae1f9d6f3f2c94b9189ac9e46adc309deda2a8570c253492f0dddd864b72a0dc3c48842f46866127c43d4a298644ca70787655aa0281ae779");
+        NODE_TRANSACTIONS.put("ResetAccountOperation",
+                "f68585abf4dce7c8045701250764657a3133333706737465656d6a010000000001026f6231b8ed1c5e964b42967759757f8bb879d68e7b09d9ea6eedec21de6fa4c4010000011c79f3dfadf424b2f5b7eb5e49b1ea559b1f5f3efec747df108abf75e34313dd15046d7c1645755b215395cc7d8a04b72aabdffbfdcb77bbbe4bd2501aeb453fb2");
+        NODE_TRANSACTIONS.put("SetResetAccountOperation",
+                "f68585abf4dcebc8045701260764657a313333370006737465656d6a00011b7d16fb4917505355d0ae04ceab7aa063904b692c321c850fed56a6bedd86967f2f225260e699a5ec23984b03d81824e8ff0ba0a16164e03a730b5575f87f1097");
+        NODE_TRANSACTIONS.put("SetWithdrawVestingRouteOperation",
+                "f68585abf4dce8c8045701140764657a3133333706737465656d6a10270100011c30579bb23bc91cd01af4c54820dc3d76573cfb2a2973871ae5bd2824b9811c1017ae23d98f135d79418db21933727df866013321794b388ad29f96154d28bddc");
+        NODE_TRANSACTIONS.put("TransferFromSavingsOperation",
+                "f68585abf4dcf0c8045701210764657a313333374b02000006737465656d6a54dd00000000000003535445454d00000000011b40a2fc29dcdcf61408e6b5fbc8ec5280c3ec511161b7c40c4675f358352cc452661c770dadf8cafae320356b7c705cfbeaedfc64b3e0f45173ecd8f5966a5f15");
+        NODE_TRANSACTIONS.put("TransferOperation",
+                "f68585abf4dce7c8045701020764657a313333370764657a31333337010000000000000003535445454d00001354657374203420537465656d4a20302e322e3200011c0b8e4977d4f049050219ea8d3d1078be7cba2e25341f5b0678c749799191ba7c75f5693cbe955c4a1cfeef1866084dd40509ef5a9cb7d706fa6493cc86fe5fd7");
+        NODE_TRANSACTIONS.put("TransferToSavingsOperation",
+                "f68585abf4dce7c8045701200764657a3133333706737465656d6a54dd00000000000003535445454d00000000011b64310c9be405a03053f120109e01557a51b33858f84d96068d208b22c1c0e0352073e075f6dbb5c057abe8639fc8a7ed8fe539237e8d22e6e921226c4fd4d1ab");
+        NODE_TRANSACTIONS.put("TransferToVestingOperation",
+                "f68585abf4dce7c8045701030764657a313333370764657a31333337010000000000000003535445454d000000011b45762246b1f9df3c35294487ca772a5d685a9846eb0d5472ee643da66b94d3461b49fbfa326cb108be041174ca3d9443990572b0ac1de38ea3914b179aaffbca");
+        NODE_TRANSACTIONS.put("VoteOperation",
+                "f68585abf4dce8c8045701000764657a313333370764657a3133333728737465656d6a2d76302d322d342d6861732d6265656e2d72656c65617365642d7570646174652d39e80300011b2c91031ff0d1e1e56607644da79f7c837af4f23415519babeea2061538aed5461e15475edaa2d7ee61346936ca276ed0a1444464cd25e947956ba9f15496e28a");
+        NODE_TRANSACTIONS.put("WithdrawVestingOperation",
+                "f68585abf4dceac8045701040764657a31333337e803000000000000065645535453000000011c2817dec23e56b20d80b43e7df37fd4b56b378a12e84ddf85ead3310798abed6d6d680300b7a9e8a2a1732f3cffd0d12589a8144e0e4344e7b08c94a80b913372");
+        NODE_TRANSACTIONS.put("WitnessUpdateOperation",
+                "f68585abf4dcebc80457010b0764657a313333371c68747470733a2f2f737465656d69742e636f6d2f4064657a3133333702e5127bd7d41f01d9981a5a2c2524a60706040bbec8838a39719550ea25071000881300000000000003535445454d0000000001000000010000000000000003535445454d000000011c2125f9ad6d2a0a9b5f75ee042f71d44029f361df17be8da017f784b75ebe33152404af3e11c1e2ed853e0e85a58fc9cea4cc9f2d17803766edd5d917a9b21081");
+    }
+
+    /**
+     * Test that the transactions serialized by a Steem Node are decoded into
+     * the expected operations and serialized to exactly the same HEX String
+     * again.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testNodeTransactions() throws Exception {
+        for (Entry<String, String> nodeTransaction : NODE_TRANSACTIONS.entrySet()) {
+            SignedTransaction signedTransaction = TransactionDecoder.decodeTransaction(nodeTransaction.getValue());
+
+            assertThat(signedTransaction.getOperations().get(0).getClass().getSimpleName(),
+                    equalTo(nodeTransaction.getKey()));
+            assertThat(signedTransaction.toHex(), equalTo(nodeTransaction.getValue()));
+        }
+    }
+
+    /**
+     * Test that a signed transaction keeps its fields and signatures.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testSignedTransaction() throws Exception {
+        EscrowTransferOperation escrowTransferOperation = new EscrowTransferOperation(new AccountName("dez1337"),
+                new AccountName("steemj"), new AccountName("good-karma"), 34, new Asset(1, AssetSymbolType.SBD),
+                new Asset(2, AssetSymbolType.STEEM), new Asset(3, AssetSymbolType.STEEM),
+                new TimePointSec(1500000000000L), new TimePointSec(1500003600000L), "{\"a\":\"\u00e4\"}");
+        SignedTransaction signedTransaction = new SignedTransaction(REF_BLOCK_NUM, REF_BLOCK_PREFIX,
+                new TimePointSec(EXPIRATION_DATE_AS_TIMESTAMP),
+                new ArrayList<Operation>(Arrays.asList(escrowTransferOperation)), null);
+        signedTransaction.sign();
+
+        SignedTransaction decodedTransaction = TransactionDecoder.decodeTransaction(signedTransaction.toHex());
+
+        assertThat(decodedTransaction.toHex(), equalTo(signedTransaction.toHex()));
+        assertThat(decodedTransaction.getRefBlockNum(), equalTo(REF_BLOCK_NUM));
+        assertThat(decodedTransaction.getRefBlockPrefix(), equalTo(REF_BLOCK_PREFIX));
+        assertThat(decodedTransaction.getExpirationDate().getDateTimeAsTimestamp(),
+                equalTo(signedTransaction.getExpirationDate().getDateTimeAsTimestamp()));
+        assertThat(decodedTransaction.getSignatures(), equalTo(signedTransaction.getSignatures()));
+
+        EscrowTransferOperation decodedOperation = (EscrowTransferOperation) decodedTransaction.getOperations()
+                .get(0);
+        assertThat(decodedOperation.getTo(), equalTo(new AccountName("steemj")));
+        assertThat(decodedOperation.getEscrowId(), equalTo(34));
+        assertThat(decodedOperation.getSbdAmount(), equalTo(new Asset(1, AssetSymbolType.SBD)));
+        assertThat(decodedOperation.getFee(), equalTo(new Asset(3, AssetSymbolType.STEEM)));
+        assertThat(decodedOperation.getEscrowExpirationDate().getDateTimeAsTimestamp(), equalTo(1500003600000L));
+        assertThat(decodedOperation.getJsonMeta(), equalTo("{\"a\":\"\u00e4\"}"));
+    }
+
+    /**
+     * Test that virtual operations, unsupported or unknown operation types and
+     * incomplete data are rejected.
+     */
+    @Test
+    public void testInvalidData() {
+        // Pow operation, unknown operation id and the fill convert request.
+        for (String operationHex : Arrays.asList("0e", "c801", "2a")) {
+            assertInvalid("0000" + "00000000" + "00000000" + "01" + operationHex + "00" + "00");
+        }
+
+        String voteTransaction = NODE_TRANSACTIONS.get("VoteOperation");
+        assertInvalid(voteTransaction.substring(0, voteTransaction.length() - 2));
+        assertInvalid(voteTransaction + "00");
+        assertInvalid("zz");
+    }
+
+    /**
+     * Assert that the given HEX String can not be decoded.
+     *
+     * @param transactionHex
+     *            The HEX String.
+     */
+    private static void assertInvalid(String transactionHex) {
+        try {
+            TransactionDecoder.decodeTransaction(transactionHex);
+            fail("The transaction " + transactionHex + " should have been rejected.");
+        } catch (SteemInvalidTransactionException e) {
+            // Expected.
+        }
+    }
+}
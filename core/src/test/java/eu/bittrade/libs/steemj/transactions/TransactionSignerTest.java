@@ -0,0 +1,148 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.BaseTest;
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.Authority;
+import eu.bittrade.libs.steemj.base.models.Permlink;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.TimePointSec;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.base.models.operations.VoteOperation;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+import eu.bittrade.libs.steemj.interfaces.SignatureObject;
+
+/**
+ * Test the {@link TransactionSigner}.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionSignerTest extends BaseTest {
+    private static final String PRIVATE_POSTING_KEY = "5KQwrPbwdL6PhXujxW37FSSQZ1JiwsST4cqQzDeyXtP79zkvFD3";
+    private static final long EXPIRATION_DATE_AS_TIMESTAMP = System.currentTimeMillis() + 1800000L;
+
+    /**
+     * Prepare the environment for the test execution.
+     */
+    @BeforeClass
+    public static void init() {
+        List<ImmutablePair<PrivateKeyType, String>> privateKeys = new ArrayList<>();
+        privateKeys.add(new ImmutablePair<>(PrivateKeyType.POSTING, PRIVATE_POSTING_KEY));
+
+        SteemJConfig.getInstance().getPrivateKeyStorage().addAccount(new AccountName("dez1337"), privateKeys);
+        SteemJConfig.getInstance().getPrivateKeyStorage().addAccount(new AccountName("steemj"), privateKeys);
+    }
+
+    /**
+     * Test that transactions signed in parallel get the same signatures as
+     * transactions signed one after another and that a transaction without
+     * keys does not affect the others.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testSignAll() throws Exception {
+        List<SignedTransaction> transactions = new ArrayList<>();
+        List<SignedTransaction> expectedTransactions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String voter = (i % 2 == 0) ? "dez1337" : "steemj";
+            transactions.add(createVote(voter, i));
+            expectedTransactions.add(createVote(voter, i));
+        }
+        transactions.add(createVote("unknown", 0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<SigningResult> results;
+        try {
+            results = new TransactionSigner(executor).signAll(transactions);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(results.size(), equalTo(transactions.size()));
+        for (int i = 0; i < expectedTransactions.size(); i++) {
+            expectedTransactions.get(i).sign();
+
+            assertThat(results.get(i).isSuccessful(), equalTo(true));
+            assertThat(results.get(i).getTransaction(), equalTo(transactions.get(i)));
+            assertThat(results.get(i).getTransaction().getSignatures(),
+                    equalTo(expectedTransactions.get(i).getSignatures()));
+        }
+
+        SigningResult failedResult = results.get(results.size() - 1);
+        assertThat(failedResult.isSuccessful(), equalTo(false));
+        assertThat(failedResult.getException(), instanceOf(SteemInvalidTransactionException.class));
+        assertThat(failedResult.getTransaction().getSignatures().isEmpty(), equalTo(true));
+    }
+
+    /**
+     * Test that a transaction that requires the signature of an authority
+     * fails instead of being signed only partially.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testAuthorityIsNotSupported() throws Exception {
+        Operation vote = new VoteOperation(new AccountName("dez1337"), new AccountName("steemj"),
+                new Permlink("steemj-authority"), (short) 10000) {
+            @Override
+            public Map<SignatureObject, PrivateKeyType> getRequiredAuthorities(
+                    Map<SignatureObject, PrivateKeyType> requiredAuthoritiesBase) {
+                Map<SignatureObject, PrivateKeyType> requiredAuthorities = super.getRequiredAuthorities(
+                        requiredAuthoritiesBase);
+                requiredAuthorities.put(new Authority(), PrivateKeyType.ACTIVE);
+                return requiredAuthorities;
+            }
+        };
+        SignedTransaction transaction = new SignedTransaction(REF_BLOCK_NUM, REF_BLOCK_PREFIX,
+                new TimePointSec(EXPIRATION_DATE_AS_TIMESTAMP), new ArrayList<>(Arrays.asList(vote)), null);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<SigningResult> results;
+        try {
+            results = new TransactionSigner(executor).signAll(Arrays.asList(transaction, createVote("dez1337", 0)));
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(results.get(0).isSuccessful(), equalTo(false));
+        assertThat(results.get(0).getException(), instanceOf(SteemInvalidTransactionException.class));
+        assertThat(transaction.getSignatures().isEmpty(), equalTo(true));
+        assertThat(results.get(1).isSuccessful(), equalTo(true));
+    }
+
+    /**
+     * Create a transaction containing a single vote.
+     *
+     * @param voter
+     *            The account that votes.
+     * @param index
+     *            Used to create a different permlink for each transaction.
+     * @return The transaction.
+     */
+    private static SignedTransaction createVote(String voter, int index) {
+        Operation vote = new VoteOperation(new AccountName(voter), new AccountName("steemj"),
+                new Permlink("steemj-" + index), (short) 10000);
+
+        return new SignedTransaction(REF_BLOCK_NUM, REF_BLOCK_PREFIX, new TimePointSec(EXPIRATION_DATE_AS_TIMESTAMP),
+                new ArrayList<>(Arrays.asList(vote)), null);
+    }
+}
@@ -0,0 +1,148 @@
+package eu.bittrade.libs.steemj.transactions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.bitcoinj.core.ECKey;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.BaseTest;
+import eu.bittrade.libs.steemj.base.models.AccountName;
+import eu.bittrade.libs.steemj.base.models.Permlink;
+import eu.bittrade.libs.steemj.base.models.PublicKey;
+import eu.bittrade.libs.steemj.base.models.SignedBlock;
+import eu.bittrade.libs.steemj.base.models.SignedTransaction;
+import eu.bittrade.libs.steemj.base.models.TimePointSec;
+import eu.bittrade.libs.steemj.base.models.operations.Operation;
+import eu.bittrade.libs.steemj.base.models.operations.VoteOperation;
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+import eu.bittrade.libs.steemj.enums.PrivateKeyType;
+import eu.bittrade.libs.steemj.enums.ValidationType;
+
+/**
+ * Test the {@link TransactionVerifier}.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class TransactionVerifierTest extends BaseTest {
+    private static final String PRIVATE_POSTING_KEY = "5KQwrPbwdL6PhXujxW37FSSQZ1JiwsST4cqQzDeyXtP79zkvFD3";
+    private static final long EXPIRATION_DATE_AS_TIMESTAMP = System.currentTimeMillis() + 1800000L;
+
+    /**
+     * Prepare the environment for the test execution.
+     */
+    @BeforeClass
+    public static void init() {
+        List<ImmutablePair<PrivateKeyType, String>> privateKeys = new ArrayList<>();
+        privateKeys.add(new ImmutablePair<>(PrivateKeyType.POSTING, PRIVATE_POSTING_KEY));
+
+        SteemJConfig.getInstance().getPrivateKeyStorage().addAccount(new AccountName("dez1337"), privateKeys);
+    }
+
+    /**
+     * Test that the keys of all transactions of a block are recovered and
+     * that a transaction with a broken signature does not affect the others.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testVerifyAll() throws Exception {
+        final List<SignedTransaction> blockTransactions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            SignedTransaction transaction = createVote(i);
+            transaction.sign();
+            blockTransactions.add(transaction);
+        }
+
+        SignedTransaction brokenTransaction = createVote(10);
+        brokenTransaction.getSignatures().add("1f");
+        blockTransactions.add(brokenTransaction);
+
+        SignedBlock block = new SignedBlock() {
+            {
+                this.transactions = blockTransactions;
+            }
+        };
+
+        ECKey privateKey = SteemJConfig.getInstance().getPrivateKeyStorage().getKeyForAccount(PrivateKeyType.POSTING,
+                new AccountName("dez1337"));
+        List<PublicKey> expectedKeys = Arrays.asList(new PublicKey(ECKey.fromPublicOnly(privateKey.getPubKey())));
+
+        List<VerificationResult> results = new TransactionVerifier().verifyAll(block);
+
+        assertThat(results.size(), equalTo(blockTransactions.size()));
+        for (int i = 0; i < blockTransactions.size() - 1; i++) {
+            assertThat(results.get(i).isSuccessful(), equalTo(true));
+            assertThat(results.get(i).getTransaction(), equalTo(blockTransactions.get(i)));
+            assertThat(results.get(i).getSignatureKeys(), equalTo(expectedKeys));
+        }
+
+        VerificationResult failedResult = results.get(results.size() - 1);
+        assertThat(failedResult.isSuccessful(), equalTo(false));
+        assertThat(failedResult.getSignatureKeys(), nullValue());
+    }
+
+    /**
+     * Test that the signatures of a transaction are verified as they are,
+     * without validating its operations again.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testVerifyWithoutValidation() throws Exception {
+        Operation vote = new VoteOperation(new AccountName("dez1337"), new AccountName("steemj"),
+                new Permlink("steemj-invalid"), (short) 10000) {
+            @Override
+            public void validate(ValidationType validationType) {
+                if (!ValidationType.SKIP_VALIDATION.equals(validationType)) {
+                    throw new InvalidParameterException("This operation is never valid.");
+                }
+            }
+        };
+        SignedTransaction transaction = new SignedTransaction(REF_BLOCK_NUM, REF_BLOCK_PREFIX,
+                new TimePointSec(EXPIRATION_DATE_AS_TIMESTAMP), new ArrayList<>(Arrays.asList(vote)), null);
+
+        ValidationType validationLevel = SteemJConfig.getInstance().getValidationLevel();
+        try {
+            SteemJConfig.getInstance().setValidationLevel(ValidationType.SKIP_VALIDATION);
+            transaction.sign();
+        } finally {
+            SteemJConfig.getInstance().setValidationLevel(validationLevel);
+        }
+
+        ECKey privateKey = SteemJConfig.getInstance().getPrivateKeyStorage().getKeyForAccount(PrivateKeyType.POSTING,
+                new AccountName("dez1337"));
+
+        List<VerificationResult> results = new TransactionVerifier().verifyAll(Arrays.asList(transaction),
+                SteemJConfig.getInstance().getChainId());
+
+        assertThat(results.get(0).isSuccessful(), equalTo(true));
+        assertThat(results.get(0).getSignatureKeys(),
+                equalTo(Arrays.asList(new PublicKey(ECKey.fromPublicOnly(privateKey.getPubKey())))));
+    }
+
+    /**
+     * Create a transaction containing a single vote.
+     *
+     * @param index
+     *            Used to create a different permlink for each transaction.
+     * @return The transaction.
+     */
+    private static SignedTransaction createVote(int index) {
+        Operation vote = new VoteOperation(new AccountName("dez1337"), new AccountName("steemj"),
+                new Permlink("steemj-" + index), (short) 10000);
+
+        return new SignedTransaction(REF_BLOCK_NUM, REF_BLOCK_PREFIX, new TimePointSec(EXPIRATION_DATE_AS_TIMESTAMP),
+                new ArrayList<>(Arrays.asList(vote)), null);
+    }
+}
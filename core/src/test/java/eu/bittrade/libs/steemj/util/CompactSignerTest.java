@@ -0,0 +1,108 @@
+package eu.bittrade.libs.steemj.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.ECKey.ECDSASignature;
+import org.bitcoinj.core.Sha256Hash;
+import org.junit.Test;
+
+/**
+ * Test the {@link CompactSigner} against the signatures and recovery ids
+ * created by bitcoinj.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class CompactSignerTest {
+    /**
+     * Test that the signatures are bit-identical to the ones created by
+     * {@link ECKey#sign(Sha256Hash)} combined with
+     * {@link SteemJUtils#getKeyType(ECDSASignature, Sha256Hash, ECKey)}.
+     */
+    @Test
+    public void testSignaturesMatchBitcoinj() {
+        for (int i = 0; i < 20; i++) {
+            ECKey privateKey = new ECKey();
+            CompactSigner signer = new CompactSigner(privateKey);
+
+            for (int j = 0; j < 5; j++) {
+                Sha256Hash messageHash = Sha256Hash.of(("steemj-" + i + "-" + j).getBytes());
+
+                ECDSASignature signature = privateKey.sign(messageHash);
+                int recoveryId = SteemJUtils.getKeyType(signature, messageHash, privateKey);
+
+                assertThat(signer.sign(messageHash),
+                        equalTo(SteemJUtils.createSignedTransaction(recoveryId, signature, privateKey)));
+            }
+        }
+    }
+
+    /**
+     * Test that the extra entropy mode only returns canonical signatures that
+     * are deterministic and recover to the signing key.
+     */
+    @Test
+    public void testSignCanonical() {
+        long numberOfSignatures = CompactSigner.getNumberOfSignatures();
+
+        for (int i = 0; i < 20; i++) {
+            ECKey privateKey = new ECKey();
+            CompactSigner signer = new CompactSigner(privateKey);
+            Sha256Hash messageHash = Sha256Hash.of(("steemj-" + i).getBytes());
+
+            byte[] signature = signer.signCanonical(messageHash);
+            assertThat(CompactSigner.isCanonical(signature), equalTo(true));
+            assertThat(signer.signCanonical(messageHash), equalTo(signature));
+
+            ECDSASignature ecdsaSignature = new ECDSASignature(new BigInteger(1, Arrays.copyOfRange(signature, 1, 33)),
+                    new BigInteger(1, Arrays.copyOfRange(signature, 33, 65)));
+            ECKey recoveredKey = ECKey.recoverFromSignature(signature[0] - 27 - 4, ecdsaSignature, messageHash,
+                    true);
+            assertThat(recoveredKey.getPubKeyPoint(), equalTo(privateKey.getPubKeyPoint()));
+        }
+
+        assertThat(CompactSigner.getNumberOfSignatures() >= numberOfSignatures + 40, equalTo(true));
+    }
+
+    /**
+     * Test the canonical check against the rule used by the Steem Nodes.
+     */
+    @Test
+    public void testIsCanonical() {
+        byte[] signature = new byte[65];
+        Arrays.fill(signature, (byte) 0x11);
+        assertThat(CompactSigner.isCanonical(signature), equalTo(true));
+
+        // The header byte is not part of the check.
+        signature[0] = (byte) 0xFF;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(true));
+
+        signature[1] = (byte) 0x80;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(false));
+
+        // A leading zero byte is only allowed if the next byte is negative.
+        signature[1] = 0x00;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(false));
+        signature[2] = (byte) 0x80;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(true));
+
+        signature[33] = (byte) 0x80;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(false));
+        signature[33] = 0x00;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(false));
+        signature[34] = (byte) 0x80;
+        assertThat(CompactSigner.isCanonical(signature), equalTo(true));
+    }
+
+    /**
+     * Test that a key without a private part is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testPublicKeyOnly() {
+        new CompactSigner(ECKey.fromPublicOnly(new ECKey().getPubKeyPoint()));
+    }
+}
@@ -0,0 +1,54 @@
+package eu.bittrade.libs.steemj.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.exceptions.SteemCommunicationException;
+import eu.bittrade.libs.steemj.exceptions.SteemTimeoutException;
+
+/**
+ * Test some specific methods of the {@link FutureUtils} class.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class FutureUtilsTest {
+    /**
+     * Test if the {@link FutureUtils#getFirstResult(CompletableFuture)} method
+     * returns the first element of the list.
+     *
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test
+    public void testGetFirstResult() throws SteemCommunicationException {
+        CompletableFuture<List<String>> results = new CompletableFuture<>();
+        CompletableFuture<String> firstResult = FutureUtils.getFirstResult(results);
+
+        results.complete(Arrays.asList("dez1337", "steemj"));
+
+        assertThat(FutureUtils.await(firstResult), equalTo("dez1337"));
+    }
+
+    /**
+     * Test if the {@link FutureUtils#await(CompletableFuture)} method throws
+     * the original exception of a failed future.
+     *
+     * @throws SteemCommunicationException
+     *             If something went wrong.
+     */
+    @Test(expected = SteemTimeoutException.class)
+    public void testAwaitUnwrapsException() throws SteemCommunicationException {
+        CompletableFuture<List<String>> results = new CompletableFuture<>();
+        CompletableFuture<String> firstResult = FutureUtils.getFirstResult(results);
+
+        results.completeExceptionally(new SteemTimeoutException("Timeout"));
+
+        FutureUtils.await(firstResult);
+    }
+}
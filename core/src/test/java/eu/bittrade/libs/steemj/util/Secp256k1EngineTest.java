@@ -0,0 +1,89 @@
+package eu.bittrade.libs.steemj.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.math.BigInteger;
+
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.ECKey.ECDSASignature;
+import org.bitcoinj.core.Sha256Hash;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongycastle.math.ec.ECPoint;
+
+import eu.bittrade.libs.steemj.configuration.SteemJConfig;
+
+/**
+ * Test that the {@link Secp256k1Engine} calculates the same results as
+ * bitcoinj.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class Secp256k1EngineTest {
+    /**
+     * Enable the engine for each test.
+     */
+    @Before
+    public void enableEngine() {
+        SteemJConfig.getInstance().setFastSignatureEngineEnabled(true);
+    }
+
+    /**
+     * Restore the default configuration.
+     */
+    @After
+    public void disableEngine() {
+        SteemJConfig.getInstance().setFastSignatureEngineEnabled(false);
+    }
+
+    /**
+     * Test that multiplications of the generator and signatures do not change
+     * if the engine is enabled.
+     */
+    @Test
+    public void testSignaturesMatchBitcoinj() {
+        for (int i = 0; i < 20; i++) {
+            ECKey privateKey = new ECKey();
+            Sha256Hash messageHash = Sha256Hash.of(("steemj-" + i).getBytes());
+
+            assertThat(Secp256k1Engine.multiplyGenerator(privateKey.getPrivKey()),
+                    equalTo(privateKey.getPubKeyPoint()));
+
+            ECDSASignature signature = privateKey.sign(messageHash);
+            int recoveryId = SteemJUtils.getKeyType(signature, messageHash, privateKey);
+            assertThat(new CompactSigner(privateKey).sign(messageHash),
+                    equalTo(SteemJUtils.createSignedTransaction(recoveryId, signature, privateKey)));
+        }
+    }
+
+    /**
+     * Test that public keys are recovered like bitcoinj does and that valid
+     * signatures are accepted while modified ones are rejected.
+     */
+    @Test
+    public void testVerifyAndRecover() {
+        for (int i = 0; i < 20; i++) {
+            ECKey privateKey = new ECKey();
+            ECPoint publicKey = privateKey.getPubKeyPoint();
+            Sha256Hash messageHash = Sha256Hash.of(("steemj-" + i).getBytes());
+            ECDSASignature signature = privateKey.sign(messageHash);
+
+            for (int recoveryId = 0; recoveryId < 4; recoveryId++) {
+                ECKey expectedKey = ECKey.recoverFromSignature(recoveryId, signature, messageHash, true);
+                ECPoint recoveredKey = Secp256k1Engine.recoverPublicKey(recoveryId, signature.r, signature.s,
+                        messageHash);
+
+                assertThat(recoveredKey, equalTo(expectedKey == null ? null : expectedKey.getPubKeyPoint()));
+            }
+
+            assertThat(Secp256k1Engine.verify(messageHash, signature.r, signature.s, publicKey), equalTo(true));
+            assertThat(Secp256k1Engine.verify(messageHash, signature.r, signature.s.add(BigInteger.ONE), publicKey),
+                    equalTo(false));
+            assertThat(Secp256k1Engine.verify(Sha256Hash.of(messageHash.getBytes()), signature.r, signature.s,
+                    publicKey), equalTo(false));
+            assertThat(Secp256k1Engine.verify(messageHash, BigInteger.ZERO, signature.s, publicKey), equalTo(false));
+        }
+    }
+}
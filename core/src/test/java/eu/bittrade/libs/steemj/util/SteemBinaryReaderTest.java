@@ -0,0 +1,94 @@
+package eu.bittrade.libs.steemj.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.Test;
+
+import eu.bittrade.libs.steemj.exceptions.SteemInvalidTransactionException;
+
+/**
+ * Test that the {@link SteemBinaryReader} reads the values written by the
+ * {@link SteemBinaryWriter}.
+ *
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class SteemBinaryReaderTest {
+    /**
+     * Test that all value types are read in the order they have been written.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test
+    public void testReadWrittenValues() throws Exception {
+        int[] intValues = { 0, 1, 127, 128, 300, 16384, Integer.MAX_VALUE };
+        long[] longValues = { 0L, 127L, 128L, 2097152L, Long.MAX_VALUE, -1L };
+
+        SteemBinaryWriter writer = new SteemBinaryWriter();
+        writer.writeShort(0xFFFE).writeInt(-2).writeLong(-1234567890123L).writeBoolean(true).writeByte(0xF0);
+        for (int intValue : intValues) {
+            writer.writeVarInt(intValue);
+        }
+        for (long longValue : longValues) {
+            writer.writeVarLong(longValue);
+        }
+        writer.writeString("stäämj").writeString("").writeInt(-2);
+
+        SteemBinaryReader reader = new SteemBinaryReader(writer.toByteArray());
+        assertThat(reader.readShort(), equalTo(0xFFFE));
+        assertThat(reader.readInt(), equalTo(-2));
+        assertThat(reader.readLong(), equalTo(-1234567890123L));
+        assertThat(reader.readBoolean(), equalTo(true));
+        assertThat(reader.readByte(), equalTo(0xF0));
+        for (int intValue : intValues) {
+            assertThat(reader.readVarInt(), equalTo(intValue));
+        }
+        for (long longValue : longValues) {
+            assertThat(reader.readVarLong(), equalTo(longValue));
+        }
+        assertThat(reader.readString(), equalTo("stäämj"));
+        assertThat(reader.readString(), equalTo(""));
+        assertThat(reader.readUnsignedInt(), equalTo(4294967294L));
+        assertThat(reader.remaining(), equalTo(0));
+    }
+
+    /**
+     * Test that reading beyond the end of the data is rejected.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test(expected = SteemInvalidTransactionException.class)
+    public void testReadBeyondEnd() throws Exception {
+        SteemBinaryReader reader = new SteemBinaryReader(new byte[] { 0x05, 0x61, 0x62 });
+        reader.readString();
+    }
+
+    /**
+     * Test that a VarInt that does not fit into an int is rejected.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test(expected = SteemInvalidTransactionException.class)
+    public void testVarIntTooLarge() throws Exception {
+        SteemBinaryWriter writer = new SteemBinaryWriter();
+        writer.writeVarLong(Integer.MAX_VALUE + 1L);
+        new SteemBinaryReader(writer.toByteArray()).readVarInt();
+    }
+
+    /**
+     * Test that a VarInt that is negative when read as long is rejected
+     * instead of being used as a length.
+     *
+     * @throws Exception
+     *             If something went wrong.
+     */
+    @Test(expected = SteemInvalidTransactionException.class)
+    public void testNegativeVarInt() throws Exception {
+        SteemBinaryWriter writer = new SteemBinaryWriter();
+        writer.writeVarLong(-1L);
+        new SteemBinaryReader(writer.toByteArray()).readVarInt();
+    }
+}
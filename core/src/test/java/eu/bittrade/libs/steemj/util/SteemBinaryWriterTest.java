@@ -0,0 +1,112 @@
+package eu.bittrade.libs.steemj.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.Arrays;
+
+import org.bitcoinj.core.Sha256Hash;
+import org.junit.Test;
+
+/**
+ * Test the {@link SteemBinaryWriter} against the existing transformation
+ * methods of the {@link SteemJUtils} class.
+ * 
+ * @author <a href="http://steemit.com/@dez1337">dez1337</a>
+ */
+public class SteemBinaryWriterTest {
+    /**
+     * Test that fixed size values are written in little endian byte order.
+     */
+    @Test
+    public void testFixedSizeValues() {
+        SteemBinaryWriter writer = new SteemBinaryWriter(1);
+        writer.writeShort(0x1234).writeInt(-2).writeLong(1234567890123L).writeBoolean(true).writeByte(0x7F);
+
+        byte[] expected = concat(SteemJUtils.transformShortToByteArray(0x1234),
+                SteemJUtils.transformIntToByteArray(-2), SteemJUtils.transformLongToByteArray(1234567890123L),
+                SteemJUtils.transformBooleanToByteArray(true), new byte[] { 0x7F });
+
+        assertThat(writer.size(), equalTo(expected.length));
+        assertThat(writer.toByteArray(), equalTo(expected));
+    }
+
+    /**
+     * Test that VarInts and Strings are encoded like before.
+     */
+    @Test
+    public void testVarIntsAndStrings() {
+        int[] intValues = { 0, 1, 127, 128, 300, 16384, Integer.MAX_VALUE, -1 };
+        long[] longValues = { 0L, 127L, 128L, 2097152L, Long.MAX_VALUE };
+
+        SteemBinaryWriter writer = new SteemBinaryWriter();
+        for (int intValue : intValues) {
+            writer.reset();
+            writer.writeVarInt(intValue);
+            assertThat(writer.toByteArray(), equalTo(SteemJUtils.transformIntToVarIntByteArray(intValue)));
+        }
+
+        for (long longValue : longValues) {
+            writer.reset();
+            writer.writeVarLong(longValue);
+            assertThat(writer.toByteArray(), equalTo(SteemJUtils.transformLongToVarIntByteArray(longValue)));
+        }
+
+        writer.reset();
+        writer.writeVarInt(300);
+        assertThat(writer.toByteArray(), equalTo(new byte[] { (byte) 0xAC, 0x02 }));
+
+        writer.reset();
+        writer.writeString("steemj").writeString(null);
+        assertThat(writer.toByteArray(), equalTo(SteemJUtils.transformStringToVarIntByteArray("steemj")));
+    }
+
+    /**
+     * Test that a writer created for a digest calculates the same hash as
+     * hashing the binary representation, also if its buffer has to be flushed
+     * several times.
+     */
+    @Test
+    public void testDigest() {
+        byte[] largeArray = new byte[1000];
+        Arrays.fill(largeArray, (byte) 0x42);
+
+        SteemBinaryWriter writer = new SteemBinaryWriter();
+        SteemBinaryWriter digestWriter = new SteemBinaryWriter(Sha256Hash.newDigest());
+        for (SteemBinaryWriter currentWriter : Arrays.asList(writer, digestWriter)) {
+            for (int i = 0; i < 100; i++) {
+                currentWriter.writeLong(i).writeString("steemj");
+            }
+            currentWriter.write(largeArray).writeVarInt(300);
+        }
+
+        assertThat(digestWriter.size(), equalTo(writer.size()));
+        assertThat(digestWriter.digest(), equalTo(Sha256Hash.hash(writer.toByteArray())));
+        assertThat(digestWriter.size(), equalTo(0));
+    }
+
+    /**
+     * Test that the bytes of a writer created for a digest can not be
+     * requested.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testDigestWriterToByteArray() {
+        new SteemBinaryWriter(Sha256Hash.newDigest()).writeByte(1).toByteArray();
+    }
+
+    /**
+     * Concatenate the given arrays.
+     * 
+     * @param arrays
+     *            The arrays to concatenate.
+     * @return The concatenated array.
+     */
+    private static byte[] concat(byte[]... arrays) {
+        SteemBinaryWriter writer = new SteemBinaryWriter();
+        for (byte[] array : arrays) {
+            writer.write(array);
+        }
+
+        return writer.toByteArray();
+    }
+}